@@ -65,6 +65,13 @@ public class GenerateMojo extends AbstractMojo {
      */
     private boolean decimal;
 
+    /**
+     * Enable fixed-point decimal representation. Takes precedence over decimal.
+     *
+     * @parameter default-value="false"
+     */
+    private boolean fixedDecimal;
+
     /**
      * Enable orderedFields.
      *
@@ -72,6 +79,22 @@ public class GenerateMojo extends AbstractMojo {
      */
     private boolean orderedFields;
 
+    /**
+     * Generate a MessageValidator for the dictionary.
+     *
+     * @parameter default-value="false"
+     */
+    private boolean generateValidator;
+
+    /**
+     * The dictionary the MessageValidator is generated from, if it is not the dictFile.
+     * It has to be the data dictionary of the sessions, e.g. FIX44.xml when the messages
+     * are generated from FIX44.modified.xml.
+     *
+     * @parameter
+     */
+    private File validatorDictFile;
+
     /**
      * The package for the generated source.
      *
@@ -146,6 +169,15 @@ public class GenerateMojo extends AbstractMojo {
             task.setOverwrite(true);
             task.setOrderedFields(orderedFields);
             task.setDecimalGenerated(decimal);
+            task.setFixedDecimalGenerated(fixedDecimal);
+            task.setValidatorGenerated(generateValidator);
+            if (validatorDictFile != null) {
+                if (!validatorDictFile.exists()) {
+                    getLog().error("Cannot find file " + validatorDictFile);
+                    throw new MojoExecutionException("File could not be found!");
+                }
+                task.setValidatorSpecification(validatorDictFile);
+            }
             generator.generate(task);
         } catch (Throwable t) {
             throw new MojoExecutionException("QuickFIX code generator execution failed", t);
@@ -273,6 +305,25 @@ public class GenerateMojo extends AbstractMojo {
         this.decimal = decimal;
     }
 
+    /**
+     * Returns if fixed-point decimals have been enabled.
+     *
+     * @return true if fixed-point decimals have been enabled.
+     */
+    public boolean isFixedDecimal() {
+        return fixedDecimal;
+    }
+
+    /**
+     * Enables fixed-point decimal usage during code generation.
+     *
+     * @param fixedDecimal if true, then price, quantity and amount fields are
+     *                     generated as FixedDecimalFields.
+     */
+    public void setFixedDecimal(boolean fixedDecimal) {
+        this.fixedDecimal = fixedDecimal;
+    }
+
     /**
      * Returns if ordered fields have been enabled.
      *
@@ -291,6 +342,42 @@ public class GenerateMojo extends AbstractMojo {
         this.orderedFields = orderedFields;
     }
 
+    /**
+     * Returns if the generation of a MessageValidator has been enabled.
+     *
+     * @return true if a MessageValidator is generated; false otherwise.
+     */
+    public boolean isGenerateValidator() {
+        return generateValidator;
+    }
+
+    /**
+     * Enables the generation of a MessageValidator.
+     *
+     * @param generateValidator if true, then a MessageValidator is generated.
+     */
+    public void setGenerateValidator(boolean generateValidator) {
+        this.generateValidator = generateValidator;
+    }
+
+    /**
+     * Returns the dictionary the MessageValidator is generated from.
+     *
+     * @return the dictionary the MessageValidator is generated from, or null if it is the dictFile.
+     */
+    public File getValidatorDictFile() {
+        return validatorDictFile;
+    }
+
+    /**
+     * Sets the dictionary the MessageValidator is generated from.
+     *
+     * @param validatorDictFile the dictionary the MessageValidator is generated from.
+     */
+    public void setValidatorDictFile(File validatorDictFile) {
+        this.validatorDictFile = validatorDictFile;
+    }
+
     /**
      * Returns the default package to be used during field code generation.
      *
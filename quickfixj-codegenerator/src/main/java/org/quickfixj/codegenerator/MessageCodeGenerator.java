@@ -40,7 +40,10 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -59,9 +62,11 @@ import javax.xml.XMLConstants;
 public class MessageCodeGenerator {
 
     private static final String BIGDECIMAL_TYPE_OPTION = "generator.decimal";
+    private static final String FIXED_DECIMAL_TYPE_OPTION = "generator.fixedDecimal";
     private static final String ORDERED_FIELDS_OPTION = "generator.orderedFields";
     private static final String OVERWRITE_OPTION = "generator.overwrite";
     private static final String UTC_TIMESTAMP_PRECISION_OPTION = "generator.utcTimestampPrecision";
+    private static final String VALIDATOR_OPTION = "generator.validator";
 
     // An arbitrary serial UID which will have to be changed when messages and fields won't be compatible with next versions in terms
     // of java serialization.
@@ -110,6 +115,26 @@ public class MessageCodeGenerator {
         generateClassCode(task, "MessageCracker", null);
     }
 
+    private void generateMessageValidatorClass(Task task) throws ParserConfigurationException,
+            SAXException, IOException {
+        logInfo(task.getName() + ": generating message validator");
+        File outputFile = new File(task.getOutputBaseDirectory() + "/" + task.getMessageDirectory()
+                + "/MessageValidator.java");
+        File specification = task.getValidatorSpecification();
+        if (!isGenerationRequired(outputFile, task.isOverwrite(), specification.lastModified())) {
+            return;
+        }
+        Document document = specification.equals(task.getSpecification())
+                ? getSpecification(task)
+                : parseSpecification(specification);
+        MessageValidatorGenerator generator = new MessageValidatorGenerator(document,
+                task.getMessagePackage());
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new BufferedOutputStream(
+                new FileOutputStream(outputFile)), StandardCharsets.UTF_8))) {
+            generator.generate(out);
+        }
+    }
+
     private void generateClassCode(Task task, String className, Map<String, String> parameters)
             throws ParserConfigurationException, SAXException, IOException,
             TransformerFactoryConfigurationError,
@@ -156,7 +181,10 @@ public class MessageCodeGenerator {
                         }
                         parameters.put(utcTimestampPrecisionParameterName, utcTimestampPrecision);
                     }
-                    if (task.isDecimalGenerated()) {
+                    if (task.isFixedDecimalGenerated()) {
+                        parameters.put("decimalType", "long");
+                        parameters.put("decimalConverter", "FixedDecimal");
+                    } else if (task.isDecimalGenerated()) {
                         parameters.put("decimalType", "java.math.BigDecimal");
                         parameters.put("decimalConverter", "Decimal");
                     }
@@ -240,16 +268,21 @@ public class MessageCodeGenerator {
             IOException {
         Document document = specificationCache.get(task.getName());
         if (document == null) {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            document = builder.parse(task.getSpecification());
+            document = parseSpecification(task.getSpecification());
             specificationCache.put(task.getName(), document);
         }
         return document;
     }
 
+    private Document parseSpecification(File specification) throws ParserConfigurationException,
+            SAXException, IOException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        return builder.parse(specification);
+    }
+
     private void writePackageDocumentation(String outputDirectory, String description)
             throws FileNotFoundException {
         File packageDescription = new File(outputDirectory + "package.html");
@@ -297,21 +330,9 @@ public class MessageCodeGenerator {
         }
 
         File outputFile = new File(outputFileName);
-        if (!outputFile.getParentFile().exists()) {
-            outputFile.getParentFile().mkdirs();
-        }
-
-        if (outputFile.exists()) {
-            if (!task.isOverwrite()) {
-                return;
-            }
-            if (outputFile.lastModified() > task.getSpecificationLastModified()) {
-                logDebug("Skipping file " + outputFile.getName());
-                return;
-            }
+        if (!isGenerationRequired(task, outputFile)) {
+            return;
         }
-        logDebug("spec has mod " + task.getSpecificationLastModified() +
-                " output has mod " + outputFile.lastModified());
 
         DOMSource source = new DOMSource(document);
         FileOutputStream fos = new FileOutputStream(outputFile);
@@ -328,6 +349,29 @@ public class MessageCodeGenerator {
         }
     }
 
+    private boolean isGenerationRequired(Task task, File outputFile) {
+        return isGenerationRequired(outputFile, task.isOverwrite(), task.getSpecificationLastModified());
+    }
+
+    private boolean isGenerationRequired(File outputFile, boolean overwrite, long specificationLastModified) {
+        if (!outputFile.getParentFile().exists()) {
+            outputFile.getParentFile().mkdirs();
+        }
+
+        if (outputFile.exists()) {
+            if (!overwrite) {
+                return false;
+            }
+            if (outputFile.lastModified() > specificationLastModified) {
+                logDebug("Skipping file " + outputFile.getName());
+                return false;
+            }
+        }
+        logDebug("spec has mod " + specificationLastModified +
+                " output has mod " + outputFile.lastModified());
+        return true;
+    }
+
     /*
      * Generate the Message and Field related source code.
      */
@@ -339,6 +383,9 @@ public class MessageCodeGenerator {
             generateMessageCrackerClass(task);
             generateComponentClasses(task);
             generateMessageSubclasses(task);
+            if (task.isValidatorGenerated()) {
+                generateMessageValidatorClass(task);
+            }
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
@@ -357,6 +404,9 @@ public class MessageCodeGenerator {
         private File transformDirectory;
         private boolean orderedFields;
         private boolean useDecimal;
+        private boolean useFixedDecimal;
+        private boolean generateValidator;
+        private File validatorSpecification;
         private long specificationLastModified;
 
         public long getSpecificationLastModified() {
@@ -451,6 +501,35 @@ public class MessageCodeGenerator {
         public boolean isDecimalGenerated() {
             return useDecimal;
         }
+
+        public void setFixedDecimalGenerated(boolean useFixedDecimal) {
+            this.useFixedDecimal = useFixedDecimal;
+        }
+
+        public boolean isFixedDecimalGenerated() {
+            return useFixedDecimal;
+        }
+
+        public void setValidatorGenerated(boolean generateValidator) {
+            this.generateValidator = generateValidator;
+        }
+
+        public boolean isValidatorGenerated() {
+            return generateValidator;
+        }
+
+        /**
+         * Sets the specification the validator is generated from, if it is not the one
+         * the messages are generated from. It has to be the data dictionary the sessions
+         * use, otherwise the validation hashes do not match.
+         */
+        public void setValidatorSpecification(File validatorSpecification) {
+            this.validatorSpecification = validatorSpecification;
+        }
+
+        public File getValidatorSpecification() {
+            return validatorSpecification != null ? validatorSpecification : specification;
+        }
     }
 
     public static void main(String[] args) {
@@ -466,6 +545,8 @@ public class MessageCodeGenerator {
             boolean overwrite = getOption(OVERWRITE_OPTION, true);
             boolean orderedFields = getOption(ORDERED_FIELDS_OPTION, false);
             boolean useDecimal = getOption(BIGDECIMAL_TYPE_OPTION, false);
+            boolean useFixedDecimal = getOption(FIXED_DECIMAL_TYPE_OPTION, false);
+            boolean generateValidator = getOption(VALIDATOR_OPTION, false);
 
             long start = System.currentTimeMillis();
             final String[] versions = { "FIXT 1.1", "FIX 5.0", "FIX 4.4", "FIX 4.3", "FIX 4.2",
@@ -483,6 +564,8 @@ public class MessageCodeGenerator {
                 task.setOverwrite(overwrite);
                 task.setOrderedFields(orderedFields);
                 task.setDecimalGenerated(useDecimal);
+                task.setFixedDecimalGenerated(useFixedDecimal);
+                task.setValidatorGenerated(generateValidator);
                 codeGenerator.generate(task);
             }
             double duration = System.currentTimeMillis() - start;
@@ -0,0 +1,725 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package org.quickfixj.codegenerator;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a quickfix.MessageValidator for a FIX specification.
+ * <p>
+ * The fields, required fields and groups of the messages are collected the same way
+ * quickfix.DataDictionary loads them, so the generated validator gives the same results
+ * as validating with the data dictionary. The generated validator contains the validation
+ * hash of the definitions, which must be equal to the hash of the data dictionary it is
+ * used with.
+ */
+class MessageValidatorGenerator {
+
+    private static final String HEADER_ID = "HEADER";
+    private static final String TRAILER_ID = "TRAILER";
+    private static final String ANY_VALUE = "__ANY__";
+
+    // the names of quickfix.FieldType, other types are UNKNOWN
+    private static final Set<String> FIELD_TYPES = new HashSet<>(Arrays.asList("UNKNOWN", "STRING", "CHAR",
+            "PRICE", "INT", "AMT", "QTY", "CURRENCY", "MULTIPLEVALUESTRING", "MULTIPLESTRINGVALUE",
+            "MULTIPLECHARVALUE", "EXCHANGE", "UTCTIMESTAMP", "BOOLEAN", "LOCALMKTDATE", "DATA", "FLOAT",
+            "PRICEOFFSET", "MONTHYEAR", "DAYOFMONTH", "UTCDATEONLY", "UTCDATE", "UTCTIMEONLY", "TIME",
+            "NUMINGROUP", "PERCENTAGE", "SEQNUM", "LENGTH", "COUNTRY"));
+
+    // the types with a format checked by DataDictionary.checkValidFormat
+    private static final Set<String> FORMAT_CHECKED_TYPES = new HashSet<>(Arrays.asList("MULTIPLECHARVALUE",
+            "INT", "NUMINGROUP", "SEQNUM", "LENGTH", "PRICE", "AMT", "QTY", "FLOAT", "PRICEOFFSET", "PERCENTAGE",
+            "BOOLEAN", "UTCDATE", "UTCTIMEONLY", "UTCTIMESTAMP", "TIME", "CHAR"));
+
+    private static final Set<String> MULTIPLE_VALUE_TYPES = new HashSet<>(Arrays.asList("MULTIPLEVALUESTRING",
+            "MULTIPLESTRINGVALUE", "MULTIPLECHARVALUE"));
+
+    private final Document document;
+    private final String messagePackage;
+
+    private String beginString;
+    private final Map<String, Element> components = new HashMap<>();
+    private final Map<String, Integer> names = new HashMap<>();
+    private final Map<Integer, String> fieldNames = new HashMap<>();
+    private final Map<Integer, String> fieldTypes = new HashMap<>();
+    private final Map<Integer, Set<String>> fieldValues = new HashMap<>();
+    private final Set<String> messages = new HashSet<>();
+    private final Map<String, String> messageNames = new LinkedHashMap<>();
+    private final Definitions definitions = new Definitions();
+
+    // group contexts with the same definitions share their methods
+    private final Map<String, Integer> groupContextIds = new HashMap<>();
+    private final List<Context> groupContexts = new ArrayList<>();
+
+    MessageValidatorGenerator(Document document, String messagePackage) {
+        this.document = document;
+        this.messagePackage = messagePackage;
+    }
+
+    void generate(PrintWriter out) {
+        load();
+
+        final List<Context> messageContexts = new ArrayList<>();
+        for (Map.Entry<String, String> entry : messageNames.entrySet()) {
+            messageContexts.add(createContext(entry.getKey(), definitions, entry.getValue(),
+                    definitions.messageFields.get(entry.getKey()), true));
+        }
+        final Context header = definitions.messageFields.containsKey(HEADER_ID)
+                ? createContext(HEADER_ID, definitions, "Header", definitions.messageFields.get(HEADER_ID), false)
+                : null;
+        final Context trailer = definitions.messageFields.containsKey(TRAILER_ID)
+                ? createContext(TRAILER_ID, definitions, "Trailer", definitions.messageFields.get(TRAILER_ID), false)
+                : null;
+
+        out.println("/* Generated Java Source File */");
+        out.println("/*******************************************************************************");
+        out.println(" * Copyright (c) quickfixengine.org  All rights reserved.");
+        out.println(" *");
+        out.println(" * This file is part of the QuickFIX FIX Engine");
+        out.println(" *");
+        out.println(" * This file may be distributed under the terms of the quickfixengine.org");
+        out.println(" * license as defined by quickfixengine.org and appearing in the file");
+        out.println(" * LICENSE included in the packaging of this file.");
+        out.println(" *");
+        out.println(" * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING");
+        out.println(" * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A");
+        out.println(" * PARTICULAR PURPOSE.");
+        out.println(" *");
+        out.println(" * See http://www.quickfixengine.org/LICENSE for licensing information.");
+        out.println(" *");
+        out.println(" * Contact ask@quickfixengine.org if any conditions of this licensing");
+        out.println(" * are not clear to you.");
+        out.println(" ******************************************************************************/");
+        out.println();
+        out.println("package " + messagePackage + ";");
+        out.println();
+        out.println("import quickfix.DataDictionary;");
+        out.println("import quickfix.Field;");
+        out.println("import quickfix.FieldException;");
+        out.println("import quickfix.FieldMap;");
+        out.println("import quickfix.FieldType;");
+        out.println("import quickfix.Group;");
+        out.println("import quickfix.IncorrectDataFormat;");
+        out.println("import quickfix.IncorrectTagValue;");
+        out.println("import quickfix.Message;");
+        out.println("import quickfix.StringField;");
+        out.println("import quickfix.field.SessionRejectReason;");
+        out.println();
+        out.println("public class MessageValidator implements quickfix.MessageValidator {");
+        out.println();
+        out.println("\tprivate static final String DATA_DICTIONARY_HASH = \"" + getValidationHash() + "\";");
+        out.println();
+        out.println("\tpublic String getDataDictionaryHash() {");
+        out.println("\t\treturn DATA_DICTIONARY_HASH;");
+        out.println("\t}");
+        out.println();
+
+        out.println("\tpublic boolean isMsgType(String msgType) {");
+        out.println("\t\tswitch (msgType) {");
+        for (String msgType : messageNames.keySet()) {
+            out.println("\t\tcase " + literal(msgType) + ":");
+        }
+        out.println("\t\t\treturn true;");
+        out.println("\t\tdefault:");
+        out.println("\t\t\treturn false;");
+        out.println("\t\t}");
+        out.println("\t}");
+        out.println();
+
+        out.println("\tpublic void checkHasRequired(Message message, String msgType, boolean bodyOnly) {");
+        if (hasRequiredFields(header) || hasRequiredFields(trailer)) {
+            out.println("\t\tif (!bodyOnly) {");
+            if (hasRequiredFields(header)) {
+                out.println("\t\t\tcheckRequired" + header.name + "(message.getHeader());");
+            }
+            if (hasRequiredFields(trailer)) {
+                out.println("\t\t\tcheckRequired" + trailer.name + "(message.getTrailer());");
+            }
+            out.println("\t\t}");
+        }
+        out.println("\t\tswitch (msgType) {");
+        for (Context context : messageContexts) {
+            if (hasRequiredFields(context)) {
+                out.println("\t\tcase " + literal(context.msgType) + ":");
+                out.println("\t\t\tcheckRequired" + context.name + "(message);");
+                out.println("\t\t\tbreak;");
+            }
+        }
+        out.println("\t\t}");
+        out.println("\t}");
+        out.println();
+
+        out.println("\tpublic void validateBody(Message message, String msgType, DataDictionary dd)");
+        out.println("\t\t\tthrows IncorrectTagValue, IncorrectDataFormat {");
+        out.println("\t\tswitch (msgType) {");
+        for (Context context : messageContexts) {
+            out.println("\t\tcase " + literal(context.msgType) + ":");
+            out.println("\t\t\tvalidate" + context.name + "(message, dd);");
+            out.println("\t\t\tbreak;");
+        }
+        out.println("\t\t}");
+        out.println("\t}");
+
+        if (header != null) {
+            generateCheckRequired(out, header);
+        }
+        if (trailer != null) {
+            generateCheckRequired(out, trailer);
+        }
+        for (Context context : messageContexts) {
+            generateCheckRequired(out, context);
+            generateValidate(out, context);
+        }
+        for (Context context : groupContexts) {
+            generateCheckRequired(out, context);
+            generateValidate(out, context);
+        }
+        for (int field : new TreeSet<>(fieldTypes.keySet())) {
+            generateFieldCheck(out, field);
+        }
+
+        out.println();
+        out.println("\tprivate static void checkRequired(FieldMap map, int field) {");
+        out.println("\t\tif (!map.isSetField(field)) {");
+        out.println("\t\t\tthrow new FieldException(SessionRejectReason.REQUIRED_TAG_MISSING, field);");
+        out.println("\t\t}");
+        out.println("\t}");
+        out.println();
+        out.println("\tprivate static void checkGroupCount(StringField field, FieldMap map) {");
+        out.println("\t\tif (map.getGroupCount(field.getField()) != Integer.parseInt(field.getValue())) {");
+        out.println("\t\t\tthrow new FieldException(SessionRejectReason.INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP,");
+        out.println("\t\t\t\t\tfield.getField());");
+        out.println("\t\t}");
+        out.println("\t}");
+        out.println("}");
+    }
+
+    private Context createContext(String msgType, Definitions definitions, String name,
+            Set<Integer> fields, boolean message) {
+        final Context context = new Context(msgType, name, message);
+        if (fields != null) {
+            context.fields.addAll(fields);
+        }
+        final Set<Integer> required = definitions.requiredFields.get(msgType);
+        if (required != null) {
+            // checked in the iteration order of the data dictionary
+            context.required.addAll(required);
+        }
+        final Map<Integer, GroupDefinition> groups = definitions.groups.get(msgType);
+        if (groups != null) {
+            for (int tag : new TreeSet<>(groups.keySet())) {
+                final Definitions groupDefinitions = groups.get(tag).definitions;
+                context.groups.put(tag, createGroupContext(msgType, groupDefinitions, fieldNames.get(tag)));
+            }
+        }
+        return context;
+    }
+
+    private Context createGroupContext(String msgType, Definitions groupDefinitions, String groupName) {
+        final Context context = createContext(msgType, groupDefinitions, null, groupDefinitions.fields, false);
+        final String key = context.getKey();
+        Integer id = groupContextIds.get(key);
+        if (id == null) {
+            id = groupContexts.size() + 1;
+            groupContextIds.put(key, id);
+            context.name = "Group" + id;
+            context.comment = groupName;
+            groupContexts.add(context);
+            return context;
+        }
+        return groupContexts.get(id - 1);
+    }
+
+    private static boolean hasRequiredFields(Context context) {
+        return context != null && !context.required.isEmpty();
+    }
+
+    private void generateCheckRequired(PrintWriter out, Context context) {
+        if (!hasRequiredFields(context)) {
+            // DataDictionary does not check the groups of a message or group without required fields
+            return;
+        }
+        out.println();
+        if (context.comment != null) {
+            out.println("\t// " + context.comment);
+        }
+        out.println("\tprivate static void checkRequired" + context.name + "(FieldMap map) {");
+        for (int field : context.required) {
+            out.println("\t\tcheckRequired(map, " + field + ");");
+        }
+        final List<Integer> groupsWithRequiredFields = new ArrayList<>();
+        for (Map.Entry<Integer, Context> entry : context.groups.entrySet()) {
+            if (hasRequiredFields(entry.getValue())) {
+                groupsWithRequiredFields.add(entry.getKey());
+            }
+        }
+        if (!groupsWithRequiredFields.isEmpty()) {
+            out.println("\t\tfor (int tag : map.groupKeys()) {");
+            out.println("\t\t\tswitch (tag) {");
+            for (int tag : groupsWithRequiredFields) {
+                out.println("\t\t\tcase " + tag + ":");
+                out.println("\t\t\t\tfor (Group group : map.getGroups(tag)) {");
+                out.println("\t\t\t\t\tcheckRequired" + context.groups.get(tag).name + "(group);");
+                out.println("\t\t\t\t}");
+                out.println("\t\t\t\tbreak;");
+            }
+            out.println("\t\t\t}");
+            out.println("\t\t}");
+        }
+        out.println("\t}");
+    }
+
+    private void generateValidate(PrintWriter out, Context context) {
+        out.println();
+        if (context.comment != null) {
+            out.println("\t// " + context.comment);
+        }
+        out.println("\tprivate static void validate" + context.name + "(FieldMap map, DataDictionary dd)");
+        out.println("\t\t\tthrows IncorrectTagValue, IncorrectDataFormat {");
+        out.println("\t\tfor (Field<?> f : map) {");
+        out.println("\t\t\tfinal StringField field = (StringField) f;");
+        out.println("\t\t\tdd.checkHasValue(field);");
+        out.println("\t\t\tswitch (field.getField()) {");
+        final Set<Integer> uncheckedFields = new TreeSet<>();
+        final Set<Integer> tags = new TreeSet<>(context.fields);
+        tags.addAll(context.groups.keySet());
+        for (int tag : tags) {
+            final boolean defined = context.fields.contains(tag);
+            if (defined && !context.groups.containsKey(tag) && !hasFieldCheck(tag)) {
+                uncheckedFields.add(tag);
+                continue;
+            }
+            out.println("\t\t\tcase " + tag + ":");
+            if (!defined) {
+                out.println("\t\t\t\tdd.checkUndefinedField(field, " + context.message + ");");
+            } else if (hasFieldCheck(tag)) {
+                out.println("\t\t\t\tcheckField" + fieldNames.get(tag) + "(field, dd);");
+            }
+            if (context.groups.containsKey(tag)) {
+                out.println("\t\t\t\tcheckGroupCount(field, map);");
+            }
+            out.println("\t\t\t\tbreak;");
+        }
+        for (int tag : uncheckedFields) {
+            out.println("\t\t\tcase " + tag + ":");
+        }
+        if (!uncheckedFields.isEmpty()) {
+            out.println("\t\t\t\tbreak;");
+        }
+        out.println("\t\t\tdefault:");
+        out.println("\t\t\t\tdd.checkUndefinedField(field, " + context.message + ");");
+        out.println("\t\t\t}");
+        out.println("\t\t}");
+        out.println("\t\tfor (int tag : map.groupKeys()) {");
+        out.println("\t\t\tswitch (tag) {");
+        for (Map.Entry<Integer, Context> entry : context.groups.entrySet()) {
+            out.println("\t\t\tcase " + entry.getKey() + ":");
+            out.println("\t\t\t\tfor (Group group : map.getGroups(tag)) {");
+            out.println("\t\t\t\t\tvalidate" + entry.getValue().name + "(group, dd);");
+            out.println("\t\t\t\t}");
+            out.println("\t\t\t\tbreak;");
+        }
+        out.println("\t\t\tdefault:");
+        out.println("\t\t\t\tthrow new FieldException(SessionRejectReason.INVALID_TAG_NUMBER, tag);");
+        out.println("\t\t\t}");
+        out.println("\t\t}");
+        out.println("\t}");
+    }
+
+    private boolean hasFieldCheck(int field) {
+        return FORMAT_CHECKED_TYPES.contains(fieldTypes.get(field)) || getEnumeratedValues(field) != null;
+    }
+
+    private Set<String> getEnumeratedValues(int field) {
+        final Set<String> values = fieldValues.get(field);
+        return values == null || values.isEmpty() || values.contains(ANY_VALUE) ? null : new TreeSet<>(values);
+    }
+
+    private void generateFieldCheck(PrintWriter out, int field) {
+        if (!hasFieldCheck(field)) {
+            return;
+        }
+        final String type = fieldTypes.get(field);
+        final Set<String> values = getEnumeratedValues(field);
+        out.println();
+        out.println("\tprivate static void checkField" + fieldNames.get(field) + "(StringField field, DataDictionary dd)");
+        out.println("\t\t\tthrows IncorrectTagValue, IncorrectDataFormat {");
+        if (FORMAT_CHECKED_TYPES.contains(type)) {
+            out.println("\t\tdd.checkValidFormat(field, FieldType." + type + ");");
+        }
+        if (values != null) {
+            if (MULTIPLE_VALUE_TYPES.contains(type)) {
+                out.println("\t\tif (!dd.isFieldValue(field.getField(), field.getValue())) {");
+                out.println("\t\t\tthrow new IncorrectTagValue(field.getField());");
+                out.println("\t\t}");
+            } else {
+                out.println("\t\tswitch (field.getValue()) {");
+                for (String value : values) {
+                    out.println("\t\tcase " + literal(value) + ":");
+                }
+                out.println("\t\t\tbreak;");
+                out.println("\t\tdefault:");
+                out.println("\t\t\tthrow new IncorrectTagValue(field.getField());");
+                out.println("\t\t}");
+            }
+        }
+        out.println("\t}");
+    }
+
+    private static String literal(String value) {
+        final StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ' || c > '~') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /*
+     * Must produce the same text as DataDictionary.getValidationHash().
+     */
+    String getValidationHash() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("version=").append(beginString).append('\n');
+        for (int field : new TreeSet<>(definitions.fields)) {
+            final String fieldType = fieldTypes.get(field);
+            sb.append("field=").append(field).append(':').append(fieldType != null ? fieldType : "-").append(':');
+            appendSorted(sb, fieldValues.get(field));
+            sb.append('\n');
+        }
+        for (String msgType : new TreeSet<>(messages)) {
+            sb.append("message=").append(msgType).append('\n');
+        }
+        final Set<String> msgTypes = new TreeSet<>(definitions.messageFields.keySet());
+        msgTypes.addAll(definitions.requiredFields.keySet());
+        msgTypes.addAll(definitions.groups.keySet());
+        for (String msgType : msgTypes) {
+            sb.append("context=").append(msgType).append('\n');
+            appendValidationContext(sb, definitions, msgType, definitions.messageFields.get(msgType), " ");
+        }
+
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new CodeGenerationException(e);
+        }
+        final StringBuilder hash = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hash.toString();
+    }
+
+    private static void appendValidationContext(StringBuilder sb, Definitions definitions, String msgType,
+            Set<Integer> contextFields, String indent) {
+        sb.append(indent).append("fields=");
+        appendSorted(sb, contextFields);
+        sb.append('\n').append(indent).append("required=");
+        appendSorted(sb, definitions.requiredFields.get(msgType));
+        sb.append('\n');
+        final Map<Integer, GroupDefinition> groups = definitions.groups.get(msgType);
+        if (groups != null) {
+            for (int group : new TreeSet<>(groups.keySet())) {
+                final GroupDefinition groupDefinition = groups.get(group);
+                sb.append(indent).append("group=").append(group).append(':').append(groupDefinition.delimiter)
+                        .append('\n');
+                appendValidationContext(sb, groupDefinition.definitions, msgType,
+                        groupDefinition.definitions.fields, indent + " ");
+            }
+        }
+    }
+
+    private static void appendSorted(StringBuilder sb, Collection<?> values) {
+        if (values != null) {
+            String separator = "";
+            for (Object value : new TreeSet<>(values)) {
+                sb.append(separator).append(value);
+                separator = ",";
+            }
+        }
+    }
+
+    /*
+     * The definitions are loaded like quickfix.DataDictionary loads them, including
+     * which component and group fields are required and which field delimits a group.
+     */
+    private void load() {
+        final Element documentElement = document.getDocumentElement();
+        final String majorVersion = documentElement.getAttribute("major");
+        final String dictionaryType = documentElement.hasAttribute("type")
+                ? documentElement.getAttribute("type") : "FIX";
+        if ("Latest".equals(majorVersion)) {
+            beginString = dictionaryType + "." + majorVersion;
+        } else {
+            final String minorVersion = documentElement.hasAttribute("minor")
+                    ? Integer.valueOf(documentElement.getAttribute("minor")).toString() : "0";
+            beginString = dictionaryType + "." + majorVersion + "." + minorVersion;
+        }
+
+        for (Node componentNode : getChildren(documentElement, "components")) {
+            if (componentNode.getNodeName().equals("component")) {
+                components.put(getAttribute(componentNode, "name"), (Element) componentNode);
+            }
+        }
+
+        for (Node fieldNode : getChildren(documentElement, "fields")) {
+            if (fieldNode.getNodeName().equals("field")) {
+                final String name = getAttribute(fieldNode, "name");
+                final int num = Integer.parseInt(getAttribute(fieldNode, "number"));
+                final String type = getAttribute(fieldNode, "type");
+                definitions.fields.add(num);
+                fieldTypes.put(num, FIELD_TYPES.contains(type) ? type : "UNKNOWN");
+                fieldNames.put(num, name);
+                names.put(name, num);
+                final NodeList valueNodes = fieldNode.getChildNodes();
+                for (int i = 0; i < valueNodes.getLength(); i++) {
+                    final Node valueNode = valueNodes.item(i);
+                    if (valueNode.getNodeName().equals("value")) {
+                        fieldValues.computeIfAbsent(num, k -> new HashSet<>()).add(getAttribute(valueNode, "enum"));
+                    }
+                }
+                if (fieldValues.containsKey(num) && Boolean.parseBoolean(getAttribute(fieldNode, "allowOtherValues"))) {
+                    fieldValues.get(num).add(ANY_VALUE);
+                }
+            }
+        }
+
+        if (beginString.startsWith("FIXT") || beginString.compareTo("FIX.5.0") < 0) {
+            loadMessage(HEADER_ID, documentElement.getElementsByTagName("header").item(0));
+            loadMessage(TRAILER_ID, documentElement.getElementsByTagName("trailer").item(0));
+        }
+
+        for (Node messageNode : getChildren(documentElement, "messages")) {
+            if (messageNode.getNodeName().equals("message")) {
+                final String msgType = getAttribute(messageNode, "msgtype");
+                final String name = getAttribute(messageNode, "name");
+                messages.add(msgType);
+                messageNames.put(msgType, name != null ? name : "MsgType" + msgType.replaceAll("[^A-Za-z0-9]", "_"));
+                loadMessage(msgType, messageNode);
+            }
+        }
+    }
+
+    private void loadMessage(String msgType, Node node) {
+        final NodeList fieldNodes = node.getChildNodes();
+        for (int i = 0; i < fieldNodes.getLength(); i++) {
+            final Node fieldNode = fieldNodes.item(i);
+            final String nodeName = fieldNode.getNodeName();
+            if (nodeName.equals("field") || nodeName.equals("group")) {
+                final int num = lookupFieldNumber(getAttribute(fieldNode, "name"));
+                definitions.addMsgField(msgType, num);
+                if (isRequired(fieldNode)) {
+                    definitions.addRequiredField(msgType, num);
+                }
+            } else if (nodeName.equals("component")) {
+                addComponentFields(fieldNode, msgType, definitions, isRequired(fieldNode));
+            }
+            if (nodeName.equals("group")) {
+                addGroup(fieldNode, msgType, definitions, isRequired(fieldNode));
+            }
+        }
+    }
+
+    private int addComponentFields(Node node, String msgType, Definitions definitions, boolean componentRequired)
+            {
+        int firstField = 0;
+        final String name = getAttribute(node, "name");
+        final Element componentNode = components.get(name);
+        if (componentNode == null) {
+            throw new CodeGenerationException(new IllegalArgumentException("Component " + name + " not found"));
+        }
+
+        final NodeList componentFieldNodes = componentNode.getChildNodes();
+        for (int i = 0; i < componentFieldNodes.getLength(); i++) {
+            final Node componentFieldNode = componentFieldNodes.item(i);
+            final String nodeName = componentFieldNode.getNodeName();
+            if (nodeName.equals("field") || nodeName.equals("group")) {
+                final int field = lookupFieldNumber(getAttribute(componentFieldNode, "name"));
+                if (firstField == 0) {
+                    firstField = field;
+                }
+                if (isRequired(componentFieldNode) && componentRequired) {
+                    definitions.addRequiredField(msgType, field);
+                }
+                definitions.fields.add(field);
+                definitions.addMsgField(msgType, field);
+            }
+            if (nodeName.equals("group")) {
+                addGroup(componentFieldNode, msgType, definitions, isRequired(componentFieldNode));
+            }
+            if (nodeName.equals("component")) {
+                addComponentFields(componentFieldNode, msgType, definitions, isRequired(componentFieldNode));
+            }
+        }
+        return firstField;
+    }
+
+    private void addGroup(Node node, String msgType, Definitions definitions, boolean groupRequired)
+            {
+        final int group = lookupFieldNumber(getAttribute(node, "name"));
+        int delimiter = 0;
+        int field = 0;
+        final Definitions groupDefinitions = new Definitions();
+        final NodeList fieldNodes = node.getChildNodes();
+        for (int i = 0; i < fieldNodes.getLength(); i++) {
+            final Node fieldNode = fieldNodes.item(i);
+            final String nodeName = fieldNode.getNodeName();
+            if (nodeName.equals("field")) {
+                field = lookupFieldNumber(getAttribute(fieldNode, "name"));
+                groupDefinitions.fields.add(field);
+                if (isRequired(fieldNode) && groupRequired) {
+                    groupDefinitions.addRequiredField(msgType, field);
+                }
+            } else if (nodeName.equals("component")) {
+                field = addComponentFields(fieldNode, msgType, groupDefinitions, isRequired(fieldNode));
+            } else if (nodeName.equals("group")) {
+                field = lookupFieldNumber(getAttribute(fieldNode, "name"));
+                groupDefinitions.fields.add(field);
+                if (isRequired(fieldNode) && groupRequired) {
+                    groupDefinitions.addRequiredField(msgType, field);
+                }
+                addGroup(fieldNode, msgType, groupDefinitions, isRequired(fieldNode));
+            }
+            if (delimiter == 0) {
+                delimiter = field;
+            }
+        }
+
+        if (delimiter != 0) {
+            definitions.groups.computeIfAbsent(msgType, k -> new HashMap<>())
+                    .put(group, new GroupDefinition(delimiter, groupDefinitions));
+        }
+    }
+
+    private int lookupFieldNumber(String name) {
+        final Integer fieldNumber = names.get(name);
+        if (fieldNumber == null) {
+            throw new CodeGenerationException(
+                    new IllegalArgumentException("Field " + name + " not defined in fields section"));
+        }
+        return fieldNumber;
+    }
+
+    private static boolean isRequired(Node node) {
+        return "Y".equalsIgnoreCase(getAttribute(node, "required"));
+    }
+
+    private static List<Node> getChildren(Element element, String section) {
+        final List<Node> children = new ArrayList<>();
+        final NodeList sections = element.getElementsByTagName(section);
+        if (sections.getLength() > 0) {
+            final NodeList nodes = sections.item(0).getChildNodes();
+            for (int i = 0; i < nodes.getLength(); i++) {
+                children.add(nodes.item(i));
+            }
+        }
+        return children;
+    }
+
+    private static String getAttribute(Node node, String name) {
+        final NamedNodeMap attributes = node.getAttributes();
+        if (attributes != null) {
+            final Node namedItem = attributes.getNamedItem(name);
+            return namedItem != null ? namedItem.getNodeValue() : null;
+        }
+        return null;
+    }
+
+    private static final class Definitions {
+        private final Set<Integer> fields = new LinkedHashSet<>();
+        private final Map<String, Set<Integer>> messageFields = new HashMap<>();
+        private final Map<String, Set<Integer>> requiredFields = new HashMap<>();
+        private final Map<String, Map<Integer, GroupDefinition>> groups = new HashMap<>();
+
+        void addMsgField(String msgType, int field) {
+            messageFields.computeIfAbsent(msgType, k -> new HashSet<>()).add(field);
+        }
+
+        void addRequiredField(String msgType, int field) {
+            requiredFields.computeIfAbsent(msgType, k -> new HashSet<>()).add(field);
+        }
+    }
+
+    private static final class GroupDefinition {
+        private final int delimiter;
+        private final Definitions definitions;
+
+        GroupDefinition(int delimiter, Definitions definitions) {
+            this.delimiter = delimiter;
+            this.definitions = definitions;
+        }
+    }
+
+    /*
+     * The fields, required fields in the order they are checked and groups of a message
+     * or group.
+     */
+    private static final class Context {
+        private final String msgType;
+        private final boolean message;
+        private final Set<Integer> fields = new HashSet<>();
+        private final List<Integer> required = new ArrayList<>();
+        private final Map<Integer, Context> groups = new LinkedHashMap<>();
+        private String name;
+        private String comment;
+
+        Context(String msgType, String name, boolean message) {
+            this.msgType = msgType;
+            this.name = name;
+            this.message = message;
+        }
+
+        String getKey() {
+            final StringBuilder key = new StringBuilder();
+            key.append(message).append(new TreeSet<>(fields)).append(required);
+            for (Map.Entry<Integer, Context> entry : groups.entrySet()) {
+                key.append(entry.getKey()).append('=').append(entry.getValue().name);
+            }
+            return key.toString();
+        }
+    }
+}
@@ -81,11 +81,15 @@ public class <xsl:value-of select="@name"/> extends <xsl:call-template name="get
 	<xsl:call-template name="values"/>
 	public <xsl:value-of select="@name"/>() {
 		super(<xsl:value-of select="@number"/>);
-	}
+	}<xsl:variable name="dataType"><xsl:call-template name="get-type"/></xsl:variable><xsl:choose><xsl:when test="$dataType = 'long'">
 
-	public <xsl:value-of select="@name"/>(<xsl:call-template name="get-type"/> data) {
+	public <xsl:value-of select="@name"/>(long mantissa, int scale) {
+		super(<xsl:value-of select="@number"/>, mantissa, scale);
+	}</xsl:when><xsl:otherwise>
+
+	public <xsl:value-of select="@name"/>(<xsl:value-of select="$dataType"/> data) {
 		super(<xsl:value-of select="@number"/>, data<xsl:if test="@type='UTCTIMESTAMP' or @type='UTCTIMEONLY'"><xsl:choose><xsl:when test="$utcTimestampPrecision"/><xsl:otherwise>, true</xsl:otherwise></xsl:choose></xsl:if>);
-	}<xsl:variable name="dataType"><xsl:call-template name="get-type"/></xsl:variable><xsl:if test="$dataType = 'java.math.BigDecimal'">
+	}</xsl:otherwise></xsl:choose><xsl:if test="$dataType = 'java.math.BigDecimal'">
 
     public <xsl:value-of select="@name"/>(double data) {
 		super(<xsl:value-of select="@number"/>, new <xsl:value-of select="$dataType"/>(data));
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package org.quickfixj.codegenerator;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the generated source. The equivalence of the generated validators with the data
+ * dictionary is tested in quickfixj-core, which has the validators of the bundled dictionaries.
+ */
+public class MessageValidatorGeneratorTest {
+
+    private static final Pattern HASH = Pattern.compile("DATA_DICTIONARY_HASH = \"([0-9a-f]{64})\"");
+
+    @Test
+    public void testGeneratedSource() throws Exception {
+        final String source = generate(dictionary("Y"), "quickfix.test");
+        assertTrue(source, source.contains("package quickfix.test;"));
+        assertTrue(source, source.contains("public class MessageValidator implements quickfix.MessageValidator {"));
+        assertTrue(source, source.contains("case \"D\":"));
+        assertFalse(source, source.contains("case \"8\":"));
+        assertTrue(source, HASH.matcher(source).find());
+    }
+
+    @Test
+    public void testGenerationIsDeterministic() throws Exception {
+        assertEquals(generate(dictionary("Y"), "quickfix.test"), generate(dictionary("Y"), "quickfix.test"));
+    }
+
+    @Test
+    public void testHashDependsOnDefinitions() throws Exception {
+        final String hash = hash(generate(dictionary("Y"), "quickfix.test"));
+        assertEquals(hash, hash(generate(dictionary("Y"), "quickfix.other")));
+        assertNotEquals(hash, hash(generate(dictionary("N"), "quickfix.test")));
+    }
+
+    @Test(expected = CodeGenerationException.class)
+    public void testUnknownComponent() throws Exception {
+        generate(parse(dictionary("Y").replace("<field name=\"Symbol\" required=\"N\"/>",
+                "<component name=\"Instrument\" required=\"N\"/>")), "quickfix.test");
+    }
+
+    private static String generate(String dictionary, String messagePackage) throws Exception {
+        return generate(parse(dictionary), messagePackage);
+    }
+
+    private static String generate(Document document, String messagePackage) {
+        final StringWriter writer = new StringWriter();
+        try (PrintWriter out = new PrintWriter(writer)) {
+            new MessageValidatorGenerator(document, messagePackage).generate(out);
+        }
+        return writer.toString();
+    }
+
+    private static String hash(String source) {
+        final Matcher matcher = HASH.matcher(source);
+        assertTrue(source, matcher.find());
+        return matcher.group(1);
+    }
+
+    private static Document parse(String dictionary) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(dictionary.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String dictionary(String clOrdIdRequired) {
+        return "<fix type=\"FIX\" major=\"4\" minor=\"4\" servicepack=\"0\">"
+                + "<header>"
+                + "<field name=\"BeginString\" required=\"Y\"/>"
+                + "<field name=\"MsgType\" required=\"Y\"/>"
+                + "</header>"
+                + "<trailer><field name=\"CheckSum\" required=\"Y\"/></trailer>"
+                + "<messages>"
+                + "<message name=\"NewOrderSingle\" msgtype=\"D\" msgcat=\"app\">"
+                + "<field name=\"ClOrdID\" required=\"" + clOrdIdRequired + "\"/>"
+                + "<field name=\"Symbol\" required=\"N\"/>"
+                + "<group name=\"NoPartyIDs\" required=\"N\">"
+                + "<field name=\"PartyID\" required=\"N\"/>"
+                + "<field name=\"PartyRole\" required=\"N\"/>"
+                + "</group>"
+                + "</message>"
+                + "</messages>"
+                + "<components/>"
+                + "<fields>"
+                + "<field number=\"8\" name=\"BeginString\" type=\"STRING\"/>"
+                + "<field number=\"35\" name=\"MsgType\" type=\"STRING\"/>"
+                + "<field number=\"10\" name=\"CheckSum\" type=\"STRING\"/>"
+                + "<field number=\"11\" name=\"ClOrdID\" type=\"STRING\"/>"
+                + "<field number=\"55\" name=\"Symbol\" type=\"STRING\"/>"
+                + "<field number=\"453\" name=\"NoPartyIDs\" type=\"NUMINGROUP\"/>"
+                + "<field number=\"448\" name=\"PartyID\" type=\"STRING\"/>"
+                + "<field number=\"452\" name=\"PartyRole\" type=\"INT\">"
+                + "<value enum=\"1\" description=\"EXECUTING_FIRM\"/>"
+                + "</field>"
+                + "</fields>"
+                + "</fix>";
+    }
+}
@@ -21,6 +21,7 @@ import org.quickfixj.QFJException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import quickfix.Message;
+import quickfix.Responder;
 import quickfix.Session;
 import quickfix.SessionID;
 import quickfix.SessionNotFound;
@@ -28,6 +29,7 @@ import quickfix.SessionStateListener;
 import quickfix.field.MsgType;
 import quickfix.field.NewSeqNo;
 import quickfix.field.converter.UtcTimestampConverter;
+import quickfix.mina.IoSessionResponder;
 
 import javax.management.MBeanRegistration;
 import javax.management.MBeanServer;
@@ -358,6 +360,26 @@ public class SessionAdmin extends NotificationBroadcasterSupport implements Sess
         }
     }
 
+    public long getMessagesWritten() {
+        IoSessionResponder responder = getIoSessionResponder();
+        return responder != null ? responder.getMessagesWritten() : 0;
+    }
+
+    public long getWriteRequests() {
+        IoSessionResponder responder = getIoSessionResponder();
+        return responder != null ? responder.getWriteRequests() : 0;
+    }
+
+    public long getCoalescedWrites() {
+        IoSessionResponder responder = getIoSessionResponder();
+        return responder != null ? responder.getCoalescedWrites() : 0;
+    }
+
+    private IoSessionResponder getIoSessionResponder() {
+        Responder responder = session.getResponder();
+        return responder instanceof IoSessionResponder ? (IoSessionResponder) responder : null;
+    }
+
     private void logAttributeChange(String attributeName, int value) {
         session.getLog().onEvent("JMX: setting " + attributeName + " to " + value);
     }
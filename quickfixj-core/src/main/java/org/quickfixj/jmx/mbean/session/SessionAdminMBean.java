@@ -215,5 +215,30 @@ public interface SessionAdminMBean {
 
     String getConnectionRole();
 
+    /**
+     * Get the number of messages written to the current network connection.
+     * Sampling this and {@link #getWriteRequests()} gives messages and writes
+     * per second.
+     *
+     * @return the number of messages written, 0 if not connected
+     */
+    long getMessagesWritten();
+
+    /**
+     * Get the number of write requests issued to the current network connection.
+     * Each is written to the socket with at least one system call.
+     *
+     * @return the number of write requests, 0 if not connected
+     */
+    long getWriteRequests();
+
+    /**
+     * Get the number of write requests that carried more than one message,
+     * see the SocketWriteCoalescingSize setting.
+     *
+     * @return the number of coalesced writes, 0 if not connected
+     */
+    long getCoalescedWrites();
+
     ObjectName getConnectorName();
 }
@@ -21,6 +21,7 @@ package quickfix;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 abstract class AbstractLog implements Log, Closeable {
     private boolean logHeartbeats;
@@ -36,6 +37,20 @@ abstract class AbstractLog implements Log, Closeable {
         logIncoming(message);
     }
 
+    public final void onIncoming(byte[] message, Charset charset) {
+        if (!isLoggingIncoming() || !logHeartbeats && MessageUtils.isHeartbeat(message)) {
+            return;
+        }
+        logIncoming(new String(message, charset));
+    }
+
+    /**
+     * @return false if incoming messages are not logged, so that they need not be decoded
+     */
+    protected boolean isLoggingIncoming() {
+        return true;
+    }
+
     protected abstract void logIncoming(String message);
 
     public final void onOutgoing(String message) {
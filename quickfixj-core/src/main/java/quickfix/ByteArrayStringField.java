@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.quickfixj.CharsetSupport;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+/**
+ * A string field whose value is backed by a slice of a byte array, e.g. of the raw
+ * message bytes. The value is only decoded into a String when it is first accessed.
+ */
+final class ByteArrayStringField extends StringField {
+
+    static final long serialVersionUID = -6128547230158623584L;
+
+    private byte[] data;
+    private int offset;
+    private int length;
+    private transient CharSequence view;
+
+    ByteArrayStringField(int field, byte[] data, int offset, int length) {
+        super(field, null);
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public String getObject() {
+        decode();
+        return super.getObject();
+    }
+
+    @Override
+    protected void setObject(String value) {
+        super.setObject(value);
+        data = null;
+    }
+
+    @Override
+    protected String objectAsString() {
+        return getObject();
+    }
+
+    @Override
+    public boolean valueEquals(String value) {
+        if (value == null || !isByteBacked()) {
+            return super.valueEquals(value);
+        }
+        return contentEquals(value);
+    }
+
+    @Override
+    CharSequence charSequence() {
+        if (!isByteBacked()) {
+            return super.charSequence();
+        }
+        CharSequence sequence = view;
+        if (sequence == null) {
+            sequence = new ByteSequence(data, offset, length);
+            view = sequence;
+        }
+        return sequence;
+    }
+
+    @Override
+    boolean contentEquals(CharSequence value) {
+        final byte[] bytes = data;
+        if (!isByteBacked()) {
+            return super.contentEquals(value);
+        }
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((bytes[offset + i] & 0xFF) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    boolean contentEquals(char value) {
+        if (!isByteBacked()) {
+            return super.contentEquals(value);
+        }
+        return length == 1 && (data[offset] & 0xFF) == value;
+    }
+
+    @Override
+    int copyTo(char[] destination, int offset) {
+        final byte[] bytes = data;
+        if (!isByteBacked()) {
+            return super.copyTo(destination, offset);
+        }
+        checkCapacity(destination, offset, length);
+        for (int i = 0; i < length; i++) {
+            destination[offset + i] = (char) (bytes[this.offset + i] & 0xFF);
+        }
+        return length;
+    }
+
+    /**
+     * The bytes can be used as characters while the value has not been decoded
+     * and the charset maps every byte to the char of the same value.
+     */
+    private boolean isByteBacked() {
+        return data != null && CharsetSupport.isStringEquivalent();
+    }
+
+    @Override
+    public int hashCode() {
+        return getObject().hashCode();
+    }
+
+    private void decode() {
+        final byte[] bytes = data;
+        if (bytes != null) {
+            super.setObject(new String(bytes, offset, length, CharsetSupport.getCharsetInstance()));
+            data = null;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        decode();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * A read-only view of the value bytes of a field.
+     */
+    private static final class ByteSequence implements CharSequence {
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+
+        ByteSequence(byte[] data, int offset, int length) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            }
+            return (char) (data[offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new ByteSequence(data, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, offset, length, CharsetSupport.getCharsetInstance());
+        }
+    }
+}
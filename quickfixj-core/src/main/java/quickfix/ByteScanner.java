@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Finds delimiter bytes (SOH, '=', the start of a message header) in raw FIX data.
+ * <p>
+ * {@link #SCALAR} compares one byte at a time. {@link #SWAR} ("SIMD within a register")
+ * reads eight bytes as a <code>long</code> and tests them all with a few arithmetic
+ * operations, which pays off for long fields and for seeking message headers in
+ * large buffers.
+ * <p>
+ * The scanner used when parsing messages from bytes and by the FIX frame decoder is
+ * {@link #setDefault(ByteScanner) selectable at runtime}; decoders pick up the default
+ * when they are created.
+ */
+public abstract class ByteScanner {
+
+    /**
+     * Scans one byte at a time.
+     */
+    public static final ByteScanner SCALAR = new ScalarByteScanner();
+
+    /**
+     * Scans eight bytes at a time.
+     */
+    public static final ByteScanner SWAR = new SwarByteScanner();
+
+    private static ByteScanner defaultScanner = SCALAR;
+
+    /**
+     * @return the scanner used for parsing messages from bytes and decoding frames
+     */
+    public static ByteScanner getDefault() {
+        return defaultScanner;
+    }
+
+    /**
+     * Sets the scanner used for parsing messages from bytes and decoding frames.
+     *
+     * @param scanner {@link #SCALAR} or {@link #SWAR}
+     */
+    public static void setDefault(ByteScanner scanner) {
+        if (scanner == null) {
+            throw new NullPointerException("scanner");
+        }
+        defaultScanner = scanner;
+    }
+
+    ByteScanner() {
+    }
+
+    /**
+     * Returns the index of the first occurrence of a byte in a range of an array.
+     *
+     * @param data the data to search
+     * @param value the byte to find
+     * @param fromIndex the first index to search
+     * @param toIndex the index after the last index to search
+     * @return the index of the byte, or -1 if it is not found
+     */
+    public abstract int indexOf(byte[] data, byte value, int fromIndex, int toIndex);
+
+    /**
+     * Returns the index of the first occurrence of a byte in a range of a buffer.
+     * The indexes are absolute, the buffer position and limit are not used or changed.
+     *
+     * @param buffer the buffer to search
+     * @param value the byte to find
+     * @param fromIndex the first index to search
+     * @param toIndex the index after the last index to search
+     * @return the index of the byte, or -1 if it is not found
+     */
+    public abstract int indexOf(ByteBuffer buffer, byte value, int fromIndex, int toIndex);
+
+    /**
+     * Returns the sum of the unsigned bytes in a range of a buffer, e.g. to compute a
+     * FIX checksum. The result wraps around for ranges of more than 8 MB, which keeps
+     * it exact modulo 256. The indexes are absolute, the buffer position and limit are
+     * not used or changed.
+     *
+     * @param buffer the buffer
+     * @param fromIndex the first index to add
+     * @param toIndex the index after the last index to add
+     * @return the sum of the bytes
+     */
+    public abstract int sum(ByteBuffer buffer, int fromIndex, int toIndex);
+
+    private static final class ScalarByteScanner extends ByteScanner {
+
+        @Override
+        public int indexOf(byte[] data, byte value, int fromIndex, int toIndex) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (data[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOf(ByteBuffer buffer, byte value, int fromIndex, int toIndex) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (buffer.get(i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int sum(ByteBuffer buffer, int fromIndex, int toIndex) {
+            int sum = 0;
+            for (int i = fromIndex; i < toIndex; i++) {
+                sum += buffer.get(i) & 0xff;
+            }
+            return sum;
+        }
+
+        @Override
+        public String toString() {
+            return "SCALAR";
+        }
+    }
+
+    private static final class SwarByteScanner extends ByteScanner {
+        private static final long ONES = 0x0101010101010101L;
+        private static final long LOW_BITS = 0x7f7f7f7f7f7f7f7fL;
+        private static final long EVEN_BYTES = 0x00ff00ff00ff00ffL;
+        private static final long SHORTS = 0x0001000100010001L;
+
+        @Override
+        public int indexOf(byte[] data, byte value, int fromIndex, int toIndex) {
+            int i = fromIndex;
+            if (toIndex - i >= Long.BYTES) {
+                final ByteBuffer words = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+                final long pattern = (value & 0xffL) * ONES;
+                for (final int last = toIndex - Long.BYTES; i <= last; i += Long.BYTES) {
+                    final long matches = matches(words.getLong(i), pattern);
+                    if (matches != 0) {
+                        return i + (Long.numberOfTrailingZeros(matches) >>> 3);
+                    }
+                }
+            }
+            for (; i < toIndex; i++) {
+                if (data[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOf(ByteBuffer buffer, byte value, int fromIndex, int toIndex) {
+            int i = fromIndex;
+            if (toIndex - i >= Long.BYTES) {
+                final boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+                final long pattern = (value & 0xffL) * ONES;
+                for (final int last = toIndex - Long.BYTES; i <= last; i += Long.BYTES) {
+                    final long matches = matches(buffer.getLong(i), pattern);
+                    if (matches != 0) {
+                        return i + ((littleEndian
+                                ? Long.numberOfTrailingZeros(matches)
+                                : Long.numberOfLeadingZeros(matches)) >>> 3);
+                    }
+                }
+            }
+            for (; i < toIndex; i++) {
+                if (buffer.get(i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int sum(ByteBuffer buffer, int fromIndex, int toIndex) {
+            int sum = 0;
+            int i = fromIndex;
+            for (final int last = toIndex - Long.BYTES; i <= last; i += Long.BYTES) {
+                final long word = buffer.getLong(i);
+                // add the bytes pairwise into four 16 bit lanes, then add the lanes in the top lane
+                final long pairs = (word & EVEN_BYTES) + (word >>> 8 & EVEN_BYTES);
+                sum += (int) (pairs * SHORTS >>> 48);
+            }
+            for (; i < toIndex; i++) {
+                sum += buffer.get(i) & 0xff;
+            }
+            return sum;
+        }
+
+        /*
+         * Sets the high bit of each byte of the word that equals the corresponding byte of
+         * the pattern. Unlike the shorter (x - ONES) & ~x form this does not carry between
+         * bytes, so the result is exact for either byte order.
+         */
+        private static long matches(long word, long pattern) {
+            final long x = word ^ pattern;
+            return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+        }
+
+        @Override
+        public String toString() {
+            return "SWAR";
+        }
+    }
+}
@@ -22,6 +22,8 @@ package quickfix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.Charset;
+
 /**
  * This log factory can be used to log messages and events with more than
  * one logger. For example, you can log to both the screen and to a file
@@ -63,6 +65,17 @@ class CompositeLog implements Log {
         }
     }
 
+    @Override
+    public void onIncoming(byte[] message, Charset charset) {
+        for (Log log : logs) {
+            try {
+                log.onIncoming(message, charset);
+            } catch (Throwable e) {
+                handleError(e);
+            }
+        }
+    }
+
     public void onOutgoing(String message) {
         for (Log log : logs) {
             try {
@@ -73,6 +86,16 @@ class CompositeLog implements Log {
         }
     }
 
+    @Override
+    public boolean isLoggingOutgoing() {
+        for (Log log : logs) {
+            if (log.isLoggingOutgoing()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void onEvent(String text) {
         for (Log log : logs) {
             try {
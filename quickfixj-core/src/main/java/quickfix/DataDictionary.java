@@ -38,15 +38,23 @@ import quickfix.field.converter.UtcTimestampConverter;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Supplier;
 import javax.xml.XMLConstants;
 
@@ -68,6 +76,9 @@ public class DataDictionary {
     private static final String MESSAGE_CATEGORY_APP = "app";
 
     private static final int USER_DEFINED_TAG_MIN = 5000;
+    // tags below this limit are looked up in arrays and bitsets once the dictionary is compiled
+    private static final int DENSE_TAG_LIMIT = 16384;
+    private static final String[] ANY_VALUES = { ANY_VALUE };
     private static final String NO = "N";
 
     private static final String JDK_DOCUMENT_BUILDER_FACTORY_NAME = "com.sun.org.apache.xerces.internal.jaxp.DocumentBuilderFactoryImpl";
@@ -114,6 +125,18 @@ public class DataDictionary {
     private final Map<String, Node> components = new HashMap<>();
     private int[] orderedFieldsArray;
 
+    // compiled from the maps above after loading, see compile()
+    private TagSet fieldSet = TagSet.EMPTY;
+    private TagSet groupCountFieldSet = TagSet.EMPTY;
+    private FieldType[] fieldTypeTable = new FieldType[0];
+    private String[][] fieldValueTable = new String[0][];
+    private Map<Integer, String[]> sparseFieldValueTable = Collections.emptyMap();
+    private Map<String, MessageTables> messageTables = Collections.emptyMap();
+    private MessageTables headerTables = MessageTables.EMPTY;
+    private MessageTables trailerTables = MessageTables.EMPTY;
+    private volatile String validationHash;
+    private MessageValidator messageValidator;
+
     private DataDictionary() {
     }
 
@@ -280,7 +303,7 @@ public class DataDictionary {
      * @return true if the field is defined, false otherwise
      */
     public boolean isField(int field) {
-        return fields.contains(field);
+        return fieldSet.contains(field);
     }
 
     /**
@@ -290,7 +313,10 @@ public class DataDictionary {
      * @return the field type
      */
     public FieldType getFieldType(int field) {
-        return fieldTypes.get(field);
+        if (field >= 0 && field < fieldTypeTable.length) {
+            return fieldTypeTable[field];
+        }
+        return field < DENSE_TAG_LIMIT ? null : fieldTypes.get(field);
     }
 
     private void addMsgType(String msgType, String msgName) {
@@ -357,8 +383,7 @@ public class DataDictionary {
      * @return true if field is defined for message, false otherwise.
      */
     public boolean isMsgField(String msgType, int field) {
-        final Set<Integer> fields = messageFields.get(msgType);
-        return fields != null && fields.contains(field);
+        return getMessageTables(msgType).fields.contains(field);
     }
 
     /**
@@ -368,7 +393,7 @@ public class DataDictionary {
      * @return true if field is a header field, false otherwise.
      */
     public boolean isHeaderField(int field) {
-        return isMsgField(HEADER_ID, field);
+        return headerTables.fields.contains(field);
     }
 
     /**
@@ -378,7 +403,7 @@ public class DataDictionary {
      * @return true if field is a trailer field, false otherwise.
      */
     public boolean isTrailerField(int field) {
-        return isMsgField(TRAILER_ID, field);
+        return trailerTables.fields.contains(field);
     }
 
     private void addFieldType(int field, FieldType fieldType) {
@@ -408,8 +433,7 @@ public class DataDictionary {
      * @return true if field is required, false otherwise
      */
     public boolean isRequiredField(String msgType, int field) {
-        final Set<Integer> fields = requiredFields.get(msgType);
-        return fields != null && fields.contains(field);
+        return getMessageTables(msgType).requiredFields.contains(field);
     }
 
     /**
@@ -419,7 +443,7 @@ public class DataDictionary {
      * @return true if field s required, false otherwise
      */
     public boolean isRequiredHeaderField(int field) {
-        return isRequiredField(HEADER_ID, field);
+        return headerTables.requiredFields.contains(field);
     }
 
     /**
@@ -429,7 +453,7 @@ public class DataDictionary {
      * @return true if field s required, false otherwise
      */
     public boolean isRequiredTrailerField(int field) {
-        return isRequiredField(TRAILER_ID, field);
+        return trailerTables.requiredFields.contains(field);
     }
 
     private void addFieldValue(int field, String value) {
@@ -443,8 +467,7 @@ public class DataDictionary {
      * @return true if field is enumerated, false otherwise
      */
     public boolean hasFieldValue(int field) {
-        final Set<String> values = fieldValues.get(field);
-        return values != null && !values.isEmpty();
+        return getFieldValues(field) != null;
     }
 
     /**
@@ -455,30 +478,87 @@ public class DataDictionary {
      * @return true if field value is valid, false otherwise
      */
     public boolean isFieldValue(int field, String value) {
-        final Set<String> validValues = fieldValues.get(field);
+        final String[] validValues = getFieldValues(field);
 
-        if (validValues == null || validValues.isEmpty()) {
+        if (validValues == null) {
             return false;
         }
 
-        if (validValues.contains(ANY_VALUE)) {
+        if (validValues == ANY_VALUES) {
             return true;
         }
 
         if (!isMultipleValueStringField(field)) {
-            return validValues.contains(value);
+            return Arrays.binarySearch(validValues, value) >= 0;
         }
 
-        // MultipleValueString
-        for (String val : value.split(" ")) {
-            if (!validValues.contains(val)) {
-                return false;
+        // MultipleValueString, same tokens as value.split(" ") without creating them
+        int end = value.length();
+        if (value.indexOf(' ') != -1) {
+            while (end > 0 && value.charAt(end - 1) == ' ') {
+                end--;
+            }
+            if (end == 0) {
+                return true;
             }
         }
+        int start = 0;
+        do {
+            int tokenEnd = value.indexOf(' ', start);
+            if (tokenEnd == -1 || tokenEnd > end) {
+                tokenEnd = end;
+            }
+            if (!containsValue(validValues, value, start, tokenEnd)) {
+                return false;
+            }
+            start = tokenEnd + 1;
+        } while (start < end);
 
         return true;
     }
 
+    /**
+     * @return the sorted valid values of a field, {@link #ANY_VALUES} if other values are
+     * allowed or null if the field is not enumerated
+     */
+    private String[] getFieldValues(int field) {
+        if (field >= 0 && field < fieldValueTable.length) {
+            return fieldValueTable[field];
+        }
+        return field < DENSE_TAG_LIMIT ? null : sparseFieldValueTable.get(field);
+    }
+
+    /** Binary search for the value between start and end in sorted values. **/
+    private static boolean containsValue(String[] sortedValues, String value, int start, int end) {
+        int low = 0;
+        int high = sortedValues.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = compare(sortedValues[mid], value, start, end);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Same order as {@link String#compareTo(String)} for the value between start and end. **/
+    private static int compare(String s, String value, int start, int end) {
+        final int length = end - start;
+        final int n = Math.min(s.length(), length);
+        for (int i = 0; i < n; i++) {
+            final int cmp = s.charAt(i) - value.charAt(start + i);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return s.length() - length;
+    }
+
     private void addGroup(String msg, int field, int delim, DataDictionary dataDictionary) {
         groups.put(msg, field, new GroupInfo(delim, dataDictionary));
     }
@@ -492,7 +572,7 @@ public class DataDictionary {
      * @return true if field starts a repeating group, false otherwise
      */
     public boolean isGroup(String msg, int field) {
-        return groups.contains(msg, field);
+        return getMessageTables(msg).getGroup(field) != null;
     }
 
     /**
@@ -502,7 +582,7 @@ public class DataDictionary {
      * @return true if field starts a repeating group, false otherwise
      */
     public boolean isHeaderGroup(int field) {
-        return groups.contains(HEADER_ID, field);
+        return headerTables.getGroup(field) != null;
     }
 
     /**
@@ -513,7 +593,40 @@ public class DataDictionary {
      * @return an object containing group-related metadata
      */
     public GroupInfo getGroup(String msg, int field) {
-        return groups.get(msg, field);
+        return getMessageTables(msg).getGroup(field);
+    }
+
+    /**
+     * Predicate for determining if a field starts a repeating group in any message type,
+     * the header, the trailer or a nested group.
+     *
+     * @param field the tag
+     * @return true if the field is a group count field anywhere in this dictionary
+     */
+    boolean isGroupCountField(int field) {
+        return groupCountFieldSet.contains(field);
+    }
+
+    /**
+     * Get the compiled template of a repeating group, see {@link GroupTemplate}.
+     *
+     * @param msg the message type
+     * @param field the group count tag
+     * @return the template, or null if the field does not start a repeating group
+     */
+    GroupTemplate getGroupTemplate(String msg, int field) {
+        return getMessageTables(msg).getGroupTemplate(field);
+    }
+
+    private MessageTables getMessageTables(String msgType) {
+        if (msgType == HEADER_ID) {
+            return headerTables;
+        }
+        if (msgType == TRAILER_ID) {
+            return trailerTables;
+        }
+        final MessageTables tables = messageTables.get(msgType);
+        return tables != null ? tables : MessageTables.EMPTY;
     }
 
     /**
@@ -523,11 +636,11 @@ public class DataDictionary {
      * @return true if field is a raw data field, false otherwise
      */
     public boolean isDataField(int field) {
-        return fieldTypes.get(field) == FieldType.DATA;
+        return getFieldType(field) == FieldType.DATA;
     }
 
     private boolean isMultipleValueStringField(int field) {
-        final FieldType fieldType = fieldTypes.get(field);
+        final FieldType fieldType = getFieldType(field);
         return fieldType == FieldType.MULTIPLEVALUESTRING || fieldType == FieldType.MULTIPLESTRINGVALUE ||
                fieldType == FieldType.MULTIPLECHARVALUE;
     }
@@ -639,7 +752,8 @@ public class DataDictionary {
         setCheckUnorderedGroupFields(rhs.checkUnorderedGroupFields);
         setAllowUnknownMessageFields(rhs.allowUnknownMessageFields);
 
-        calculateOrderedFields();
+        compile();
+        messageValidator = rhs.messageValidator;
     }
 
     @SuppressWarnings("unchecked")
@@ -684,6 +798,298 @@ public class DataDictionary {
         lhs.addAll(rhs);
     }
 
+    /**
+     * Writes the loaded definitions, including those of the group dictionaries, in the
+     * format read by {@link #readSnapshot(DataInput)}. The component definitions are
+     * only used while loading and are not written.
+     *
+     * @param out the snapshot output
+     * @throws IOException if the snapshot cannot be written
+     * @see DataDictionarySnapshot
+     */
+    void writeSnapshot(DataOutput out) throws IOException {
+        out.writeBoolean(hasVersion);
+        writeNullableString(out, beginString);
+        writeNullableString(out, fullVersion);
+        writeNullableString(out, majorVersion);
+        out.writeInt(minorVersion);
+        out.writeInt(extensionPack);
+        out.writeInt(servicePack);
+        out.writeBoolean(checkFieldsOutOfOrder);
+        out.writeBoolean(checkFieldsHaveValues);
+        out.writeBoolean(checkUserDefinedFields);
+        out.writeBoolean(checkUnorderedGroupFields);
+        out.writeBoolean(allowUnknownMessageFields);
+
+        writeTagSets(out, messageFields);
+        writeTagSets(out, requiredFields);
+        writeStrings(out, messages);
+        writeStringMap(out, messageCategory);
+        writeStringMap(out, messageTypeForName);
+        out.writeInt(fields.size());
+        for (int field : fields) {
+            out.writeInt(field);
+        }
+        out.writeInt(fieldTypes.size());
+        for (Map.Entry<Integer, FieldType> entry : fieldTypes.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeUTF(entry.getValue().name());
+        }
+        out.writeInt(fieldValues.size());
+        for (Map.Entry<Integer, Set<String>> entry : fieldValues.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeStrings(out, entry.getValue());
+        }
+        out.writeInt(fieldNames.size());
+        for (Map.Entry<Integer, String> entry : fieldNames.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+        out.writeInt(valueNames.size());
+        for (Map.Entry<Integer, Map<String, String>> entry : valueNames.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeStringMap(out, entry.getValue());
+        }
+        out.writeInt(groups.size());
+        for (Map.Entry<String, Map<Integer, GroupInfo>> outer : groups.entrySet()) {
+            out.writeUTF(outer.getKey());
+            out.writeInt(outer.getValue().size());
+            for (Map.Entry<Integer, GroupInfo> entry : outer.getValue().entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().getDelimiterField());
+                entry.getValue().getDataDictionary().writeSnapshot(out);
+            }
+        }
+    }
+
+    /**
+     * Reads a dictionary written by {@link #writeSnapshot(DataOutput)}.
+     *
+     * @param in the snapshot input
+     * @return the dictionary
+     * @throws IOException if the snapshot cannot be read
+     */
+    static DataDictionary readSnapshot(DataInput in) throws IOException {
+        final DataDictionary dd = readSnapshotDefinitions(in);
+        dd.compile();
+        return dd;
+    }
+
+    private static DataDictionary readSnapshotDefinitions(DataInput in) throws IOException {
+        final DataDictionary dd = new DataDictionary();
+        dd.hasVersion = in.readBoolean();
+        dd.beginString = readNullableString(in);
+        dd.fullVersion = readNullableString(in);
+        dd.majorVersion = readNullableString(in);
+        dd.minorVersion = in.readInt();
+        dd.extensionPack = in.readInt();
+        dd.servicePack = in.readInt();
+        dd.checkFieldsOutOfOrder = in.readBoolean();
+        dd.checkFieldsHaveValues = in.readBoolean();
+        dd.checkUserDefinedFields = in.readBoolean();
+        dd.checkUnorderedGroupFields = in.readBoolean();
+        dd.allowUnknownMessageFields = in.readBoolean();
+
+        readTagSets(in, dd.messageFields);
+        readTagSets(in, dd.requiredFields);
+        readStrings(in, dd.messages);
+        readStringMap(in, dd.messageCategory);
+        dd.messageCategory.replaceAll((msgType, category) -> category.intern());
+        readStringMap(in, dd.messageTypeForName);
+        for (int i = in.readInt(); i > 0; i--) {
+            dd.fields.add(in.readInt());
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            final int field = in.readInt();
+            try {
+                dd.fieldTypes.put(field, FieldType.valueOf(in.readUTF()));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown field type for field " + field, e);
+            }
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            final int field = in.readInt();
+            readStrings(in, dd.fieldValues.computeIfAbsent(field, k -> new HashSet<>()));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            final int field = in.readInt();
+            final String name = in.readUTF();
+            dd.fieldNames.put(field, name);
+            dd.names.put(name, field);
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            final int field = in.readInt();
+            readStringMap(in, dd.valueNames.computeIfAbsent(field, k -> new HashMap<>()));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            final String msgType = in.readUTF();
+            for (int j = in.readInt(); j > 0; j--) {
+                final int field = in.readInt();
+                final int delim = in.readInt();
+                dd.addGroup(msgType, field, delim, readSnapshotDefinitions(in));
+            }
+        }
+        return dd;
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutput out, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void readStrings(DataInput in, Collection<String> values) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            values.add(in.readUTF());
+        }
+    }
+
+    private static void writeStringMap(DataOutput out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+    }
+
+    private static void readStringMap(DataInput in, Map<String, String> map) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            map.put(in.readUTF(), in.readUTF());
+        }
+    }
+
+    private static void writeTagSets(DataOutput out, Map<String, Set<Integer>> tagSets) throws IOException {
+        out.writeInt(tagSets.size());
+        for (Map.Entry<String, Set<Integer>> entry : tagSets.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (int tag : entry.getValue()) {
+                out.writeInt(tag);
+            }
+        }
+    }
+
+    private static void readTagSets(DataInput in, Map<String, Set<Integer>> tagSets) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            final Set<Integer> tags = tagSets.computeIfAbsent(in.readUTF(), k -> new HashSet<>());
+            for (int j = in.readInt(); j > 0; j--) {
+                tags.add(in.readInt());
+            }
+        }
+    }
+
+    /**
+     * Use a generated validator for the messages of this dictionary. The validator must have
+     * been generated from the same definitions as this dictionary.
+     *
+     * @param messageValidator the validator, or null to validate with the dictionary
+     * @throws IllegalArgumentException if the validator was generated from different definitions
+     * @see #getValidationHash()
+     */
+    public void setMessageValidator(MessageValidator messageValidator) {
+        if (messageValidator != null && !getValidationHash().equals(messageValidator.getDataDictionaryHash())) {
+            throw new IllegalArgumentException("Message validator " + messageValidator.getClass().getName()
+                    + " was not generated from data dictionary " + getFullVersion());
+        }
+        this.messageValidator = messageValidator;
+    }
+
+    public MessageValidator getMessageValidator() {
+        return messageValidator;
+    }
+
+    /**
+     * Get a hash of the definitions used for validation: the version, the fields with their
+     * types and values, the message types and the fields, required fields and groups of each
+     * message. Generated {@link MessageValidator message validators} are only used by
+     * dictionaries with the same hash.
+     *
+     * @return the SHA-256 hash as hex string
+     */
+    public String getValidationHash() {
+        String hash = validationHash;
+        if (hash == null) {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("version=").append(beginString).append('\n');
+            for (int field : new TreeSet<>(fields)) {
+                final FieldType fieldType = fieldTypes.get(field);
+                sb.append("field=").append(field).append(':').append(fieldType != null ? fieldType.name() : "-")
+                        .append(':');
+                appendSorted(sb, fieldValues.get(field));
+                sb.append('\n');
+            }
+            for (String msgType : new TreeSet<>(messages)) {
+                sb.append("message=").append(msgType).append('\n');
+            }
+            final Set<String> msgTypes = new TreeSet<>(messageFields.keySet());
+            msgTypes.addAll(requiredFields.keySet());
+            msgTypes.addAll(groups.keySet());
+            for (String msgType : msgTypes) {
+                sb.append("context=").append(msgType).append('\n');
+                appendValidationContext(sb, msgType, messageFields.get(msgType), " ");
+            }
+            hash = hash(sb.toString());
+            validationHash = hash;
+        }
+        return hash;
+    }
+
+    private void appendValidationContext(StringBuilder sb, String msgType, Set<Integer> contextFields,
+            String indent) {
+        sb.append(indent).append("fields=");
+        appendSorted(sb, contextFields);
+        sb.append('\n').append(indent).append("required=");
+        appendSorted(sb, requiredFields.get(msgType));
+        sb.append('\n');
+        final Map<Integer, GroupInfo> groupInfos = groups.get(msgType);
+        if (groupInfos != null) {
+            for (int group : new TreeSet<>(groupInfos.keySet())) {
+                final GroupInfo groupInfo = groupInfos.get(group);
+                sb.append(indent).append("group=").append(group).append(':')
+                        .append(groupInfo.getDelimiterField()).append('\n');
+                final DataDictionary groupDD = groupInfo.getDataDictionary();
+                groupDD.appendValidationContext(sb, msgType, groupDD.fields, indent + " ");
+            }
+        }
+    }
+
+    private static void appendSorted(StringBuilder sb, Collection<?> values) {
+        if (values != null) {
+            String separator = "";
+            for (Object value : new TreeSet<>(values)) {
+                sb.append(separator).append(value);
+                separator = ",";
+            }
+        }
+    }
+
+    private static String hash(String text) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder hash = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hash.toString();
+    }
+
     /**
      * Validate a message, including the header and trailer fields.
      *
@@ -730,7 +1136,14 @@ public class DataDictionary {
         }
 
         final String msgType = message.getHeader().getString(MsgType.FIELD);
-        if (isVersionSpecified(applicationDataDictionary)) {
+        final MessageValidator validator = isVersionSpecified(applicationDataDictionary)
+                ? applicationDataDictionary.messageValidator : null;
+        if (validator != null) {
+            if (!validator.isMsgType(msgType)) {
+                throw new FieldException(SessionRejectReason.INVALID_MSGTYPE, MsgType.FIELD);
+            }
+            validator.checkHasRequired(message, msgType, bodyOnly);
+        } else if (isVersionSpecified(applicationDataDictionary)) {
             applicationDataDictionary.checkMsgType(msgType);
             applicationDataDictionary.checkHasRequired(message.getHeader(), message,
                     message.getTrailer(), msgType, bodyOnly);
@@ -741,7 +1154,11 @@ public class DataDictionary {
             sessionDataDictionary.iterate(message.getTrailer(), TRAILER_ID, sessionDataDictionary);
         }
 
-        applicationDataDictionary.iterate(message, msgType, applicationDataDictionary);
+        if (validator != null) {
+            validator.validateBody(message, msgType, applicationDataDictionary);
+        } else {
+            applicationDataDictionary.iterate(message, msgType, applicationDataDictionary);
+        }
     }
 
     private static boolean isVersionSpecified(DataDictionary dd) {
@@ -750,6 +1167,7 @@ public class DataDictionary {
 
     private void iterate(FieldMap map, String msgType, DataDictionary dd) throws IncorrectTagValue,
             IncorrectDataFormat {
+        final MessageTables tables = dd.getMessageTables(msgType);
         for (final Field<?> f : map) {
             final StringField field = (StringField) f;
 
@@ -761,15 +1179,15 @@ public class DataDictionary {
             }
 
             if (beginString != null) {
-                dd.checkField(field, msgType, map instanceof Message);
-                dd.checkGroupCount(field, map, msgType);
+                dd.checkField(field, tables, map instanceof Message);
+                checkGroupCount(field, map, tables);
             }
         }
 
-        for (final List<Group> groups : map.getGroups().values()) {
-            for (final Group group : groups) {
-                iterate(group, msgType, dd.getGroup(msgType, group.getFieldTag())
-                        .getDataDictionary());
+        for (final Map.Entry<Integer, List<Group>> entry : map.getGroups().entrySet()) {
+            final DataDictionary groupDD = tables.getGroup(entry.getKey()).getDataDictionary();
+            for (final Group group : entry.getValue()) {
+                iterate(group, msgType, groupDD);
             }
         }
     }
@@ -783,19 +1201,46 @@ public class DataDictionary {
 
     /** Check if field tag number is defined in spec. **/
     void checkValidTagNumber(Field<?> field) {
-        if (!fields.contains(field.getTag())) {
+        if (!fieldSet.contains(field.getTag())) {
             throw new FieldException(SessionRejectReason.INVALID_TAG_NUMBER, field.getField());
         }
     }
 
     /** Check if field tag is defined for message or group **/
     void checkField(Field<?> field, String msgType, boolean message) {
+        checkField(field, getMessageTables(msgType), message);
+    }
+
+    private void checkField(Field<?> field, MessageTables tables, boolean message) {
         // use different validation for groups and messages
-        boolean messageField = message ? isMsgField(msgType, field.getField()) : fields.contains(field.getField());
+        boolean messageField = message ? tables.fields.contains(field.getField()) : fieldSet.contains(field.getField());
         boolean fail = checkFieldFailure(field.getField(), messageField);
 
         if (fail) {
-            if (fields.contains(field.getField())) {
+            if (fieldSet.contains(field.getField())) {
+                throw new FieldException(SessionRejectReason.TAG_NOT_DEFINED_FOR_THIS_MESSAGE_TYPE, field.getField());
+            } else {
+                throw new FieldException(SessionRejectReason.INVALID_TAG_NUMBER, field.getField());
+            }
+        }
+    }
+
+    /**
+     * Validate a field which is not defined for the message or group containing it, unless
+     * undefined fields are allowed. Used by generated {@link MessageValidator message validators}.
+     *
+     * @param field the field
+     * @param message true if the field is in a message body, false if it is in a group
+     * @throws IncorrectTagValue if a field value is not valid
+     * @throws IncorrectDataFormat if a field value has a wrong data type
+     * @throws FieldException if undefined fields are not allowed
+     */
+    public void checkUndefinedField(StringField field, boolean message) throws IncorrectTagValue,
+            IncorrectDataFormat {
+        checkValidFormat(field);
+        checkValue(field);
+        if (checkFieldFailure(field.getField(), false)) {
+            if (message && fieldSet.contains(field.getField())) {
                 throw new FieldException(SessionRejectReason.TAG_NOT_DEFINED_FOR_THIS_MESSAGE_TYPE, field.getField());
             } else {
                 throw new FieldException(SessionRejectReason.INVALID_TAG_NUMBER, field.getField());
@@ -818,6 +1263,18 @@ public class DataDictionary {
         if (fieldType == null) {
             return;
         }
+        checkValidFormat(field, fieldType);
+    }
+
+    /**
+     * Check that a field value has the format of a field type. Used by generated
+     * {@link MessageValidator message validators}.
+     *
+     * @param field the field
+     * @param fieldType the type of the field
+     * @throws IncorrectDataFormat if the value does not have the format of the type
+     */
+    public void checkValidFormat(StringField field, FieldType fieldType) throws IncorrectDataFormat {
         if (!checkFieldsHaveValues && field.getValue().length() == 0) {
             return;
         }
@@ -882,8 +1339,13 @@ public class DataDictionary {
         }
     }
 
-    /** Check if a field has a value. **/
-    private void checkHasValue(StringField field) {
+    /**
+     * Check if a field has a value. Used by generated {@link MessageValidator message validators}.
+     *
+     * @param field the field
+     * @throws FieldException if the field is empty and fields must have values
+     */
+    public void checkHasValue(StringField field) {
         if (checkFieldsHaveValues && field.getValue().length() == 0) {
             throw new FieldException(SessionRejectReason.TAG_SPECIFIED_WITHOUT_A_VALUE,
                     field.getField());
@@ -891,9 +1353,9 @@ public class DataDictionary {
     }
 
     /** Check if group count matches number of groups in **/
-    private void checkGroupCount(StringField field, FieldMap fieldMap, String msgType) {
+    private static void checkGroupCount(StringField field, FieldMap fieldMap, MessageTables tables) {
         final int fieldNum = field.getField();
-        if (isGroup(msgType, fieldNum)) {
+        if (tables.getGroup(fieldNum) != null) {
             if (fieldMap.getGroupCount(fieldNum) != Integer.parseInt(field.getValue())) {
                 throw new FieldException(
                         SessionRejectReason.INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP,
@@ -914,8 +1376,9 @@ public class DataDictionary {
     }
 
     private void checkHasRequired(String msgType, FieldMap fields, boolean bodyOnly) {
-        final Set<Integer> requiredFieldsForMessage = requiredFields.get(msgType);
-        if (requiredFieldsForMessage == null || requiredFieldsForMessage.isEmpty()) {
+        final MessageTables tables = getMessageTables(msgType);
+        final int[] requiredFieldsForMessage = tables.requiredFieldOrder;
+        if (requiredFieldsForMessage.length == 0) {
             return;
         }
 
@@ -928,7 +1391,7 @@ public class DataDictionary {
         final Map<Integer, List<Group>> groups = fields.getGroups();
         if (!groups.isEmpty()) {
             for (Map.Entry<Integer, List<Group>> entry : groups.entrySet()) {
-                final GroupInfo p = getGroup(msgType, entry.getKey());
+                final GroupInfo p = tables.getGroup(entry.getKey());
                 if (p != null) {
                     for (Group groupInstance : entry.getValue()) {
                         p.getDataDictionary().checkHasRequired(groupInstance, groupInstance,
@@ -1149,7 +1612,7 @@ public class DataDictionary {
             }
         }
 
-        calculateOrderedFields();
+        compile();
     }
 
     private int getIntegerAttributeIfDefined(final Element documentElement, final String attribute) throws ConfigError {
@@ -1215,7 +1678,20 @@ public class DataDictionary {
         return orderedFieldsArray;
     }
 
-    private void calculateOrderedFields() {
+    /**
+     * Builds the ordered fields and the lookup tables used for parsing and validation from
+     * the loaded definitions, including those of the group dictionaries.
+     */
+    private void collectGroupCountFields(Set<Integer> groupCountFields) {
+        for (Map<Integer, GroupInfo> gm : groups.values()) {
+            for (Map.Entry<Integer, GroupInfo> entry : gm.entrySet()) {
+                groupCountFields.add(entry.getKey());
+                entry.getValue().dataDictionary.collectGroupCountFields(groupCountFields);
+            }
+        }
+    }
+
+    private void compile() {
         orderedFieldsArray = new int[fields.size()];
         int i = 0;
         for (Integer field : fields) {
@@ -1224,9 +1700,66 @@ public class DataDictionary {
 
         for (Map<Integer, GroupInfo> gm : groups.values()) {
             for (GroupInfo gi : gm.values()) {
-                gi.dataDictionary.calculateOrderedFields();
+                gi.dataDictionary.compile();
+            }
+        }
+
+        fieldSet = new TagSet(fields);
+        final Set<Integer> groupCountFields = new HashSet<>();
+        collectGroupCountFields(groupCountFields);
+        groupCountFieldSet = new TagSet(groupCountFields);
+
+        fieldTypeTable = new FieldType[denseTableLength(fieldTypes.keySet())];
+        for (Map.Entry<Integer, FieldType> entry : fieldTypes.entrySet()) {
+            if (entry.getKey() >= 0 && entry.getKey() < fieldTypeTable.length) {
+                fieldTypeTable[entry.getKey()] = entry.getValue();
+            }
+        }
+
+        fieldValueTable = new String[denseTableLength(fieldValues.keySet())][];
+        final Map<Integer, String[]> sparseValues = new HashMap<>();
+        for (Map.Entry<Integer, Set<String>> entry : fieldValues.entrySet()) {
+            if (entry.getKey() >= 0 && entry.getKey() < fieldValueTable.length) {
+                fieldValueTable[entry.getKey()] = compileFieldValues(entry.getValue());
+            } else {
+                sparseValues.put(entry.getKey(), compileFieldValues(entry.getValue()));
             }
         }
+        sparseFieldValueTable = sparseValues;
+
+        final Set<String> msgTypes = new HashSet<>(messageFields.keySet());
+        msgTypes.addAll(requiredFields.keySet());
+        msgTypes.addAll(groups.keySet());
+        final Map<String, MessageTables> tables = new HashMap<>();
+        for (String msgType : msgTypes) {
+            tables.put(msgType, new MessageTables(msgType, messageFields.get(msgType), requiredFields.get(msgType),
+                    groups.get(msgType)));
+        }
+        messageTables = tables;
+        headerTables = tables.getOrDefault(HEADER_ID, MessageTables.EMPTY);
+        trailerTables = tables.getOrDefault(TRAILER_ID, MessageTables.EMPTY);
+    }
+
+    private static int denseTableLength(Collection<Integer> tags) {
+        int length = 0;
+        for (int tag : tags) {
+            if (tag >= 0 && tag < DENSE_TAG_LIMIT) {
+                length = Math.max(length, tag + 1);
+            }
+        }
+        return length;
+    }
+
+    private static String[] compileFieldValues(Set<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        if (values.contains(ANY_VALUE)) {
+            return ANY_VALUES;
+        }
+        final String[] sortedValues = values.toArray(new String[0]);
+        Arrays.sort(sortedValues);
+        return sortedValues;
     }
 
     private int lookupXMLFieldNumber(Document document, Node node) throws ConfigError {
@@ -1356,6 +1889,181 @@ public class DataDictionary {
         return defaultValue;
     }
 
+    /**
+     * Immutable set of tags, a bitset for the tags below {@link #DENSE_TAG_LIMIT} and a
+     * sorted array for the others.
+     */
+    private static final class TagSet {
+        private static final TagSet EMPTY = new TagSet(Collections.emptySet());
+
+        private final long[] bits;
+        private final int[] sparseTags;
+
+        TagSet(Collection<Integer> tags) {
+            bits = new long[(denseTableLength(tags) + 63) >>> 6];
+            final int[] sparse = new int[tags.size()];
+            int sparseCount = 0;
+            for (int tag : tags) {
+                if (tag >= 0 && tag < DENSE_TAG_LIMIT) {
+                    bits[tag >>> 6] |= 1L << tag;
+                } else {
+                    sparse[sparseCount++] = tag;
+                }
+            }
+            sparseTags = Arrays.copyOf(sparse, sparseCount);
+            Arrays.sort(sparseTags);
+        }
+
+        boolean contains(int tag) {
+            if (tag >= 0 && tag < DENSE_TAG_LIMIT) {
+                final int word = tag >>> 6;
+                return word < bits.length && (bits[word] & 1L << tag) != 0;
+            }
+            return sparseTags.length != 0 && Arrays.binarySearch(sparseTags, tag) >= 0;
+        }
+    }
+
+    /**
+     * Compiled field and group definitions of a message type, header or trailer.
+     */
+    private static final class MessageTables {
+        private static final MessageTables EMPTY = new MessageTables(null, null, null, null);
+
+        private final TagSet fields;
+        private final TagSet requiredFields;
+        // in the order required fields are checked
+        private final int[] requiredFieldOrder;
+        private final int[] groupTags;
+        private final GroupInfo[] groupInfos;
+        private final GroupTemplate[] groupTemplates;
+
+        MessageTables(String msgType, Set<Integer> fields, Set<Integer> requiredFields,
+                Map<Integer, GroupInfo> groups) {
+            this.fields = fields != null ? new TagSet(fields) : TagSet.EMPTY;
+            this.requiredFields = requiredFields != null ? new TagSet(requiredFields) : TagSet.EMPTY;
+            requiredFieldOrder = new int[requiredFields != null ? requiredFields.size() : 0];
+            int i = 0;
+            if (requiredFields != null) {
+                for (int field : requiredFields) {
+                    requiredFieldOrder[i++] = field;
+                }
+            }
+            groupTags = new int[groups != null ? groups.size() : 0];
+            groupInfos = new GroupInfo[groupTags.length];
+            groupTemplates = new GroupTemplate[groupTags.length];
+            if (groups != null) {
+                i = 0;
+                for (int tag : new TreeSet<>(groups.keySet())) {
+                    groupTags[i] = tag;
+                    groupInfos[i] = groups.get(tag);
+                    groupTemplates[i++] = new GroupTemplate(msgType, tag, groups.get(tag));
+                }
+            }
+        }
+
+        GroupInfo getGroup(int tag) {
+            final int i = indexOfGroup(tag);
+            return i >= 0 ? groupInfos[i] : null;
+        }
+
+        GroupTemplate getGroupTemplate(int tag) {
+            final int i = indexOfGroup(tag);
+            return i >= 0 ? groupTemplates[i] : null;
+        }
+
+        private int indexOfGroup(int tag) {
+            return groupTags.length != 0 ? Arrays.binarySearch(groupTags, tag) : -1;
+        }
+    }
+
+    /**
+     * Compiled definition of a repeating group of a message type, used to parse the group
+     * without dictionary lookups per group instance. The member tags of the group are kept
+     * in a sorted array together with their position in the group field order and the
+     * templates of the nested groups, so that a single search classifies a field.
+     * <p>
+     * Templates are built when the dictionary is compiled, after the dictionaries of the
+     * nested groups.
+     */
+    static final class GroupTemplate {
+        private final int countTag;
+        private final int delimiterField;
+        private final DataDictionary dataDictionary;
+        private final int[] fieldOrder;
+        private final int[] memberTags;
+        private final int[] memberPositions;
+        private final GroupTemplate[] nestedGroups;
+
+        private GroupTemplate(String msgType, int countTag, GroupInfo groupInfo) {
+            this.countTag = countTag;
+            delimiterField = groupInfo.getDelimiterField();
+            dataDictionary = groupInfo.getDataDictionary();
+            fieldOrder = dataDictionary.getOrderedFields();
+            final MessageTables nestedTables = dataDictionary.getMessageTables(msgType);
+            final Set<Integer> members = new TreeSet<>(dataDictionary.fields);
+            for (int tag : nestedTables.groupTags) {
+                members.add(tag);
+            }
+            memberTags = new int[members.size()];
+            int i = 0;
+            for (int tag : members) {
+                memberTags[i++] = tag;
+            }
+            memberPositions = new int[memberTags.length];
+            nestedGroups = new GroupTemplate[memberTags.length];
+            for (i = 0; i < memberTags.length; i++) {
+                memberPositions[i] = fieldOrder != null ? FieldMap.indexOf(memberTags[i], fieldOrder) : -1;
+                nestedGroups[i] = nestedTables.getGroupTemplate(memberTags[i]);
+            }
+        }
+
+        int getCountTag() {
+            return countTag;
+        }
+
+        int getDelimiterField() {
+            return delimiterField;
+        }
+
+        DataDictionary getDataDictionary() {
+            return dataDictionary;
+        }
+
+        int[] getFieldOrder() {
+            return fieldOrder;
+        }
+
+        /**
+         * @param tag the tag
+         * @return the member index of the tag, or a negative value if the tag is not a
+         * field of the group
+         */
+        int indexOfMember(int tag) {
+            return Arrays.binarySearch(memberTags, tag);
+        }
+
+        /**
+         * @param index the member index
+         * @return the position of the member in the group field order, -1 if unknown
+         */
+        int getMemberPosition(int index) {
+            return memberPositions[index];
+        }
+
+        /**
+         * @param index the member index
+         * @return the template of the nested group counted by the member, or null if the
+         * member is not a group count field
+         */
+        GroupTemplate getNestedGroup(int index) {
+            return nestedGroups[index];
+        }
+
+        Group newGroup() {
+            return new Group(countTag, delimiterField, fieldOrder);
+        }
+    }
+
     private static class StringIntegerMap<V> extends HashMap<String, Map<Integer, V>> {
 
         public boolean contains(String group, int field) {
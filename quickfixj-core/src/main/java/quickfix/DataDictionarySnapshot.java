@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static quickfix.FileUtil.Location.CLASSLOADER_RESOURCE;
+import static quickfix.FileUtil.Location.CONTEXT_RESOURCE;
+import static quickfix.FileUtil.Location.FILESYSTEM;
+import static quickfix.FileUtil.Location.URL;
+
+/**
+ * Loads data dictionaries using binary snapshots of their loaded definitions, so the
+ * XML of a dictionary is only parsed once.
+ * <p>
+ * A snapshot is stored in the snapshot directory under a name containing the SHA-256
+ * hash of the XML source, so a changed dictionary never uses a stale snapshot. Missing,
+ * outdated or unreadable snapshots are replaced by parsing the XML again. Failures to
+ * write a snapshot are logged and otherwise ignored.
+ */
+public final class DataDictionarySnapshot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataDictionarySnapshot.class);
+
+    private static final int MAGIC = 0x51464444; // "QFDD"
+    // must be incremented when the snapshot format changes
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_EXTENSION = ".ddsnap";
+
+    private DataDictionarySnapshot() {
+    }
+
+    /**
+     * Load a data dictionary from a URL or a file path, using its snapshot in the snapshot
+     * directory if there is one and creating it otherwise.
+     *
+     * @param location a URL or file system path
+     * @param snapshotDirectory the directory of the snapshots
+     * @return the data dictionary
+     * @throws ConfigError if the dictionary cannot be found or parsed
+     */
+    public static DataDictionary load(String location, File snapshotDirectory) throws ConfigError {
+        final byte[] source = readSource(location);
+        final String hash = hash(source);
+        final File snapshotFile = getSnapshotFile(snapshotDirectory, location, hash);
+
+        if (snapshotFile.isFile()) {
+            try {
+                return read(snapshotFile, hash);
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Ignoring data dictionary snapshot {}: {}", snapshotFile, e.toString());
+            }
+        }
+
+        final DataDictionary dataDictionary;
+        try {
+            dataDictionary = new DataDictionary(new ByteArrayInputStream(source));
+        } catch (final ConfigError e) {
+            throw new ConfigError(location + ": " + e.getMessage(), e);
+        }
+
+        try {
+            write(dataDictionary, snapshotFile, hash);
+        } catch (IOException e) {
+            LOG.warn("Could not write data dictionary snapshot {}: {}", snapshotFile, e.toString());
+        }
+        return dataDictionary;
+    }
+
+    static File getSnapshotFile(File snapshotDirectory, String location, String hash) {
+        String name = location;
+        final int separator = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        if (separator != -1) {
+            name = name.substring(separator + 1);
+        }
+        if (name.endsWith(".xml")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        name = name.replaceAll("[^a-zA-Z0-9.-]", "_");
+        return new File(snapshotDirectory, name + "-" + hash + SNAPSHOT_EXTENSION);
+    }
+
+    private static byte[] readSource(String location) throws ConfigError {
+        final InputStream inputStream = FileUtil.open(DataDictionary.class, location, URL, FILESYSTEM,
+                CONTEXT_RESOURCE, CLASSLOADER_RESOURCE);
+        if (inputStream == null) {
+            throw new ConfigError("Could not find data dictionary: " + location);
+        }
+
+        try (InputStream in = inputStream) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (final IOException e) {
+            throw new ConfigError(location + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String hash(byte[] source) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(source);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder hash = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hash.toString();
+    }
+
+    private static DataDictionary read(File snapshotFile, String hash) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a data dictionary snapshot");
+            }
+            final int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("unsupported snapshot format " + formatVersion);
+            }
+            if (!hash.equals(in.readUTF())) {
+                throw new IOException("snapshot of a different source");
+            }
+            return DataDictionary.readSnapshot(in);
+        }
+    }
+
+    private static void write(DataDictionary dataDictionary, File snapshotFile, String hash) throws IOException {
+        final File directory = snapshotFile.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("could not create directory " + directory);
+        }
+        // write to a temporary file first so a concurrent reader never sees a partial snapshot
+        final File tempFile = File.createTempFile(snapshotFile.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(hash);
+                dataDictionary.writeSnapshot(out);
+            }
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+}
@@ -23,6 +23,8 @@ import org.quickfixj.QFJException;
 import org.quickfixj.SimpleCache;
 import quickfix.field.ApplVerID;
 
+import java.io.File;
+
 import static quickfix.MessageUtils.toBeginString;
 
 public class DefaultDataDictionaryProvider implements DataDictionaryProvider {
@@ -34,14 +36,20 @@ public class DefaultDataDictionaryProvider implements DataDictionaryProvider {
     }
 
     public DefaultDataDictionaryProvider(boolean findDataDictionaries) {
+        this(findDataDictionaries, null);
+    }
+
+    /**
+     * @param findDataDictionaries whether dictionaries that have not been added are loaded
+     * from the default dictionary path of the FIX version
+     * @param snapshotDirectory directory of the snapshots used to load dictionaries, may be null
+     * @see DataDictionarySnapshot
+     */
+    public DefaultDataDictionaryProvider(boolean findDataDictionaries, File snapshotDirectory) {
         transportDictionaries = new SimpleCache<>(beginString -> {
             if (findDataDictionaries) {
                 final String path = beginString.replace(".", "") + ".xml";
-                try {
-                    return new DataDictionary(path);
-                } catch (ConfigError e) {
-                    throw new QFJException(e);
-                }
+                return loadDataDictionary(path, snapshotDirectory);
             }
             return null;
         });
@@ -49,16 +57,22 @@ public class DefaultDataDictionaryProvider implements DataDictionaryProvider {
             if (findDataDictionaries) {
                 final String beginString = toBeginString(applVerID);
                 final String path = beginString.replace(".", "") + ".xml";
-                try {
-                    return new DataDictionary(path);
-                } catch (ConfigError e) {
-                    throw new QFJException(e);
-                }
+                return loadDataDictionary(path, snapshotDirectory);
             }
             return null;
         });
     }
 
+    private static DataDictionary loadDataDictionary(String path, File snapshotDirectory) {
+        try {
+            return snapshotDirectory != null
+                    ? DataDictionarySnapshot.load(path, snapshotDirectory)
+                    : new DataDictionary(path);
+        } catch (ConfigError e) {
+            throw new QFJException(e);
+        }
+    }
+
     public DataDictionary getSessionDataDictionary(String beginString) {
         return transportDictionaries.computeIfAbsent(beginString);
     }
@@ -21,9 +21,12 @@ package quickfix;
 
 import org.quickfixj.QFJException;
 import org.quickfixj.SimpleCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import quickfix.field.ApplVerID;
 import quickfix.field.DefaultApplVerID;
 
+import java.io.File;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,6 +40,8 @@ import java.util.Set;
  * initiators) for creating sessions.
  */
 public class DefaultSessionFactory implements SessionFactory {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultSessionFactory.class);
+
     private static final SimpleCache<String, DataDictionary> dictionaryCache = new SimpleCache<>(path -> {
         try {
             return new DataDictionary(path);
@@ -147,7 +152,8 @@ public class DefaultSessionFactory implements SessionFactory {
 
             DefaultDataDictionaryProvider dataDictionaryProvider = null;
             if (useDataDictionary) {
-                dataDictionaryProvider = new DefaultDataDictionaryProvider();
+                dataDictionaryProvider = new DefaultDataDictionaryProvider(true,
+                        getDataDictionarySnapshotDirectory(sessionID, settings));
                 if (sessionID.isFIXT()) {
                     processFixtDataDictionaries(sessionID, settings, dataDictionaryProvider);
                 } else {
@@ -155,9 +161,21 @@ public class DefaultSessionFactory implements SessionFactory {
                 }
             }
 
+            long heartbeatMillis = 0;
+            if (settings.isSetting(sessionID, Session.SETTING_HEARTBTINT_MILLIS)) {
+                heartbeatMillis = settings.getLong(sessionID, Session.SETTING_HEARTBTINT_MILLIS);
+                if (heartbeatMillis <= 0) {
+                    throw new ConfigError("Heartbeat interval must be greater than zero");
+                }
+            }
+
             int heartbeatInterval = 0;
             if (connectionType.equals(SessionFactory.INITIATOR_CONNECTION_TYPE)) {
-                heartbeatInterval = (int) settings.getLong(sessionID, Session.SETTING_HEARTBTINT);
+                if (heartbeatMillis > 0) {
+                    heartbeatInterval = (int) ((heartbeatMillis + 999L) / 1000L);
+                } else {
+                    heartbeatInterval = (int) settings.getLong(sessionID, Session.SETTING_HEARTBTINT);
+                }
                 if (heartbeatInterval <= 0) {
                     throw new ConfigError("Heartbeat interval must be greater than zero");
                 }
@@ -236,10 +254,22 @@ public class DefaultSessionFactory implements SessionFactory {
 
             session.setLogonTimeout(logonTimeout);
             session.setLogoutTimeout(logoutTimeout);
+            if (heartbeatMillis > 0) {
+                session.setHeartBeatMillis(heartbeatMillis);
+            }
 
             final int maxScheduledWriteRequests = getSetting(settings, sessionID, Session.SETTING_MAX_SCHEDULED_WRITE_REQUESTS, 0);
             session.setMaxScheduledWriteRequests(maxScheduledWriteRequests);
 
+            final boolean lazyMessageParsing = getSetting(settings, sessionID, Session.SETTING_LAZY_MESSAGE_PARSING, false);
+            session.setLazyMessageParsing(lazyMessageParsing);
+
+            if (getSetting(settings, sessionID, Session.SETTING_MESSAGE_POOLING, false)) {
+                final boolean detectUseAfterRelease = getSetting(settings, sessionID,
+                        Session.SETTING_MESSAGE_POOL_DETECT_USE_AFTER_RELEASE, false);
+                session.setMessagePool(new MessagePool(MessagePool.DEFAULT_CAPACITY, detectUseAfterRelease));
+            }
+
             //
             // Session registration and creation callback is done here instead of in
             // session constructor to eliminate the possibility of other threads
@@ -267,7 +297,8 @@ public class DefaultSessionFactory implements SessionFactory {
     private DataDictionary createDataDictionary(SessionID sessionID, SessionSettings settings,
             String settingsKey, String beginString) throws ConfigError, FieldConvertError {
         final String path = getDictionaryPath(sessionID, settings, settingsKey, beginString);
-        final DataDictionary dataDictionary = getDataDictionary(path);
+        final DataDictionary dataDictionary = getDataDictionary(path,
+                getDataDictionarySnapshotDirectory(sessionID, settings));
 
         if (settings.isSetting(sessionID, Session.SETTING_VALIDATE_FIELDS_OUT_OF_ORDER)) {
             dataDictionary.setCheckFieldsOutOfOrder(settings.getBool(sessionID,
@@ -294,6 +325,11 @@ public class DefaultSessionFactory implements SessionFactory {
                     Session.SETTING_ALLOW_UNKNOWN_MSG_FIELDS));
         }
 
+        if (getSetting(settings, sessionID, Session.SETTING_USE_GENERATED_VALIDATOR, false)
+                && dataDictionary.getMessageValidator() == null) {
+            dataDictionary.setMessageValidator(loadMessageValidator(dataDictionary));
+        }
+
         return dataDictionary;
     }
 
@@ -362,9 +398,53 @@ public class DefaultSessionFactory implements SessionFactory {
         return beginString.replaceAll("\\.", "") + ".xml";
     }
 
-    private DataDictionary getDataDictionary(String path) throws ConfigError {
+    private MessageValidator loadMessageValidator(DataDictionary dataDictionary) {
+        // e.g. FIX.5.0SP2_EP254 -> quickfix.fix50sp2.MessageValidator
+        String version = dataDictionary.getFullVersion();
+        final int extensionPack = version.indexOf("_EP");
+        if (extensionPack != -1) {
+            version = version.substring(0, extensionPack);
+        }
+        final String className = "quickfix." + version.replace(".", "").toLowerCase() + ".MessageValidator";
+        final MessageValidator messageValidator;
+        try {
+            messageValidator = (MessageValidator) Class.forName(className).newInstance();
+        } catch (ClassNotFoundException e) {
+            LOG.warn("No generated message validator {} found for {}", className, version);
+            return null;
+        } catch (Exception e) {
+            LOG.warn("Could not create message validator {}", className, e);
+            return null;
+        }
+        if (!dataDictionary.getValidationHash().equals(messageValidator.getDataDictionaryHash())) {
+            LOG.warn("Not using message validator {}, it was generated from a different data dictionary",
+                    className);
+            return null;
+        }
+        return messageValidator;
+    }
+
+    private File getDataDictionarySnapshotDirectory(SessionID sessionID, SessionSettings settings)
+            throws ConfigError {
+        if (settings.isSetting(sessionID, Session.SETTING_DATA_DICTIONARY_SNAPSHOT_DIRECTORY)) {
+            return new File(settings.getString(sessionID, Session.SETTING_DATA_DICTIONARY_SNAPSHOT_DIRECTORY));
+        }
+        return null;
+    }
+
+    private DataDictionary getDataDictionary(String path, File snapshotDirectory) throws ConfigError {
         try {
-            return dictionaryCache.computeIfAbsent(path);
+            if (snapshotDirectory == null) {
+                return dictionaryCache.computeIfAbsent(path);
+            }
+            // a dictionary loaded from a snapshot is the same as the one parsed from the path
+            return dictionaryCache.computeIfAbsent(path, p -> {
+                try {
+                    return DataDictionarySnapshot.load(p, snapshotDirectory);
+                } catch (ConfigError e) {
+                    throw new QFJException(e);
+                }
+            });
         } catch (QFJException e) {
             final Throwable cause = e.getCause();
             if (cause instanceof ConfigError) {
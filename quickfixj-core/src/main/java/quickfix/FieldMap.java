@@ -28,12 +28,18 @@ import quickfix.field.converter.CharArrayConverter;
 import quickfix.field.converter.CharConverter;
 import quickfix.field.converter.DecimalConverter;
 import quickfix.field.converter.DoubleConverter;
+import quickfix.field.converter.FixedDecimalConverter;
 import quickfix.field.converter.IntConverter;
 import quickfix.field.converter.UtcDateOnlyConverter;
 import quickfix.field.converter.UtcTimeOnlyConverter;
 import quickfix.field.converter.UtcTimestampConverter;
 import org.quickfixj.CharsetSupport;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -41,6 +47,7 @@ import java.time.LocalTime;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 
 /**
  * Field container used by messages, groups, and composites.
@@ -49,8 +56,27 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
 
     static final long serialVersionUID = -3193357271891865972L;
 
+    /*
+     * The serialized form is that of the former TreeMap based field storage, see
+     * writeObject() and readObject().
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("fieldOrder", int[].class),
+            new ObjectStreamField("fields", TreeMap.class),
+            new ObjectStreamField("groups", TreeMap.class) };
+
     private final int[] fieldOrder;
 
+    private final FieldTable fieldTable;
+
+    /**
+     * A live view of the fields by tag, in field order, for subclasses which used
+     * the fields directly. It keeps the type of the former field storage, so that
+     * compiled subclasses still link, but it is backed by the field table and not by
+     * a tree. Changes through the view are written to this map. The maps and sets
+     * returned by navigableKeySet(), descendingMap(), headMap(), subMap(), tailMap()
+     * and the like are unmodifiable copies.
+     */
     protected final TreeMap<Integer, Field<?>> fields;
 
     protected final TreeMap<Integer, List<Group>> groups = new TreeMap<>();
@@ -63,7 +89,8 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
      */
     protected FieldMap(int[] fieldOrder) {
         this.fieldOrder = fieldOrder;
-        fields = new TreeMap<>(fieldOrder != null ? new FieldOrderComparator() : null);
+        fieldTable = new FieldTable(fieldOrder);
+        fields = new FieldsView(fieldOrder != null ? new FieldOrderComparator() : null);
     }
 
     protected FieldMap() {
@@ -81,21 +108,36 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public void clear() {
-        fields.clear();
-        groups.clear();
+        fields().clear();
+        groups().clear();
     }
 
     public void reset() {
-        fields.clear();
-        for(List<Group> groupList : groups.values()) {
+        fields().clear();
+        for(List<Group> groupList : groups().values()) {
             for(Group group : groupList)
                 group.reset();
         }
-        groups.clear();
+        groups().clear();
     }
 
     public boolean isEmpty() {
-        return fields.isEmpty();
+        return fields().isEmpty();
+    }
+
+    /**
+     * Removes all repeating groups, including nested ones, and hands the cleared group
+     * instances to the given recycler for reuse.
+     */
+    void recycleGroups(Consumer<Group> recycler) {
+        for (final List<Group> groupList : groups().values()) {
+            for (final Group group : groupList) {
+                group.recycleGroups(recycler);
+                group.clear();
+                recycler.accept(group);
+            }
+        }
+        groups().clear();
     }
 
     protected static int indexOf(int field, int[] fieldOrder) {
@@ -113,6 +155,27 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         return indexOf(field, fieldOrder) > -1;
     }
 
+    /**
+     * Called before the fields or groups of this map are accessed.
+     * Messages that defer parsing of their body complete it here.
+     */
+    void ensureParsed() {
+    }
+
+    private FieldTable fields() {
+        ensureParsed();
+        return fieldTable;
+    }
+
+    private TreeMap<Integer, List<Group>> groups() {
+        ensureParsed();
+        return groups;
+    }
+
+    /**
+     * Orders tags like the former TreeMap of the fields. Only used to write the
+     * fields in their former serialized form, which contains the comparator.
+     */
     private class FieldOrderComparator implements Comparator<Integer>, Serializable {
         static final long serialVersionUID = 3416006398018829270L;
 
@@ -131,9 +194,523 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         }
     }
 
+    /**
+     * Map view of the field table. The tree of the super class is never used, every
+     * method that would read or write it is overridden.
+     */
+    private final class FieldsView extends TreeMap<Integer, Field<?>> {
+        static final long serialVersionUID = -6407312937562014744L;
+
+        FieldsView(Comparator<Integer> comparator) {
+            super(comparator);
+        }
+
+        @Override
+        public int size() {
+            return fields().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return fields().isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && fields().containsKey((Integer) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return values().contains(value);
+        }
+
+        @Override
+        public Field<?> get(Object key) {
+            return key instanceof Integer ? fields().get((Integer) key) : null;
+        }
+
+        @Override
+        public Field<?> put(Integer key, Field<?> value) {
+            final FieldTable table = fields();
+            final Field<?> previous = table.get(key);
+            table.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public void putAll(Map<? extends Integer, ? extends Field<?>> map) {
+            for (final Entry<? extends Integer, ? extends Field<?>> entry : map.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public Field<?> remove(Object key) {
+            if (!(key instanceof Integer)) {
+                return null;
+            }
+            final FieldTable table = fields();
+            final Field<?> previous = table.get((Integer) key);
+            table.remove((Integer) key);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            fields().clear();
+        }
+
+        @Override
+        public Field<?> putIfAbsent(Integer key, Field<?> value) {
+            final Field<?> current = get(key);
+            return current != null ? current : put(key, value);
+        }
+
+        @Override
+        public boolean replace(Integer key, Field<?> oldValue, Field<?> newValue) {
+            if (!containsKey(key) || !Objects.equals(get(key), oldValue)) {
+                return false;
+            }
+            put(key, newValue);
+            return true;
+        }
+
+        @Override
+        public Field<?> replace(Integer key, Field<?> value) {
+            return containsKey(key) ? put(key, value) : null;
+        }
+
+        @Override
+        public Field<?> computeIfAbsent(Integer key,
+                java.util.function.Function<? super Integer, ? extends Field<?>> mappingFunction) {
+            Field<?> value = get(key);
+            if (value == null) {
+                value = mappingFunction.apply(key);
+                if (value != null) {
+                    put(key, value);
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public Field<?> computeIfPresent(Integer key,
+                java.util.function.BiFunction<? super Integer, ? super Field<?>, ? extends Field<?>> remappingFunction) {
+            final Field<?> oldValue = get(key);
+            if (oldValue == null) {
+                return null;
+            }
+            return store(key, remappingFunction.apply(key, oldValue));
+        }
+
+        @Override
+        public Field<?> compute(Integer key,
+                java.util.function.BiFunction<? super Integer, ? super Field<?>, ? extends Field<?>> remappingFunction) {
+            return store(key, remappingFunction.apply(key, get(key)));
+        }
+
+        @Override
+        public Field<?> merge(Integer key, Field<?> value,
+                java.util.function.BiFunction<? super Field<?>, ? super Field<?>, ? extends Field<?>> remappingFunction) {
+            Objects.requireNonNull(value);
+            final Field<?> oldValue = get(key);
+            return store(key, oldValue == null ? value : remappingFunction.apply(oldValue, value));
+        }
+
+        private Field<?> store(Integer key, Field<?> value) {
+            if (value == null) {
+                remove(key);
+            } else {
+                put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public void forEach(java.util.function.BiConsumer<? super Integer, ? super Field<?>> action) {
+            for (final FieldTable.FieldIterator iterator = fields().iterator(); iterator.hasNext();) {
+                final Field<?> field = iterator.next();
+                action.accept(iterator.tag(), field);
+            }
+        }
+
+        @Override
+        public void replaceAll(
+                java.util.function.BiFunction<? super Integer, ? super Field<?>, ? extends Field<?>> function) {
+            final FieldTable table = fields();
+            for (int i = 0; i < table.size(); i++) {
+                final int tag = table.tagAt(i);
+                table.put(tag, function.apply(tag, table.fieldAt(i)));
+            }
+        }
+
+        @Override
+        public Integer firstKey() {
+            return key(firstEntry());
+        }
+
+        @Override
+        public Integer lastKey() {
+            return key(lastEntry());
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> firstEntry() {
+            return entryAt(fields().isEmpty() ? -1 : 0);
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> lastEntry() {
+            return entryAt(fields().size() - 1);
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> pollFirstEntry() {
+            return removeEntry(firstEntry());
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> pollLastEntry() {
+            return removeEntry(lastEntry());
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> lowerEntry(Integer key) {
+            return entryAt(lowerIndex(key, false));
+        }
+
+        @Override
+        public Integer lowerKey(Integer key) {
+            return keyOrNull(lowerEntry(key));
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> floorEntry(Integer key) {
+            return entryAt(lowerIndex(key, true));
+        }
+
+        @Override
+        public Integer floorKey(Integer key) {
+            return keyOrNull(floorEntry(key));
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> ceilingEntry(Integer key) {
+            return entryAt(higherIndex(key, true));
+        }
+
+        @Override
+        public Integer ceilingKey(Integer key) {
+            return keyOrNull(ceilingEntry(key));
+        }
+
+        @Override
+        public Entry<Integer, Field<?>> higherEntry(Integer key) {
+            return entryAt(higherIndex(key, false));
+        }
+
+        @Override
+        public Integer higherKey(Integer key) {
+            return keyOrNull(higherEntry(key));
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return new AbstractSet<Integer>() {
+                @Override
+                public Iterator<Integer> iterator() {
+                    final Iterator<Entry<Integer, Field<?>>> iterator = entrySet().iterator();
+                    return new Iterator<Integer>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Integer next() {
+                            return iterator.next().getKey();
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return fields().size();
+                }
+
+                @Override
+                public boolean contains(Object key) {
+                    return containsKey(key);
+                }
+
+                @Override
+                public boolean remove(Object key) {
+                    final boolean contained = containsKey(key);
+                    FieldsView.this.remove(key);
+                    return contained;
+                }
+
+                @Override
+                public void clear() {
+                    fields().clear();
+                }
+            };
+        }
+
+        @Override
+        public Collection<Field<?>> values() {
+            return new AbstractCollection<Field<?>>() {
+                @Override
+                public Iterator<Field<?>> iterator() {
+                    return fields().iterator();
+                }
+
+                @Override
+                public int size() {
+                    return fields().size();
+                }
+
+                @Override
+                public void clear() {
+                    fields().clear();
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<Integer, Field<?>>> entrySet() {
+            return new AbstractSet<Entry<Integer, Field<?>>>() {
+                @Override
+                public Iterator<Entry<Integer, Field<?>>> iterator() {
+                    final FieldTable.FieldIterator iterator = fields().iterator();
+                    return new Iterator<Entry<Integer, Field<?>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Integer, Field<?>> next() {
+                            final Field<?> field = iterator.next();
+                            return new FieldEntry(iterator.tag(), field);
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return fields().size();
+                }
+
+                @Override
+                public void clear() {
+                    fields().clear();
+                }
+            };
+        }
+
+        @Override
+        public NavigableSet<Integer> navigableKeySet() {
+            return copy().navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<Integer> descendingKeySet() {
+            return copy().descendingKeySet();
+        }
+
+        @Override
+        public NavigableMap<Integer, Field<?>> descendingMap() {
+            return copy().descendingMap();
+        }
+
+        @Override
+        public NavigableMap<Integer, Field<?>> subMap(Integer fromKey, boolean fromInclusive, Integer toKey,
+                boolean toInclusive) {
+            return copy().subMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        @Override
+        public SortedMap<Integer, Field<?>> subMap(Integer fromKey, Integer toKey) {
+            return copy().subMap(fromKey, toKey);
+        }
+
+        @Override
+        public NavigableMap<Integer, Field<?>> headMap(Integer toKey, boolean inclusive) {
+            return copy().headMap(toKey, inclusive);
+        }
+
+        @Override
+        public SortedMap<Integer, Field<?>> headMap(Integer toKey) {
+            return copy().headMap(toKey);
+        }
+
+        @Override
+        public NavigableMap<Integer, Field<?>> tailMap(Integer fromKey, boolean inclusive) {
+            return copy().tailMap(fromKey, inclusive);
+        }
+
+        @Override
+        public SortedMap<Integer, Field<?>> tailMap(Integer fromKey) {
+            return copy().tailMap(fromKey);
+        }
+
+        @Override
+        public Object clone() {
+            return copyFields();
+        }
+
+        private Object writeReplace() {
+            return copyFields();
+        }
+
+        private TreeMap<Integer, Field<?>> copyFields() {
+            final TreeMap<Integer, Field<?>> copy = new TreeMap<>(comparator());
+            forEach(copy::put);
+            return copy;
+        }
+
+        private NavigableMap<Integer, Field<?>> copy() {
+            return Collections.unmodifiableNavigableMap(copyFields());
+        }
+
+        private int compareKeys(int tag, Integer key) {
+            final Comparator<? super Integer> comparator = comparator();
+            return comparator != null ? comparator.compare(tag, key) : Integer.compare(tag, key);
+        }
+
+        /**
+         * @return the index of the last field below the key, or at it if inclusive, or -1
+         */
+        private int lowerIndex(Integer key, boolean inclusive) {
+            final FieldTable table = fields();
+            int index = -1;
+            for (int i = 0; i < table.size(); i++) {
+                final int c = compareKeys(table.tagAt(i), key);
+                if (c > 0 || c == 0 && !inclusive) {
+                    break;
+                }
+                index = i;
+            }
+            return index;
+        }
+
+        /**
+         * @return the index of the first field above the key, or at it if inclusive, or -1
+         */
+        private int higherIndex(Integer key, boolean inclusive) {
+            final FieldTable table = fields();
+            for (int i = 0; i < table.size(); i++) {
+                final int c = compareKeys(table.tagAt(i), key);
+                if (c > 0 || c == 0 && inclusive) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Entry<Integer, Field<?>> entryAt(int index) {
+            return index < 0 ? null : new SimpleImmutableEntry<>(fields().tagAt(index), fields().fieldAt(index));
+        }
+
+        private Entry<Integer, Field<?>> removeEntry(Entry<Integer, Field<?>> entry) {
+            if (entry != null) {
+                fields().remove(entry.getKey());
+            }
+            return entry;
+        }
+
+        private Integer key(Entry<Integer, Field<?>> entry) {
+            if (entry == null) {
+                throw new NoSuchElementException();
+            }
+            return entry.getKey();
+        }
+
+        private Integer keyOrNull(Entry<Integer, Field<?>> entry) {
+            return entry != null ? entry.getKey() : null;
+        }
+
+        private final class FieldEntry extends SimpleEntry<Integer, Field<?>> {
+            static final long serialVersionUID = 4707227911937283530L;
+
+            FieldEntry(Integer tag, Field<?> field) {
+                super(tag, field);
+            }
+
+            @Override
+            public Field<?> setValue(Field<?> value) {
+                put(getKey(), value);
+                return super.setValue(value);
+            }
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ensureParsed();
+        final TreeMap<Integer, Field<?>> serialFields
+                = new TreeMap<>(fieldOrder != null ? new FieldOrderComparator() : null);
+        for (final FieldTable.FieldIterator iterator = fieldTable.iterator(); iterator.hasNext();) {
+            final Field<?> field = iterator.next();
+            serialFields.put(iterator.tag(), field);
+        }
+        final ObjectOutputStream.PutField putFields = out.putFields();
+        putFields.put("fieldOrder", fieldOrder);
+        putFields.put("fields", serialFields);
+        putFields.put("groups", groups);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        final ObjectInputStream.GetField getFields = in.readFields();
+        final int[] serialFieldOrder = (int[]) getFields.get("fieldOrder", null);
+        final TreeMap<Integer, Field<?>> serialFields
+                = (TreeMap<Integer, Field<?>>) getFields.get("fields", null);
+        TreeMap<Integer, List<Group>> serialGroups
+                = (TreeMap<Integer, List<Group>>) getFields.get("groups", null);
+        final FieldTable table = new FieldTable(serialFieldOrder);
+        if (serialFields != null) {
+            for (final Entry<Integer, Field<?>> entry : serialFields.entrySet()) {
+                table.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (serialGroups == null) {
+            serialGroups = new TreeMap<>();
+        }
+        // no constructor runs for the final fields of a deserialized map
+        setFinalField("fieldOrder", serialFieldOrder);
+        setFinalField("fieldTable", table);
+        setFinalField("fields", new FieldsView(serialFieldOrder != null ? new FieldOrderComparator() : null));
+        setFinalField("groups", serialGroups);
+    }
+
+    private void setFinalField(String name, Object value) throws InvalidObjectException {
+        try {
+            final java.lang.reflect.Field field = FieldMap.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(this, value);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            final InvalidObjectException exception = new InvalidObjectException("Cannot restore " + name);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
     public void setFields(FieldMap fieldMap) {
-        fields.clear();
-        fields.putAll(fieldMap.fields);
+        fields().clear();
+        fields().putAll(fieldMap.fields());
     }
 
     protected void setComponent(MessageComponent component) {
@@ -146,12 +723,12 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public void setGroups(FieldMap fieldMap) {
-        groups.clear();
-        groups.putAll(fieldMap.groups);
+        groups().clear();
+        groups().putAll(fieldMap.groups());
     }
 
     protected void setGroups(int key, List<Group> groupList) {
-        groups.put(key, groupList);
+        groups().put(key, groupList);
     }
 
     public void setString(int field, String value) {
@@ -194,6 +771,12 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         setField(new StringField(field, DecimalConverter.convert(value, padding)));
     }
 
+    public void setFixedDecimal(int field, long mantissa, int scale) {
+        // formatted into the bytes of the field, the String is only created when read
+        final byte[] value = FixedDecimalConverter.toBytes(mantissa, scale);
+        setField(field, new ByteArrayStringField(field, value, 0, value.length));
+    }
+
     public void setUtcTimeStamp(int field, LocalDateTime value) {
         setUtcTimeStamp(field, value, false);
     }
@@ -206,6 +789,17 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         setField(new StringField(field, UtcTimestampConverter.convert(value, precision)));
     }
 
+    /**
+     * Sets a timestamp field without creating java.time objects.
+     *
+     * @param field the tag
+     * @param epochNanos the nanoseconds since 1970-01-01T00:00:00Z
+     * @param precision the precision of the formatted value
+     */
+    public void setUtcTimeStampNanos(int field, long epochNanos, UtcTimestampPrecision precision) {
+        setField(new StringField(field, UtcTimestampConverter.convert(epochNanos, precision)));
+    }
+
     public void setUtcTimeOnly(int field, LocalTime value) {
         setUtcTimeOnly(field, value, false);
     }
@@ -218,12 +812,33 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         setField(new StringField(field, UtcTimeOnlyConverter.convert(value, precision)));
     }
 
+    /**
+     * Sets a time field without creating java.time objects.
+     *
+     * @param field the tag
+     * @param nanoOfDay the nanoseconds since midnight
+     * @param precision the precision of the formatted value
+     */
+    public void setUtcTimeOnlyNanos(int field, long nanoOfDay, UtcTimestampPrecision precision) {
+        setField(new StringField(field, UtcTimeOnlyConverter.convert(nanoOfDay, precision)));
+    }
+
     public void setUtcDateOnly(int field, LocalDate value) {
         setField(new StringField(field, UtcDateOnlyConverter.convert(value)));
     }
 
+    /**
+     * Sets a date field without creating java.time objects.
+     *
+     * @param field the tag
+     * @param epochDay the days since 1970-01-01
+     */
+    public void setUtcDateOnlyEpochDay(int field, long epochDay) {
+        setField(new StringField(field, UtcDateOnlyConverter.convert(epochDay)));
+    }
+
     StringField getField(int field) throws FieldNotFound {
-        final StringField f = (StringField) fields.get(field);
+        final StringField f = (StringField) fields().get(field);
         if (f == null) {
             throw new FieldNotFound(field);
         }
@@ -231,7 +846,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     Field<?> getField(int field, Field<?> defaultValue) {
-        final Field<?> f = fields.get(field);
+        final Field<?> f = fields().get(field);
         if (f == null) {
             return defaultValue;
         }
@@ -243,7 +858,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public Optional<String> getOptionalString(int field) {
-        final StringField f = (StringField) fields.get(field);
+        final StringField f = (StringField) fields().get(field);
         if (f == null) {
             return Optional.empty();
         } else {
@@ -251,6 +866,59 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         }
     }
 
+    /**
+     * Returns a read-only view of a field value. Values that were parsed from the
+     * message bytes are not decoded into a String. The view must not be used after
+     * the field has been changed.
+     *
+     * @param field the tag
+     * @return the field value
+     * @throws FieldNotFound if the field is not set
+     */
+    public CharSequence getCharSequence(int field) throws FieldNotFound {
+        return getField(field).charSequence();
+    }
+
+    /**
+     * Compares a field value without creating a String, e.g.
+     * <code>valueEquals(ClOrdID.FIELD, clOrdID)</code>.
+     *
+     * @param field the tag
+     * @param value the value to compare with
+     * @return true if the field is set to the given value
+     */
+    public boolean valueEquals(int field, CharSequence value) {
+        final Field<?> f = fields().get(field);
+        return f instanceof StringField && ((StringField) f).contentEquals(value);
+    }
+
+    /**
+     * Compares a field value without creating a String, e.g.
+     * <code>valueEquals(ExecType.FIELD, ExecType.TRADE)</code>.
+     *
+     * @param field the tag
+     * @param value the value to compare with
+     * @return true if the field is set to the given character
+     */
+    public boolean valueEquals(int field, char value) {
+        final Field<?> f = fields().get(field);
+        return f instanceof StringField && ((StringField) f).contentEquals(value);
+    }
+
+    /**
+     * Copies a field value into a character array without creating a String.
+     *
+     * @param field the tag
+     * @param destination the array to copy to
+     * @param offset the index in the array of the first character
+     * @return the number of copied characters
+     * @throws FieldNotFound if the field is not set
+     * @throws IndexOutOfBoundsException if the value does not fit into the array
+     */
+    public int copyString(int field, char[] destination, int offset) throws FieldNotFound {
+        return getField(field).copyTo(destination, offset);
+    }
+
     public boolean getBoolean(int field) throws FieldNotFound {
         try {
             return BooleanConverter.convert(getString(field));
@@ -260,8 +928,12 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public char getChar(int field) throws FieldNotFound {
+        final CharSequence value = getCharSequence(field);
+        if (value.length() == 1) {
+            return value.charAt(0);
+        }
         try {
-            return CharConverter.convert(getString(field));
+            return CharConverter.convert(value.toString());
         } catch (final FieldConvertError e) {
             throw newIncorrectDataException(e, field);
         }
@@ -307,6 +979,25 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         }
     }
 
+    /**
+     * Returns a field value as the unscaled value of a fixed-point decimal, e.g.
+     * 12340 for "123.4" with scale 2.
+     *
+     * @param field the tag
+     * @param scale the number of decimal places of the result
+     * @return the unscaled value
+     * @throws FieldNotFound if the field is not set
+     * @throws FieldException if the value is not a decimal, has more significant
+     * decimal places than <code>scale</code> or does not fit into a long
+     */
+    public long getFixedDecimal(int field, int scale) throws FieldNotFound {
+        try {
+            return FixedDecimalConverter.convert(getCharSequence(field), scale);
+        } catch (final FieldConvertError e) {
+            throw newIncorrectDataException(e, field);
+        }
+    }
+
     public LocalDateTime getUtcTimeStamp(int field) throws FieldNotFound {
         try {
             return UtcTimestampConverter.convertToLocalDateTime(getString(field));
@@ -315,6 +1006,38 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         }
     }
 
+    /**
+     * Returns a timestamp field as nanoseconds since the epoch without creating
+     * java.time objects.
+     *
+     * @param field the tag
+     * @return the nanoseconds since 1970-01-01T00:00:00Z
+     * @throws FieldNotFound if the field is not set
+     */
+    public long getUtcTimeStampNanos(int field) throws FieldNotFound {
+        try {
+            return UtcTimestampConverter.convertToEpochNanos(getString(field));
+        } catch (final FieldConvertError e) {
+            throw newIncorrectDataException(e, field);
+        }
+    }
+
+    /**
+     * Returns a timestamp field as milliseconds since the epoch without creating
+     * java.time objects.
+     *
+     * @param field the tag
+     * @return the milliseconds since 1970-01-01T00:00:00Z
+     * @throws FieldNotFound if the field is not set
+     */
+    public long getUtcTimeStampMillis(int field) throws FieldNotFound {
+        try {
+            return UtcTimestampConverter.convertToEpochMillis(getString(field));
+        } catch (final FieldConvertError e) {
+            throw newIncorrectDataException(e, field);
+        }
+    }
+
     public LocalTime getUtcTimeOnly(int field) throws FieldNotFound {
         try {
             return UtcTimeOnlyConverter.convertToLocalTime(getString(field));
@@ -323,6 +1046,21 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         }
     }
 
+    /**
+     * Returns a time field as nanoseconds of the day without creating java.time objects.
+     *
+     * @param field the tag
+     * @return the nanoseconds since midnight
+     * @throws FieldNotFound if the field is not set
+     */
+    public long getUtcTimeOnlyNanos(int field) throws FieldNotFound {
+        try {
+            return UtcTimeOnlyConverter.convertToNanoOfDay(getString(field));
+        } catch (final FieldConvertError e) {
+            throw newIncorrectDataException(e, field);
+        }
+    }
+
     public LocalDate getUtcDateOnly(int field) throws FieldNotFound {
         try {
             return UtcDateOnlyConverter.convertToLocalDate(getString(field));
@@ -331,15 +1069,30 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         }
     }
 
+    /**
+     * Returns a date field as days since the epoch without creating java.time objects.
+     *
+     * @param field the tag
+     * @return the days since 1970-01-01
+     * @throws FieldNotFound if the field is not set
+     */
+    public long getUtcDateOnlyEpochDay(int field) throws FieldNotFound {
+        try {
+            return UtcDateOnlyConverter.convertToEpochDay(getString(field));
+        } catch (final FieldConvertError e) {
+            throw newIncorrectDataException(e, field);
+        }
+    }
+
     public void setField(int key, Field<?> field) {
-        fields.put(key, field);
+        fields().put(key, field);
     }
 
     public void setField(StringField field) {
         if (field.getValue() == null) {
             throw new NullPointerException("Null field values are not allowed.");
         }
-        fields.put(field.getField(), field);
+        fields().put(field.getField(), field);
     }
 
     public void setField(BooleanField field) {
@@ -362,6 +1115,10 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         setDecimal(field.getField(), field.getValue());
     }
 
+    public void setField(FixedDecimalField field) {
+        setFixedDecimal(field.getField(), field.getValue(), field.getScale());
+    }
+
     public void setField(UtcTimeStampField field) {
         setUtcTimeStamp(field.getField(), field.getValue(), field.getPrecision());
     }
@@ -384,7 +1141,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public BytesField getField(BytesField field) throws FieldNotFound {
-        final Field<?> returnField = fields.get(field.getField());
+        final Field<?> returnField = fields().get(field.getField());
         if (returnField == null) {
             throw new FieldNotFound(field.getField());
         } else if (returnField instanceof BytesField) {
@@ -419,6 +1176,17 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
         return updateValue(field, getDecimal(field.getField()));
     }
 
+    public FixedDecimalField getField(FixedDecimalField field) throws FieldNotFound {
+        final CharSequence value = getCharSequence(field.getField());
+        final int scale = FixedDecimalConverter.getScale(value);
+        try {
+            field.setValue(FixedDecimalConverter.convert(value, scale), scale);
+        } catch (final FieldConvertError e) {
+            throw newIncorrectDataException(e, field.getField());
+        }
+        return field;
+    }
+
     public UtcTimeStampField getField(UtcTimeStampField field) throws FieldNotFound {
         return updateValue(field, getUtcTimeStamp(field.getField()));
     }
@@ -437,7 +1205,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public boolean isSetField(int field) {
-        return fields.containsKey(field);
+        return fields().containsKey(field);
     }
 
     public boolean isSetField(Field<?> field) {
@@ -445,18 +1213,18 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public void removeField(int field) {
-        fields.remove(field);
+        fields().remove(field);
     }
 
     @Override
     public Iterator<Field<?>> iterator() {
-        return fields.values().iterator();
+        return fields().iterator();
     }
 
     protected void initializeFrom(FieldMap source) {
-        fields.clear();
-        fields.putAll(source.fields);
-        for (Entry<Integer, List<Group>> entry : source.groups.entrySet()) {
+        fields().clear();
+        fields().putAll(source.fields());
+        for (Entry<Integer, List<Group>> entry : source.groups().entrySet()) {
             final List<Group> clones = new ArrayList<>();
             for (final Group group : entry.getValue()) {
                 final Group clone = new Group(group.getFieldTag(),
@@ -464,12 +1232,12 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
                 clone.initializeFrom(group);
                 clones.add(clone);
             }
-            groups.put(entry.getKey(), clones);
+            groups().put(entry.getKey(), clones);
         }
     }
 
     private boolean isGroupField(int field) {
-        return groups.containsKey(field);
+        return groups().containsKey(field);
     }
 
     private static void appendField(StringBuilder buffer, Field<?> field) {
@@ -486,7 +1254,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
             }
         }
 
-        for (final Field<?> field : fields.values()) {
+        for (final Field<?> field : fields()) {
             final int tag = field.getField();
             if (!isOrderedField(tag, preFields) && !isOrderedField(tag, postFields)
                     && !isGroupField(tag)) {
@@ -501,7 +1269,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
             }
         }
 
-        for (final Entry<Integer, List<Group>> entry : groups.entrySet()) {
+        for (final Entry<Integer, List<Group>> entry : groups().entrySet()) {
             final Integer groupCountTag = entry.getKey();
             if (!isOrderedField(groupCountTag, fieldOrder)) {
                 final List<Group> groups = entry.getValue();
@@ -527,7 +1295,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
 
     int calculateLength() {
         int result = 0;
-        for (final Field<?> field : fields.values()) {
+        for (final Field<?> field : fields()) {
             int tag = field.getField();
             if (tag != BeginString.FIELD && tag != BodyLength.FIELD
                     && tag != CheckSum.FIELD && !isGroupField(tag)) {
@@ -535,7 +1303,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
             }
         }
 
-        for (Entry<Integer, List<Group>> entry : groups.entrySet()) {
+        for (Entry<Integer, List<Group>> entry : groups().entrySet()) {
             final List<Group> groupList = entry.getValue();
             if (!groupList.isEmpty()) {
                 if(IS_STRING_EQUIVALENT) {
@@ -561,13 +1329,13 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
 
     int calculateChecksum() {
         int result = 0;
-        for (final Field<?> field : fields.values()) {
+        for (final Field<?> field : fields()) {
             if (field.getField() != CheckSum.FIELD && !isGroupField(field.getField())) {
                 result += field.getChecksum();
             }
         }
 
-        for (Entry<Integer, List<Group>> entry : groups.entrySet()) {
+        for (Entry<Integer, List<Group>> entry : groups().entrySet()) {
             final List<Group> groupList = entry.getValue();
             if (!groupList.isEmpty()) {
                 if(IS_STRING_EQUIVALENT) {
@@ -616,11 +1384,11 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
      * @return tags which are repeating group counters
      */
     public Iterable<Integer> groupKeys() {
-        return groups.keySet();
+        return groups().keySet();
     }
 
     Map<Integer, List<Group>> getGroups() {
-        return groups;
+        return groups();
     }
 
     public void addGroup(Group group) {
@@ -651,7 +1419,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public List<Group> getGroups(int field) {
-        return groups.computeIfAbsent(field, k -> new ArrayList<>());
+        return groups().computeIfAbsent(field, k -> new ArrayList<>());
     }
 
     public Group getGroup(int num, Group group) throws FieldNotFound {
@@ -706,7 +1474,7 @@ public abstract class FieldMap implements Serializable, Iterable<Field<?>> {
     }
 
     public boolean hasGroup(int field) {
-        return groups.containsKey(field);
+        return groups().containsKey(field);
     }
 
     public boolean hasGroup(int num, int field) {
@@ -0,0 +1,386 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Field storage of a {@link FieldMap}, keyed by primitive tag.
+ * <p>
+ * Fields are kept in parallel arrays sorted by field order rank and tag, so
+ * iteration follows the same order as before: fields listed in the field order
+ * come first (in that order), all other fields follow in ascending tag order.
+ * The rank of a tag is determined once per lookup or insert instead of on every
+ * comparison, from a tag to rank hash table which is shared by all tables with
+ * the same field order. Appending fields in order, which is what the parser does,
+ * does not move any elements.
+ * <p>
+ * The table is not serialized, {@link FieldMap} writes its fields in the former
+ * TreeMap form.
+ */
+final class FieldTable implements Iterable<Field<?>> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    // bounds the cache if field orders are created dynamically
+    private static final int MAX_CACHED_FIELD_ORDERS = 4096;
+
+    private static final ConcurrentMap<FieldOrderKey, FieldRanks> FIELD_RANKS = new ConcurrentHashMap<>();
+
+    private static final int UNORDERED = Integer.MAX_VALUE;
+
+    private static final int[] EMPTY_INTS = new int[0];
+
+    private static final Field<?>[] EMPTY_FIELDS = new Field<?>[0];
+
+    private final int[] fieldOrder;
+
+    private FieldRanks fieldRanks;
+
+    private int[] tags = EMPTY_INTS;
+
+    /** Field order ranks of the stored tags, only allocated if there is a field order. */
+    private int[] ranks = EMPTY_INTS;
+
+    private Field<?>[] values = EMPTY_FIELDS;
+
+    private int size;
+
+    private int modCount;
+
+    FieldTable(int[] fieldOrder) {
+        this.fieldOrder = fieldOrder;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    Field<?> get(int tag) {
+        final int index = indexOf(tag);
+        return index >= 0 ? values[index] : null;
+    }
+
+    boolean containsKey(int tag) {
+        return indexOf(tag) >= 0;
+    }
+
+    /**
+     * @return the tag at the given position in iteration order
+     */
+    int tagAt(int index) {
+        return tags[index];
+    }
+
+    /**
+     * @return the field at the given position in iteration order
+     */
+    Field<?> fieldAt(int index) {
+        return values[index];
+    }
+
+    void put(int tag, Field<?> field) {
+        final int rank = rank(tag);
+        if (size > 0) {
+            final int last = size - 1;
+            final int c = compare(rank, tag, rankAt(last), tags[last]);
+            if (c == 0) {
+                values[last] = field;
+                return;
+            } else if (c > 0) {
+                insertAt(size, rank, tag, field);
+                return;
+            }
+        }
+        final int index = binarySearch(rank, tag);
+        if (index >= 0) {
+            values[index] = field;
+        } else {
+            insertAt(-(index + 1), rank, tag, field);
+        }
+    }
+
+    void putAll(FieldTable source) {
+        if (size == 0 && fieldOrder == source.fieldOrder) {
+            tags = Arrays.copyOf(source.tags, source.size);
+            ranks = fieldOrder != null ? Arrays.copyOf(source.ranks, source.size) : EMPTY_INTS;
+            values = Arrays.copyOf(source.values, source.size);
+            size = source.size;
+            modCount++;
+        } else {
+            for (int i = 0; i < source.size; i++) {
+                put(source.tags[i], source.values[i]);
+            }
+        }
+    }
+
+    void remove(int tag) {
+        final int index = indexOf(tag);
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+            modCount++;
+        }
+    }
+
+    @Override
+    public FieldIterator iterator() {
+        return new FieldIterator();
+    }
+
+    private int indexOf(int tag) {
+        if (size == 0) {
+            return -1;
+        }
+        return binarySearch(rank(tag), tag);
+    }
+
+    private int rank(int tag) {
+        if (fieldOrder == null) {
+            return UNORDERED;
+        }
+        FieldRanks ranks = fieldRanks;
+        if (ranks == null) {
+            ranks = fieldRanks = getFieldRanks(fieldOrder);
+        }
+        return ranks.rank(tag);
+    }
+
+    private static FieldRanks getFieldRanks(int[] fieldOrder) {
+        final FieldOrderKey key = new FieldOrderKey(fieldOrder);
+        FieldRanks ranks = FIELD_RANKS.get(key);
+        if (ranks == null) {
+            ranks = new FieldRanks(fieldOrder);
+            if (FIELD_RANKS.size() < MAX_CACHED_FIELD_ORDERS) {
+                // keep a copy, the caller's array could be modified after all
+                final FieldRanks existing = FIELD_RANKS.putIfAbsent(
+                        new FieldOrderKey(fieldOrder.clone()), ranks);
+                if (existing != null) {
+                    ranks = existing;
+                }
+            }
+        }
+        return ranks;
+    }
+
+    private int rankAt(int index) {
+        return fieldOrder != null ? ranks[index] : UNORDERED;
+    }
+
+    private static int compare(int rank1, int tag1, int rank2, int tag2) {
+        return rank1 != rank2 ? Integer.compare(rank1, rank2) : Integer.compare(tag1, tag2);
+    }
+
+    private int binarySearch(int rank, int tag) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int c = compare(rankAt(mid), tags[mid], rank, tag);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertAt(int index, int rank, int tag, Field<?> field) {
+        if (size == tags.length) {
+            final int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            tags = Arrays.copyOf(tags, capacity);
+            values = Arrays.copyOf(values, capacity);
+            if (fieldOrder != null) {
+                ranks = Arrays.copyOf(ranks, capacity);
+            }
+        }
+        final int moved = size - index;
+        if (moved > 0) {
+            System.arraycopy(tags, index, tags, index + 1, moved);
+            System.arraycopy(values, index, values, index + 1, moved);
+            if (fieldOrder != null) {
+                System.arraycopy(ranks, index, ranks, index + 1, moved);
+            }
+        }
+        tags[index] = tag;
+        values[index] = field;
+        if (fieldOrder != null) {
+            ranks[index] = rank;
+        }
+        size++;
+        modCount++;
+    }
+
+    private void removeAt(int index) {
+        final int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(tags, index + 1, tags, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+            if (fieldOrder != null) {
+                System.arraycopy(ranks, index + 1, ranks, index, moved);
+            }
+        }
+        values[--size] = null;
+        modCount++;
+    }
+
+    final class FieldIterator implements Iterator<Field<?>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Field<?> next() {
+            checkForComodification();
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return values[last];
+        }
+
+        /**
+         * @return the tag of the field last returned by {@link #next()}
+         */
+        int tag() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            return tags[last];
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Tag to field order rank lookup in an open addressing hash table.
+     */
+    private static final class FieldRanks {
+        private final int[] keys;
+        private final int[] ranks;
+        private final int mask;
+
+        FieldRanks(int[] fieldOrder) {
+            final int capacity = Integer.highestOneBit(Math.max(1, fieldOrder.length) * 2 - 1) << 1;
+            keys = new int[capacity];
+            ranks = new int[capacity];
+            mask = capacity - 1;
+            for (int rank = 0; rank < fieldOrder.length; rank++) {
+                final int tag = fieldOrder[rank];
+                // 0 terminates generated field orders and is never a tag
+                if (tag != 0) {
+                    int index = hash(tag) & mask;
+                    while (keys[index] != 0 && keys[index] != tag) {
+                        index = (index + 1) & mask;
+                    }
+                    if (keys[index] == 0) {
+                        // the first occurrence of a tag determines its rank
+                        keys[index] = tag;
+                        ranks[index] = rank;
+                    }
+                }
+            }
+        }
+
+        int rank(int tag) {
+            if (tag != 0) {
+                int index = hash(tag) & mask;
+                int key;
+                while ((key = keys[index]) != 0) {
+                    if (key == tag) {
+                        return ranks[index];
+                    }
+                    index = (index + 1) & mask;
+                }
+            }
+            return UNORDERED; // unspecified fields are last
+        }
+
+        private static int hash(int tag) {
+            final int h = tag * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Compares field orders by content, since generated messages create a new
+     * field order array per instance.
+     */
+    private static final class FieldOrderKey {
+        private final int[] fieldOrder;
+        private final int hashCode;
+
+        FieldOrderKey(int[] fieldOrder) {
+            this.fieldOrder = fieldOrder;
+            hashCode = Arrays.hashCode(fieldOrder);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof FieldOrderKey
+                    && (fieldOrder == ((FieldOrderKey) obj).fieldOrder
+                            || Arrays.equals(fieldOrder, ((FieldOrderKey) obj).fieldOrder));
+        }
+    }
+}
@@ -25,6 +25,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.quickfixj.CharsetSupport;
 
@@ -50,8 +52,8 @@ public class FileLog extends AbstractLog {
     private final String messagesFileName;
     private final String eventFileName;
     private boolean syncAfterWrite;
-    private final Object messagesLock = new Object();
-    private final Object eventsLock = new Object();
+    private final Lock messagesLock = new ReentrantLock();
+    private final Lock eventsLock = new ReentrantLock();
 
     private FileOutputStream messages;
     private FileOutputStream events;
@@ -92,9 +94,10 @@ public class FileLog extends AbstractLog {
         writeMessage(messages, messagesLock, message, false);
     }
 
-    private void writeMessage(FileOutputStream stream, Object lock, String message, boolean forceTimestamp) {
+    private void writeMessage(FileOutputStream stream, Lock lock, String message, boolean forceTimestamp) {
         try {
-            synchronized(lock) {
+            lock.lock();
+            try {
                 if (forceTimestamp || includeTimestampForMessages) {
                     writeTimeStamp(stream);
                 }
@@ -104,6 +107,8 @@ public class FileLog extends AbstractLog {
                 if (syncAfterWrite) {
                     stream.getFD().sync();
                 }
+            } finally {
+                lock.unlock();
             }
         } catch (IOException e) {
             // QFJ-459: no point trying to log the error in the file if we had an IOException
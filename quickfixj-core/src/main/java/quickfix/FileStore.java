@@ -24,6 +24,7 @@ import quickfix.field.converter.UtcTimestampConverter;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
@@ -37,6 +38,7 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -362,8 +364,16 @@ public class FileStore implements MessageStore, Closeable {
      */
     @Override
     public boolean set(int sequence, String message) throws IOException {
+        return set(sequence, message.getBytes(CharsetSupport.getCharset()));
+    }
+
+    /**
+     * Writes the encoded message as it is.
+     */
+    @Override
+    public boolean set(int sequence, byte[] message) throws IOException {
         final long offset = messageFileWriter.getFilePointer();
-        final int size = message.length();
+        final int size = message.length;
         if (messageIndex != null) {
             updateMessageIndex(sequence, offset, size);
         }
@@ -374,7 +384,38 @@ public class FileStore implements MessageStore, Closeable {
         if (syncWrites) {
             headerFileOutputStream.getFD().sync();
         }
-        messageFileWriter.write(message.getBytes(CharsetSupport.getCharset()));
+        messageFileWriter.write(message);
+        return true;
+    }
+
+
+    /**
+     * Writes the index entries and the messages with one write each, and syncs
+     * the index once if SyncWrites is enabled.
+     */
+    @Override
+    public boolean set(int firstSequence, List<String> messages) throws IOException {
+        long offset = messageFileWriter.getFilePointer();
+        final ByteArrayOutputStream messageData = new ByteArrayOutputStream();
+        for (int i = 0; i < messages.size(); i++) {
+            final String message = messages.get(i);
+            final int sequence = firstSequence + i;
+            final int size = message.length();
+            if (messageIndex != null) {
+                updateMessageIndex(sequence, offset, size);
+            }
+            headerDataOutputStream.writeInt(sequence);
+            headerDataOutputStream.writeLong(offset);
+            headerDataOutputStream.writeInt(size);
+            final byte[] bytes = message.getBytes(CharsetSupport.getCharset());
+            messageData.write(bytes);
+            offset += bytes.length;
+        }
+        headerDataOutputStream.flush();
+        if (syncWrites) {
+            headerFileOutputStream.getFD().sync();
+        }
+        messageFileWriter.write(messageData.toByteArray());
         return true;
     }
 
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import quickfix.field.converter.FixedDecimalConverter;
+
+/**
+ * A fixed-point decimal message field. The value is a <code>long</code> mantissa
+ * and a scale giving the number of decimal places, e.g. 12345 with scale 2 is 123.45.
+ *
+ * @see FieldMap#getFixedDecimal(int, int)
+ */
+public class FixedDecimalField extends Field<Long> {
+
+    private int scale;
+
+    public FixedDecimalField(int field) {
+        super(field, 0L);
+    }
+
+    public FixedDecimalField(int field, long mantissa, int scale) {
+        super(field, mantissa);
+        this.scale = checkScale(scale);
+    }
+
+    public void setValue(long mantissa, int scale) {
+        this.scale = checkScale(scale);
+        setObject(mantissa);
+    }
+
+    /**
+     * @return the unscaled value
+     */
+    public long getValue() {
+        return getObject();
+    }
+
+    /**
+     * @return the number of decimal places
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns the unscaled value for another scale.
+     *
+     * @param scale the number of decimal places of the result
+     * @return the unscaled value with the given scale
+     * @throws ArithmeticException if the value has more significant decimal places
+     * than <code>scale</code> or does not fit into a long
+     */
+    public long getValue(int scale) {
+        checkScale(scale);
+        long mantissa = getObject();
+        for (int i = this.scale; i < scale; i++) {
+            mantissa = Math.multiplyExact(mantissa, 10);
+        }
+        for (int i = scale; i < this.scale; i++) {
+            if (mantissa % 10 != 0) {
+                throw new ArithmeticException("value has more than " + scale + " decimal places: " + objectAsString());
+            }
+            mantissa /= 10;
+        }
+        return mantissa;
+    }
+
+    public boolean valueEquals(long mantissa, int scale) {
+        return getObject() == mantissa && this.scale == scale;
+    }
+
+    @Override
+    protected String objectAsString() {
+        return FixedDecimalConverter.convert(getObject(), scale);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return super.equals(object)
+                && (!(object instanceof FixedDecimalField) || scale == ((FixedDecimalField) object).scale);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private static int checkScale(int scale) {
+        if (scale < 0 || scale > FixedDecimalConverter.MAX_SCALE) {
+            throw new IllegalArgumentException(
+                    "scale must be between 0 and " + FixedDecimalConverter.MAX_SCALE + ": " + scale);
+        }
+        return scale;
+    }
+}
@@ -19,6 +19,8 @@
 
 package quickfix;
 
+import java.nio.charset.Charset;
+
 /**
  * Session log for messages and events.
  */
@@ -36,6 +38,18 @@ public interface Log {
      */
     void onIncoming(String message);
 
+    /**
+     * Logs an incoming message given as the bytes of its frame. The default
+     * implementation decodes the bytes and calls {@link #onIncoming(String)}, logs
+     * which do not log incoming messages can skip the decoding.
+     *
+     * @param message the raw FIX message bytes
+     * @param charset the charset of the message
+     */
+    default void onIncoming(byte[] message, Charset charset) {
+        onIncoming(new String(message, charset));
+    }
+
     /**
      * Logs an outgoing message
      *
@@ -43,6 +57,16 @@ public interface Log {
      */
     void onOutgoing(String message);
 
+    /**
+     * Tells whether {@link #onOutgoing(String)} logs anything. The session skips
+     * creating the string of a message it sends if this returns false.
+     *
+     * @return false if outgoing messages are not logged
+     */
+    default boolean isLoggingOutgoing() {
+        return true;
+    }
+
     /**
      * Logs a session event.
      *
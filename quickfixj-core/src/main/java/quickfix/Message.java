@@ -65,8 +65,13 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.ByteArrayOutputStream;
-import java.text.DecimalFormat;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
 
 /**
  * Represents a FIX message.
@@ -159,7 +164,7 @@ public class Message extends FieldMap {
     /**
      * Do not call this method concurrently while modifying the contents of the message.
      * This is likely to produce unexpected results or will fail with a ConcurrentModificationException
-     * since FieldMap.calculateString() is iterating over the TreeMap of fields.
+     * since FieldMap.calculateString() is iterating over the fields.
      * 
      * Use toRawString() to get the raw message data.
      * 
@@ -167,6 +172,52 @@ public class Message extends FieldMap {
      */
     @Override
     public String toString() {
+        StringBuilder stringBuilder = stringContexts.get().stringBuilder;
+        try {
+            appendTo(stringBuilder);
+            return stringBuilder.toString();
+        } finally {
+            stringBuilder.setLength(0);
+        }
+    }
+
+    /**
+     * Encodes the message as returned by {@link #toString()} with the charset of
+     * {@link CharsetSupport}. For single-byte charsets no String is created.
+     *
+     * The same restrictions regarding concurrent modification apply as for {@link #toString()}.
+     *
+     * @return the encoded message
+     */
+    public byte[] toBytes() {
+        StringBuilder stringBuilder = stringContexts.get().stringBuilder;
+        try {
+            appendTo(stringBuilder);
+            if (!CharsetSupport.isStringEquivalent()) {
+                return stringBuilder.toString().getBytes(CharsetSupport.getCharsetInstance());
+            }
+            final int length = stringBuilder.length();
+            final byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) stringBuilder.charAt(i);
+            }
+            return bytes;
+        } finally {
+            stringBuilder.setLength(0);
+        }
+    }
+
+    /**
+     * Appends the message as returned by {@link #toString()}, with calculated body length
+     * and checksum, to the given buffer. This avoids creating a String when the message
+     * is encoded into another buffer anyway.
+     *
+     * The same restrictions regarding concurrent modification apply as for {@link #toString()}.
+     *
+     * @param buffer the buffer to append the message to
+     */
+    public void appendTo(StringBuilder buffer) {
+        ensureParsed();
         Context context = stringContexts.get();
         if (CharsetSupport.isStringEquivalent()) { // length & checksum can easily be calculated after message is built
             header.setField(context.bodyLength);
@@ -175,42 +226,67 @@ public class Message extends FieldMap {
             header.setInt(BodyLength.FIELD, bodyLength());
             trailer.setString(CheckSum.FIELD, checksum());
         }
-        StringBuilder stringBuilder = context.stringBuilder;
-        try {
-            header.calculateString(stringBuilder, null, null);
-            calculateString(stringBuilder, null, null);
-            trailer.calculateString(stringBuilder, null, null);
-            if (CharsetSupport.isStringEquivalent()) {
-                setBodyLength(stringBuilder);
-                setChecksum(stringBuilder);
-            }
-            return stringBuilder.toString();
-        } finally {
-            stringBuilder.setLength(0);
+        final int start = buffer.length();
+        header.calculateString(buffer, null, null);
+        calculateString(buffer, null, null);
+        trailer.calculateString(buffer, null, null);
+        if (CharsetSupport.isStringEquivalent()) {
+            setBodyLengthAndChecksum(buffer, start);
         }
     }
 
     private static final String SOH = String.valueOf('\001');
     private static final String BODY_LENGTH_FIELD = SOH + String.valueOf(BodyLength.FIELD) + '=';
-    private static final String CHECKSUM_FIELD = SOH + String.valueOf(CheckSum.FIELD) + '=';
+    private static final String BODY_LENGTH_PLACEHOLDER = "100";
+    private static final int CHECKSUM_FIELD_LENGTH = (CheckSum.FIELD + "=000" + SOH).length();
 
-    private static void setBodyLength(StringBuilder stringBuilder) {
-        int bodyLengthIndex = stringBuilder.indexOf(BODY_LENGTH_FIELD, 0);
-        int sohIndex = stringBuilder.indexOf(SOH, bodyLengthIndex + 1);
-        int checkSumIndex = stringBuilder.lastIndexOf(CHECKSUM_FIELD);
-        int length = checkSumIndex - sohIndex;
-        bodyLengthIndex += BODY_LENGTH_FIELD.length();
-        stringBuilder.replace(bodyLengthIndex, bodyLengthIndex + 3, NumbersCache.get(length));
-    }
-
-    private static void setChecksum(StringBuilder stringBuilder) {
-        int checkSumIndex = stringBuilder.lastIndexOf(CHECKSUM_FIELD);
+    /**
+     * Replaces the BodyLength and CheckSum placeholders of a message that has just been
+     * appended to the buffer at the given start index. The trailer always ends with the
+     * CheckSum placeholder so the end of the body is known without searching, and the
+     * checksum is summed in a single pass over the message, adjusted for the actual
+     * BodyLength digits afterwards.
+     */
+    private static void setBodyLengthAndChecksum(StringBuilder stringBuilder, int start) {
+        final int checkSumIndex = stringBuilder.length() - CHECKSUM_FIELD_LENGTH;
         int checkSum = 0;
-        for(int i = checkSumIndex; i-- != 0;)
+        for (int i = start; i < checkSumIndex; i++) {
             checkSum += stringBuilder.charAt(i);
-        String checkSumValue = NumbersCache.get((checkSum + 1) & 0xFF); // better than sum % 256 since it avoids overflow issues
-        checkSumIndex += CHECKSUM_FIELD.length();
-        stringBuilder.replace(checkSumIndex + (3 - checkSumValue.length()), checkSumIndex + 3, checkSumValue);
+        }
+
+        final int bodyLengthIndex = stringBuilder.indexOf(BODY_LENGTH_FIELD, start) + BODY_LENGTH_FIELD.length();
+        final int bodyStart = bodyLengthIndex + BODY_LENGTH_PLACEHOLDER.length() + 1;
+        final String bodyLength = NumbersCache.get(checkSumIndex - bodyStart);
+        for (int i = 0; i < BODY_LENGTH_PLACEHOLDER.length(); i++) {
+            checkSum -= BODY_LENGTH_PLACEHOLDER.charAt(i);
+        }
+        for (int i = 0; i < bodyLength.length(); i++) {
+            checkSum += bodyLength.charAt(i);
+        }
+
+        // checksum digits are written first since they shift if BodyLength has other than three digits
+        final int checkSumValueIndex = checkSumIndex + CHECKSUM_FIELD_LENGTH - 4;
+        final String checkSumValue = formatChecksum(checkSum);
+        for (int i = 0; i < 3; i++) {
+            stringBuilder.setCharAt(checkSumValueIndex + i, checkSumValue.charAt(i));
+        }
+        stringBuilder.replace(bodyLengthIndex, bodyLengthIndex + BODY_LENGTH_PLACEHOLDER.length(), bodyLength);
+    }
+
+    private static final String[] CHECKSUM_VALUES = new String[256];
+
+    static {
+        for (int i = 0; i < CHECKSUM_VALUES.length; i++) {
+            CHECKSUM_VALUES[i] = new String(new char[] {
+                    (char) ('0' + i / 100), (char) ('0' + i / 10 % 10), (char) ('0' + i % 10) });
+        }
+    }
+
+    /**
+     * @return the three digit CheckSum value of the given sum of bytes
+     */
+    static String formatChecksum(int sum) {
+        return CHECKSUM_VALUES[sum & 0xFF]; // better than sum % 256 since it avoids overflow issues
     }
 
     /**
@@ -225,18 +301,15 @@ public class Message extends FieldMap {
      * @return Message as String without recalculating body length and checksum.
      */
     public String toRawString() {
-        return messageData;
+        return getMessageData();
     }
 
     public int bodyLength() {
         return header.calculateLength() + calculateLength() + trailer.calculateLength();
     }
 
-    private static final ThreadLocal<DecimalFormat> checksumFormat = ThreadLocal.withInitial(() -> new DecimalFormat("000"));
-
     private String checksum() {
-        return checksumFormat.get().format(
-            (header.calculateChecksum() + calculateChecksum() + trailer.calculateChecksum()) & 0xFF);
+        return formatChecksum(header.calculateChecksum() + calculateChecksum() + trailer.calculateChecksum());
     }
 
     public void headerAddGroup(Group group) {
@@ -272,27 +345,27 @@ public class Message extends FieldMap {
     }
 
     public void trailerAddGroup(Group group) {
-        trailer.addGroup(group);
+        getTrailer().addGroup(group);
     }
 
     public Group trailerGetGroup(int num, Group group) throws FieldNotFound {
-        return trailer.getGroup(num, group);
+        return getTrailer().getGroup(num, group);
     }
 
     public void trailerReplaceGroup(int num, Group group) {
-        trailer.replaceGroup(num, group);
+        getTrailer().replaceGroup(num, group);
     }
 
     public void trailerRemoveGroup(Group group) {
-        trailer.removeGroup(group);
+        getTrailer().removeGroup(group);
     }
 
     public boolean trailerHasGroup(int field) {
-        return trailer.hasGroup(field);
+        return getTrailer().hasGroup(field);
     }
 
     public boolean trailerHasGroup(int num, int field) {
-        return trailer.hasGroup(num, field);
+        return getTrailer().hasGroup(num, field);
     }
 
     public boolean trailerHasGroup(int num, Group group) {
@@ -427,10 +500,12 @@ public class Message extends FieldMap {
     }
 
     public final Header getHeader() {
+        checkNotReleased();
         return header;
     }
 
     public final Trailer getTrailer() {
+        ensureParsed();
         return trailer;
     }
 
@@ -457,6 +532,7 @@ public class Message extends FieldMap {
 
     @Override
     public void clear() {
+        deferredBody = null;
         super.clear();
         header.clear();
         trailer.clear();
@@ -465,10 +541,18 @@ public class Message extends FieldMap {
 
     @Override
     public void reset() {
+        deferredBody = null;
         super.reset();
         this.position = 0;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ensureParsed();
+        // the raw bytes are not serialized, keep the message data as before
+        getMessageData();
+        out.defaultWriteObject();
+    }
+
     public static class Header extends FieldMap {
         static final long serialVersionUID = -3193357271891865972L;
         private static final int[] EXCLUDED_HEADER_FIELDS = { BeginString.FIELD, BodyLength.FIELD,
@@ -597,37 +681,280 @@ public class Message extends FieldMap {
         parse(messageData, sessionDictionary, applicationDictionary, doValidation, validateChecksum);
     }
 
+    /**
+     * Parses the message from its raw encoded bytes, as received from the wire.
+     *
+     * Tags and value boundaries are located directly in the given bytes, and
+     * field values are only decoded into Strings when they are first accessed.
+     * The given array is retained by the message and must not be modified afterwards.
+     *
+     * @param messageBytes the encoded message, from BeginString to CheckSum (inclusive)
+     * @param sessionDictionary the session (transport) data dictionary, may be null
+     * @param applicationDictionary the application data dictionary, may be null
+     * @param doValidation whether to validate the message structure
+     * @param validateChecksum whether to validate the checksum (only if doValidation is set)
+     * @throws InvalidMessage if the message cannot be parsed
+     */
+    public void fromBytes(byte[] messageBytes, DataDictionary sessionDictionary,
+            DataDictionary applicationDictionary, boolean doValidation, boolean validateChecksum)
+            throws InvalidMessage {
+        if (sessionDictionary != null
+                && sessionDictionary.isAdminMessage(MessageUtils.getMessageType(messageBytes))) {
+            applicationDictionary = sessionDictionary;
+        }
+        parse(messageBytes, sessionDictionary, applicationDictionary, doValidation, validateChecksum);
+    }
+
     void parse(String messageData, DataDictionary sessionDataDictionary,
             DataDictionary applicationDataDictionary, boolean doValidation,
             boolean validateChecksum) throws InvalidMessage {
+        parse(messageData, sessionDataDictionary, applicationDataDictionary, doValidation, validateChecksum, false);
+    }
+
+    /**
+     * @param deferBody if true, only the header is parsed right away and the body and
+     *        trailer are parsed when they are first accessed
+     */
+    void parse(String messageData, DataDictionary sessionDataDictionary,
+            DataDictionary applicationDataDictionary, boolean doValidation,
+            boolean validateChecksum, boolean deferBody) throws InvalidMessage {
         this.messageData = messageData;
+        this.messageBytes = null;
+        parse(sessionDataDictionary, applicationDataDictionary, doValidation, validateChecksum, deferBody);
+    }
 
+    void parse(byte[] messageBytes, DataDictionary sessionDataDictionary,
+            DataDictionary applicationDataDictionary, boolean doValidation,
+            boolean validateChecksum) throws InvalidMessage {
+        parse(messageBytes, sessionDataDictionary, applicationDataDictionary, doValidation, validateChecksum, false);
+    }
+
+    /**
+     * @param deferBody if true, only the header is parsed right away and the body and
+     *        trailer are parsed when they are first accessed
+     */
+    void parse(byte[] messageBytes, DataDictionary sessionDataDictionary,
+            DataDictionary applicationDataDictionary, boolean doValidation,
+            boolean validateChecksum, boolean deferBody) throws InvalidMessage {
+        this.messageData = null;
+        this.messageBytes = messageBytes;
+        parse(sessionDataDictionary, applicationDataDictionary, doValidation, validateChecksum, deferBody);
+    }
+
+    private void parse(DataDictionary sessionDataDictionary,
+            DataDictionary applicationDataDictionary, boolean doValidation,
+            boolean validateChecksum, boolean deferBody) throws InvalidMessage {
+        deferredBody = null;
         try {
             parseHeader(sessionDataDictionary, doValidation);
+            if (deferBody && deferBody(sessionDataDictionary, applicationDataDictionary, doValidation)) {
+                if (doValidation && validateChecksum) {
+                    validateDeferredCheckSum();
+                }
+                return;
+            }
             parseBody(applicationDataDictionary, doValidation);
             parseTrailer(sessionDataDictionary);
             if (doValidation && validateChecksum) {
-                validateCheckSum(messageData);
+                validateCheckSum();
             }
         } catch (final FieldException e) {
             exception = e;
         }
     }
 
-    private void validateCheckSum(String messageData) throws InvalidMessage {
+    private void validateCheckSum() throws InvalidMessage {
         try {
             // Body length is checked at the protocol layer
             final int checksum = trailer.getInt(CheckSum.FIELD);
-            if (checksum != MessageUtils.checksum(messageData)) {
+            final int expectedChecksum = messageBytes != null
+                    ? MessageUtils.checksum(messageBytes, true)
+                    : MessageUtils.checksum(messageData);
+            if (checksum != expectedChecksum) {
                 // message will be ignored if checksum is wrong or missing
-                throw MessageUtils.newInvalidMessageException("Expected CheckSum=" + MessageUtils.checksum(messageData)
-                        + ", Received CheckSum=" + checksum + " in " + messageData, this);
+                throw MessageUtils.newInvalidMessageException("Expected CheckSum=" + expectedChecksum
+                        + ", Received CheckSum=" + checksum + " in " + getMessageData(), this);
             }
         } catch (final FieldNotFound e) {
-            throw MessageUtils.newInvalidMessageException("Field not found: " + e.field + " in " + messageData, this);
+            throw MessageUtils.newInvalidMessageException("Field not found: " + e.field + " in " + getMessageData(), this);
+        }
+    }
+
+    private void validateDeferredCheckSum() throws InvalidMessage {
+        final int expectedChecksum = messageBytes != null
+                ? MessageUtils.checksum(messageBytes, true)
+                : MessageUtils.checksum(messageData);
+        if (deferredBody.checkSum != expectedChecksum) {
+            throw MessageUtils.newInvalidMessageException("Expected CheckSum=" + expectedChecksum
+                    + ", Received CheckSum=" + deferredBody.checkSum + " in " + getMessageData(), this);
         }
     }
 
+    /**
+     * State needed to parse the body and trailer of a message when they are first accessed.
+     */
+    private static final class DeferredBody {
+        private final DataDictionary sessionDataDictionary;
+        private final DataDictionary applicationDataDictionary;
+        private final boolean doValidation;
+        private final int bodyStart;
+        private final int checkSum;
+        // guarded by the DeferredBody itself
+        private boolean parsing;
+        private InvalidMessage failure;
+
+        private DeferredBody(DataDictionary sessionDataDictionary, DataDictionary applicationDataDictionary,
+                boolean doValidation, int bodyStart, int checkSum) {
+            this.sessionDataDictionary = sessionDataDictionary;
+            this.applicationDataDictionary = applicationDataDictionary;
+            this.doValidation = doValidation;
+            this.bodyStart = bodyStart;
+            this.checkSum = checkSum;
+        }
+    }
+
+    /**
+     * Walks the fields following the header without creating them. Parsing of
+     * the body and trailer is deferred if every field could be delimited and
+     * none of them belongs to the header, which would have to be visible right away.
+     * Otherwise, the caller parses the message as usual so that errors are reported
+     * the same way.
+     *
+     * @return true if parsing of the body and trailer has been deferred
+     */
+    private boolean deferBody(DataDictionary sessionDataDictionary,
+            DataDictionary applicationDataDictionary, boolean doValidation) {
+        final int bodyStart = pushedBackField != null ? fieldStart : position;
+        final int length = messageBytes != null ? messageBytes.length : messageData.length();
+        int offset = bodyStart;
+        int previousTag = 0;
+        int previousValueStart = 0;
+        int previousValueEnd = 0;
+        while (offset < length) {
+            final int equalsOffset = indexOfRaw('=', offset);
+            if (equalsOffset == -1) {
+                return false;
+            }
+            final int tag = parseRawInt(offset, equalsOffset);
+            if (tag < 0 || isHeaderField(tag)
+                    || (sessionDataDictionary != null && sessionDataDictionary.isHeaderField(tag))) {
+                return false;
+            }
+            int sohOffset = indexOfRaw('\001', equalsOffset + 1);
+            if (sohOffset == -1) {
+                return false;
+            }
+            final DataDictionary dataDictionary = isTrailerField(tag) ? sessionDataDictionary : applicationDataDictionary;
+            if (dataDictionary != null && dataDictionary.isGroupCountField(tag)
+                    && parseRawInt(equalsOffset + 1, sohOffset) < 0) {
+                // the parse may fail with an InvalidMessage, which has to be thrown right away
+                return false;
+            }
+            if (dataDictionary != null && dataDictionary.isDataField(tag)) {
+                // the length field is expected right before the data field
+                final int lengthField = tag == 89 ? 93 : tag - 1;
+                final int fieldLength = previousTag == lengthField
+                        ? parseRawInt(previousValueStart, previousValueEnd)
+                        : -1;
+                if (fieldLength < 0 || (messageBytes == null && !CharsetSupport.isStringEquivalent())) {
+                    return false;
+                }
+                if (sohOffset - equalsOffset - 1 < fieldLength) {
+                    sohOffset = indexOfRaw('\001', equalsOffset + 1 + fieldLength);
+                    if (sohOffset == -1) {
+                        return false;
+                    }
+                }
+            }
+            previousTag = tag;
+            previousValueStart = equalsOffset + 1;
+            previousValueEnd = sohOffset;
+            offset = sohOffset + 1;
+        }
+        if (previousTag != CheckSum.FIELD) {
+            return false;
+        }
+        final int checkSum = parseRawInt(previousValueStart, previousValueEnd);
+        if (checkSum < 0) {
+            return false;
+        }
+        deferredBody = new DeferredBody(sessionDataDictionary, applicationDataDictionary,
+                doValidation, bodyStart, checkSum);
+        pushedBackField = null;
+        position = length;
+        return true;
+    }
+
+    private int indexOfRaw(char c, int fromIndex) {
+        return messageBytes != null
+                ? MessageUtils.indexOf(messageBytes, (byte) c, fromIndex)
+                : messageData.indexOf(c, fromIndex);
+    }
+
+    private int parseRawInt(int start, int end) {
+        return messageBytes != null
+                ? MessageUtils.parseTag(messageBytes, start, end)
+                : MessageUtils.parseTag(messageData, start, end);
+    }
+
+    @Override
+    void ensureParsed() {
+        checkNotReleased();
+        final DeferredBody deferred = deferredBody;
+        if (deferred != null) {
+            parseDeferredBody(deferred);
+        }
+    }
+
+    /**
+     * Parses the body and trailer on first access. Threads that read the message
+     * concurrently wait for the parse, and the volatile write of deferredBody publishes
+     * the parsed fields to threads that see it cleared.
+     */
+    private void parseDeferredBody(DeferredBody deferred) {
+        synchronized (deferred) {
+            if (deferredBody != deferred || deferred.parsing) {
+                // parsed by another thread, or accessed by the parse itself
+                return;
+            }
+            if (deferred.failure != null) {
+                throw new IllegalStateException(deferred.failure.getMessage(), deferred.failure);
+            }
+            deferred.parsing = true;
+            position = deferred.bodyStart;
+            pushedBackField = null;
+            try {
+                parseBody(deferred.applicationDataDictionary, deferred.doValidation);
+                parseTrailer(deferred.sessionDataDictionary);
+            } catch (final FieldException e) {
+                exception = e;
+            } catch (final InvalidMessage e) {
+                // deferBody() parses eagerly whenever the parse could fail like this, so the
+                // failure cannot be reported as on receipt any more. Keep failing every access
+                // instead of exposing a partially parsed message.
+                deferred.failure = e;
+                throw new IllegalStateException(e.getMessage(), e);
+            } finally {
+                deferred.parsing = false;
+            }
+            deferredBody = null;
+        }
+    }
+
+    /**
+     * @return true if the body and trailer of this message have not been parsed yet
+     */
+    boolean isBodyDeferred() {
+        return deferredBody != null;
+    }
+
+    private String getMessageData() {
+        if (messageData == null && messageBytes != null) {
+            messageData = new String(messageBytes, CharsetSupport.getCharsetInstance());
+        }
+        return messageData;
+    }
+
     private void parseHeader(DataDictionary dd, boolean doValidation) throws InvalidMessage {
         if (doValidation) {
             final boolean validHeaderFieldOrder = isNextField(dd, header, BeginString.FIELD)
@@ -636,17 +963,15 @@ public class Message extends FieldMap {
             if (!validHeaderFieldOrder) {
                 // Invalid message preamble (first three fields) is a serious
                 // condition and is handled differently from other message parsing errors.
-                throw MessageUtils.newInvalidMessageException("Header fields out of order in " + messageData, MessageUtils.getMinimalMessage(messageData));
+                throw MessageUtils.newInvalidMessageException("Header fields out of order in " + getMessageData(), MessageUtils.getMinimalMessage(getMessageData()));
             }
         }
 
         StringField field = extractField(dd, header);
         while (field != null && isHeaderField(field, dd)) {
-            header.setField(field);
+            header.setField(field.getTag(), field);
 
-            if (dd != null && dd.isGroup(DataDictionary.HEADER_ID, field.getField())) {
-                parseGroup(DataDictionary.HEADER_ID, field, dd, dd, header, doValidation);
-            }
+            parseGroup(DataDictionary.HEADER_ID, field, dd, header, doValidation);
 
             field = extractField(dd, header);
         }
@@ -658,7 +983,7 @@ public class Message extends FieldMap {
         if (field == null || field.getTag() != tag) {
             return false;
         }
-        fields.setField(field);
+        fields.setField(tag, field);
         return true;
     }
 
@@ -666,7 +991,7 @@ public class Message extends FieldMap {
         try {
             return header.getString(MsgType.FIELD);
         } catch (final FieldNotFound e) {
-            throw MessageUtils.newInvalidMessageException(e.getMessage() + " in " + messageData, this);
+            throw MessageUtils.newInvalidMessageException(e.getMessage() + " in " + getMessageData(), this);
         }
     }
 
@@ -683,17 +1008,15 @@ public class Message extends FieldMap {
                 // be available even if the related field is out of order
                 setField(header, field);
                 // Group case
-                if (dd != null && dd.isGroup(DataDictionary.HEADER_ID, field.getField())) {
-                    parseGroup(DataDictionary.HEADER_ID, field, dd, dd, header, doValidation);
-                }
+                parseGroup(DataDictionary.HEADER_ID, field, dd, header, doValidation);
                 if (doValidation && dd != null && dd.isCheckFieldsOutOfOrder())
                     throw new FieldException(SessionRejectReason.TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER,
                         field.getTag());
             } else {
                 setField(this, field);
                 // Group case
-                if (dd != null && dd.isGroup(getMsgType(), field.getField())) {
-                    parseGroup(getMsgType(), field, dd, dd, this, doValidation);
+                if (dd != null) {
+                    parseGroup(getMsgType(), field, dd, this, doValidation);
                 }
             }
 
@@ -705,25 +1028,35 @@ public class Message extends FieldMap {
         if (fields.isSetField(field)) {
             throw new FieldException(SessionRejectReason.TAG_APPEARS_MORE_THAN_ONCE, field.getTag());
         }
-        fields.setField(field);
+        fields.setField(field.getTag(), field);
     }
 
-    private void parseGroup(String msgType, StringField field, DataDictionary dd, DataDictionary parentDD, FieldMap parent, boolean doValidation)
+    private void parseGroup(String msgType, StringField field, DataDictionary dd, FieldMap parent,
+            boolean doValidation) throws InvalidMessage {
+        if (dd != null) {
+            final DataDictionary.GroupTemplate template = dd.getGroupTemplate(msgType, field.getField());
+            if (template != null) {
+                parseGroup(msgType, field, template, dd, dd, parent, doValidation);
+            }
+        }
+    }
+
+    private void parseGroup(String msgType, StringField field, DataDictionary.GroupTemplate template,
+            DataDictionary dd, DataDictionary parentDD, FieldMap parent, boolean doValidation)
             throws InvalidMessage {
-        final DataDictionary.GroupInfo rg = dd.getGroup(msgType, field.getField());
-        final DataDictionary groupDataDictionary = rg.getDataDictionary();
-        final int[] fieldOrder = groupDataDictionary.getOrderedFields();
+        final DataDictionary groupDataDictionary = template.getDataDictionary();
+        final boolean checkFieldOrder = template.getFieldOrder() != null && dd.isCheckUnorderedGroupFields();
         int previousOffset = -1;
-        final int groupCountTag = field.getField();
+        final int groupCountTag = template.getCountTag();
         // QFJ-533
         int declaredGroupCount = 0;
         try {
             declaredGroupCount = Integer.parseInt(field.getValue());
         } catch (final NumberFormatException e) {
-            throw MessageUtils.newInvalidMessageException("Repeating group count requires an Integer but found '" + field.getValue() + "' in " + messageData, this);
+            throw MessageUtils.newInvalidMessageException("Repeating group count requires an Integer but found '" + field.getValue() + "' in " + getMessageData(), this);
         }
         parent.setField(groupCountTag, field);
-        final int firstField = rg.getDelimiterField();
+        final int firstField = template.getDelimiterField();
         Group group = null;
         boolean inGroupParse = true;
         while (inGroupParse) {
@@ -733,30 +1066,32 @@ public class Message extends FieldMap {
                 break;
             }
             int tag = field.getTag();
+            final int member = template.indexOfMember(tag);
+            final DataDictionary.GroupTemplate nestedGroup = member >= 0 ? template.getNestedGroup(member) : null;
             if (tag == firstField) {
                 addGroupRefToParent(group, parent);
-                group = new Group(groupCountTag, firstField, groupDataDictionary.getOrderedFields());
-                group.setField(field);
+                group = newGroup(template);
+                group.setField(tag, field);
                 previousOffset = -1;
                 // QFJ-742
-                if (groupDataDictionary.isGroup(msgType, tag)) {
-                    parseGroup(msgType, field, groupDataDictionary, parentDD, group, doValidation);
+                if (nestedGroup != null) {
+                    parseGroup(msgType, field, nestedGroup, groupDataDictionary, parentDD, group, doValidation);
                 }
-            } else if (groupDataDictionary.isGroup(msgType, tag)) {
+            } else if (nestedGroup != null) {
                 if (group != null) {
-                    parseGroup(msgType, field, groupDataDictionary, parentDD, group, doValidation);
+                    parseGroup(msgType, field, nestedGroup, groupDataDictionary, parentDD, group, doValidation);
                 } else {
                     // QFJ-934: message should be rejected and not ignored when first field not found
                     throw newFieldExceptionMissingDelimiter(groupCountTag, firstField, tag);
                 }
-            } else if (groupDataDictionary.isField(tag)) {
+            } else if (member >= 0) {
                 if (group != null) {
-                    if (fieldOrder != null && dd.isCheckUnorderedGroupFields()) {
-                        final int offset = indexOf(tag, fieldOrder);
+                    if (checkFieldOrder) {
+                        final int offset = template.getMemberPosition(member);
                         if (offset > -1) {
                             if (offset <= previousOffset) {
                                 // QFJ-792: add what we've already got and leave the rest to the validation (if enabled)
-                                group.setField(field);
+                                group.setField(tag, field);
                                 addGroupRefToParent(group, parent);
                                 throw new FieldException(
                                         SessionRejectReason.REPEATING_GROUP_FIELDS_OUT_OF_ORDER, tag);
@@ -764,7 +1099,7 @@ public class Message extends FieldMap {
                             previousOffset = offset;
                         }
                     }
-                    group.setField(field);
+                    group.setField(tag, field);
                 } else {
                     throw newFieldExceptionMissingDelimiter(groupCountTag, firstField, tag);
                 }
@@ -785,6 +1120,13 @@ public class Message extends FieldMap {
         parent.setGroupCount(groupCountTag, declaredGroupCount);
     }
 
+    private Group newGroup(DataDictionary.GroupTemplate template) {
+        final Group group = recycledGroups != null
+                ? recycledGroups.take(template.getCountTag(), template.getDelimiterField(), template.getFieldOrder())
+                : null;
+        return group != null ? group : template.newGroup();
+    }
+
     private void addGroupRefToParent(Group group, FieldMap parent) {
         if (group != null) {
             parent.addGroupRef(group);
@@ -810,7 +1152,7 @@ public class Message extends FieldMap {
                 throw new FieldException(
                         SessionRejectReason.REPEATING_GROUP_FIELDS_OUT_OF_ORDER, field.getTag());
             }
-            group.setField(field);
+            group.setField(field.getTag(), field);
             return true;
         }
         return false;
@@ -823,7 +1165,7 @@ public class Message extends FieldMap {
                 throw new FieldException(SessionRejectReason.TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER,
                         field.getTag());
             }
-            trailer.setField(field);
+            trailer.setField(field.getTag(), field);
             field = extractField(dd, trailer);
         }
     }
@@ -891,10 +1233,113 @@ public class Message extends FieldMap {
     // Extract field
     //
     private String messageData;
+    private transient byte[] messageBytes;
     private int position;
+    private transient int fieldStart;
     private StringField pushedBackField;
+    private transient volatile DeferredBody deferredBody;
     private boolean isGarbled = false;
 
+    //
+    // Pooling, see MessagePool
+    //
+    private transient Queue<Message> pool;
+    private transient RecycledGroups recycledGroups;
+    private transient Throwable released;
+
+    /**
+     * @return the pool queue this message is returned to when it is released, or null
+     */
+    Queue<Message> getPool() {
+        return pool;
+    }
+
+    void setPool(Queue<Message> pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Clears this message so it can be parsed again. The repeating group instances of the
+     * message are kept and reused by the next parse.
+     */
+    void recycle() {
+        deferredBody = null;
+        if (recycledGroups == null) {
+            recycledGroups = new RecycledGroups();
+        }
+        header.recycleGroups(recycledGroups);
+        recycleGroups(recycledGroups);
+        trailer.recycleGroups(recycledGroups);
+        clear();
+        exception = null;
+        messageData = null;
+        messageBytes = null;
+        fieldStart = 0;
+        pushedBackField = null;
+        isGarbled = false;
+    }
+
+    /**
+     * Marks this message as released so that any further use of it fails. The message
+     * is cleared and never handed out again.
+     */
+    void markReleased() {
+        clear();
+        released = new Throwable("Message released to pool by " + Thread.currentThread().getName());
+    }
+
+    private void checkNotReleased() {
+        if (released != null) {
+            throw new IllegalStateException("Message used after it was released to its pool", released);
+        }
+    }
+
+    /**
+     * Group instances of a recycled message, kept per group count tag.
+     */
+    private static final class RecycledGroups implements Consumer<Group> {
+        private int[] tags = new int[4];
+        private final List<List<Group>> groups = new ArrayList<>();
+
+        @Override
+        public void accept(Group group) {
+            // application defined subclasses are never created by the parser
+            if (group.getClass() != Group.class) {
+                return;
+            }
+            final int tag = group.getFieldTag();
+            for (int i = 0; i < groups.size(); i++) {
+                if (tags[i] == tag) {
+                    groups.get(i).add(group);
+                    return;
+                }
+            }
+            if (groups.size() == tags.length) {
+                tags = Arrays.copyOf(tags, tags.length * 2);
+            }
+            tags[groups.size()] = tag;
+            final List<Group> list = new ArrayList<>();
+            list.add(group);
+            groups.add(list);
+        }
+
+        Group take(int groupCountTag, int delim, int[] fieldOrder) {
+            for (int i = 0; i < groups.size(); i++) {
+                if (tags[i] == groupCountTag) {
+                    final List<Group> list = groups.get(i);
+                    while (!list.isEmpty()) {
+                        final Group group = list.remove(list.size() - 1);
+                        if (group.delim() == delim && group.getFieldOrder() == fieldOrder) {
+                            return group;
+                        }
+                    }
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+
     public void pushBack(StringField field) {
         pushedBackField = field;
     }
@@ -907,6 +1352,11 @@ public class Message extends FieldMap {
             return f;
         }
 
+        fieldStart = position;
+        if (messageBytes != null) {
+            return extractFieldFromBytes(dataDictionary, fields);
+        }
+
         if (position >= messageData.length()) {
             return null;
         }
@@ -960,16 +1410,70 @@ public class Message extends FieldMap {
         return new StringField(tag, messageData.substring(equalsOffset + 1, sohOffset));
     }
 
+    private StringField extractFieldFromBytes(DataDictionary dataDictionary, FieldMap fields)
+            throws InvalidMessage {
+        final byte[] data = messageBytes;
+        if (position >= data.length) {
+            return null;
+        }
+
+        final int equalsOffset = MessageUtils.indexOf(data, (byte) '=', position);
+        if (equalsOffset == -1) {
+            throw MessageUtils.newInvalidMessageException("Equal sign not found in field in " + getMessageData(), this);
+        }
+
+        final int tag = MessageUtils.parseTag(data, position, equalsOffset);
+        if (tag < 0) {
+            final String tagString = new String(data, position, equalsOffset - position, CharsetSupport.getCharsetInstance());
+            position = MessageUtils.indexOf(data, (byte) '\001', position + 1) + 1;
+            throw MessageUtils.newInvalidMessageException("Bad tag format: For input string: \"" + tagString + "\" in " + getMessageData(), this);
+        }
+
+        int sohOffset = MessageUtils.indexOf(data, (byte) '\001', equalsOffset + 1);
+        if (sohOffset == -1) {
+            throw MessageUtils.newInvalidMessageException("SOH not found at end of field: " + tag + " in " + getMessageData(), this);
+        }
+
+        if (dataDictionary != null && dataDictionary.isDataField(tag)) {
+            /* Assume length field is 1 less. */
+            int lengthField = tag - 1;
+            /* Special case for Signature which violates above assumption. */
+            if (tag == 89) {
+                lengthField = 93;
+            }
+            int fieldLength;
+            try {
+                fieldLength = fields.getInt(lengthField);
+            } catch (final FieldNotFound e) {
+                throw MessageUtils.newInvalidMessageException("Did not find length field " + e.field + " required to parse data field " + tag + " in " + getMessageData(), this);
+            }
+
+            // the length is in bytes, so the field-ending SOH is found directly
+            // (the data itself may contain an SOH)
+            if (sohOffset - equalsOffset - 1 < fieldLength) {
+                sohOffset = MessageUtils.indexOf(data, (byte) '\001', equalsOffset + 1 + fieldLength);
+                if (sohOffset == -1) {
+                    throw MessageUtils.newInvalidMessageException("SOH not found at end of field: " + tag + " in " + getMessageData(), this);
+                }
+            }
+        }
+
+        position = sohOffset + 1;
+        return new ByteArrayStringField(tag, data, equalsOffset + 1, sohOffset - equalsOffset - 1);
+    }
+
     /**
      * Queries message structural validity.
      *
      * @return flag indicating whether the message has a valid structure
      */
     boolean hasValidStructure() {
+        ensureParsed();
         return exception == null;
     }
 
     public FieldException getException() {
+        ensureParsed();
         return exception;
     }
 
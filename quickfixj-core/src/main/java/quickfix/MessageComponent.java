@@ -49,8 +49,8 @@ public abstract class MessageComponent extends FieldMap {
      */
     public void copyTo(FieldMap fields) {
         try {
-            for (int componentField : this.fields.keySet()) {
-                fields.setField(componentField, getField(componentField));
+            for (Field<?> componentField : this) {
+                fields.setField(componentField.getTag(), componentField);
             }
             for (int groupField : this.groups.keySet()) {
                 fields.setField(groupField, getField(groupField));
@@ -19,12 +19,21 @@
 
 package quickfix;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,8 +43,22 @@ import java.util.Map;
  * type-safe onMessage methods.
  */
 public class MessageCracker {
+    private static final Logger LOG = LoggerFactory.getLogger(MessageCracker.class);
+
     private final Map<Class<?>, Invoker> invokers = new HashMap<>();
 
+    /*
+     * Looks up the invoker of a message class without hashing the class. The invoker is
+     * weakly referenced because the value is held by the message class, which would
+     * otherwise keep this cracker and its handler reachable. The invokers map keeps it alive.
+     */
+    private final ClassValue<WeakReference<Invoker>> invokerCache = new ClassValue<WeakReference<Invoker>>() {
+        @Override
+        protected WeakReference<Invoker> computeValue(Class<?> messageClass) {
+            return new WeakReference<>(invokers.get(messageClass));
+        }
+    };
+
     @Target({ ElementType.METHOD })
     @Retention(RetentionPolicy.RUNTIME)
     public @interface Handler {
@@ -81,6 +104,7 @@ public class MessageCracker {
                             method);
                 }
                 invokers.put(messageClass, invoker);
+                invokerCache.remove(messageClass);
             }
         }
     }
@@ -97,22 +121,94 @@ public class MessageCracker {
         return method.getName().equals("onMessage") || method.isAnnotationPresent(Handler.class);
     }
 
-    private class Invoker {
-        private final Object target;
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Message.class,
+            SessionID.class);
+
+    /**
+     * A handler method bound to its target.
+     */
+    @FunctionalInterface
+    interface HandlerCall {
+        void invoke(Message message, SessionID sessionID) throws Throwable;
+    }
+
+    /**
+     * Calls a handler method without reflection. If possible the call is bound to a class
+     * generated by the {@link LambdaMetafactory}, which calls the handler method directly,
+     * otherwise to a method handle of the handler method.
+     */
+    private static class Invoker {
         private final Method method;
+        private final HandlerCall call;
 
         public Invoker(Object target, Method method) {
-            this.target = target;
             this.method = method;
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle handle;
+            try {
+                // the method was made accessible, so this also works for non-public handler classes
+                handle = lookup.unreflect(method);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Handler method " + method + " is not accessible", e);
+            }
+            final boolean isStatic = Modifier.isStatic(method.getModifiers());
+            HandlerCall call = isLinkable(method) ? createCall(lookup, handle, target, isStatic) : null;
+            if (call == null) {
+                final MethodHandle boundHandle = (isStatic ? handle : handle.bindTo(target)).asType(HANDLER_TYPE);
+                call = (message, sessionID) -> {
+                    boundHandle.invokeExact(message, sessionID);
+                };
+            }
+            this.call = call;
         }
 
         public Method getMethod() {
             return method;
         }
 
-        public void Invoke(Message message, SessionID sessionID) throws IllegalArgumentException,
-                IllegalAccessException, InvocationTargetException {
-            method.invoke(target, message, sessionID);
+        public void invoke(Message message, SessionID sessionID) throws Throwable {
+            call.invoke(message, sessionID);
+        }
+
+        /**
+         * The generated class calls the handler method from this package and class loader,
+         * so the method and the classes of its signature must be public and visible here.
+         */
+        private static boolean isLinkable(Method method) {
+            final Class<?> declaringClass = method.getDeclaringClass();
+            return Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(declaringClass.getModifiers())
+                    && isVisible(declaringClass) && isVisible(method.getParameterTypes()[0]);
+        }
+
+        private static boolean isVisible(Class<?> type) {
+            try {
+                return Class.forName(type.getName(), false, MessageCracker.class.getClassLoader()) == type;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+        private static HandlerCall createCall(MethodHandles.Lookup lookup, MethodHandle handle, Object target,
+                boolean isStatic) {
+            final CallSite callSite;
+            try {
+                callSite = LambdaMetafactory.metafactory(lookup, "invoke",
+                        isStatic ? MethodType.methodType(HandlerCall.class)
+                                : MethodType.methodType(HandlerCall.class, handle.type().parameterType(0)),
+                        HANDLER_TYPE, handle, handle.type().dropParameterTypes(0, isStatic ? 0 : 1));
+            } catch (LambdaConversionException | IllegalArgumentException e) {
+                LOG.warn("Handler {} is called with a method handle: {}", handle, e.toString());
+                return null;
+            }
+            try {
+                return isStatic ? (HandlerCall) callSite.getTarget().invoke()
+                        : (HandlerCall) callSite.getTarget().invoke(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // the factory of the call site does not throw checked exceptions
+                throw new IllegalStateException(e);
+            }
         }
     }
 
@@ -121,20 +217,14 @@ public class MessageCracker {
      */
     public void crack(quickfix.Message message, SessionID sessionID) throws UnsupportedMessageType,
             FieldNotFound, IncorrectTagValue {
-        Invoker invoker = invokers.get(message.getClass());
+        Invoker invoker = invokerCache.get(message.getClass()).get();
         if (invoker != null) {
             try {
-                invoker.Invoke(message, sessionID);
-            } catch (InvocationTargetException ite) {
-                try {
-                    throw ite.getTargetException();
-                } catch (UnsupportedMessageType | IncorrectTagValue | FieldNotFound e) {
-                    throw e;
-                } catch (Throwable t) {
-                    propagate(t);
-                }
-            } catch (Exception e) {
-                propagate(e);
+                invoker.invoke(message, sessionID);
+            } catch (UnsupportedMessageType | IncorrectTagValue | FieldNotFound e) {
+                throw e;
+            } catch (Throwable t) {
+                propagate(t);
             }
         } else {
             onMessage(message, sessionID);
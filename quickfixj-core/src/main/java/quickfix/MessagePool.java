@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import quickfix.field.ApplVerID;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pool of incoming messages of a session.
+ * <p>
+ * Messages are acquired when incoming data is parsed and released by the session
+ * once the application callback has returned (see {@link Session#SETTING_MESSAGE_POOLING}).
+ * A released message is cleared and parsed again later, reusing its header, trailer,
+ * field storage and repeating group instances. The application must therefore not
+ * keep references to incoming messages or their groups beyond the callback.
+ * <p>
+ * Messages are pooled per BeginString (or ApplVerID) and MsgType, up to a fixed
+ * number per type. The pool may be used from different threads, e.g. the I/O thread
+ * parsing the messages and the thread processing them.
+ * <p>
+ * With use-after-release detection enabled, released messages are never reused.
+ * Instead, any further access to them throws an {@link IllegalStateException}
+ * which refers to the release. This is meant for testing applications.
+ */
+public class MessagePool {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private final int capacity;
+    private final boolean detectUseAfterRelease;
+    private final ConcurrentMap<String, ConcurrentMap<String, Queue<Message>>> pools = new ConcurrentHashMap<>();
+
+    public MessagePool() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * @param capacity the maximum number of pooled messages per message type
+     * @param detectUseAfterRelease if true, released messages are not reused but fail when used
+     */
+    public MessagePool(int capacity, boolean detectUseAfterRelease) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.detectUseAfterRelease = detectUseAfterRelease;
+    }
+
+    public boolean isDetectUseAfterRelease() {
+        return detectUseAfterRelease;
+    }
+
+    /**
+     * Returns a cleared message of the given type, which is created by the factory
+     * if none is pooled.
+     *
+     * @param messageFactory the factory creating new messages
+     * @param beginString the BeginString of the message
+     * @param applVerID the ApplVerID of the message, may be null
+     * @param msgType the message type
+     * @return a message to parse the incoming data into
+     */
+    public Message acquire(MessageFactory messageFactory, String beginString, ApplVerID applVerID,
+            String msgType) {
+        final Queue<Message> queue = getQueue(applVerID != null ? applVerID.getValue() : beginString, msgType);
+        Message message = queue.poll();
+        if (message == null) {
+            message = messageFactory.create(beginString, applVerID, msgType);
+        }
+        message.setPool(queue);
+        return message;
+    }
+
+    /**
+     * Returns a message to the pool it was acquired from. Messages that were not acquired
+     * from a pool or that were already released are ignored.
+     *
+     * @param message the message
+     * @return true if the message was released
+     */
+    public boolean release(Message message) {
+        final Queue<Message> queue = message.getPool();
+        if (queue == null) {
+            return false;
+        }
+        message.setPool(null);
+        if (detectUseAfterRelease) {
+            message.markReleased();
+        } else {
+            message.recycle();
+            queue.offer(message); // dropped if the pool is full
+        }
+        return true;
+    }
+
+    private Queue<Message> getQueue(String version, String msgType) {
+        ConcurrentMap<String, Queue<Message>> versionPools = pools.get(version);
+        if (versionPools == null) {
+            versionPools = new ConcurrentHashMap<>();
+            final ConcurrentMap<String, Queue<Message>> existing = pools.putIfAbsent(version, versionPools);
+            if (existing != null) {
+                versionPools = existing;
+            }
+        }
+        Queue<Message> queue = versionPools.get(msgType);
+        if (queue == null) {
+            queue = new ArrayBlockingQueue<>(capacity);
+            final Queue<Message> existing = versionPools.putIfAbsent(msgType, queue);
+            if (existing != null) {
+                queue = existing;
+            }
+        }
+        return queue;
+    }
+}
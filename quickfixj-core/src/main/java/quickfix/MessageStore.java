@@ -19,8 +19,11 @@
 
 package quickfix;
 
+import org.quickfixj.CharsetSupport;
+
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.io.IOException;
 
 /**
@@ -42,6 +45,38 @@ public interface MessageStore {
      */
     boolean set(int sequence, String message) throws IOException;
 
+    /**
+     * Adds a raw fix message that is already encoded with the charset of
+     * {@link CharsetSupport}, e.g. the bytes that are sent. Stores that
+     * write bytes should override this, the default decodes the message.
+     *
+     * @param sequence the sequence number
+     * @param message the encoded raw FIX message
+     * @return true is successful, false otherwise
+     * @throws IOException IO error
+     */
+    default boolean set(int sequence, byte[] message) throws IOException {
+        return set(sequence, new String(message, CharsetSupport.getCharsetInstance()));
+    }
+
+    /**
+     * Adds raw fix messages with consecutive sequence numbers to the store,
+     * e.g. a batch of messages sent at once. Stores that can write several
+     * messages more efficiently than one at a time should override this.
+     *
+     * @param firstSequence the sequence number of the first message
+     * @param messages the raw FIX message strings
+     * @return true is successful, false otherwise
+     * @throws IOException IO error
+     */
+    default boolean set(int firstSequence, List<String> messages) throws IOException {
+        boolean result = true;
+        for (int i = 0; i < messages.size(); i++) {
+            result &= set(firstSequence + i, messages.get(i));
+        }
+        return result;
+    }
+
     /**
      * Get messages within sequence number range (inclusive). Used for message
      * resend requests.
@@ -68,6 +68,21 @@ public class MessageUtils {
                 null), getFieldOrDefault(header, SenderLocationID.FIELD, null), null);
     }
 
+    /**
+     * Returns the reverse session ID of a raw encoded FIX message.
+     *
+     * @param messageBytes the encoded FIX message
+     * @return the session ID as seen from the receiving side
+     */
+    public static SessionID getReverseSessionID(byte[] messageBytes) {
+        return new SessionID(getStringField(messageBytes, BeginString.FIELD), getStringField(
+                messageBytes, TargetCompID.FIELD),
+                getStringField(messageBytes, TargetSubID.FIELD), getStringField(messageBytes,
+                        TargetLocationID.FIELD), getStringField(messageBytes, SenderCompID.FIELD),
+                getStringField(messageBytes, SenderSubID.FIELD), getStringField(messageBytes,
+                        SenderLocationID.FIELD), null);
+    }
+
     public static SessionID getReverseSessionID(String messageString) {
         return new SessionID(getStringField(messageString, BeginString.FIELD), getStringField(
                 messageString, TargetCompID.FIELD),
@@ -127,6 +142,21 @@ public class MessageUtils {
      * @throws InvalidMessage
      */
     public static Message parse(Session session, String messageString) throws InvalidMessage {
+        return parse(session, messageString, false);
+    }
+
+    /**
+     * NOTE: This method is intended for internal use.
+     *
+     * @param session the Session that will process the message
+     * @param messageString
+     * @param checksumVerified true if the checksum has already been verified, e.g. by the
+     *        frame decoder, so that it is not computed again
+     * @return the parsed message
+     * @throws InvalidMessage
+     */
+    public static Message parse(Session session, String messageString, boolean checksumVerified)
+            throws InvalidMessage {
         final String beginString = getStringField(messageString, BeginString.FIELD);
         final String msgType = getMessageType(messageString);
         final MessageFactory messageFactory = session.getMessageFactory();
@@ -137,7 +167,7 @@ public class MessageUtils {
         final quickfix.Message message;
         final DataDictionary payloadDictionary;
 
-        if (!isAdminMessage(msgType) || isLogon(messageString)) {
+        if (!isAdminMessage(msgType) || MsgType.LOGON.equals(msgType)) {
             if (FixVersions.BEGINSTRING_FIXT11.equals(beginString)) {
                 applVerID = getApplVerID(session, messageString);
             } else {
@@ -154,20 +184,114 @@ public class MessageUtils {
         }
 
         final boolean doValidation = payloadDictionary != null;
-        final boolean validateChecksum = session.isValidateChecksum();
+        final boolean validateChecksum = session.isValidateChecksum() && !checksumVerified;
 
-        message = messageFactory.create(beginString, applVerID, msgType);
+        message = newMessage(session, messageFactory, beginString, applVerID, msgType);
         message.parse(messageString, sessionDataDictionary, payloadDictionary, doValidation,
-                validateChecksum);
+                validateChecksum, session.isLazyMessageParsing());
+
+        return message;
+    }
+
+    private static Message newMessage(Session session, MessageFactory messageFactory,
+            String beginString, ApplVerID applVerID, String msgType) {
+        final MessagePool messagePool = session.getMessagePool();
+        return messagePool != null
+                ? messagePool.acquire(messageFactory, beginString, applVerID, msgType)
+                : messageFactory.create(beginString, applVerID, msgType);
+    }
+
+    /**
+     * NOTE: This method is intended for internal use.
+     *
+     * Parses a message from its raw encoded bytes. Tags and values are located
+     * directly in the bytes and values are only decoded into Strings on access.
+     *
+     * @param session the Session that will process the message
+     * @param messageBytes the encoded message, it must not be modified afterwards
+     * @return the parsed message
+     * @throws InvalidMessage
+     */
+    public static Message parse(Session session, byte[] messageBytes) throws InvalidMessage {
+        return parse(session, messageBytes, false);
+    }
+
+    /**
+     * NOTE: This method is intended for internal use.
+     *
+     * @param session the Session that will process the message
+     * @param messageBytes the encoded message, it must not be modified afterwards
+     * @param checksumVerified true if the checksum has already been verified, e.g. by the
+     *        frame decoder, so that it is not computed again
+     * @return the parsed message
+     * @throws InvalidMessage
+     * @see #parse(Session, byte[])
+     */
+    public static Message parse(Session session, byte[] messageBytes, boolean checksumVerified)
+            throws InvalidMessage {
+        final String beginString = getStringField(messageBytes, BeginString.FIELD);
+        final String msgType = getMessageType(messageBytes);
+        final MessageFactory messageFactory = session.getMessageFactory();
+        final DataDictionaryProvider ddProvider = session.getDataDictionaryProvider();
+        final ApplVerID applVerID;
+        final DataDictionary sessionDataDictionary = ddProvider == null ? null : ddProvider
+                .getSessionDataDictionary(beginString);
+        final quickfix.Message message;
+        final DataDictionary payloadDictionary;
+
+        if (!isAdminMessage(msgType) || MsgType.LOGON.equals(msgType)) {
+            if (FixVersions.BEGINSTRING_FIXT11.equals(beginString)) {
+                applVerID = getApplVerID(session, messageBytes, msgType);
+            } else {
+                applVerID = toApplVerID(beginString);
+            }
+            final DataDictionary applicationDataDictionary = ddProvider == null ? null : ddProvider
+                    .getApplicationDataDictionary(applVerID);
+            payloadDictionary = MessageUtils.isAdminMessage(msgType)
+                    ? sessionDataDictionary
+                    : applicationDataDictionary;
+        } else {
+            applVerID = null;
+            payloadDictionary = sessionDataDictionary;
+        }
+
+        final boolean doValidation = payloadDictionary != null;
+        final boolean validateChecksum = session.isValidateChecksum() && !checksumVerified;
+
+        message = newMessage(session, messageFactory, beginString, applVerID, msgType);
+        message.parse(messageBytes, sessionDataDictionary, payloadDictionary, doValidation,
+                validateChecksum, session.isLazyMessageParsing());
 
         return message;
     }
 
     private static ApplVerID getApplVerID(Session session, String messageString)
             throws InvalidMessage {
+        final ApplVerID applVerID = getApplVerID(session,
+                getStringField(messageString, ApplVerID.FIELD),
+                isLogon(messageString) ? getStringField(messageString, DefaultApplVerID.FIELD) : null);
+        if (applVerID == null) {
+            throw newInvalidMessageException("Can't determine ApplVerID from message " + messageString, getMinimalMessage(messageString));
+        }
+        return applVerID;
+    }
+
+    private static ApplVerID getApplVerID(Session session, byte[] messageBytes, String msgType)
+            throws InvalidMessage {
+        final ApplVerID applVerID = getApplVerID(session,
+                getStringField(messageBytes, ApplVerID.FIELD),
+                MsgType.LOGON.equals(msgType) ? getStringField(messageBytes, DefaultApplVerID.FIELD) : null);
+        if (applVerID == null) {
+            final String messageString = new String(messageBytes, CharsetSupport.getCharsetInstance());
+            throw newInvalidMessageException("Can't determine ApplVerID from message " + messageString, getMinimalMessage(messageString));
+        }
+        return applVerID;
+    }
+
+    private static ApplVerID getApplVerID(Session session, String applVerIdString,
+            String defaultApplVerIdString) {
         ApplVerID applVerID = null;
 
-        final String applVerIdString = getStringField(messageString, ApplVerID.FIELD);
         if (applVerIdString != null) {
             applVerID = new ApplVerID(applVerIdString);
         }
@@ -176,16 +300,8 @@ public class MessageUtils {
             applVerID = session.getTargetDefaultApplicationVersionID();
         }
 
-        if (applVerID == null && isLogon(messageString)) {
-            final String defaultApplVerIdString = getStringField(messageString,
-                    DefaultApplVerID.FIELD);
-            if (defaultApplVerIdString != null) {
-                applVerID = new ApplVerID(defaultApplVerIdString);
-            }
-        }
-
-        if (applVerID == null) {
-            throw newInvalidMessageException("Can't determine ApplVerID from message " + messageString, getMinimalMessage(messageString));
+        if (applVerID == null && defaultApplVerIdString != null) {
+            applVerID = new ApplVerID(defaultApplVerIdString);
         }
 
         return applVerID;
@@ -203,6 +319,18 @@ public class MessageUtils {
         return isMessageType(message, MsgType.LOGON);
     }
 
+    public static boolean isHeartbeat(byte[] messageBytes) {
+        return isMessageType(messageBytes, MsgType.HEARTBEAT);
+    }
+
+    public static boolean isLogon(byte[] messageBytes) {
+        return isMessageType(messageBytes, MsgType.LOGON);
+    }
+
+    private static boolean isMessageType(byte[] messageBytes, String msgType) {
+        return msgType.equals(getStringField(messageBytes, MsgType.FIELD));
+    }
+
     private static boolean isMessageType(String message, String msgType) {
         try {
             return msgType.equals(getMessageType(message));
@@ -219,6 +347,15 @@ public class MessageUtils {
         return value;
     }
 
+    static String getMessageType(byte[] messageBytes) throws InvalidMessage {
+        final String value = getStringField(messageBytes, MsgType.FIELD);
+        if (value == null) {
+            final String messageString = new String(messageBytes, CharsetSupport.getCharsetInstance());
+            throw newInvalidMessageException("Missing or garbled message type in " + messageString, getMinimalMessage(messageString));
+        }
+        return value;
+    }
+
     /**
      * Tries to set MsgSeqNum and MsgType from a FIX string to a new Message.
      * These fields are referenced on the outgoing Reject message.
@@ -266,6 +403,86 @@ public class MessageUtils {
         return value;
     }
 
+    /**
+     * Returns the value of the first field with the given tag in a raw encoded
+     * FIX message, or null if there is no such (SOH-terminated) field.
+     *
+     * @param messageBytes the encoded FIX message
+     * @param tag the tag to look for
+     * @return the field value, or null
+     */
+    public static String getStringField(byte[] messageBytes, int tag) {
+        int position = 0;
+        while (position < messageBytes.length) {
+            final int equalsOffset = indexOf(messageBytes, (byte) '=', position);
+            if (equalsOffset == -1) {
+                return null;
+            }
+            final int sohOffset = indexOf(messageBytes, (byte) FIELD_SEPARATOR, equalsOffset + 1);
+            if (sohOffset == -1) {
+                return null;
+            }
+            if (parseTag(messageBytes, position, equalsOffset) == tag) {
+                return new String(messageBytes, equalsOffset + 1, sohOffset - equalsOffset - 1,
+                        CharsetSupport.getCharsetInstance());
+            }
+            position = sohOffset + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given byte
+     * at or after the given index, or -1 if it is not found.
+     *
+     * @see ByteScanner#getDefault()
+     */
+    static int indexOf(byte[] data, byte value, int fromIndex) {
+        return ByteScanner.getDefault().indexOf(data, value, fromIndex, data.length);
+    }
+
+    /**
+     * Parses a positive decimal tag number from the given byte range.
+     *
+     * @return the tag number, or -1 if the range is empty, contains a non-digit
+     *         or the number does not fit into an int
+     */
+    static int parseTag(byte[] data, int start, int end) {
+        if (start >= end || end - start > 10) {
+            return -1;
+        }
+        long tag = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            tag = tag * 10 + digit;
+        }
+        return tag <= Integer.MAX_VALUE ? (int) tag : -1;
+    }
+
+    /**
+     * Parses a positive decimal tag number from the given character range.
+     *
+     * @return the tag number, or -1 if the range is empty, contains a non-digit
+     *         or the number does not fit into an int
+     */
+    static int parseTag(String data, int start, int end) {
+        if (start >= end || end - start > 10) {
+            return -1;
+        }
+        long tag = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = data.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            tag = tag * 10 + digit;
+        }
+        return tag <= Integer.MAX_VALUE ? (int) tag : -1;
+    }
+
     private static final Map<String, String> applVerIDtoBeginString = new HashMap<String, String>() {
         {
             // No support for earlier versions of FIX
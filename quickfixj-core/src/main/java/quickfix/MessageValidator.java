@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+/**
+ * Validates the messages of one data dictionary with code generated from that dictionary
+ * instead of looking up the dictionary for every field.
+ * <p>
+ * Implementations are generated by the code generator and are attached to a data dictionary
+ * with {@link DataDictionary#setMessageValidator(MessageValidator)}, which only accepts a
+ * validator generated from the same definitions. Validation settings like
+ * {@link DataDictionary#setCheckUserDefinedFields(boolean)} are still taken from the data
+ * dictionary, so the results are the same as without the validator.
+ */
+public interface MessageValidator {
+
+    /**
+     * @return the {@link DataDictionary#getValidationHash() validation hash} of the data
+     * dictionary this validator was generated from
+     */
+    String getDataDictionaryHash();
+
+    /**
+     * @param msgType the message type
+     * @return true if the message type is defined
+     */
+    boolean isMsgType(String msgType);
+
+    /**
+     * Check that the required fields of a message and of its groups are set.
+     *
+     * @param message the message
+     * @param msgType the message type
+     * @param bodyOnly whether to skip the header and trailer
+     * @throws FieldException if a required field is missing
+     */
+    void checkHasRequired(Message message, String msgType, boolean bodyOnly);
+
+    /**
+     * Validate the fields and groups of the message body.
+     *
+     * @param message the message
+     * @param msgType the message type
+     * @param dataDictionary the data dictionary providing the validation settings
+     * @throws IncorrectTagValue if a field value is not valid
+     * @throws IncorrectDataFormat if a field value has a wrong data type
+     * @throws FieldException if a field is not defined or a group count is wrong
+     */
+    void validateBody(Message message, String msgType, DataDictionary dataDictionary)
+            throws IncorrectTagValue, IncorrectDataFormat;
+}
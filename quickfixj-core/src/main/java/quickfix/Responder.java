@@ -19,6 +19,10 @@
 
 package quickfix;
 
+import org.quickfixj.CharsetSupport;
+
+import java.util.List;
+
 /**
  * Used by a Session to send raw FIX message data and to disconnect a
  * connection. This interface is used by Acceptor or Initiator implementations.
@@ -37,6 +41,41 @@ public interface Responder {
      */
     boolean send(String data);
 
+    /**
+     * Send a raw FIX message that is already encoded with the charset of
+     * {@link CharsetSupport}. The array is not modified afterwards, so
+     * responders which write bytes can pass it on as it is and should override this.
+     * The default implementation decodes the message and sends the string.
+     *
+     * @param data the encoded raw FIX message
+     * @return true is successful, false if send operation failed
+     */
+    default boolean send(byte[] data) {
+        return send(new String(data, CharsetSupport.getCharsetInstance()));
+    }
+
+    /**
+     * Send several raw FIX messages. Responders that can write them at once,
+     * e.g. with a single network write, should override this.
+     *
+     * @param data the raw FIX message data
+     * @return true is successful, false if send operation failed
+     */
+    default boolean send(List<String> data) {
+        boolean result = true;
+        for (String message : data) {
+            result &= send(message);
+        }
+        return result;
+    }
+
+    /**
+     * Write any messages that the responder holds back to send them together with
+     * later ones. Called when the session has nothing more to send for now.
+     */
+    default void flush() {
+    }
+
     /**
      * Disconnect the underlying connection.
      */
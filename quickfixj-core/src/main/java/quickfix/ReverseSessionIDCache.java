@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import quickfix.field.BeginString;
+import quickfix.field.SenderCompID;
+import quickfix.field.SenderLocationID;
+import quickfix.field.SenderSubID;
+import quickfix.field.TargetCompID;
+import quickfix.field.TargetLocationID;
+import quickfix.field.TargetSubID;
+
+import java.util.Arrays;
+
+/**
+ * NOTE: This class is intended for internal use.
+ * <p>
+ * Resolves the reverse session ID of incoming messages for routing. The session ID
+ * fields are located in a single pass over the standard header fields of the raw
+ * message and compared with the session IDs seen before, so no Strings or SessionIDs
+ * are created for known sessions. Unknown session IDs are resolved by
+ * {@link MessageUtils#getReverseSessionID(String)} and only cached if a session with
+ * that ID exists, so the cache does not grow with unknown counterparties.
+ * <p>
+ * The header scan stops at the first field that is not a standard header field.
+ * Messages whose session ID fields cannot be found that way are always resolved by
+ * {@link MessageUtils}.
+ */
+public final class ReverseSessionIDCache {
+
+    // in the order of the SessionID constructor arguments
+    private static final int[] TAGS = { BeginString.FIELD, TargetCompID.FIELD, TargetSubID.FIELD,
+            TargetLocationID.FIELD, SenderCompID.FIELD, SenderSubID.FIELD, SenderLocationID.FIELD };
+
+    private static final int MAX_ENTRIES = 65536;
+
+    private static final ThreadLocal<int[]> OFFSETS = ThreadLocal.withInitial(() -> new int[TAGS.length * 2]);
+
+    // copy on write, open addressing
+    private volatile Entry[] table = new Entry[16];
+    private int size;
+
+    /**
+     * @param messageBytes the encoded message
+     * @return the session ID as seen from the receiving side
+     */
+    public SessionID getReverseSessionID(byte[] messageBytes) {
+        final int[] offsets = OFFSETS.get();
+        if (!findFields(messageBytes, offsets)) {
+            return MessageUtils.getReverseSessionID(messageBytes);
+        }
+        final int hash = hash(messageBytes, offsets);
+        final Entry[] entries = table;
+        for (int i = hash & (entries.length - 1); entries[i] != null; i = (i + 1) & (entries.length - 1)) {
+            if (entries[i].hash == hash && entries[i].matches(messageBytes, offsets)) {
+                return entries[i].sessionID;
+            }
+        }
+        final SessionID sessionID = MessageUtils.getReverseSessionID(messageBytes);
+        final Entry entry = new Entry(hash, sessionID);
+        if (entry.matches(messageBytes, offsets)) {
+            addIfSessionExists(entry);
+        }
+        return sessionID;
+    }
+
+    /**
+     * @param messageString the message
+     * @return the session ID as seen from the receiving side
+     */
+    public SessionID getReverseSessionID(String messageString) {
+        final int[] offsets = OFFSETS.get();
+        if (!findFields(messageString, offsets)) {
+            return MessageUtils.getReverseSessionID(messageString);
+        }
+        final int hash = hash(messageString, offsets);
+        final Entry[] entries = table;
+        for (int i = hash & (entries.length - 1); entries[i] != null; i = (i + 1) & (entries.length - 1)) {
+            if (entries[i].hash == hash && entries[i].matches(messageString, offsets)) {
+                return entries[i].sessionID;
+            }
+        }
+        final SessionID sessionID = MessageUtils.getReverseSessionID(messageString);
+        final Entry entry = new Entry(hash, sessionID);
+        if (entry.matches(messageString, offsets)) {
+            addIfSessionExists(entry);
+        }
+        return sessionID;
+    }
+
+    private synchronized void addIfSessionExists(Entry entry) {
+        if (size >= MAX_ENTRIES || !Session.doesSessionExist(entry.sessionID)) {
+            return;
+        }
+        final Entry[] entries = table;
+        for (Entry existing : entries) {
+            if (existing != null && existing.sessionID.equals(entry.sessionID)) {
+                return;
+            }
+        }
+        final int length = (size + 1) * 2 > entries.length ? entries.length * 2 : entries.length;
+        final Entry[] copy = new Entry[length];
+        for (Entry existing : entries) {
+            if (existing != null) {
+                insert(copy, existing);
+            }
+        }
+        insert(copy, entry);
+        size++;
+        table = copy;
+    }
+
+    private static void insert(Entry[] entries, Entry entry) {
+        int i = entry.hash & (entries.length - 1);
+        while (entries[i] != null) {
+            i = (i + 1) & (entries.length - 1);
+        }
+        entries[i] = entry;
+    }
+
+    /**
+     * Stores the value start and end offsets of the first occurrence of each session ID
+     * tag in the standard header, -1 if absent.
+     *
+     * @return false if the message is malformed
+     */
+    private static boolean findFields(byte[] data, int[] offsets) {
+        Arrays.fill(offsets, -1);
+        int position = 0;
+        while (position < data.length) {
+            int tag = 0;
+            int i = position;
+            for (; i < data.length && data[i] != '='; i++) {
+                final int digit = data[i] - '0';
+                if (digit < 0 || digit > 9 || i - position >= 9) {
+                    return false;
+                }
+                tag = tag * 10 + digit;
+            }
+            if (i == position || i == data.length) {
+                return false;
+            }
+            final int valueStart = i + 1;
+            int end = valueStart;
+            while (end < data.length && data[end] != '\001') {
+                end++;
+            }
+            if (end == data.length) {
+                return false;
+            }
+            if (!isHeaderField(tag)) {
+                return true;
+            }
+            setOffsets(offsets, tag, valueStart, end);
+            position = end + 1;
+        }
+        return true;
+    }
+
+    private static boolean findFields(String data, int[] offsets) {
+        Arrays.fill(offsets, -1);
+        final int length = data.length();
+        int position = 0;
+        while (position < length) {
+            int tag = 0;
+            int i = position;
+            for (; i < length && data.charAt(i) != '='; i++) {
+                final int digit = data.charAt(i) - '0';
+                if (digit < 0 || digit > 9 || i - position >= 9) {
+                    return false;
+                }
+                tag = tag * 10 + digit;
+            }
+            if (i == position || i == length) {
+                return false;
+            }
+            final int valueStart = i + 1;
+            final int end = data.indexOf('\001', valueStart);
+            if (end == -1) {
+                return false;
+            }
+            if (!isHeaderField(tag)) {
+                return true;
+            }
+            setOffsets(offsets, tag, valueStart, end);
+            position = end + 1;
+        }
+        return true;
+    }
+
+    private static boolean isHeaderField(int tag) {
+        switch (tag) {
+        case 627: // NoHops
+        case 628: // HopCompID
+        case 629: // HopSendingTime
+        case 630: // HopRefID
+            return true;
+        default:
+            return Message.isHeaderField(tag);
+        }
+    }
+
+    private static void setOffsets(int[] offsets, int tag, int valueStart, int end) {
+        for (int t = 0; t < TAGS.length; t++) {
+            if (TAGS[t] == tag) {
+                if (offsets[t * 2] == -1) {
+                    offsets[t * 2] = valueStart;
+                    offsets[t * 2 + 1] = end;
+                }
+                return;
+            }
+        }
+    }
+
+    private static int hash(byte[] data, int[] offsets) {
+        int hash = 0;
+        for (int t = 0; t < TAGS.length; t++) {
+            int h = t + 1;
+            for (int i = offsets[t * 2]; i < offsets[t * 2 + 1]; i++) {
+                h = 31 * h + (data[i] & 0xFF);
+            }
+            hash = 31 * hash + h;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(String data, int[] offsets) {
+        int hash = 0;
+        for (int t = 0; t < TAGS.length; t++) {
+            int h = t + 1;
+            for (int i = offsets[t * 2]; i < offsets[t * 2 + 1]; i++) {
+                h = 31 * h + data.charAt(i);
+            }
+            hash = 31 * hash + h;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final SessionID sessionID;
+        private final String[] values;
+
+        Entry(int hash, SessionID sessionID) {
+            this.hash = hash;
+            this.sessionID = sessionID;
+            values = new String[] { sessionID.getBeginString(), sessionID.getSenderCompID(),
+                    sessionID.getSenderSubID(), sessionID.getSenderLocationID(),
+                    sessionID.getTargetCompID(), sessionID.getTargetSubID(),
+                    sessionID.getTargetLocationID() };
+            for (int t = 0; t < values.length; t++) {
+                if (SessionID.NOT_SET.equals(values[t])) {
+                    values[t] = null;
+                }
+            }
+        }
+
+        boolean matches(byte[] data, int[] offsets) {
+            for (int t = 0; t < values.length; t++) {
+                final int start = offsets[t * 2];
+                final String value = values[t];
+                if (start == -1 || value == null) {
+                    if (start != -1 || value != null) {
+                        return false;
+                    }
+                    continue;
+                }
+                final int end = offsets[t * 2 + 1];
+                if (end - start != value.length()) {
+                    return false;
+                }
+                for (int i = 0; i < value.length(); i++) {
+                    if ((data[start + i] & 0xFF) != value.charAt(i)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        boolean matches(String data, int[] offsets) {
+            for (int t = 0; t < values.length; t++) {
+                final int start = offsets[t * 2];
+                final String value = values[t];
+                if (start == -1 || value == null) {
+                    if (start != -1 || value != null) {
+                        return false;
+                    }
+                    continue;
+                }
+                final int end = offsets[t * 2 + 1];
+                if (end - start != value.length() || !data.regionMatches(start, value, 0, value.length())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -124,6 +124,16 @@ public class SLF4JLog extends AbstractLog {
         log(incomingMsgLog, message);
     }
 
+    @Override
+    protected boolean isLoggingIncoming() {
+        return incomingMsgLog.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isLoggingOutgoing() {
+        return outgoingMsgLog.isInfoEnabled();
+    }
+
     @Override
     protected void logOutgoing(String message) {
         log(outgoingMsgLog, message);
@@ -68,6 +68,16 @@ public class ScreenLog extends AbstractLog {
         }
     }
 
+    @Override
+    protected boolean isLoggingIncoming() {
+        return incoming;
+    }
+
+    @Override
+    public boolean isLoggingOutgoing() {
+        return outgoing;
+    }
+
     protected void logOutgoing(String message) {
         if (outgoing) {
             logMessage(message, OUTGOING_CATEGORY);
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders the hand-off of sent messages to the message store and the responder.
+ * <p>
+ * A sender takes a ticket while it holds the sender sequence number lock, right before
+ * incrementing the sequence number, so tickets are in sequence number order. After releasing the lock it prepares the message and
+ * then waits for its turn, which comes when the hand-offs of all earlier tickets are
+ * complete. Only one hand-off runs at a time and none of them needs the sender
+ * sequence number lock, so waiting for them while holding that lock cannot deadlock.
+ * <p>
+ * A hand-off can be split into stages that run in ticket order each, with one
+ * sequencer per stage. The sequencer of a later stage shares the tickets of the first
+ * one, so waiting for its completion also waits for the tickets whose earlier stages
+ * are still running, as long as each ticket completes its stages in order.
+ */
+final class SendSequencer {
+
+    /** A value that is never returned as a ticket. */
+    static final long NO_TICKET = -1;
+
+    private final AtomicLong nextTicket;
+    private volatile long nextTurn;
+    private volatile Thread handOffThread;
+    // threads waiting for their turn by ticket; only the next one is woken up
+    private final ConcurrentMap<Long, Thread> waiters = new ConcurrentHashMap<>();
+    // threads waiting for all hand-offs; a lock instead of a monitor so that waiting
+    // virtual threads do not pin their carrier thread
+    private final Lock completionLock = new ReentrantLock();
+    private final Condition completed = completionLock.newCondition();
+    // @GuardedBy(completionLock)
+    private int completionWaiters;
+
+    SendSequencer() {
+        nextTicket = new AtomicLong();
+    }
+
+    /**
+     * Creates the sequencer of a later stage of the hand-offs.
+     *
+     * @param previousStage the sequencer whose tickets are used
+     */
+    SendSequencer(SendSequencer previousStage) {
+        nextTicket = previousStage.nextTicket;
+    }
+
+    /**
+     * Takes the next ticket. Must be called with the sender sequence number lock held.
+     *
+     * @return the ticket
+     */
+    long nextTicket() {
+        return nextTicket.getAndIncrement();
+    }
+
+    /**
+     * Waits until the hand-offs of all earlier tickets are complete. The wait is not
+     * interruptible since later tickets depend on this one being completed.
+     *
+     * @param ticket the ticket
+     */
+    void awaitTurn(long ticket) {
+        if (nextTurn != ticket) {
+            final Thread currentThread = Thread.currentThread();
+            waiters.put(ticket, currentThread);
+            boolean interrupted = false;
+            while (nextTurn != ticket) {
+                LockSupport.park(this);
+                interrupted |= Thread.interrupted();
+            }
+            waiters.remove(ticket);
+            if (interrupted) {
+                currentThread.interrupt();
+            }
+        }
+        handOffThread = Thread.currentThread();
+    }
+
+    /**
+     * Completes the hand-off of a ticket, which gives the turn to the next ticket.
+     *
+     * @param ticket the ticket
+     */
+    void complete(long ticket) {
+        handOffThread = null;
+        nextTurn = ticket + 1;
+        final Thread next = waiters.get(ticket + 1);
+        if (next != null) {
+            LockSupport.unpark(next);
+        }
+        completionLock.lock();
+        try {
+            if (completionWaiters > 0) {
+                completed.signalAll();
+            }
+        } finally {
+            completionLock.unlock();
+        }
+    }
+
+    /**
+     * Completes a ticket, waiting for its turn first unless it already has it. Called in
+     * a finally block, so that a ticket is released whatever happens after it is taken.
+     *
+     * @param ticket the ticket
+     */
+    void release(long ticket) {
+        awaitTurn(ticket);
+        complete(ticket);
+    }
+
+    /**
+     * Waits until the hand-offs of all tickets taken so far are complete. Returns at
+     * once when called during a hand-off, e.g. when the responder disconnects a slow
+     * consumer.
+     */
+    void awaitCompletion() {
+        if (handOffThread == Thread.currentThread()) {
+            return;
+        }
+        final long lastTicket = nextTicket.get();
+        if (nextTurn >= lastTicket) {
+            return;
+        }
+        completionLock.lock();
+        try {
+            completionWaiters++;
+            while (nextTurn < lastTicket) {
+                completed.awaitUninterruptibly();
+            }
+        } finally {
+            completionWaiters--;
+            completionLock.unlock();
+        }
+    }
+}
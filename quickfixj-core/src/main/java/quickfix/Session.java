@@ -19,6 +19,7 @@
 
 package quickfix;
 
+import org.quickfixj.CharsetSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import quickfix.Message.Header;
@@ -60,8 +61,8 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -69,6 +70,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static quickfix.LogUtil.logThrowable;
 
@@ -94,6 +97,16 @@ public class Session implements Closeable {
      */
     public static final String SETTING_HEARTBTINT = "HeartBtInt";
 
+    /**
+     * Session setting for heartbeat interval (in milliseconds), which allows heartbeat
+     * intervals below one second. Heartbeats, test requests and heartbeat timeouts are
+     * timed with this interval instead of HeartBtInt, and acceptors use it instead of
+     * the interval requested in the Logon. The Logon sent carries the interval rounded
+     * up to whole seconds, so the counterparty has to be configured to use the same
+     * interval.
+     */
+    public static final String SETTING_HEARTBTINT_MILLIS = "HeartBtIntMillis";
+
     /**
      * Session setting for enabling message latency checks. Values are "Y" or
      * "N".
@@ -195,6 +208,22 @@ public class Session implements Closeable {
      */
     public static final String SETTING_APP_DATA_DICTIONARY = "AppDataDictionary";
 
+    /**
+     * Session setting specifying a directory for binary snapshots of the loaded data
+     * dictionaries. Dictionaries are loaded from their snapshot if it was created from
+     * the same XML file, which avoids parsing the XML on every startup.
+     *
+     * @see DataDictionarySnapshot
+     */
+    public static final String SETTING_DATA_DICTIONARY_SNAPSHOT_DIRECTORY = "DataDictionarySnapshotDirectory";
+
+    /**
+     * Session setting to validate messages with the {@link MessageValidator} generated for a
+     * data dictionary, e.g. quickfix.fix44.MessageValidator for FIX 4.4. A validator is only used
+     * if it was generated from the same definitions as the data dictionary. Default is "N".
+     */
+    public static final String SETTING_USE_GENERATED_VALIDATOR = "UseGeneratedValidator";
+
     /**
      * Default is "Y".
      * If set to N, fields that are out of order (i.e. body fields in the header, or header fields in the body) will not be rejected.
@@ -385,6 +414,41 @@ public class Session implements Closeable {
      */
     public static final String SETTING_ALLOW_POS_DUP_MESSAGES = "AllowPosDup";
 
+    /**
+     * Let the FIX frame decoder hand over the raw message bytes instead of a String.
+     * Messages are then parsed directly from the bytes and field values are only
+     * decoded when they are accessed. This is a connector-wide setting.
+     * Valid values are "Y" or "N". Default is "N".
+     */
+    public static final String SETTING_PARSE_MESSAGES_FROM_BYTES = "ParseMessagesFromBytes";
+
+    /**
+     * Parse only the header of incoming messages right away. The body and trailer are
+     * parsed and validated when they are first accessed, which saves work for sessions
+     * that only look at a few fields, e.g. for routing.
+     * Messages with header fields after body fields are still parsed completely.
+     * Valid values are "Y" or "N". Default is "N".
+     */
+    public static final String SETTING_LAZY_MESSAGE_PARSING = "LazyMessageParsing";
+
+    /**
+     * Reuse incoming message instances. Once the application callback (fromApp or fromAdmin)
+     * has returned, the message is released to a pool of the session and reused for a later
+     * message, so the application must not keep references to incoming messages or their groups.
+     * Valid values are "Y" or "N". Default is "N".
+     *
+     * @see MessagePool
+     */
+    public static final String SETTING_MESSAGE_POOLING = "MessagePooling";
+
+    /**
+     * Used with {@link #SETTING_MESSAGE_POOLING}. Released messages are not reused but fail
+     * with an exception when they are accessed, which helps finding application code that
+     * keeps references to incoming messages. Intended for testing.
+     * Valid values are "Y" or "N". Default is "N".
+     */
+    public static final String SETTING_MESSAGE_POOL_DETECT_USE_AFTER_RELEASE = "MessagePoolDetectUseAfterRelease";
+
     private static final ConcurrentMap<SessionID, Session> sessions = new ConcurrentHashMap<>();
 
     private final Application application;
@@ -401,7 +465,10 @@ public class Session implements Closeable {
      */
     private volatile boolean enabled;
 
-    private final Object responderLock = new Object(); // unique instance
+    // the stages of sending an application message: storing it, then writing it
+    private final SendSequencer sendSequencer = new SendSequencer();
+    private final SendSequencer writeSequencer = new SendSequencer(sendSequencer);
+    private final Lock responderLock = new ReentrantLock();
     // @GuardedBy(responderLock)
     private Responder responder;
 
@@ -411,6 +478,10 @@ public class Session implements Closeable {
     private int logonAttempts = 0;
     private long lastSessionLogon = 0;
 
+    private volatile Runnable timerDeadlineListener;
+    // configured heartbeat interval in milliseconds, 0 if the interval is in seconds
+    private volatile long heartBeatMillis;
+
     private final DataDictionaryProvider dataDictionaryProvider;
     private final boolean checkLatency;
     private final int maxLatency;
@@ -439,6 +510,10 @@ public class Session implements Closeable {
 
     private int maxScheduledWriteRequests = 0;
 
+    private boolean lazyMessageParsing = false;
+
+    private MessagePool messagePool;
+
     private final AtomicBoolean isResetting = new AtomicBoolean();
     private final AtomicBoolean isResettingState = new AtomicBoolean();
 
@@ -576,19 +651,26 @@ public class Session implements Closeable {
      * @param responder a responder implementation
      */
     public void setResponder(Responder responder) {
-        synchronized (responderLock) {
+        responderLock.lock();
+        try {
             this.responder = responder;
             if (responder != null) {
                 stateListener.onConnect(sessionID);
             } else {
                 stateListener.onDisconnect(sessionID);
             }
+        } finally {
+            responderLock.unlock();
         }
+        timerDeadlineChanged();
     }
 
     public Responder getResponder() {
-        synchronized (responderLock) {
+        responderLock.lock();
+        try {
             return responder;
+        } finally {
+            responderLock.unlock();
         }
     }
 
@@ -764,6 +846,7 @@ public class Session implements Closeable {
 
     private void setEnabled(boolean enabled) {
         this.enabled = enabled;
+        timerDeadlineChanged();
     }
 
     private void initializeHeader(Message.Header header) {
@@ -786,7 +869,8 @@ public class Session implements Closeable {
     }
 
     private void insertSendingTime(Message.Header header) {
-        header.setUtcTimeStamp(SendingTime.FIELD, SystemTime.getLocalDateTime(), getTimestampPrecision());
+        final UtcTimestampPrecision precision = getTimestampPrecision();
+        header.setUtcTimeStampNanos(SendingTime.FIELD, SystemTime.currentTimeNanos(precision), precision);
     }
 
     private UtcTimestampPrecision getTimestampPrecision() {
@@ -1236,11 +1320,26 @@ public class Session implements Closeable {
     public void next(Message message) throws FieldNotFound, RejectLogon, IncorrectDataFormat,
             IncorrectTagValue, UnsupportedMessageType, IOException, InvalidMessage {
 
-        if (rejectGarbledMessage && message.isGarbled()) {
-            generateReject(message, "Message failed basic validity check");
-            return;
+        try {
+            if (rejectGarbledMessage && message.isGarbled()) {
+                generateReject(message, "Message failed basic validity check");
+                return;
+            }
+            next(message, false);
+        } finally {
+            // session level messages may log on, log out or change the heartbeat interval
+            if (message.isAdmin()) {
+                timerDeadlineChanged();
+            }
+            releaseMessage(message);
+        }
+    }
+
+    private void releaseMessage(Message message) {
+        final MessagePool pool = messagePool;
+        if (pool != null && !state.isQueued(message)) {
+            pool.release(message);
         }
-        next(message, false);
     }
 
     private boolean resetOrDisconnectIfRequired(Message msg) {
@@ -1321,7 +1420,15 @@ public class Session implements Closeable {
 
         // Adjust the ending sequence number for older versions of FIX
         final String beginString = sessionID.getBeginString();
-        final int expectedSenderNum = getExpectedSenderNum();
+        final int expectedSenderNum;
+        // all messages before the expected sequence number have to be in the store
+        state.lockSenderMsgSeqNum();
+        try {
+            awaitHandOffs();
+            expectedSenderNum = getExpectedSenderNum();
+        } finally {
+            state.unlockSenderMsgSeqNum();
+        }
         if (beginString.compareTo(FixVersions.BEGINSTRING_FIX42) >= 0 && endSeqNo == 0
                 || beginString.compareTo(FixVersions.BEGINSTRING_FIX42) <= 0 && endSeqNo == 999999
                 || endSeqNo >= expectedSenderNum) {
@@ -1493,6 +1600,7 @@ public class Session implements Closeable {
         }
         sendRaw(logout, 0);
         state.setLogoutSent(true);
+        timerDeadlineChanged();
     }
 
     private void nextSequenceReset(Message sequenceReset) throws IOException, RejectLogon,
@@ -1867,8 +1975,8 @@ public class Session implements Closeable {
         if (!checkLatency) {
             return true;
         }
-        final LocalDateTime sendingTime = message.getHeader().getUtcTimeStamp(SendingTime.FIELD);
-        return Math.abs(SystemTime.currentTimeMillis() - sendingTime.toInstant(ZoneOffset.UTC).toEpochMilli()) / 1000 <= maxLatency;
+        final long sendingTime = message.getHeader().getUtcTimeStampMillis(SendingTime.FIELD);
+        return Math.abs(SystemTime.currentTimeMillis() - sendingTime) / 1000 <= maxLatency;
     }
 
     private void fromCallback(String msgType, Message msg, SessionID sessionID2)
@@ -1992,6 +2100,72 @@ public class Session implements Closeable {
         }
     }
 
+    /**
+     * Returns the time at which {@link #next()} has to be called next, i.e. the earliest
+     * time at which a heartbeat or test request is due, a Logon has to be sent, a Logon
+     * or Logout times out or the session schedule has to be checked. Calling
+     * <code>next()</code> earlier does no harm, it just has nothing to do.
+     * <p>
+     * The deadline only moves earlier when the state of the session changes outside of
+     * <code>next()</code>, e.g. when it connects or logs on. The listener set with
+     * {@link #setTimerDeadlineListener(Runnable)} is notified in that case.
+     *
+     * @return the deadline in milliseconds since the epoch, or Long.MAX_VALUE if there
+     * is nothing to be done until the state changes
+     */
+    public long getNextTimerDeadline() {
+        if (!isEnabled()) {
+            if (isLoggedOn()) {
+                if (!state.isLogoutSent()) {
+                    return 0L;
+                }
+            } else {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        long deadline = Long.MAX_VALUE;
+        if (sessionSchedule != null && !sessionSchedule.isNonStopSession()) {
+            deadline = lastSessionTimeCheck + 1000L;
+        }
+
+        if (!hasResponder()) {
+            return deadline;
+        }
+
+        if (!state.isLogonReceived()) {
+            if (state.isLogonSendNeeded()) {
+                deadline = Math.min(deadline, lastSessionLogon + computeNextLogonDelayMillis());
+            } else if (state.isLogonAlreadySent()) {
+                deadline = Math.min(deadline, state.getLogonTimeoutDeadline());
+            }
+            return deadline;
+        }
+
+        if (state.isLogoutSent()) {
+            deadline = Math.min(deadline, state.getLogoutTimeoutDeadline());
+        }
+        return Math.min(deadline, state.getHeartBeatDeadline());
+    }
+
+    /**
+     * Sets the listener which is run when the deadline returned by
+     * {@link #getNextTimerDeadline()} may have moved earlier. The listener is run on the
+     * thread that changed the session state, so it must not block.
+     *
+     * @param timerDeadlineListener the listener, or null to remove it
+     */
+    public void setTimerDeadlineListener(Runnable timerDeadlineListener) {
+        this.timerDeadlineListener = timerDeadlineListener;
+    }
+
+    private void timerDeadlineChanged() {
+        final Runnable listener = timerDeadlineListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
     private long computeNextLogonDelayMillis() {
         int index = logonAttempts - 1;
         if (index < 0) {
@@ -2074,7 +2248,8 @@ public class Session implements Closeable {
             final boolean logonReceived = state.isLogonReceived();
             final boolean logonSent = state.isLogonSent();
 
-            synchronized (responderLock) {
+            responderLock.lock();
+            try {
                 if (!hasResponder()) {
                     if (!ENCOUNTERED_END_OF_STREAM.equals(reason)) {
                         getLog().onEvent("Already disconnected: " + reason);
@@ -2089,6 +2264,8 @@ public class Session implements Closeable {
                 }
                 responder.disconnect();
                 setResponder(null);
+            } finally {
+                responderLock.unlock();
             }
 
             if (logonReceived || logonSent) {
@@ -2289,7 +2466,10 @@ public class Session implements Closeable {
             throws IOException, InvalidMessage, FieldNotFound {
 
         final ArrayList<String> messages = new ArrayList<>();
+        // no new hand-off may start between waiting for the outstanding ones and reading the store
+        state.lockSenderMsgSeqNum();
         try {
+            awaitHandOffs();
             state.get(beginSeqNo, endSeqNo, messages);
         } catch (final IOException e) {
             if (forceResendWhenCorruptedStore) {
@@ -2304,6 +2484,8 @@ public class Session implements Closeable {
             } else {
                 throw e;
             }
+        } finally {
+            state.unlockSenderMsgSeqNum();
         }
 
         int msgSeqNum = 0;
@@ -2408,7 +2590,11 @@ public class Session implements Closeable {
                 // Logon and ResendRequest processing has already been done, so we just need to increment the target seqnum.
                 state.incrNextTargetMsgSeqNum();
             } else {
-                nextQueued(msg, msgType);
+                try {
+                    nextQueued(msg, msgType);
+                } finally {
+                    releaseMessage(msg);
+                }
             }
             return true;
         }
@@ -2571,11 +2757,11 @@ public class Session implements Closeable {
         state.setLogonSent(true);
     }
 
-    private void persist(Header header, String messageString, int num) throws IOException, FieldNotFound {
+    private void persist(Header header, byte[] messageData, int num) throws IOException, FieldNotFound {
       if (num == 0) {
           if (persistMessages) {
               final int msgSeqNum = header.getInt(MsgSeqNum.FIELD);
-              state.set(msgSeqNum, messageString);
+              state.set(msgSeqNum, messageData);
           }
           state.incrNextSenderMsgSeqNum();
       }
@@ -2583,64 +2769,101 @@ public class Session implements Closeable {
 
     /**
      * Send the message
+     * <p>
+     * Only the assignment of the sequence number and the application callback run
+     * with the sender sequence number lock held, since the sequence number is effectively
+     * rolled back if the callback throws {@link DoNotSend}. An application message is
+     * then encoded without the lock, and persisted and passed to the responder in
+     * sequence number order by two {@link SendSequencer} stages. The first one stores
+     * the message, the second one writes it. In between the sender waits until the
+     * message is durable, if the store waits for durability, while the next senders
+     * already store their messages, so a write-behind store syncs them together. The
+     * message is encoded once,
+     * in the calling thread, and the same bytes are persisted and sent, so the
+     * application may change or reuse the message as soon as this returns. This gives
+     * the following guarantees:
+     * <ul>
+     * <li>messages are persisted and written to the responder in sequence number order,
+     * and each message is persisted before it is written</li>
+     * <li>the next sender sequence number may be ahead of the message store for the
+     * duration of a hand-off; resends wait for outstanding hand-offs before reading the
+     * store</li>
+     * <li>the next sender sequence number is stored before the message is persisted, so
+     * if persisting fails or the process stops in between, the sequence number is used
+     * but the message is not sent, and the counterparty gets a gap fill instead of the
+     * message on its resend request</li>
+     * <li>the hand-off is completed whatever is thrown once the sequence number is taken,
+     * so later messages are never held up by a failed one</li>
+     * </ul>
+     * Administrative messages and messages with a given sequence number may reset the
+     * sequence numbers or the store, so they are handled entirely under the lock once
+     * the earlier hand-offs are complete.
      *
      * @param message is the message to send
      * @param num is the seq num of the message to send, if 0, the next expected sender seqnum is used.
      * @return
      */
     private boolean sendRaw(Message message, int num) {
-        // sequence number must be locked until application
-        // callback returns since it may be effectively rolled
-        // back if the callback fails.
-        state.lockSenderMsgSeqNum();
+        long ticket = SendSequencer.NO_TICKET;
+        boolean stored = false;
         try {
-            boolean result = false;
-            final Message.Header header = message.getHeader();
-            final String msgType = header.getString(MsgType.FIELD);
+            final int msgSeqNum;
+            final boolean loggedOn;
+            // sequence number must be locked until application
+            // callback returns since it may be effectively rolled
+            // back if the callback fails.
+            state.lockSenderMsgSeqNum();
+            try {
+                boolean result = false;
+                final Message.Header header = message.getHeader();
+                final String msgType = header.getString(MsgType.FIELD);
 
-            initializeHeader(header);
+                initializeHeader(header);
 
-            if (num > 0) {
-                header.setInt(MsgSeqNum.FIELD, num);
-            }
+                if (num > 0) {
+                    header.setInt(MsgSeqNum.FIELD, num);
+                }
 
-            if (enableLastMsgSeqNumProcessed) {
-                if (!header.isSetField(LastMsgSeqNumProcessed.FIELD)) {
-                    header.setInt(LastMsgSeqNumProcessed.FIELD, getExpectedTargetNum() - 1);
+                if (enableLastMsgSeqNumProcessed) {
+                    if (!header.isSetField(LastMsgSeqNumProcessed.FIELD)) {
+                        header.setInt(LastMsgSeqNumProcessed.FIELD, getExpectedTargetNum() - 1);
+                    }
                 }
-            }
 
-            String messageString;
+                byte[] messageData;
 
-            if (message.isAdmin()) {
-                try {
-                    application.toAdmin(message, sessionID);
-                } catch (final Throwable t) {
-                    logApplicationException("toAdmin()", t);
-                }
+                if (message.isAdmin()) {
+                    awaitHandOffs();
+                    try {
+                        application.toAdmin(message, sessionID);
+                    } catch (final Throwable t) {
+                        logApplicationException("toAdmin()", t);
+                    }
 
-                if (MsgType.LOGON.equals(msgType)) {
-                    if (!state.isResetReceived()) {
-                        boolean resetSeqNumFlag = false;
-                        if (message.isSetField(ResetSeqNumFlag.FIELD)) {
-                            resetSeqNumFlag = message.getBoolean(ResetSeqNumFlag.FIELD);
-                        }
-                        if (resetSeqNumFlag) {
-                            resetState();
-                            message.getHeader().setInt(MsgSeqNum.FIELD, getExpectedSenderNum());
+                    if (MsgType.LOGON.equals(msgType)) {
+                        if (!state.isResetReceived()) {
+                            boolean resetSeqNumFlag = false;
+                            if (message.isSetField(ResetSeqNumFlag.FIELD)) {
+                                resetSeqNumFlag = message.getBoolean(ResetSeqNumFlag.FIELD);
+                            }
+                            if (resetSeqNumFlag) {
+                                resetState();
+                                message.getHeader().setInt(MsgSeqNum.FIELD, getExpectedSenderNum());
+                            }
+                            state.setResetSent(resetSeqNumFlag);
                         }
-                        state.setResetSent(resetSeqNumFlag);
                     }
-                }
 
-                messageString = message.toString();
-                persist(message.getHeader(), messageString, num);
-                if (MsgType.LOGON.equals(msgType) || MsgType.LOGOUT.equals(msgType)
-                        || MsgType.RESEND_REQUEST.equals(msgType)
-                        || MsgType.SEQUENCE_RESET.equals(msgType) || isLoggedOn()) {
-                    result = send(messageString);
+                    messageData = message.toBytes();
+                    persist(message.getHeader(), messageData, num);
+                    if (MsgType.LOGON.equals(msgType) || MsgType.LOGOUT.equals(msgType)
+                            || MsgType.RESEND_REQUEST.equals(msgType)
+                            || MsgType.SEQUENCE_RESET.equals(msgType) || isLoggedOn()) {
+                        result = send(messageData);
+                    }
+                    return result;
                 }
-            } else {
+
                 try {
                     application.toApp(message, sessionID);
                 } catch (final DoNotSend e) {
@@ -2648,14 +2871,31 @@ public class Session implements Closeable {
                 } catch (final Throwable t) {
                     logApplicationException("toApp()", t);
                 }
-                messageString = message.toString();
-                persist(message.getHeader(), messageString, num);
-                if (isLoggedOn()) {
-                    result = send(messageString);
+                if (num > 0) {
+                    awaitHandOffs();
+                    messageData = message.toBytes();
+                    if (isLoggedOn()) {
+                        result = send(messageData);
+                    }
+                    return result;
                 }
+                msgSeqNum = header.getInt(MsgSeqNum.FIELD);
+                ticket = sendSequencer.nextTicket();
+                state.incrNextSenderMsgSeqNum();
+                loggedOn = isLoggedOn();
+            } finally {
+                state.unlockSenderMsgSeqNum();
             }
 
-            return result;
+            final byte[] messageData = message.toBytes();
+            sendSequencer.awaitTurn(ticket);
+            final long change = persistMessages ? state.queue(msgSeqNum, messageData) : 0L;
+            sendSequencer.complete(ticket);
+            stored = true;
+            // later messages are queued while this one becomes durable, so they are written together
+            state.awaitStored(change);
+            writeSequencer.awaitTurn(ticket);
+            return loggedOn && send(messageData);
         } catch (final IOException e) {
             logThrowable(getLog(), "Error reading/writing in MessageStore", e);
             return false;
@@ -2663,10 +2903,23 @@ public class Session implements Closeable {
             logThrowable(state.getLog(), "Error accessing message fields", e);
             return false;
         } finally {
-            state.unlockSenderMsgSeqNum();
+            if (ticket != SendSequencer.NO_TICKET) {
+                if (!stored) {
+                    sendSequencer.release(ticket);
+                }
+                writeSequencer.release(ticket);
+            }
         }
     }
 
+    /**
+     * Waits until all messages handed off so far are stored and written. Writing is the
+     * last stage, so this also waits for the ones that are still being stored.
+     */
+    private void awaitHandOffs() {
+        writeSequencer.awaitCompletion();
+    }
+
     private void enqueueMessage(final Message msg, final int msgSeqNum) {
         state.enqueue(msgSeqNum, msg);
         getLog().onEvent("Enqueued at pos " + msgSeqNum + ": " + msg);
@@ -2677,6 +2930,7 @@ public class Session implements Closeable {
             return;
         }
         try {
+            awaitHandOffs();
             state.reset();
             stateListener.onReset(sessionID);
         } finally {
@@ -2729,12 +2983,136 @@ public class Session implements Closeable {
         return sendRaw(message, 0);
     }
 
+    /**
+     * Send several messages to a counterparty at once. The messages get consecutive
+     * sequence numbers, are persisted with one store operation and are passed to the
+     * network layer with one write. Each message is passed to the application callbacks
+     * like with {@link #send(Message)}, so a message can be dropped with {@link DoNotSend}.
+     * Administrative messages in the batch are sent one at a time in order.
+     *
+     * @param messages the messages to send
+     * @return the number of messages that were successfully queued for transmission
+     * @see #send(Message)
+     */
+    public int send(Collection<? extends Message> messages) {
+        return send(messages, this.allowPosDup);
+    }
+
+    /**
+     * Send several messages to a counterparty at once.
+     *
+     * @param messages      the messages to send
+     * @param allowPosDup   whether to allow PossDupFlag and OrigSendingTime in the messages
+     * @return the number of messages that were successfully queued for transmission
+     * @see #send(Collection)
+     */
+    public int send(Collection<? extends Message> messages, boolean allowPosDup) {
+        state.lockSenderMsgSeqNum();
+        try {
+            final List<String> batch = new ArrayList<>(messages.size());
+            int sent = 0;
+            int firstMsgSeqNum = getExpectedSenderNum();
+            for (final Message message : messages) {
+                if (!allowPosDup) {
+                    message.getHeader().removeField(PossDupFlag.FIELD);
+                    message.getHeader().removeField(OrigSendingTime.FIELD);
+                }
+                if (message.isAdmin()) {
+                    sent += sendBatch(firstMsgSeqNum, batch);
+                    batch.clear();
+                    if (sendRaw(message, 0)) {
+                        sent++;
+                    }
+                    firstMsgSeqNum = getExpectedSenderNum();
+                } else {
+                    final String messageString = toApplicationMessageString(message,
+                            firstMsgSeqNum + batch.size());
+                    if (messageString != null) {
+                        batch.add(messageString);
+                    }
+                }
+            }
+            return sent + sendBatch(firstMsgSeqNum, batch);
+        } catch (final IOException e) {
+            logThrowable(getLog(), "Error reading/writing in MessageStore", e);
+            return 0;
+        } finally {
+            state.unlockSenderMsgSeqNum();
+        }
+    }
+
+    /**
+     * Initializes the header of an application message and passes it to the application.
+     *
+     * @return the message string, or null if the application does not want the message to be sent
+     */
+    private String toApplicationMessageString(Message message, int msgSeqNum) {
+        final Message.Header header = message.getHeader();
+        initializeHeader(header);
+        header.setInt(MsgSeqNum.FIELD, msgSeqNum);
+        if (enableLastMsgSeqNumProcessed && !header.isSetField(LastMsgSeqNumProcessed.FIELD)) {
+            header.setInt(LastMsgSeqNumProcessed.FIELD, getExpectedTargetNum() - 1);
+        }
+        try {
+            application.toApp(message, sessionID);
+        } catch (final DoNotSend e) {
+            return null;
+        } catch (final Throwable t) {
+            logApplicationException("toApp()", t);
+        }
+        return message.toString();
+    }
+
+    /**
+     * Persists application messages with consecutive sequence numbers and sends them.
+     *
+     * @return the number of messages sent
+     */
+    private int sendBatch(int firstMsgSeqNum, List<String> messageStrings) throws IOException {
+        if (messageStrings.isEmpty()) {
+            return 0;
+        }
+        awaitHandOffs();
+        if (persistMessages) {
+            state.set(firstMsgSeqNum, messageStrings);
+        }
+        state.setNextSenderMsgSeqNum(firstMsgSeqNum + messageStrings.size());
+        if (!isLoggedOn()) {
+            return 0;
+        }
+        for (final String messageString : messageStrings) {
+            getLog().onOutgoing(messageString);
+        }
+        final Responder responder = getResponder();
+        if (responder == null) {
+            getLog().onEvent("No responder, not sending " + messageStrings.size() + " messages");
+            return 0;
+        }
+        return responder.send(messageStrings) ? messageStrings.size() : 0;
+    }
+
+    /**
+     * Sends the encoded message. Its String is only created if the log needs it.
+     */
+    private boolean send(byte[] messageData) {
+        final Log log = getLog();
+        String messageString = null;
+        if (log.isLoggingOutgoing()) {
+            messageString = new String(messageData, CharsetSupport.getCharsetInstance());
+            log.onOutgoing(messageString);
+        }
+        final Responder responder = getResponder();
+        if (responder == null) {
+            log.onEvent("No responder, not sending message: " + (messageString != null ? messageString
+                    : new String(messageData, CharsetSupport.getCharsetInstance())));
+            return false;
+        }
+        return responder.send(messageData);
+    }
+
     private boolean send(String messageString) {
         getLog().onOutgoing(messageString);
-        Responder responder;
-        synchronized (responderLock) {
-            responder = this.responder;
-        }
+        final Responder responder = getResponder();
         if (responder == null) {
             getLog().onEvent("No responder, not sending message: " + messageString);
             return false;
@@ -2818,12 +3196,43 @@ public class Session implements Closeable {
     }
 
     /**
-     * Internal use by acceptor code.
+     * Internal use by acceptor code. A heartbeat interval in milliseconds set with
+     * {@link #setHeartBeatMillis(long)} takes precedence unless heartbeats are turned
+     * off.
      *
      * @param heartbeatInterval
      */
     public void setHeartBeatInterval(int heartbeatInterval) {
-        state.setHeartBeatInterval(heartbeatInterval);
+        final long millis = heartBeatMillis;
+        if (millis > 0 && heartbeatInterval > 0) {
+            state.setHeartBeatMillis(millis);
+        } else {
+            state.setHeartBeatInterval(heartbeatInterval);
+        }
+        timerDeadlineChanged();
+    }
+
+    /**
+     * Sets the heartbeat interval in milliseconds, which allows intervals below one
+     * second. The Logon sent carries the interval rounded up to whole seconds.
+     *
+     * @param heartBeatMillis the heartbeat interval in milliseconds
+     * @see #SETTING_HEARTBTINT_MILLIS
+     */
+    public void setHeartBeatMillis(long heartBeatMillis) {
+        if (heartBeatMillis <= 0) {
+            throw new IllegalArgumentException("Heartbeat interval must be greater than zero");
+        }
+        this.heartBeatMillis = heartBeatMillis;
+        state.setHeartBeatMillis(heartBeatMillis);
+        timerDeadlineChanged();
+    }
+
+    /**
+     * @return the current heartbeat interval in milliseconds, 0 if heartbeats are off
+     */
+    public long getHeartBeatMillis() {
+        return state.getHeartBeatInterval() == 0 ? 0L : state.getHeartBeatMillis();
     }
 
     public boolean getCheckCompID() {
@@ -3003,6 +3412,32 @@ public class Session implements Closeable {
         this.maxScheduledWriteRequests = maxScheduledWriteRequests;
     }
 
+    public boolean isLazyMessageParsing() {
+        return lazyMessageParsing;
+    }
+
+    public void setLazyMessageParsing(boolean lazyMessageParsing) {
+        this.lazyMessageParsing = lazyMessageParsing;
+    }
+
+    /**
+     * @return the pool incoming messages are taken from and released to, or null if
+     * incoming messages are not pooled
+     */
+    public MessagePool getMessagePool() {
+        return messagePool;
+    }
+
+    /**
+     * Sets the pool incoming messages are taken from and released to.
+     *
+     * @param messagePool the pool, or null to not pool incoming messages
+     * @see #SETTING_MESSAGE_POOLING
+     */
+    public void setMessagePool(MessagePool messagePool) {
+        this.messagePool = messagePool;
+    }
+
     public void setIgnoreHeartBeatFailure(boolean ignoreHeartBeatFailure) {
         disableHeartBeatCheck = ignoreHeartBeatFailure;
     }
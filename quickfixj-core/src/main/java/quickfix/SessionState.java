@@ -20,9 +20,11 @@
 package quickfix;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -106,6 +108,19 @@ public final class SessionState {
         }
     }
 
+    /**
+     * Sets the heartbeat interval in milliseconds. The interval in seconds, which is
+     * sent in the Logon, is rounded up.
+     *
+     * @param heartBeatMillis the heartbeat interval in milliseconds
+     */
+    public void setHeartBeatMillis(long heartBeatMillis) {
+        synchronized (lock) {
+            this.heartBeatInterval = (int) ((heartBeatMillis + 999L) / 1000L);
+            this.heartBeatMillis = heartBeatMillis;
+        }
+    }
+
     long getHeartBeatMillis() {
         synchronized (lock) {
             return heartBeatMillis;
@@ -182,6 +197,12 @@ public final class SessionState {
         }
     }
 
+    long getLogonTimeoutDeadline() {
+        synchronized (lock) {
+            return lastReceivedTime + logonTimeoutMs;
+        }
+    }
+
     public boolean isLogonTimedOut() {
         synchronized (lock) {
             return isLogonSent() && SystemTime.currentTimeMillis() - getLastReceivedTime() >= getLogonTimeoutMs();
@@ -252,6 +273,12 @@ public final class SessionState {
         }
     }
 
+    long getLogoutTimeoutDeadline() {
+        synchronized (lock) {
+            return lastSentTime + logoutTimeoutMs;
+        }
+    }
+
     public boolean isLogoutTimedOut() {
         return isLogoutSent() && ((SystemTime.currentTimeMillis() - getLastSentTime()) >= getLogoutTimeoutMs());
     }
@@ -297,10 +324,64 @@ public final class SessionState {
         return millisSinceLastReceivedTime >= (1 + heartBeatTimeoutMultiplier) * getHeartBeatMillis();
     }
 
+    /**
+     * @return the earliest time at which {@link #isHeartBeatNeeded()},
+     * {@link #isTestRequestNeeded()} or {@link #isTimedOut()} becomes true, or
+     * Long.MAX_VALUE if heartbeats are disabled
+     */
+    long getHeartBeatDeadline() {
+        synchronized (lock) {
+            if (heartBeatInterval == 0 || heartBeatMillis == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            final long timeout = lastReceivedTime
+                    + (long) Math.ceil((1 + heartBeatTimeoutMultiplier) * heartBeatMillis);
+            final long testRequest = lastReceivedTime
+                    + (long) Math.ceil((1 + testRequestDelayMultiplier) * (testRequestCounter + 1) * heartBeatMillis);
+            long deadline = Math.min(timeout, testRequest);
+            if (testRequestCounter == 0) {
+                // same leeway as in isHeartBeatNeeded()
+                deadline = Math.min(deadline, lastSentTime + heartBeatMillis - 9);
+            }
+            return deadline;
+        }
+    }
+
     public boolean set(int sequence, String message) throws IOException {
         return messageStore.set(sequence, message);
     }
 
+    public boolean set(int sequence, byte[] message) throws IOException {
+        return messageStore.set(sequence, message);
+    }
+
+    /**
+     * Stores a message like {@link #set(int, byte[])}, except that a
+     * {@link WriteBehindStore} that waits for durability only queues it.
+     *
+     * @return the value to pass to {@link #awaitStored(long)}
+     */
+    long queue(int sequence, byte[] message) throws IOException {
+        if (messageStore instanceof WriteBehindStore) {
+            return ((WriteBehindStore) messageStore).queue(sequence, message);
+        }
+        messageStore.set(sequence, message);
+        return 0L;
+    }
+
+    /**
+     * Waits until a message stored with {@link #queue(int, byte[])} is durable.
+     */
+    void awaitStored(long change) throws IOException {
+        if (change != 0L) {
+            ((WriteBehindStore) messageStore).awaitDurable(change);
+        }
+    }
+
+    public boolean set(int firstSequence, List<String> messages) throws IOException {
+        return messageStore.set(firstSequence, messages);
+    }
+
     public void get(int first, int last, Collection<String> messages) throws IOException {
         messageStore.get(first, last, messages);
     }
@@ -324,6 +405,21 @@ public final class SessionState {
         }
     }
 
+    /**
+     * @param message a message
+     * @return true if the given message instance is queued for later processing
+     */
+    public boolean isQueued(Message message) {
+        if (!messageQueue.isEmpty()) {
+            for (final Message queued : messageQueue.values()) {
+                if (queued == message) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public Message getNextQueuedMessage() {
         return !messageQueue.isEmpty() ? messageQueue.values().iterator().next() : null;
     }
@@ -360,6 +456,10 @@ public final class SessionState {
         return messageStore.getNextTargetMsgSeqNum();
     }
 
+    public void setNextSenderMsgSeqNum(int sequence) throws IOException {
+        messageStore.setNextSenderMsgSeqNum(sequence);
+    }
+
     public void setNextTargetMsgSeqNum(int sequence) throws IOException {
         messageStore.setNextTargetMsgSeqNum(sequence);
     }
@@ -522,9 +622,18 @@ public final class SessionState {
         public void onOutgoing(String message) {
         }
 
+        @Override
+        public boolean isLoggingOutgoing() {
+            return false;
+        }
+
         public void onIncoming(String message) {
         }
 
+        @Override
+        public void onIncoming(byte[] message, Charset charset) {
+        }
+
         public void onEvent(String text) {
         }
 
@@ -23,6 +23,7 @@ package quickfix;
  * A string-valued message field.
  */
 public class StringField extends Field<String> {
+    static final long serialVersionUID = 8923669099948242585L;
 
     public StringField(int field) {
         super(field, "");
@@ -43,4 +44,39 @@ public class StringField extends Field<String> {
     public boolean valueEquals(String value) {
         return getValue().equals(value);
     }
+
+    /**
+     * @return the value as a read-only character sequence
+     */
+    /*package*/ CharSequence charSequence() {
+        return getValue();
+    }
+
+    /*package*/ boolean contentEquals(CharSequence value) {
+        return getValue().contentEquals(value);
+    }
+
+    /*package*/ boolean contentEquals(char value) {
+        final String s = getValue();
+        return s.length() == 1 && s.charAt(0) == value;
+    }
+
+    /**
+     * Copies the value into a character array.
+     *
+     * @return the number of copied characters
+     */
+    /*package*/ int copyTo(char[] destination, int offset) {
+        final String s = getValue();
+        checkCapacity(destination, offset, s.length());
+        s.getChars(0, s.length(), destination, offset);
+        return s.length();
+    }
+
+    static void checkCapacity(char[] destination, int offset, int length) {
+        if (offset < 0 || offset + length > destination.length) {
+            throw new IndexOutOfBoundsException("value of length " + length + " does not fit into "
+                    + destination.length + " characters at offset " + offset);
+        }
+    }
 }
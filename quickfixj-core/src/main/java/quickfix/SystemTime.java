@@ -19,6 +19,8 @@
 
 package quickfix;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Calendar;
@@ -31,6 +33,8 @@ import java.util.TimeZone;
 public class SystemTime {
     public static final TimeZone UTC_TIMEZONE = TimeZone.getTimeZone("UTC");
 
+    private static final Clock UTC_CLOCK = Clock.systemUTC();
+
     private static final SystemTimeSource DEFAULT_TIME_SOURCE = new SystemTimeSource() {
         @Override
         public long getTime() {
@@ -41,6 +45,12 @@ public class SystemTime {
         public LocalDateTime getNow() {
             return LocalDateTime.now(ZoneOffset.UTC);
         }
+
+        @Override
+        public long getTimeNanos() {
+            final Instant now = UTC_CLOCK.instant();
+            return now.getEpochSecond() * 1000000000L + now.getNano();
+        }
     };
 
     private static volatile SystemTimeSource systemTimeSource = DEFAULT_TIME_SOURCE;
@@ -49,6 +59,30 @@ public class SystemTime {
         return systemTimeSource.getTime();
     }
     
+    /**
+     * @return the current time in nanoseconds since the epoch
+     */
+    public static long currentTimeNanos() {
+        return systemTimeSource.getTimeNanos();
+    }
+
+    /**
+     * Returns the current time for a timestamp of the given precision. The time is
+     * taken from the time source, only the default source reads the millisecond
+     * clock for SECONDS and MILLIS precision, which avoids creating an Instant.
+     *
+     * @param precision the precision of the timestamp
+     * @return the current time in nanoseconds since the epoch
+     */
+    public static long currentTimeNanos(UtcTimestampPrecision precision) {
+        final SystemTimeSource source = systemTimeSource;
+        if (source == DEFAULT_TIME_SOURCE
+                && (precision == UtcTimestampPrecision.SECONDS || precision == UtcTimestampPrecision.MILLIS)) {
+            return System.currentTimeMillis() * 1000000L;
+        }
+        return source.getTimeNanos();
+    }
+
     public static LocalDateTime now() {
         return systemTimeSource.getNow();
     }
@@ -20,6 +20,7 @@
 package quickfix;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 /**
  * Interface for obtaining system time. A system time source should be used
@@ -40,4 +41,14 @@ public interface SystemTimeSource {
      * @return current (possible simulated) time up to nanosecond precision.
      */
     LocalDateTime getNow();
+
+    /**
+     * Obtain the current time in nanoseconds since the epoch.
+     *
+     * @return current (possible simulated) time up to nanosecond precision.
+     */
+    default long getTimeNanos() {
+        final LocalDateTime now = getNow();
+        return now.toEpochSecond(ZoneOffset.UTC) * 1000000000L + now.getNano();
+    }
 }
@@ -21,6 +21,7 @@ package quickfix;
 
 import quickfix.mina.EventHandlingStrategy;
 import quickfix.mina.ThreadPerSessionEventHandlingStrategy;
+import quickfix.mina.VirtualThreadPerSessionEventHandlingStrategy;
 import quickfix.mina.acceptor.AbstractSocketAcceptor;
 
 /**
@@ -33,7 +34,15 @@ public class ThreadedSocketAcceptor extends AbstractSocketAcceptor {
         super(builder.application, builder.messageStoreFactory, builder.settings,
                 builder.logFactory, builder.messageFactory);
 
-        if (builder.queueCapacity >= 0) {
+        if (builder.virtualThreads) {
+            if (builder.queueCapacity >= 0) {
+                eventHandlingStrategy
+                        = new VirtualThreadPerSessionEventHandlingStrategy(this, builder.queueCapacity);
+            } else {
+                eventHandlingStrategy
+                        = new VirtualThreadPerSessionEventHandlingStrategy(this, builder.queueLowerWatermark, builder.queueUpperWatermark);
+            }
+        } else if (builder.queueCapacity >= 0) {
             eventHandlingStrategy
                     = new ThreadPerSessionEventHandlingStrategy(this, builder.queueCapacity);
         } else {
@@ -47,10 +56,23 @@ public class ThreadedSocketAcceptor extends AbstractSocketAcceptor {
     }
 
     public static final class Builder extends AbstractSessionConnectorBuilder<Builder, ThreadedSocketAcceptor> {
+        private boolean virtualThreads;
+
         private Builder() {
             super(Builder.class);
         }
 
+        /**
+         * Runs the message dispatcher of each session on a virtual thread (Java 21+)
+         * instead of a platform thread.
+         *
+         * @see VirtualThreadPerSessionEventHandlingStrategy
+         */
+        public Builder withVirtualThreads() {
+            virtualThreads = true;
+            return this;
+        }
+
         @Override
         protected ThreadedSocketAcceptor doBuild() throws ConfigError {
             return new ThreadedSocketAcceptor(this);
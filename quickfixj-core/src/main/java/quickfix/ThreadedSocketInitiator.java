@@ -21,6 +21,7 @@ package quickfix;
 
 import quickfix.mina.EventHandlingStrategy;
 import quickfix.mina.ThreadPerSessionEventHandlingStrategy;
+import quickfix.mina.VirtualThreadPerSessionEventHandlingStrategy;
 import quickfix.mina.initiator.AbstractSocketInitiator;
 
 /**
@@ -33,7 +34,15 @@ public class ThreadedSocketInitiator extends AbstractSocketInitiator {
         super(builder.application, builder.messageStoreFactory, builder.settings,
                 builder.logFactory, builder.messageFactory, builder.numReconnectThreads);
 
-        if (builder.queueCapacity >= 0) {
+        if (builder.virtualThreads) {
+            if (builder.queueCapacity >= 0) {
+                eventHandlingStrategy
+                        = new VirtualThreadPerSessionEventHandlingStrategy(this, builder.queueCapacity);
+            } else {
+                eventHandlingStrategy
+                        = new VirtualThreadPerSessionEventHandlingStrategy(this, builder.queueLowerWatermark, builder.queueUpperWatermark);
+            }
+        } else if (builder.queueCapacity >= 0) {
             eventHandlingStrategy
                     = new ThreadPerSessionEventHandlingStrategy(this, builder.queueCapacity);
         } else {
@@ -49,6 +58,7 @@ public class ThreadedSocketInitiator extends AbstractSocketInitiator {
     public static final class Builder extends AbstractSessionConnectorBuilder<Builder, ThreadedSocketInitiator> {
         
         int numReconnectThreads = 3;
+        private boolean virtualThreads;
         
         private Builder() {
             super(Builder.class);
@@ -59,6 +69,17 @@ public class ThreadedSocketInitiator extends AbstractSocketInitiator {
             return this;
         }
 
+        /**
+         * Runs the message dispatcher of each session on a virtual thread (Java 21+)
+         * instead of a platform thread.
+         *
+         * @see VirtualThreadPerSessionEventHandlingStrategy
+         */
+        public Builder withVirtualThreads() {
+            virtualThreads = true;
+            return this;
+        }
+
         @Override
         protected ThreadedSocketInitiator doBuild() throws ConfigError {
             return new ThreadedSocketInitiator(this);
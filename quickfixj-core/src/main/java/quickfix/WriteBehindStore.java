@@ -0,0 +1,446 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.quickfixj.CharsetSupport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A message store that persists messages and sequence numbers to another store in
+ * a background thread.
+ * <p>
+ * Messages and sequence numbers are kept in memory until the writer thread has
+ * passed them to the underlying store. The writer takes everything that has
+ * accumulated since its last round and writes it with one store operation per run
+ * of consecutive sequence numbers, followed by the latest sequence numbers. With a
+ * store that syncs its writes this turns one or two syncs per message into a few
+ * syncs per round.
+ * <p>
+ * Reads go through the pending data: sequence numbers are always the latest ones
+ * set, and {@link #get(int, int, Collection)} writes pending messages before
+ * reading, so a resend never misses a message.
+ * <p>
+ * By default {@link #set(int, String)} returns as soon as the message is queued, so
+ * messages that were sent may be lost when the process dies. When waiting for
+ * durability, <code>set</code> returns once the message has been written to the
+ * underlying store, which keeps the persist-before-send guarantee. A session queues
+ * its messages in sequence number order and waits for durability afterwards, without
+ * holding up the next sender, so the messages of concurrent senders are still written
+ * together.
+ *
+ * @see WriteBehindStoreFactory
+ */
+public class WriteBehindStore implements MessageStore, Closeable {
+    private static final long RETRY_INTERVAL_MS = 1000L;
+
+    private final MessageStore store;
+    private final boolean waitForDurability;
+    private final Thread writer;
+
+    // held while writing to or resetting the underlying store
+    private final Object storeLock = new Object();
+
+    private final Object lock = new Object();
+    // @GuardedBy(lock)
+    private TreeMap<Integer, String> pendingMessages = new TreeMap<>();
+    // @GuardedBy(lock)
+    private int nextSenderMsgSeqNum;
+    // @GuardedBy(lock)
+    private int nextTargetMsgSeqNum;
+    // @GuardedBy(lock)
+    private boolean senderMsgSeqNumPending;
+    // @GuardedBy(lock)
+    private boolean targetMsgSeqNumPending;
+    // @GuardedBy(lock), numbers the changes; everything up to the watermark is durable
+    private long changes;
+    // @GuardedBy(lock)
+    private long durableWatermark;
+    // @GuardedBy(lock)
+    private IOException failure;
+    // @GuardedBy(lock)
+    private boolean closed;
+
+    public WriteBehindStore(MessageStore store, boolean waitForDurability, String name) throws IOException {
+        this.store = store;
+        this.waitForDurability = waitForDurability;
+        loadSequenceNumbers();
+        writer = new Thread(this::writeBehind, "QFJ Write-Behind Store " + name);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public boolean set(int sequence, String message) throws IOException {
+        awaitDurable(queue(sequence, message));
+        return true;
+    }
+
+    /**
+     * Queues a message without waiting for durability, so that the caller can wait
+     * after it has let other messages be queued.
+     *
+     * @param sequence the sequence number
+     * @param message the encoded message
+     * @return the change to pass to {@link #awaitDurable(long)}, or 0 if the store
+     * does not wait for durability
+     * @throws IOException if the underlying store failed
+     */
+    long queue(int sequence, byte[] message) throws IOException {
+        return queue(sequence, new String(message, CharsetSupport.getCharsetInstance()));
+    }
+
+    private long queue(int sequence, String message) throws IOException {
+        final long change;
+        synchronized (lock) {
+            checkFailure();
+            pendingMessages.put(sequence, message);
+            change = ++changes;
+            lock.notifyAll();
+        }
+        return waitForDurability ? change : 0L;
+    }
+
+    @Override
+    public boolean set(int firstSequence, List<String> messages) throws IOException {
+        final long change;
+        synchronized (lock) {
+            checkFailure();
+            for (int i = 0; i < messages.size(); i++) {
+                pendingMessages.put(firstSequence + i, messages.get(i));
+            }
+            change = ++changes;
+            lock.notifyAll();
+        }
+        if (waitForDurability) {
+            awaitDurable(change);
+        }
+        return true;
+    }
+
+    @Override
+    public void get(int startSequence, int endSequence, Collection<String> messages) throws IOException {
+        synchronized (storeLock) {
+            writePending();
+            store.get(startSequence, endSequence, messages);
+        }
+    }
+
+    @Override
+    public int getNextSenderMsgSeqNum() {
+        synchronized (lock) {
+            return nextSenderMsgSeqNum;
+        }
+    }
+
+    @Override
+    public int getNextTargetMsgSeqNum() {
+        synchronized (lock) {
+            return nextTargetMsgSeqNum;
+        }
+    }
+
+    @Override
+    public void setNextSenderMsgSeqNum(int next) throws IOException {
+        synchronized (lock) {
+            checkFailure();
+            nextSenderMsgSeqNum = next;
+            senderMsgSeqNumPending = true;
+            changed();
+        }
+    }
+
+    @Override
+    public void setNextTargetMsgSeqNum(int next) throws IOException {
+        synchronized (lock) {
+            checkFailure();
+            nextTargetMsgSeqNum = next;
+            targetMsgSeqNumPending = true;
+            changed();
+        }
+    }
+
+    @Override
+    public void incrNextSenderMsgSeqNum() throws IOException {
+        synchronized (lock) {
+            checkFailure();
+            nextSenderMsgSeqNum++;
+            senderMsgSeqNumPending = true;
+            changed();
+        }
+    }
+
+    @Override
+    public void incrNextTargetMsgSeqNum() throws IOException {
+        synchronized (lock) {
+            checkFailure();
+            nextTargetMsgSeqNum++;
+            targetMsgSeqNumPending = true;
+            changed();
+        }
+    }
+
+    @Override
+    public Date getCreationTime() throws IOException {
+        return store.getCreationTime();
+    }
+
+    /**
+     * Discards the pending messages and resets the underlying store. Sequence numbers
+     * cannot be changed until the reset is complete, since they are replaced with the
+     * ones of the underlying store.
+     */
+    @Override
+    public void reset() throws IOException {
+        synchronized (storeLock) {
+            synchronized (lock) {
+                pendingMessages.clear();
+                senderMsgSeqNumPending = false;
+                targetMsgSeqNumPending = false;
+                durableWatermark = changes;
+                failure = null;
+                lock.notifyAll();
+                store.reset();
+                loadSequenceNumbers();
+            }
+        }
+    }
+
+    /**
+     * Writes the pending data and refreshes the underlying store. Sequence numbers
+     * cannot be changed until the refresh is complete, since they are replaced with
+     * the ones of the underlying store.
+     */
+    @Override
+    public void refresh() throws IOException {
+        synchronized (storeLock) {
+            synchronized (lock) {
+                writePending();
+                store.refresh();
+                loadSequenceNumbers();
+            }
+        }
+    }
+
+    /**
+     * Waits until everything that has been set so far is written to the underlying
+     * store.
+     *
+     * @throws IOException if the underlying store failed
+     */
+    public void flush() throws IOException {
+        final long change;
+        synchronized (lock) {
+            change = changes;
+        }
+        awaitDurable(change);
+    }
+
+    /**
+     * Writes the pending data, stops the writer thread and closes the underlying store
+     * if it is closeable.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            synchronized (storeLock) {
+                writePending();
+            }
+        } finally {
+            if (store instanceof Closeable) {
+                ((Closeable) store).close();
+            }
+        }
+    }
+
+    /**
+     * @return the underlying store
+     */
+    public MessageStore getStore() {
+        return store;
+    }
+
+    private void writeBehind() {
+        while (true) {
+            synchronized (lock) {
+                while (!closed && (!hasPending() || failure != null)) {
+                    try {
+                        lock.wait(failure != null ? RETRY_INTERVAL_MS : 0L);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (failure != null && hasPending()) {
+                        // retry
+                        break;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            synchronized (storeLock) {
+                try {
+                    writePending();
+                } catch (IOException e) {
+                    // recorded as failure, reported to the next caller
+                }
+            }
+        }
+    }
+
+    // @GuardedBy(storeLock)
+    private void writePending() throws IOException {
+        final TreeMap<Integer, String> messages;
+        final boolean writeSender;
+        final boolean writeTarget;
+        final int nextSender;
+        final int nextTarget;
+        final long change;
+        synchronized (lock) {
+            if (!hasPending()) {
+                return;
+            }
+            messages = pendingMessages;
+            pendingMessages = new TreeMap<>();
+            writeSender = senderMsgSeqNumPending;
+            writeTarget = targetMsgSeqNumPending;
+            senderMsgSeqNumPending = false;
+            targetMsgSeqNumPending = false;
+            nextSender = nextSenderMsgSeqNum;
+            nextTarget = nextTargetMsgSeqNum;
+            change = changes;
+        }
+        try {
+            writeMessages(messages);
+            if (writeSender) {
+                store.setNextSenderMsgSeqNum(nextSender);
+            }
+            if (writeTarget) {
+                store.setNextTargetMsgSeqNum(nextTarget);
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (lock) {
+                // put the data back unless it has been replaced in the meantime
+                for (Map.Entry<Integer, String> entry : messages.entrySet()) {
+                    pendingMessages.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+                senderMsgSeqNumPending |= writeSender;
+                targetMsgSeqNumPending |= writeTarget;
+                failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                lock.notifyAll();
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            durableWatermark = Math.max(durableWatermark, change);
+            failure = null;
+            lock.notifyAll();
+        }
+    }
+
+    /*
+     * Writes runs of consecutive sequence numbers with one store operation each.
+     */
+    private void writeMessages(TreeMap<Integer, String> messages) throws IOException {
+        final List<String> run = new ArrayList<>(messages.size());
+        int firstSequence = 0;
+        for (Map.Entry<Integer, String> entry : messages.entrySet()) {
+            if (!run.isEmpty() && entry.getKey() != firstSequence + run.size()) {
+                store.set(firstSequence, run);
+                run.clear();
+            }
+            if (run.isEmpty()) {
+                firstSequence = entry.getKey();
+            }
+            run.add(entry.getValue());
+        }
+        if (run.size() == 1) {
+            store.set(firstSequence, run.get(0));
+        } else if (!run.isEmpty()) {
+            store.set(firstSequence, run);
+        }
+    }
+
+    /**
+     * Waits until a change has been written to the underlying store.
+     *
+     * @param change the change, returns at once for 0
+     * @throws IOException if the underlying store failed or is closed
+     */
+    void awaitDurable(long change) throws IOException {
+        synchronized (lock) {
+            while (durableWatermark < change) {
+                checkFailure();
+                if (closed) {
+                    throw new IOException("Store is closed");
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for message to be stored", e);
+                }
+            }
+        }
+    }
+
+    // @GuardedBy(lock)
+    private void changed() {
+        ++changes;
+        lock.notifyAll();
+    }
+
+    // @GuardedBy(lock)
+    private boolean hasPending() {
+        return !pendingMessages.isEmpty() || senderMsgSeqNumPending || targetMsgSeqNumPending;
+    }
+
+    // @GuardedBy(lock)
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Writing to the message store failed", failure);
+        }
+    }
+
+    private void loadSequenceNumbers() throws IOException {
+        final int nextSender = store.getNextSenderMsgSeqNum();
+        final int nextTarget = store.getNextTargetMsgSeqNum();
+        synchronized (lock) {
+            nextSenderMsgSeqNum = nextSender;
+            nextTargetMsgSeqNum = nextTarget;
+        }
+    }
+}
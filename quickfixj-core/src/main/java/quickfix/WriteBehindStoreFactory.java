@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+/**
+ * Creates message stores that write to the stores of another factory in a background
+ * thread, e.g. <code>new WriteBehindStoreFactory(new FileStoreFactory(settings), settings)</code>.
+ *
+ * @see WriteBehindStore
+ */
+public class WriteBehindStoreFactory implements MessageStoreFactory {
+
+    /**
+     * Boolean option for controlling whether storing a message waits until it has been
+     * written to the underlying store. Waiting ensures that no message is sent before it
+     * is persisted, at the cost of latency. Defaults to N.
+     */
+    public static final String SETTING_WRITE_BEHIND_WAIT_FOR_DURABILITY = "WriteBehindWaitForDurability";
+
+    private final MessageStoreFactory factory;
+    private final SessionSettings settings;
+
+    /**
+     * Create the factory with configuration in session settings.
+     *
+     * @param factory the factory of the underlying stores
+     * @param settings the session settings
+     */
+    public WriteBehindStoreFactory(MessageStoreFactory factory, SessionSettings settings) {
+        this.factory = factory;
+        this.settings = settings;
+    }
+
+    /**
+     * Creates a write-behind store for a store of the underlying factory.
+     *
+     * @param sessionID session ID for the message store.
+     */
+    public MessageStore create(SessionID sessionID) {
+        try {
+            boolean waitForDurability = false;
+            if (settings.isSetting(sessionID, SETTING_WRITE_BEHIND_WAIT_FOR_DURABILITY)) {
+                waitForDurability = settings.getBool(sessionID, SETTING_WRITE_BEHIND_WAIT_FOR_DURABILITY);
+            }
+            return new WriteBehindStore(factory.create(sessionID), waitForDurability, sessionID.toString());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -27,8 +27,11 @@ import java.util.Locale;
 import java.util.TimeZone;
 
 import quickfix.FieldConvertError;
+import quickfix.UtcTimestampPrecision;
 
 abstract class AbstractDateTimeConverter {
+    protected static final int SECONDS_PER_DAY = 86400;
+
     protected static void assertLength(String value, int i, String type) throws FieldConvertError {
         if (value.length() != i) {
             throwFieldConvertError(value, type);
@@ -44,10 +47,29 @@ abstract class AbstractDateTimeConverter {
         throwFieldConvertError(value, type);
     }
 
+    /**
+     * Asserts a length of a time with seconds, milliseconds, microseconds, nanoseconds
+     * or picoseconds, without the array allocation of {@link #assertLength(String, String, int...)}.
+     */
+    protected static void assertTimeLength(String value, int lengthInclSeconds, String type)
+            throws FieldConvertError {
+        switch (value.length() - lengthInclSeconds) {
+            case 0:
+            case 4:
+            case 7:
+            case 10:
+            case 13:
+                return;
+            default:
+                throwFieldConvertError(value, type);
+        }
+    }
+
     protected static void assertDigitSequence(String value, int i, int j, String type)
             throws FieldConvertError {
         for (int offset = i; offset < j; offset++) {
-            if (!Character.isDigit(value.charAt(offset))) {
+            final char c = value.charAt(offset);
+            if (c < '0' || c > '9') {
                 throwFieldConvertError(value, type);
             }
         }
@@ -73,6 +95,149 @@ abstract class AbstractDateTimeConverter {
         return n;
     }
 
+    /**
+     * Parses a sequence of digits that has already been verified.
+     */
+    protected static int parseInt(String s, int start, int end) {
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            n = (n * 10) + (s.charAt(i) - '0');
+        }
+        return n;
+    }
+
+    /**
+     * Parses a verified "yyyyMMdd" date at the given offset into days since 1970-01-01.
+     * Like the smart resolving of java.time, a day of month up to 31 is reduced to
+     * the last day of a shorter month.
+     */
+    protected static long parseEpochDay(String value, int offset, String type) throws FieldConvertError {
+        final int year = parseInt(value, offset, offset + 4);
+        final int month = parseInt(value, offset + 4, offset + 6);
+        int day = parseInt(value, offset + 6, offset + 8);
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            throwFieldConvertError(value, type);
+        }
+        day = Math.min(day, lengthOfMonth(year, month));
+        // days from civil, see http://howardhinnant.github.io/date_algorithms.html
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(y, 400);
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Parses a verified "HH:mm:ss" time at the given offset into seconds of the day.
+     * Like the smart resolving of java.time, "24:00:00" is accepted as the end of
+     * the day if the time has no fraction of a second.
+     */
+    protected static int parseSecondOfDay(String value, int offset, String type) throws FieldConvertError {
+        final int hour = parseInt(value, offset, offset + 2);
+        final int minute = parseInt(value, offset + 3, offset + 5);
+        final int second = parseInt(value, offset + 6, offset + 8);
+        if (hour == 24 && minute == 0 && second == 0 && parseNanos(value, offset + 9) == 0) {
+            return SECONDS_PER_DAY;
+        }
+        if (hour > 23 || minute > 59 || second > 59) {
+            throwFieldConvertError(value, type);
+        }
+        return hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * Parses the verified fraction of a second following the '.' at the given offset
+     * into nanoseconds. Digits beyond nanoseconds are ignored.
+     */
+    protected static int parseNanos(String value, int offset) {
+        final int digits = Math.max(Math.min(value.length() - offset, 9), 0);
+        int nanos = parseInt(value, offset, offset + digits);
+        for (int i = digits; i < 9; i++) {
+            nanos *= 10;
+        }
+        return nanos;
+    }
+
+    /**
+     * Writes the epoch day as "yyyyMMdd" into the buffer at the given offset.
+     */
+    protected static void formatEpochDay(StringBuilder buffer, int offset, long epochDay) {
+        // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+        final long z = epochDay + 719468;
+        final long era = Math.floorDiv(z, 146097);
+        final int dayOfEra = (int) (z - era * 146097);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int mp = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 3 : mp - 9;
+        final int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+        formatDigits(buffer, offset, year, 4);
+        formatDigits(buffer, offset + 4, month, 2);
+        formatDigits(buffer, offset + 6, day, 2);
+    }
+
+    /**
+     * Writes the seconds of the day as "HH:mm:ss" into the buffer at the given offset.
+     */
+    protected static void formatSecondOfDay(StringBuilder buffer, int offset, int secondOfDay) {
+        formatDigits(buffer, offset, secondOfDay / 3600, 2);
+        buffer.setCharAt(offset + 2, ':');
+        formatDigits(buffer, offset + 3, secondOfDay / 60 % 60, 2);
+        buffer.setCharAt(offset + 5, ':');
+        formatDigits(buffer, offset + 6, secondOfDay % 60, 2);
+    }
+
+    /**
+     * Appends the fraction of a second including the '.' for the given precision.
+     */
+    protected static void appendNanos(StringBuilder buffer, int nanos, UtcTimestampPrecision precision) {
+        switch (precision) {
+            case SECONDS:
+                return;
+            case MICROS:
+                appendDigits(buffer.append('.'), nanos / 1000, 6);
+                return;
+            case NANOS:
+                appendDigits(buffer.append('.'), nanos, 9);
+                return;
+            default:
+                appendDigits(buffer.append('.'), nanos / 1000000, 3);
+        }
+    }
+
+    private static void formatDigits(StringBuilder buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer.setCharAt(i, (char) ('0' + value % 10));
+            value /= 10;
+        }
+    }
+
+    private static void appendDigits(StringBuilder buffer, int value, int width) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
     protected DateFormat createDateFormat(String format) {
         SimpleDateFormat sdf = new SimpleDateFormat(format);
         sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.field.converter;
+
+import quickfix.FieldConvertError;
+
+/**
+ * Converts between a fixed-point decimal and a String. A fixed-point decimal is
+ * a <code>long</code> mantissa and a scale giving the number of decimal places,
+ * e.g. 12345 with scale 2 is 123.45.
+ * <p>
+ * Parsing does not allocate and formatting can append to an existing buffer, so
+ * prices and quantities can be handled without BigDecimal or double conversions.
+ */
+public final class FixedDecimalConverter {
+
+    /**
+     * The maximum supported scale.
+     */
+    public static final int MAX_SCALE = 18;
+
+    private static final long MULTIPLY_MIN = Long.MIN_VALUE / 10;
+
+    /**
+     * Converts a fixed-point decimal to a String with exactly <code>scale</code>
+     * decimal places.
+     *
+     * @param mantissa the unscaled value
+     * @param scale the number of decimal places
+     * @return the formatted String representing the decimal
+     * @see #append(StringBuilder, long, int)
+     */
+    public static String convert(long mantissa, int scale) {
+        final StringBuilder buffer = new StringBuilder(21);
+        append(buffer, mantissa, scale);
+        return buffer.toString();
+    }
+
+    /**
+     * Appends a fixed-point decimal with exactly <code>scale</code> decimal places
+     * to a buffer.
+     *
+     * @param buffer the buffer to append to
+     * @param mantissa the unscaled value
+     * @param scale the number of decimal places
+     */
+    public static void append(StringBuilder buffer, long mantissa, int scale) {
+        checkScale(scale);
+        // work on the negative value so that Long.MIN_VALUE needs no special case
+        if (mantissa < 0) {
+            buffer.append('-');
+        } else {
+            mantissa = -mantissa;
+        }
+        int position = buffer.length() + length(mantissa, scale);
+        buffer.setLength(position);
+        for (int i = 0; i < scale; i++) {
+            buffer.setCharAt(--position, (char) ('0' - mantissa % 10));
+            mantissa /= 10;
+        }
+        if (scale > 0) {
+            buffer.setCharAt(--position, '.');
+        }
+        do {
+            buffer.setCharAt(--position, (char) ('0' - mantissa % 10));
+            mantissa /= 10;
+        } while (mantissa != 0);
+    }
+
+    /**
+     * Converts a fixed-point decimal to its ASCII characters with exactly
+     * <code>scale</code> decimal places. The characters are written straight into
+     * the returned array, without an intermediate buffer or String.
+     *
+     * @param mantissa the unscaled value
+     * @param scale the number of decimal places
+     * @return the formatted decimal
+     */
+    public static byte[] toBytes(long mantissa, int scale) {
+        checkScale(scale);
+        final boolean negative = mantissa < 0;
+        if (!negative) {
+            mantissa = -mantissa;
+        }
+        int position = (negative ? 1 : 0) + length(mantissa, scale);
+        final byte[] bytes = new byte[position];
+        for (int i = 0; i < scale; i++) {
+            bytes[--position] = (byte) ('0' - mantissa % 10);
+            mantissa /= 10;
+        }
+        if (scale > 0) {
+            bytes[--position] = '.';
+        }
+        do {
+            bytes[--position] = (byte) ('0' - mantissa % 10);
+            mantissa /= 10;
+        } while (mantissa != 0);
+        if (negative) {
+            bytes[0] = '-';
+        }
+        return bytes;
+    }
+
+    // the number of characters of a negated mantissa, without the sign
+    private static int length(long negatedMantissa, int scale) {
+        int digits = 1;
+        for (long m = negatedMantissa / 10; m != 0; m /= 10) {
+            digits++;
+        }
+        return Math.max(digits, scale + 1) + (scale > 0 ? 1 : 0);
+    }
+
+    /**
+     * Convert a String value to the mantissa of a fixed-point decimal with the
+     * given scale, e.g. "123.4" with scale 2 is 12340.
+     *
+     * @param value the String value to convert
+     * @param scale the number of decimal places of the result
+     * @return the unscaled value
+     * @throws FieldConvertError if the String is not a valid decimal, has more
+     * significant decimal places than <code>scale</code> or does not fit into a long.
+     */
+    public static long convert(String value, int scale) throws FieldConvertError {
+        return convert((CharSequence) value, scale);
+    }
+
+    /**
+     * Convert a character sequence to the mantissa of a fixed-point decimal with the
+     * given scale without creating a String, e.g. the value returned by
+     * {@link quickfix.FieldMap#getCharSequence(int)}.
+     *
+     * @param value the characters to convert
+     * @param scale the number of decimal places of the result
+     * @return the unscaled value
+     * @throws FieldConvertError if the value is not a valid decimal, has more
+     * significant decimal places than <code>scale</code> or does not fit into a long.
+     * @see #convert(String, int)
+     */
+    public static long convert(CharSequence value, int scale) throws FieldConvertError {
+        checkScale(scale);
+        final int length = value.length();
+        int i = 0;
+        final boolean negative = length > 0 && value.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+        long result = 0;
+        int decimalPlaces = -1;
+        boolean hasDigits = false;
+        for (; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '.' && decimalPlaces < 0) {
+                decimalPlaces = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new FieldConvertError("invalid decimal value: " + value);
+            }
+            hasDigits = true;
+            if (decimalPlaces >= 0) {
+                if (decimalPlaces == scale) {
+                    if (c != '0') {
+                        throw new FieldConvertError("decimal value has more than " + scale
+                                + " decimal places: " + value);
+                    }
+                    continue;
+                }
+                decimalPlaces++;
+            }
+            result = multiplyAdd(result, c - '0', value);
+        }
+        if (!hasDigits) {
+            throw new FieldConvertError("invalid decimal value: " + value);
+        }
+        for (int places = Math.max(decimalPlaces, 0); places < scale; places++) {
+            result = multiplyAdd(result, 0, value);
+        }
+        if (negative) {
+            return result;
+        }
+        if (result == Long.MIN_VALUE) {
+            throw outOfRange(value);
+        }
+        return -result;
+    }
+
+    /**
+     * Returns the number of decimal places of a String value, which is the scale
+     * that converts it without loss. Trailing zeros count as decimal places and
+     * the result is at most {@link #MAX_SCALE}.
+     *
+     * @param value the String value
+     * @return the number of decimal places
+     */
+    public static int getScale(String value) {
+        return getScale((CharSequence) value);
+    }
+
+    /**
+     * Returns the number of decimal places of a character sequence.
+     *
+     * @param value the characters of the decimal
+     * @return the number of decimal places
+     * @see #getScale(String)
+     */
+    public static int getScale(CharSequence value) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) == '.') {
+                return Math.min(length - i - 1, MAX_SCALE);
+            }
+        }
+        return 0;
+    }
+
+    // accumulates negatively, as Long.parseLong does
+    private static long multiplyAdd(long result, int digit, CharSequence value) throws FieldConvertError {
+        if (result < MULTIPLY_MIN) {
+            throw outOfRange(value);
+        }
+        result *= 10;
+        if (result < Long.MIN_VALUE + digit) {
+            throw outOfRange(value);
+        }
+        return result - digit;
+    }
+
+    private static FieldConvertError outOfRange(CharSequence value) {
+        return new FieldConvertError("decimal value out of range: " + value);
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+}
@@ -56,6 +56,30 @@ public class UtcDateOnlyConverter extends AbstractDateTimeConverter {
         return d.format(FORMATTER_DATE);
     }
 
+    /**
+     * Convert a date (represented as days since the epoch) to a String ("YYYYMMDD")
+     *
+     * @param epochDay the days since 1970-01-01
+     * @return the formatted date
+     */
+    public static String convert(long epochDay) {
+        final StringBuilder buffer = new StringBuilder(DATE_LENGTH);
+        append(buffer, epochDay);
+        return buffer.toString();
+    }
+
+    /**
+     * Append a date (represented as days since the epoch) to a buffer.
+     *
+     * @param buffer the buffer to append to
+     * @param epochDay the days since 1970-01-01
+     */
+    public static void append(StringBuilder buffer, long epochDay) {
+        final int length = buffer.length();
+        buffer.setLength(length + DATE_LENGTH);
+        formatEpochDay(buffer, length, epochDay);
+    }
+
     private static DateFormat getFormatter() {
         UtcDateOnlyConverter converter = UTC_DATE_CONVERTER.get();
         if (converter == null) {
@@ -93,6 +117,18 @@ public class UtcDateOnlyConverter extends AbstractDateTimeConverter {
         return null;
     }
 
+    /**
+     * Convert a date string into days since the epoch without allocating any objects.
+     *
+     * @param value the String to convert
+     * @return the days since 1970-01-01
+     * @throws FieldConvertError raised for an invalid date string.
+     */
+    public static long convertToEpochDay(String value) throws FieldConvertError {
+        checkString(value);
+        return parseEpochDay(value, 0, TYPE);
+    }
+
     private static void checkString(String value) throws FieldConvertError {
         assertLength(value, DATE_LENGTH, TYPE);
         assertDigitSequence(value, 0, DATE_LENGTH, TYPE);
@@ -43,6 +43,9 @@ public class UtcTimeOnlyConverter extends AbstractDateTimeConverter {
     static final int LENGTH_INCL_NANOS      = 18;
     static final int LENGTH_INCL_PICOS      = 21;
 
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final long NANOS_PER_DAY = SECONDS_PER_DAY * NANOS_PER_SECOND;
+
     // SimpleDateFormats are not thread safe. A thread local is being
     // used to maintain high concurrency among multiple session threads
     private static final ThreadLocal<UtcTimeOnlyConverter> UTC_TIME_CONVERTER = new ThreadLocal<>();
@@ -87,6 +90,39 @@ public class UtcTimeOnlyConverter extends AbstractDateTimeConverter {
         }
     }
 
+    /**
+     * Convert a time (represented as nanoseconds of the day) to a String.
+     *
+     * @param nanoOfDay the nanoseconds since midnight
+     * @param precision controls whether seconds, milliseconds, microseconds or
+     * nanoseconds are included in the result
+     * @return a String representing the time.
+     * @see #append(StringBuilder, long, UtcTimestampPrecision)
+     */
+    public static String convert(long nanoOfDay, UtcTimestampPrecision precision) {
+        final StringBuilder buffer = new StringBuilder(LENGTH_INCL_NANOS);
+        append(buffer, nanoOfDay, precision);
+        return buffer.toString();
+    }
+
+    /**
+     * Append a time (represented as nanoseconds of the day) to a buffer.
+     *
+     * @param buffer the buffer to append to
+     * @param nanoOfDay the nanoseconds since midnight
+     * @param precision controls whether seconds, milliseconds, microseconds or
+     * nanoseconds are included in the result
+     */
+    public static void append(StringBuilder buffer, long nanoOfDay, UtcTimestampPrecision precision) {
+        if (nanoOfDay < 0 || nanoOfDay >= NANOS_PER_DAY) {
+            throw new IllegalArgumentException("invalid nanosecond of day: " + nanoOfDay);
+        }
+        final int length = buffer.length();
+        buffer.setLength(length + LENGTH_INCL_SECONDS);
+        formatSecondOfDay(buffer, length, (int) (nanoOfDay / NANOS_PER_SECOND));
+        appendNanos(buffer, (int) (nanoOfDay % NANOS_PER_SECOND), precision);
+    }
+
     private static DateFormat getFormatter(boolean includeMillis) {
         UtcTimeOnlyConverter converter = UTC_TIME_CONVERTER.get();
         if (converter == null) {
@@ -105,7 +141,7 @@ public class UtcTimeOnlyConverter extends AbstractDateTimeConverter {
      */
     public static Date convert(String value) throws FieldConvertError {
         Date d = null;
-        assertLength(value, TYPE, LENGTH_INCL_SECONDS, LENGTH_INCL_MILLIS, LENGTH_INCL_MICROS, LENGTH_INCL_NANOS, LENGTH_INCL_PICOS);
+        assertTimeLength(value, LENGTH_INCL_SECONDS, TYPE);
         try {
             final boolean includeMillis = (value.length() >= LENGTH_INCL_MILLIS);
             d = getFormatter(includeMillis).parse(includeMillis ? value.substring(0, LENGTH_INCL_MILLIS) : value);
@@ -116,7 +152,7 @@ public class UtcTimeOnlyConverter extends AbstractDateTimeConverter {
     }
 
     public static LocalTime convertToLocalTime(String value) throws FieldConvertError {
-        assertLength(value, TYPE, LENGTH_INCL_SECONDS, LENGTH_INCL_MILLIS, LENGTH_INCL_MICROS, LENGTH_INCL_NANOS, LENGTH_INCL_PICOS);
+        assertTimeLength(value, LENGTH_INCL_SECONDS, TYPE);
         try {
             int length = value.length();
             switch (length) {
@@ -139,6 +175,31 @@ public class UtcTimeOnlyConverter extends AbstractDateTimeConverter {
         return null;
     }
 
+    /**
+     * Convert a time string into nanoseconds of the day without allocating any
+     * objects. Digits beyond nanoseconds are ignored.
+     *
+     * @param value the string to parse
+     * @return the nanoseconds since midnight
+     * @throws FieldConvertError raised for invalid time string
+     */
+    public static long convertToNanoOfDay(String value) throws FieldConvertError {
+        assertTimeLength(value, LENGTH_INCL_SECONDS, TYPE);
+        assertDigitSequence(value, 0, 2, TYPE);
+        assertSeparator(value, 2, ':', TYPE);
+        assertDigitSequence(value, 3, 5, TYPE);
+        assertSeparator(value, 5, ':', TYPE);
+        assertDigitSequence(value, 6, LENGTH_INCL_SECONDS, TYPE);
+        long nanoOfDay = parseSecondOfDay(value, 0, TYPE) * NANOS_PER_SECOND;
+        if (value.length() > LENGTH_INCL_SECONDS) {
+            assertSeparator(value, LENGTH_INCL_SECONDS, '.', TYPE);
+            assertDigitSequence(value, LENGTH_INCL_SECONDS + 1, value.length(), TYPE);
+            nanoOfDay += parseNanos(value, LENGTH_INCL_SECONDS + 1);
+        }
+        // "24:00:00" is midnight
+        return nanoOfDay % NANOS_PER_DAY;
+    }
+
     /**
      * @param localTime
      * @return a java.util.Date with time part filled from LocalTime (truncated to milliseconds).
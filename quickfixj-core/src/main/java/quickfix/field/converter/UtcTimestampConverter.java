@@ -63,6 +63,13 @@ public class UtcTimestampConverter extends AbstractDateTimeConverter {
     private static final DateTimeFormatter FORMATTER_MICROS  = createDateTimeFormat("yyyyMMdd-HH:mm:ss.SSSSSS");
     private static final DateTimeFormatter FORMATTER_NANOS   = createDateTimeFormat("yyyyMMdd-HH:mm:ss.SSSSSSSSS");
 
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final long MAX_EPOCH_SECOND = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+    private static final long MIN_EPOCH_SECOND = Long.MIN_VALUE / NANOS_PER_SECOND + 1;
+
+    // the formatted "yyyyMMdd-HH:mm:ss" of the last formatted second
+    private static volatile SecondPrefix secondPrefix = new SecondPrefix(0);
+
     /**
      * Convert a timestamp (represented as a Date) to a String.
      *
@@ -98,6 +105,43 @@ public class UtcTimestampConverter extends AbstractDateTimeConverter {
         }
     }
 
+    /**
+     * Convert a timestamp (represented as nanoseconds since the epoch) to a String.
+     *
+     * @param epochNanos the nanoseconds since 1970-01-01T00:00:00Z
+     * @param precision controls whether seconds, milliseconds, microseconds or
+     * nanoseconds are included in the result
+     * @return the formatted timestamp
+     * @see #append(StringBuilder, long, UtcTimestampPrecision)
+     */
+    public static String convert(long epochNanos, UtcTimestampPrecision precision) {
+        final StringBuilder buffer = new StringBuilder(LENGTH_INCL_NANOS);
+        append(buffer, epochNanos, precision);
+        return buffer.toString();
+    }
+
+    /**
+     * Append a timestamp (represented as nanoseconds since the epoch) to a buffer.
+     * The date and time up to the seconds is reused from the previous call when
+     * it was for the same second, so nothing is allocated while the second does
+     * not change.
+     *
+     * @param buffer the buffer to append to
+     * @param epochNanos the nanoseconds since 1970-01-01T00:00:00Z
+     * @param precision controls whether seconds, milliseconds, microseconds or
+     * nanoseconds are included in the result
+     */
+    public static void append(StringBuilder buffer, long epochNanos, UtcTimestampPrecision precision) {
+        final long epochSecond = Math.floorDiv(epochNanos, NANOS_PER_SECOND);
+        SecondPrefix prefix = secondPrefix;
+        if (prefix.epochSecond != epochSecond) {
+            prefix = new SecondPrefix(epochSecond);
+            secondPrefix = prefix;
+        }
+        buffer.append(prefix.value);
+        appendNanos(buffer, (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), precision);
+    }
+
     private static DateFormat getFormatter(boolean includeMillis) {
         UtcTimestampConverter converter = UTC_TIMESTAMP_CONVERTER.get();
         if (converter == null) {
@@ -156,6 +200,44 @@ public class UtcTimestampConverter extends AbstractDateTimeConverter {
         return null;
     } 
 
+    /**
+     * Convert a timestamp string into nanoseconds since the epoch without
+     * allocating any objects. Digits beyond nanoseconds are ignored.
+     *
+     * @param value the timestamp String
+     * @return the nanoseconds since 1970-01-01T00:00:00Z
+     * @exception FieldConvertError raised if timestamp is an incorrect format or
+     * not between the years 1677 and 2262.
+     */
+    public static long convertToEpochNanos(String value) throws FieldConvertError {
+        final long epochSecond = parseEpochSecond(value);
+        if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND) {
+            throwFieldConvertError(value, TYPE);
+        }
+        return epochSecond * NANOS_PER_SECOND + parseFraction(value);
+    }
+
+    /**
+     * Convert a timestamp string into milliseconds since the epoch without
+     * allocating any objects. Digits beyond milliseconds are ignored.
+     *
+     * @param value the timestamp String
+     * @return the milliseconds since 1970-01-01T00:00:00Z
+     * @exception FieldConvertError raised if timestamp is an incorrect format.
+     */
+    public static long convertToEpochMillis(String value) throws FieldConvertError {
+        return parseEpochSecond(value) * 1000L + parseFraction(value) / 1000000;
+    }
+
+    private static long parseEpochSecond(String value) throws FieldConvertError {
+        verifyFormat(value);
+        return parseEpochDay(value, 0, TYPE) * SECONDS_PER_DAY + parseSecondOfDay(value, 9, TYPE);
+    }
+
+    private static int parseFraction(String value) {
+        return value.length() > LENGTH_INCL_SECONDS ? parseNanos(value, LENGTH_INCL_SECONDS + 1) : 0;
+    }
+
     private static Long getMillisForDay(String value) {
         // Performance optimization: the calendar for the start of the day is cached.
         return DATE_CACHE.computeIfAbsent(value.substring(0, 8));
@@ -168,7 +250,7 @@ public class UtcTimestampConverter extends AbstractDateTimeConverter {
     }
 
     private static void verifyFormat(String value) throws FieldConvertError {
-        assertLength(value, TYPE, LENGTH_INCL_SECONDS, LENGTH_INCL_MILLIS, LENGTH_INCL_MICROS, LENGTH_INCL_NANOS, LENGTH_INCL_PICOS);
+        assertTimeLength(value, LENGTH_INCL_SECONDS, TYPE);
         assertDigitSequence(value, 0, 8, TYPE);
         assertSeparator(value, 8, '-', TYPE);
         assertDigitSequence(value, 9, 11, TYPE);
@@ -193,6 +275,21 @@ public class UtcTimestampConverter extends AbstractDateTimeConverter {
         }
     }
 
+    private static final class SecondPrefix {
+        private final long epochSecond;
+        private final String value;
+
+        SecondPrefix(long epochSecond) {
+            this.epochSecond = epochSecond;
+            final StringBuilder buffer = new StringBuilder(LENGTH_INCL_SECONDS);
+            buffer.setLength(LENGTH_INCL_SECONDS);
+            formatEpochDay(buffer, 0, Math.floorDiv(epochSecond, SECONDS_PER_DAY));
+            buffer.setCharAt(8, '-');
+            formatSecondOfDay(buffer, 9, (int) Math.floorMod(epochSecond, SECONDS_PER_DAY));
+            value = buffer.toString();
+        }
+    }
+
      /**
      * @param localDateTime
      * @return a java.util.Date filled from LocalDateTime (truncated to milliseconds).
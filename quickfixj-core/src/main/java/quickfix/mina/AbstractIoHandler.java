@@ -24,6 +24,7 @@ import org.apache.mina.core.service.IoHandlerAdapter;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.ProtocolCodecException;
 import org.apache.mina.filter.codec.ProtocolDecoderException;
+import org.quickfixj.CharsetSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import quickfix.ConfigError;
@@ -33,9 +34,11 @@ import quickfix.Log;
 import quickfix.LogUtil;
 import quickfix.Message;
 import quickfix.MessageUtils;
+import quickfix.ReverseSessionIDCache;
 import quickfix.Session;
 import quickfix.SessionID;
 import quickfix.SessionSettings;
+import quickfix.mina.message.FIXFrame;
 
 import static quickfix.MessageUtils.parse;
 
@@ -48,6 +51,7 @@ public abstract class AbstractIoHandler extends IoHandlerAdapter {
     private final EventHandlingStrategy eventHandlingStrategy;
     private final SessionSettings sessionSettings;
     private boolean logMessageWhenSessionNotFound;
+    private final ReverseSessionIDCache reverseSessionIDCache = new ReverseSessionIDCache();
 
     public AbstractIoHandler(SessionSettings settings, NetworkingOptions options, EventHandlingStrategy eventHandlingStrategy) {
         sessionSettings = settings;
@@ -133,15 +137,42 @@ public abstract class AbstractIoHandler extends IoHandlerAdapter {
 
     @Override
     public void messageReceived(IoSession ioSession, Object message) throws Exception {
-        String messageString = (String) message;
-        SessionID remoteSessionID = MessageUtils.getReverseSessionID(messageString);
-        Session quickFixSession = findQFSession(ioSession, remoteSessionID);
+        final byte[] messageBytes;
+        final String messageString;
+        // the decoder may have verified the checksum already
+        final boolean checksumVerified = message instanceof FIXFrame && ((FIXFrame) message).isChecksumVerified();
+        if (message instanceof FIXFrame) {
+            message = ((FIXFrame) message).getMessage();
+        }
+        if (message instanceof byte[]) {
+            // decoded only for the log and for errors
+            messageBytes = (byte[]) message;
+            messageString = null;
+        } else {
+            messageBytes = null;
+            messageString = (String) message;
+        }
+        // a connection bound to a session needs no routing
+        Session quickFixSession = findQFSession(ioSession);
+        SessionID remoteSessionID = null;
+        if (quickFixSession == null) {
+            remoteSessionID = messageBytes != null
+                    ? reverseSessionIDCache.getReverseSessionID(messageBytes)
+                    : reverseSessionIDCache.getReverseSessionID(messageString);
+            quickFixSession = findQFSession(ioSession, remoteSessionID);
+        }
         if (quickFixSession != null) {
             final boolean rejectGarbledMessage = quickFixSession.isRejectGarbledMessage();
             final Log sessionLog = quickFixSession.getLog();
-            sessionLog.onIncoming(messageString);
+            if (messageBytes != null) {
+                sessionLog.onIncoming(messageBytes, CharsetSupport.getCharsetInstance());
+            } else {
+                sessionLog.onIncoming(messageString);
+            }
             try {
-                Message fixMessage = parse(quickFixSession, messageString);
+                Message fixMessage = messageBytes != null
+                        ? parse(quickFixSession, messageBytes, checksumVerified)
+                        : parse(quickFixSession, messageString, checksumVerified);
                 processMessage(ioSession, fixMessage);
             } catch (InvalidMessage e) {
                 if (rejectGarbledMessage) {
@@ -152,7 +183,7 @@ public abstract class AbstractIoHandler extends IoHandlerAdapter {
                         return;
                     }
                 }
-                if (MessageUtils.isLogon(messageString)) {
+                if (messageBytes != null ? MessageUtils.isLogon(messageBytes) : MessageUtils.isLogon(messageString)) {
                     sessionLog.onErrorEvent("Invalid LOGON message, disconnecting: " + e.getMessage());
                     ioSession.closeNow();
                 } else {
@@ -161,7 +192,8 @@ public abstract class AbstractIoHandler extends IoHandlerAdapter {
             }
         } else {
             if (logMessageWhenSessionNotFound) {
-                log.error("Disconnecting; received message for unknown session: {}", messageString);
+                log.error("Disconnecting; received message for unknown session: {}", messageBytes != null
+                        ? new String(messageBytes, CharsetSupport.getCharsetInstance()) : messageString);
             } else {
                 log.error("Disconnecting; received message for unknown session. Remote SessionID: {}", remoteSessionID);
             }
@@ -19,8 +19,10 @@
 
 package quickfix.mina;
 
+import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.future.WriteFuture;
 import org.apache.mina.core.session.IoSession;
+import org.quickfixj.CharsetSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import quickfix.Responder;
@@ -28,10 +30,24 @@ import quickfix.Session;
 
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The class that partially integrates the QuickFIX/J Session to
  * the MINA networking code.
+ * <p>
+ * With write coalescing enabled, messages are collected in a buffer and written
+ * to the MINA session together when the buffer reaches the coalescing size, when
+ * the coalescing delay has passed since the first buffered message or when
+ * {@link #flush()} is called, which the event handling strategies do when they
+ * have no more messages to process. Coalescing is not used with synchronous writes.
  */
 public class IoSessionResponder implements Responder {
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -39,16 +55,75 @@ public class IoSessionResponder implements Responder {
     private final boolean synchronousWrites;
     private final long synchronousWriteTimeout;
     private final int maxScheduledWriteRequests;
+    private final int coalescingSize;
+    private final long coalescingDelay;
+
+    private final Charset charset = CharsetSupport.getCharsetInstance();
+    private final Lock pendingLock = new ReentrantLock();
+    // @GuardedBy(pendingLock), encoded messages
+    private IoBuffer pending;
+    // @GuardedBy(pendingLock)
+    private int pendingMessages;
+    // @GuardedBy(pendingLock)
+    private boolean flushScheduled;
+
+    private final LongAdder messagesWritten = new LongAdder();
+    private final LongAdder writeRequests = new LongAdder();
+    private final LongAdder coalescedWrites = new LongAdder();
 
     public IoSessionResponder(IoSession session, boolean synchronousWrites, long synchronousWriteTimeout, int maxScheduledWriteRequests) {
+        this(session, synchronousWrites, synchronousWriteTimeout, maxScheduledWriteRequests, 0, 0);
+    }
+
+    /**
+     * @param coalescingSize the number of bytes at which buffered messages are
+     * written, 0 to write every message immediately
+     * @param coalescingDelay the maximum time in microseconds a message is buffered
+     */
+    public IoSessionResponder(IoSession session, boolean synchronousWrites, long synchronousWriteTimeout,
+            int maxScheduledWriteRequests, int coalescingSize, long coalescingDelay) {
         ioSession = session;
         this.synchronousWrites = synchronousWrites;
         this.synchronousWriteTimeout = synchronousWriteTimeout;
         this.maxScheduledWriteRequests = maxScheduledWriteRequests;
+        this.coalescingSize = synchronousWrites ? 0 : coalescingSize;
+        this.coalescingDelay = coalescingDelay;
     }
 
     @Override
     public boolean send(String data) {
+        return write(data, 1);
+    }
+
+    /**
+     * Writes the encoded message as it is, or appends it to the coalescing buffer.
+     */
+    @Override
+    public boolean send(byte[] data) {
+        return write(data, 1);
+    }
+
+    /**
+     * Writes the messages as one block, so that they are encoded and flushed to
+     * the network together.
+     */
+    @Override
+    public boolean send(List<String> data) {
+        int length = 0;
+        for (String message : data) {
+            length += message.length();
+        }
+        final StringBuilder messages = new StringBuilder(length);
+        for (String message : data) {
+            messages.append(message);
+        }
+        return write(messages.toString(), data.size());
+    }
+
+    /**
+     * @param data a message string or an encoded message
+     */
+    private boolean write(Object data, int messageCount) {
         // Check for and disconnect slow consumers.
         if (maxScheduledWriteRequests > 0 && ioSession.getScheduledWriteMessages() >= maxScheduledWriteRequests) {
             Session qfjSession = (Session) ioSession.getAttribute(SessionConnector.QF_SESSION);
@@ -59,8 +134,29 @@ public class IoSessionResponder implements Responder {
             return false;
         }
 
+        if (coalescingSize > 0) {
+            pendingLock.lock();
+            try {
+                if (pending == null) {
+                    pending = IoBuffer.allocate(coalescingSize).setAutoExpand(true);
+                }
+                pending.put(data instanceof byte[] ? (byte[]) data : ((String) data).getBytes(charset));
+                pendingMessages += messageCount;
+                if (pending.position() >= coalescingSize) {
+                    writePending();
+                } else if (!flushScheduled) {
+                    flushScheduled = true;
+                    FlushTimer.EXECUTOR.schedule(this::flushOnTimer, coalescingDelay, TimeUnit.MICROSECONDS);
+                }
+            } finally {
+                pendingLock.unlock();
+            }
+            return true;
+        }
+
         // The data is written asynchronously in a MINA thread
-        WriteFuture future = ioSession.write(data);
+        WriteFuture future = writeRequest(data instanceof byte[] ? IoBuffer.wrap((byte[]) data) : data,
+                messageCount);
         if (synchronousWrites) {
             try {
                 if (!future.awaitUninterruptibly(synchronousWriteTimeout)) {
@@ -75,8 +171,75 @@ public class IoSessionResponder implements Responder {
         return true;
     }
 
+    /**
+     * Writes the buffered messages, if any.
+     */
+    @Override
+    public void flush() {
+        if (coalescingSize > 0) {
+            pendingLock.lock();
+            try {
+                writePending();
+            } finally {
+                pendingLock.unlock();
+            }
+        }
+    }
+
+    private void flushOnTimer() {
+        pendingLock.lock();
+        try {
+            flushScheduled = false;
+            writePending();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    // @GuardedBy(pendingLock), so that buffers are written in order
+    private void writePending() {
+        if (pendingMessages > 0) {
+            // the buffer belongs to MINA until it is written
+            writeRequest(pending.flip(), pendingMessages);
+            pending = null;
+            pendingMessages = 0;
+        }
+    }
+
+    private WriteFuture writeRequest(Object data, int messageCount) {
+        messagesWritten.add(messageCount);
+        writeRequests.increment();
+        if (messageCount > 1) {
+            coalescedWrites.increment();
+        }
+        return ioSession.write(data);
+    }
+
+    /**
+     * @return the number of messages written to the MINA session
+     */
+    public long getMessagesWritten() {
+        return messagesWritten.sum();
+    }
+
+    /**
+     * @return the number of write requests issued to the MINA session. Each request
+     * is written to the socket with at least one system call.
+     */
+    public long getWriteRequests() {
+        return writeRequests.sum();
+    }
+
+    /**
+     * @return the number of write requests that carried more than one message
+     */
+    public long getCoalescedWrites() {
+        return coalescedWrites.sum();
+    }
+
     @Override
     public void disconnect() {
+        flush();
         // We cannot call join() on the CloseFuture returned
         // by the following call. We are using a minimal
         // threading model and calling join will prevent the
@@ -98,4 +261,12 @@ public class IoSessionResponder implements Responder {
     IoSession getIoSession() {
         return ioSession;
     }
+
+    private static final class FlushTimer {
+        static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "QFJ Write Coalescing Timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
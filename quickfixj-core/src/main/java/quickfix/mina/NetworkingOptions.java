@@ -47,6 +47,8 @@ public class NetworkingOptions {
     private final Integer trafficClass;
     private final Boolean synchronousWrites;
     private final Integer synchronousWriteTimeout;
+    private final Integer writeCoalescingSize;
+    private final Integer writeCoalescingDelay;
 
     public static final String SETTING_SOCKET_KEEPALIVE = "SocketKeepAlive";
     public static final String SETTING_SOCKET_OOBINLINE = "SocketOobInline";
@@ -58,6 +60,8 @@ public class NetworkingOptions {
     public static final String SETTING_SOCKET_TRAFFIC_CLASS = "SocketTrafficClass";
     public static final String SETTING_SOCKET_SYNCHRONOUS_WRITES = "SocketSynchronousWrites";
     public static final String SETTING_SOCKET_SYNCHRONOUS_WRITE_TIMEOUT = "SocketSynchronousWriteTimeout";
+    public static final String SETTING_SOCKET_WRITE_COALESCING_SIZE = "SocketWriteCoalescingSize";
+    public static final String SETTING_SOCKET_WRITE_COALESCING_DELAY = "SocketWriteCoalescingDelay";
 
     public static final String IPTOC_LOWCOST = "IPTOS_LOWCOST";
     public static final String IPTOC_RELIABILITY = "IPTOS_RELIABILITY";
@@ -82,6 +86,8 @@ public class NetworkingOptions {
         tcpNoDelay = getBoolean(properties, SETTING_SOCKET_TCP_NODELAY, Boolean.TRUE);
         synchronousWrites = getBoolean(properties, SETTING_SOCKET_SYNCHRONOUS_WRITES, Boolean.FALSE);
         synchronousWriteTimeout = getInteger(properties, SETTING_SOCKET_SYNCHRONOUS_WRITE_TIMEOUT, 30000);
+        writeCoalescingSize = getInteger(properties, SETTING_SOCKET_WRITE_COALESCING_SIZE, 0);
+        writeCoalescingDelay = getInteger(properties, SETTING_SOCKET_WRITE_COALESCING_DELAY, 100);
 
         Integer trafficClassSetting;
         try {
@@ -164,4 +170,12 @@ public class NetworkingOptions {
     public Integer getSynchronousWriteTimeout() {
         return synchronousWriteTimeout;
     }
+
+    public Integer getWriteCoalescingSize() {
+        return writeCoalescingSize;
+    }
+
+    public Integer getWriteCoalescingDelay() {
+        return writeCoalescingDelay;
+    }
 }
@@ -0,0 +1,401 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded multi-producer/single-consumer queue on a preallocated ring buffer.
+ * <p>
+ * Producers claim a slot with a compare-and-set of the tail sequence and publish the
+ * element by advancing the sequence of the slot. The consumer takes elements in
+ * sequence order and releases the slot for the next revolution. Neither side takes a
+ * lock and no node is allocated per element. The sequences of consecutive slots lie on
+ * different cache lines, so that producers publishing at the same time do not write to
+ * the same line, and the head and the tail have cache lines of their own.
+ * <p>
+ * With a {@link SlotCopier} the slots are preallocated elements as well. Elements are
+ * copied into a slot when they are added and out of it when they are taken, so the
+ * queue keeps no reference to the elements passed to it, and callers can reuse the
+ * element they add. The element returned by {@link #poll()} is then owned by the queue
+ * and valid until the next element is taken.
+ * <p>
+ * How the consumer waits for an element is set by the {@link WaitStrategy}. Producers
+ * that find the queue full spin briefly, then yield and then park for a short
+ * interval until a slot is free, whatever the wait strategy.
+ * <p>
+ * Only one thread at a time may take elements from the queue. The iterator is not
+ * supported.
+ */
+final class RingBufferEventQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /**
+     * How the consumer waits for elements.
+     */
+    enum WaitStrategy {
+        /** Parks the waiting thread. Producers unpark a waiting consumer. */
+        BLOCKING,
+        /** Spins for a while and then yields the processor between checks. */
+        YIELDING,
+        /** Spins without giving up the processor, for dedicated cores only. */
+        BUSY_SPIN
+    }
+
+    /**
+     * Creates the preallocated slots and copies elements into and out of them.
+     */
+    interface SlotCopier<E> {
+        E newSlot();
+
+        void copy(E from, E to);
+
+        /** Drops the references held by a slot. */
+        void clear(E slot);
+    }
+
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int SPIN_TRIES = 100;
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    // 8 sequences of 8 bytes fill a 64 byte cache line
+    private static final int SLOTS_PER_LINE_SHIFT = 3;
+
+    private final Object[] elements;
+    // sequence of each slot: position while free, one more once published
+    private final AtomicLongArray sequences;
+    private final int mask;
+    // maps a position to a slot index, so that consecutive positions use different lines
+    private final int lineShift;
+    private final int lineMask;
+    private final int lineBits;
+    private final WaitStrategy waitStrategy;
+    private final SlotCopier<E> copier;
+    // the element returned by poll() with a copier
+    private final E consumerElement;
+    private final PaddedSequence tail = new PaddedSequence();
+    // written by the consumer only
+    private final PaddedSequence head = new PaddedSequence();
+    private volatile Thread waitingConsumer;
+
+    /**
+     * @param capacity the minimum number of elements, rounded up to a power of two
+     * @param waitStrategy how to wait for elements
+     */
+    RingBufferEventQueue(int capacity, WaitStrategy waitStrategy) {
+        this(capacity, waitStrategy, null);
+    }
+
+    /**
+     * @param capacity the minimum number of elements, rounded up to a power of two
+     * @param waitStrategy how to wait for elements
+     * @param copier copies elements into and out of preallocated slots, or null to
+     * keep references to the elements
+     */
+    RingBufferEventQueue(int capacity, WaitStrategy waitStrategy, SlotCopier<E> copier) {
+        if (capacity <= 0 || capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAXIMUM_CAPACITY);
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        // spreading needs at least one slot per line
+        lineShift = size >= 1 << (2 * SLOTS_PER_LINE_SHIFT) ? SLOTS_PER_LINE_SHIFT : 0;
+        lineMask = (size >> lineShift) - 1;
+        lineBits = Integer.numberOfTrailingZeros(size >> lineShift);
+        elements = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(index(i), i);
+        }
+        this.waitStrategy = waitStrategy;
+        this.copier = copier;
+        if (copier != null) {
+            // allocated in index order, so that consecutive positions are apart in memory too
+            for (int i = 0; i < size; i++) {
+                elements[i] = copier.newSlot();
+            }
+            consumerElement = copier.newSlot();
+        } else {
+            consumerElement = null;
+        }
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+
+    WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long position = tail.get();
+        while (true) {
+            final int index = index(position);
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    if (copier != null) {
+                        copier.copy(e, (E) elements[index]);
+                    } else {
+                        elements[index] = e;
+                    }
+                    // a volatile write, so that a consumer which is about to park either
+                    // sees the element or is seen in signalConsumer()
+                    sequences.set(index, position + 1);
+                    signalConsumer();
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the slot of the previous revolution has not been taken yet
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        int tries = 0;
+        while (!offer(e)) {
+            waitForSlot(tries++);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int tries = 0;
+        while (!offer(e)) {
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            waitForSlot(tries++);
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        final long position = head.get();
+        final int index = index(position);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        final E e;
+        if (copier != null) {
+            final E slot = (E) elements[index];
+            copier.copy(slot, consumerElement);
+            copier.clear(slot);
+            e = consumerElement;
+        } else {
+            e = (E) elements[index];
+            elements[index] = null;
+        }
+        sequences.lazySet(index, position + elements.length);
+        head.lazySet(position + 1);
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            waitingConsumer = Thread.currentThread();
+            try {
+                while ((e = poll()) == null) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+                return e;
+            } finally {
+                waitingConsumer = null;
+            }
+        }
+        int tries = 0;
+        while ((e = poll()) == null) {
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (waitStrategy == WaitStrategy.YIELDING && ++tries > SPIN_TRIES) {
+                Thread.yield();
+            }
+        }
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        while ((e = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) == null) {
+            // poll only returns null when the wait is over
+        }
+        return e;
+    }
+
+    /**
+     * With a {@link SlotCopier} this returns the slot, which is only valid until the
+     * element is taken.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        final long position = head.get();
+        final int index = index(position);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        return (E) elements[index];
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * With a {@link SlotCopier} the elements are copied into new slots.
+     */
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int count = 0;
+        E e;
+        while (count < maxElements && (e = poll()) != null) {
+            if (copier != null) {
+                final E copy = copier.newSlot();
+                copier.copy(e, copy);
+                copier.clear(e);
+                e = copy;
+            }
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the published elements in front of the first slot that is claimed by a
+     * producer but not yet published, as only those can be taken.
+     */
+    @Override
+    public int size() {
+        final long first = head.get();
+        final long last = Math.min(tail.get(), first + elements.length);
+        long position = first;
+        while (position < last && sequences.get(index(position)) == position + 1) {
+            position++;
+        }
+        return (int) (position - first);
+    }
+
+    /**
+     * @return false only if the next element is published and can be taken
+     */
+    @Override
+    public boolean isEmpty() {
+        final long position = head.get();
+        return sequences.get(index(position)) != position + 1;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return (int) Math.max(0, elements.length - (tail.get() - head.get()));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException();
+    }
+
+    private int index(long position) {
+        final int i = (int) position & mask;
+        return ((i & lineMask) << lineShift) | (i >>> lineBits);
+    }
+
+    private void signalConsumer() {
+        final Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private static void waitForSlot(int tries) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (tries < SPIN_TRIES) {
+            return;
+        }
+        if (tries < 2 * SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+    }
+
+    /**
+     * A sequence on a cache line of its own.
+     */
+    private static final class PaddedSequence {
+        // 15 longs of padding on each side
+        private static final int INDEX = 15;
+        private final AtomicLongArray value = new AtomicLongArray(2 * INDEX + 1);
+
+        long get() {
+            return value.get(INDEX);
+        }
+
+        void lazySet(long newValue) {
+            value.lazySet(INDEX, newValue);
+        }
+
+        boolean compareAndSet(long expected, long newValue) {
+            return value.compareAndSet(INDEX, expected, newValue);
+        }
+    }
+}
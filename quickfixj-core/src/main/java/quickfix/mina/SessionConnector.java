@@ -64,6 +64,45 @@ public abstract class SessionConnector implements Connector {
     public static final String QF_SESSION = "QF_SESSION";
     public static final String QFJ_RESET_IO_CONNECTOR = "QFJ_RESET_IO_CONNECTOR";
 
+    /**
+     * Session timer implementation, set in the default section. With
+     * {@value #SESSION_TIMER_SWEEP} every session is checked once per second. With
+     * {@value #SESSION_TIMER_TIMING_WHEEL} a session is only checked when its next
+     * heartbeat, test request, timeout or schedule check is due. The default is the
+     * sweep unless a session has a heartbeat interval below one second.
+     */
+    public static final String SETTING_SESSION_TIMER = "SessionTimer";
+    public static final String SESSION_TIMER_SWEEP = "Sweep";
+    public static final String SESSION_TIMER_TIMING_WHEEL = "TimingWheel";
+
+    /**
+     * Event queue of the single-threaded connectors, set in the default section. With
+     * {@value #EVENT_QUEUE_LINKED_BLOCKING_QUEUE} the messages of all sessions are passed
+     * to the message processor thread in a linked blocking queue. With
+     * {@value #EVENT_QUEUE_RING_BUFFER} they are passed in a lock-free ring buffer which
+     * is allocated up front and always bounded, see
+     * {@link SingleThreadedEventHandlingStrategy}. The default is the linked blocking
+     * queue.
+     */
+    public static final String SETTING_EVENT_QUEUE = "EventQueue";
+    public static final String EVENT_QUEUE_LINKED_BLOCKING_QUEUE = "LinkedBlockingQueue";
+    public static final String EVENT_QUEUE_RING_BUFFER = "RingBuffer";
+
+    /**
+     * How the message processor thread waits for messages in the ring buffer event
+     * queue, set in the default section. {@value #WAIT_STRATEGY_BLOCKING} parks the
+     * thread, {@value #WAIT_STRATEGY_YIELDING} spins and yields the processor and
+     * {@value #WAIT_STRATEGY_BUSY_SPIN} spins, which keeps a processor busy all the
+     * time. The default is blocking.
+     */
+    public static final String SETTING_EVENT_QUEUE_WAIT_STRATEGY = "EventQueueWaitStrategy";
+    public static final String WAIT_STRATEGY_BLOCKING = "Blocking";
+    public static final String WAIT_STRATEGY_YIELDING = "Yielding";
+    public static final String WAIT_STRATEGY_BUSY_SPIN = "BusySpin";
+
+    private static final long TIMING_WHEEL_TICK_MS = 50L;
+    private static final int TIMING_WHEEL_SIZE = 512;
+
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
     protected final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
@@ -74,6 +113,9 @@ public abstract class SessionConnector implements Connector {
     private static final ScheduledExecutorService SCHEDULED_EXECUTOR = Executors
             .newSingleThreadScheduledExecutor(new QFTimerThreadFactory());
     private ScheduledFuture<?> sessionTimerFuture;
+    // held while a running session timer is replaced
+    private final Object sessionTimerLock = new Object();
+    private volatile SessionTimingWheel timingWheel;
     private IoFilterChainBuilder ioFilterChainBuilder;
 
     protected Executor longLivedExecutor;
@@ -120,6 +162,12 @@ public abstract class SessionConnector implements Connector {
     protected void setSessions(Map<SessionID, Session> sessions) {
         clearConnectorSessions();
         this.sessions.putAll(sessions);
+        final SessionTimingWheel wheel = timingWheel;
+        if (wheel != null) {
+            for (Session session : sessions.values()) {
+                wheel.add(session);
+            }
+        }
         propertyChangeSupport.firePropertyChange(SESSIONS_PROPERTY, null, sessions);
     }
 
@@ -129,6 +177,10 @@ public abstract class SessionConnector implements Connector {
      * Session.unregisterSessions().
      */
     protected void clearConnectorSessions() {
+        final SessionTimingWheel wheel = timingWheel;
+        if (wheel != null) {
+            wheel.clear();
+        }
         this.sessions.clear();
     }
 
@@ -164,12 +216,21 @@ public abstract class SessionConnector implements Connector {
 
     public void addDynamicSession(Session inSession) {
         sessions.put(inSession.getSessionID(), inSession);
+        final SessionTimingWheel wheel = timingWheel;
+        if (wheel != null) {
+            wheel.add(inSession);
+        }
+        updateSessionTimer(inSession);
         log.debug("adding session for {}", inSession.getSessionID());
         propertyChangeSupport.firePropertyChange(SESSIONS_PROPERTY, null, sessions);
     }
 
     public void removeDynamicSession(SessionID inSessionID) {
-        sessions.remove(inSessionID);
+        final Session session = sessions.remove(inSessionID);
+        final SessionTimingWheel wheel = timingWheel;
+        if (wheel != null && session != null) {
+            wheel.remove(session);
+        }
         log.debug("removing session for {}", inSessionID);
         propertyChangeSupport.firePropertyChange(SESSIONS_PROPERTY, null, sessions);
     }
@@ -311,22 +372,151 @@ public abstract class SessionConnector implements Connector {
     }
 
     protected void startSessionTimer() {
-        Runnable timerTask = new SessionTimerTask();
-        if (shortLivedExecutor != null) {
-            timerTask = new DelegatingTask(timerTask, shortLivedExecutor);
+        synchronized (sessionTimerLock) {
+            Runnable timerTask;
+            long period;
+            if (isTimingWheelSessionTimer()) {
+                final SessionTimingWheel wheel = new SessionTimingWheel(getTimingWheelTickMillis(), TIMING_WHEEL_SIZE);
+                timingWheel = wheel;
+                for (Session session : sessions.values()) {
+                    wheel.add(session);
+                }
+                timerTask = wheel;
+                period = wheel.getTickMillis();
+            } else {
+                timerTask = new SessionTimerTask();
+                period = 1000L;
+            }
+            if (shortLivedExecutor != null) {
+                timerTask = new DelegatingTask(timerTask, shortLivedExecutor);
+            }
+            sessionTimerFuture = SCHEDULED_EXECUTOR.scheduleAtFixedRate(timerTask, 0, period,
+                    TimeUnit.MILLISECONDS);
+            log.info("SessionTimer started");
         }
-        sessionTimerFuture = SCHEDULED_EXECUTOR.scheduleAtFixedRate(timerTask, 0, 1000L,
-                TimeUnit.MILLISECONDS);
-        log.info("SessionTimer started");
     }
 
     protected void stopSessionTimer() {
-        if (sessionTimerFuture != null) {
-            if (sessionTimerFuture.cancel(true))
-                log.info("SessionTimer canceled");
+        synchronized (sessionTimerLock) {
+            if (sessionTimerFuture != null) {
+                if (sessionTimerFuture.cancel(true))
+                    log.info("SessionTimer canceled");
+            }
+            final SessionTimingWheel wheel = timingWheel;
+            if (wheel != null) {
+                timingWheel = null;
+                wheel.clear();
+            }
         }
     }
 
+    /*
+     * Restarts a running session timer when an added session needs a shorter tick or
+     * the timing wheel instead of the sweep. The tick is not made longer again when
+     * sessions are removed.
+     */
+    private void updateSessionTimer(Session addedSession) {
+        synchronized (sessionTimerLock) {
+            if (!checkSessionTimerRunning()) {
+                return;
+            }
+            final SessionTimingWheel wheel = timingWheel;
+            if (wheel == null ? !isTimingWheelSessionTimer()
+                    : wheel.getTickMillis() <= getTimingWheelTickMillis()) {
+                return;
+            }
+            log.info("Restarting SessionTimer for heartbeat interval of {} ms of {}",
+                    addedSession.getHeartBeatMillis(), addedSession.getSessionID());
+            // a running tick is not interrupted since it may be writing to a store
+            sessionTimerFuture.cancel(false);
+            if (wheel != null) {
+                timingWheel = null;
+                wheel.clear();
+            }
+            startSessionTimer();
+        }
+    }
+
+    private boolean isTimingWheelSessionTimer() {
+        final boolean subSecondHeartBeats = getMinHeartBeatMillis() < 1000L;
+        try {
+            if (settings.isSetting(SETTING_SESSION_TIMER)) {
+                final String sessionTimer = settings.getString(SETTING_SESSION_TIMER);
+                if (SESSION_TIMER_TIMING_WHEEL.equalsIgnoreCase(sessionTimer)) {
+                    return true;
+                } else if (SESSION_TIMER_SWEEP.equalsIgnoreCase(sessionTimer)) {
+                    if (subSecondHeartBeats) {
+                        log.warn("Heartbeat intervals below one second are checked only once per second with {}={}",
+                                SETTING_SESSION_TIMER, SESSION_TIMER_SWEEP);
+                    }
+                    return false;
+                } else {
+                    log.warn("Unknown {} '{}'", SETTING_SESSION_TIMER, sessionTimer);
+                }
+            }
+        } catch (ConfigError e) {
+            log.warn("Cannot read {}", SETTING_SESSION_TIMER, e);
+        }
+        return subSecondHeartBeats;
+    }
+
+    /**
+     * @return the wait strategy of the ring buffer event queue, or null if the linked
+     * blocking queue is used
+     */
+    RingBufferEventQueue.WaitStrategy getEventQueueWaitStrategy() {
+        try {
+            if (!settings.isSetting(SETTING_EVENT_QUEUE)) {
+                return null;
+            }
+            final String eventQueue = settings.getString(SETTING_EVENT_QUEUE);
+            if (EVENT_QUEUE_LINKED_BLOCKING_QUEUE.equalsIgnoreCase(eventQueue)) {
+                return null;
+            } else if (!EVENT_QUEUE_RING_BUFFER.equalsIgnoreCase(eventQueue)) {
+                log.warn("Unknown {} '{}'", SETTING_EVENT_QUEUE, eventQueue);
+                return null;
+            }
+            if (settings.isSetting(SETTING_EVENT_QUEUE_WAIT_STRATEGY)) {
+                final String waitStrategy = settings.getString(SETTING_EVENT_QUEUE_WAIT_STRATEGY);
+                if (WAIT_STRATEGY_YIELDING.equalsIgnoreCase(waitStrategy)) {
+                    return RingBufferEventQueue.WaitStrategy.YIELDING;
+                } else if (WAIT_STRATEGY_BUSY_SPIN.equalsIgnoreCase(waitStrategy)) {
+                    return RingBufferEventQueue.WaitStrategy.BUSY_SPIN;
+                } else if (!WAIT_STRATEGY_BLOCKING.equalsIgnoreCase(waitStrategy)) {
+                    log.warn("Unknown {} '{}'", SETTING_EVENT_QUEUE_WAIT_STRATEGY, waitStrategy);
+                }
+            }
+        } catch (ConfigError e) {
+            log.warn("Cannot read {}", SETTING_EVENT_QUEUE, e);
+            return null;
+        }
+        return RingBufferEventQueue.WaitStrategy.BLOCKING;
+    }
+
+    /*
+     * The tick is a tenth of the shortest heartbeat interval below half a second, so
+     * that sub-second heartbeats are not delayed noticeably.
+     */
+    private long getTimingWheelTickMillis() {
+        return Math.max(1L, Math.min(TIMING_WHEEL_TICK_MS, getMinHeartBeatMillis() / 10L));
+    }
+
+    private long getMinHeartBeatMillis() {
+        long minHeartBeatMillis = Long.MAX_VALUE;
+        for (Session session : sessions.values()) {
+            final long heartBeatMillis = session.getHeartBeatMillis();
+            if (heartBeatMillis > 0) {
+                minHeartBeatMillis = Math.min(minHeartBeatMillis, heartBeatMillis);
+            }
+        }
+        return minHeartBeatMillis;
+    }
+
+    // visible for testing
+    SessionTimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
     // visible for testing
     boolean checkSessionTimerRunning() {
         if ( sessionTimerFuture != null ) {
@@ -475,4 +665,22 @@ public abstract class SessionConnector implements Connector {
         return continueInitOnError;
     }
 
+    /**
+     * Reads {@link Session#SETTING_PARSE_MESSAGES_FROM_BYTES} from the default section.
+     *
+     * @param settings the connector settings
+     * @return true if incoming messages should be parsed from bytes
+     */
+    public static boolean isParseMessagesFromBytes(SessionSettings settings) {
+        boolean parseMessagesFromBytes = false;
+        if (settings.isSetting(Session.SETTING_PARSE_MESSAGES_FROM_BYTES)) {
+            try {
+                parseMessagesFromBytes = settings.getBool(Session.SETTING_PARSE_MESSAGES_FROM_BYTES);
+            } catch (ConfigError | FieldConvertError ex) {
+                // ignore and return default
+            }
+        }
+        return parseMessagesFromBytes;
+    }
+
 }
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import quickfix.Session;
+import quickfix.SystemTime;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A hashed timing wheel which calls {@link Session#next()} only when a session has
+ * something to do.
+ * <p>
+ * Every session is kept in the bucket of the tick in which its
+ * {@link Session#getNextTimerDeadline() next deadline} falls. Each {@link #run() tick}
+ * only looks at the sessions of the buckets that became due since the last tick, so
+ * the timer work of many sessions is spread over the ticks and idle sessions cost
+ * nothing. Deadlines beyond one revolution of the wheel stay in their bucket until
+ * their tick has come.
+ * <p>
+ * After <code>next()</code> the session is moved to the bucket of its new deadline.
+ * When the state of a session changes in a way that can move its deadline earlier,
+ * the session notifies the wheel, which computes the deadline again at the next tick.
+ * A session whose deadline is still due after <code>next()</code>, e.g. because an
+ * {@link quickfix.ApplicationExtended} does not allow the Logon yet, is called again
+ * after a second, as with the sweep of all sessions.
+ * <p>
+ * {@link #run()} must be called periodically from one thread at a time.
+ */
+final class SessionTimingWheel implements Runnable {
+    static final long RETRY_INTERVAL_MS = 1000L;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final long tickMillis;
+    private final Entry[] buckets;
+    private final int mask;
+    private final Map<Session, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> changedEntries = new ConcurrentLinkedQueue<>();
+    // the last tick that has been processed, -1 before the first run
+    private long lastTick = -1;
+
+    /**
+     * @param tickMillis the duration of a tick in milliseconds
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     */
+    SessionTimingWheel(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        buckets = new Entry[size];
+        mask = size - 1;
+    }
+
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Adds a session to the wheel. Its deadline is computed at the next tick.
+     */
+    void add(Session session) {
+        final Entry entry = new Entry(session);
+        if (entries.putIfAbsent(session, entry) == null) {
+            session.setTimerDeadlineListener(entry::changed);
+            entry.changed();
+        }
+    }
+
+    /**
+     * Removes a session from the wheel.
+     */
+    void remove(Session session) {
+        final Entry entry = entries.remove(session);
+        if (entry != null) {
+            session.setTimerDeadlineListener(null);
+            entry.removed = true;
+            entry.changed();
+        }
+    }
+
+    /**
+     * Removes all sessions from the wheel.
+     */
+    void clear() {
+        for (Session session : entries.keySet()) {
+            remove(session);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void run() {
+        try {
+            final long now = SystemTime.currentTimeMillis();
+            final long currentTick = now / tickMillis;
+            if (lastTick < 0) {
+                lastTick = currentTick - 1;
+            }
+            if (currentTick - lastTick > buckets.length) {
+                // the timer fell behind by more than a revolution, visit every bucket once
+                lastTick = currentTick - buckets.length;
+            }
+            processChangedEntries();
+            while (lastTick < currentTick) {
+                lastTick++;
+                expire((int) (lastTick & mask), currentTick, now);
+            }
+        } catch (Throwable e) {
+            log.error("Error during timer processing", e);
+        }
+    }
+
+    private void processChangedEntries() {
+        Entry entry;
+        while ((entry = changedEntries.poll()) != null) {
+            entry.queued.set(false);
+            unlink(entry);
+            if (!entry.removed) {
+                schedule(entry, entry.session.getNextTimerDeadline());
+            }
+        }
+    }
+
+    private void expire(int index, long currentTick, long now) {
+        Entry entry = buckets[index];
+        while (entry != null) {
+            final Entry next = entry.next;
+            if (entry.deadlineTick <= currentTick) {
+                unlink(entry);
+                fire(entry, now);
+            }
+            entry = next;
+        }
+    }
+
+    private void fire(Entry entry, long now) {
+        final Session session = entry.session;
+        try {
+            session.next();
+        } catch (Throwable e) {
+            log.error("Error in session timer processing: sessionID={}", session.getSessionID(), e);
+        }
+        if (!entry.removed) {
+            long deadline = session.getNextTimerDeadline();
+            if (deadline <= now) {
+                deadline = now + RETRY_INTERVAL_MS;
+            }
+            schedule(entry, deadline);
+        }
+    }
+
+    private void schedule(Entry entry, long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            // nothing to do until the session state changes
+            return;
+        }
+        // round up so that the session is not called before its deadline
+        long tick = deadline <= 0 ? 0 : (deadline + tickMillis - 1) / tickMillis;
+        if (tick <= lastTick) {
+            tick = lastTick + 1;
+        }
+        entry.deadlineTick = tick;
+        final int index = (int) (tick & mask);
+        // insert at the head so that an expiring bucket does not visit the entry again
+        final Entry head = buckets[index];
+        entry.next = head;
+        entry.previous = null;
+        if (head != null) {
+            head.previous = entry;
+        }
+        buckets[index] = entry;
+        entry.bucket = index;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.bucket < 0) {
+            return;
+        }
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            buckets[entry.bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.next = null;
+        entry.previous = null;
+        entry.bucket = -1;
+    }
+
+    private final class Entry {
+        private final Session session;
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile boolean removed;
+        // accessed by the timer thread only
+        private long deadlineTick;
+        private int bucket = -1;
+        private Entry previous;
+        private Entry next;
+
+        Entry(Session session) {
+            this.session = session;
+        }
+
+        void changed() {
+            if (queued.compareAndSet(false, true)) {
+                changedEntries.add(this);
+            }
+        }
+    }
+}
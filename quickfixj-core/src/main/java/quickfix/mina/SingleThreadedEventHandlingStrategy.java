@@ -35,11 +35,19 @@ import static quickfix.mina.QueueTrackers.newMultiSessionWatermarkTracker;
 
 /**
  * Processes messages for all sessions in a single thread.
+ * <p>
+ * The messages are queued in a linked blocking queue, or in a {@link RingBufferEventQueue}
+ * if {@link SessionConnector#SETTING_EVENT_QUEUE} is set accordingly. The ring buffer is
+ * always bounded: it has the queue capacity, or with queue watermarks the upper watermark
+ * but at least {@link SessionConnector#DEFAULT_QUEUE_CAPACITY} slots, rounded up to a power
+ * of two. The events are copied into its slots, so that no event is allocated per message.
  */
 public class SingleThreadedEventHandlingStrategy implements EventHandlingStrategy {
     public static final String MESSAGE_PROCESSOR_THREAD_NAME = "QFJ Message Processor";
     private final BlockingQueue<SessionMessageEvent> eventQueue;
     private final QueueTracker<SessionMessageEvent> queueTracker;
+    // the event each thread copies into the ring buffer, null for the linked blocking queue
+    private final ThreadLocal<SessionMessageEvent> producerEvent;
     private final SessionConnector sessionConnector;
     private volatile ThreadAdapter messageProcessingThread;
     private volatile boolean isStopped;
@@ -48,13 +56,17 @@ public class SingleThreadedEventHandlingStrategy implements EventHandlingStrateg
 
     public SingleThreadedEventHandlingStrategy(SessionConnector connector, int queueCapacity) {
         sessionConnector = connector;
-        eventQueue = new LinkedBlockingQueue<>(queueCapacity);
+        eventQueue = newEventQueue(connector, queueCapacity, queueCapacity);
+        producerEvent = newProducerEvent(eventQueue);
         queueTracker = newDefaultQueueTracker(eventQueue);
     }
 
     public SingleThreadedEventHandlingStrategy(SessionConnector connector, int queueLowerWatermark, int queueUpperWatermark) {
         sessionConnector = connector;
-        eventQueue = new LinkedBlockingQueue<>();
+        // the ring buffer is bounded, the watermarks limit the queue length in practice
+        eventQueue = newEventQueue(connector, Integer.MAX_VALUE,
+                Math.max(SessionConnector.DEFAULT_QUEUE_CAPACITY, queueUpperWatermark));
+        producerEvent = newProducerEvent(eventQueue);
         if (queueLowerWatermark > 0 && queueUpperWatermark > 0) {
             queueTracker = newMultiSessionWatermarkTracker(eventQueue, queueLowerWatermark, queueUpperWatermark,
                     evt -> evt.quickfixSession);
@@ -63,6 +75,25 @@ public class SingleThreadedEventHandlingStrategy implements EventHandlingStrateg
         }
     }
 
+    private static BlockingQueue<SessionMessageEvent> newEventQueue(SessionConnector connector,
+            int queueCapacity, int ringBufferCapacity) {
+        final RingBufferEventQueue.WaitStrategy waitStrategy
+                = connector != null ? connector.getEventQueueWaitStrategy() : null;
+        if (waitStrategy != null) {
+            final RingBufferEventQueue<SessionMessageEvent> ringBuffer = new RingBufferEventQueue<>(
+                    Math.min(ringBufferCapacity, RingBufferEventQueue.MAXIMUM_CAPACITY), waitStrategy,
+                    SESSION_MESSAGE_EVENT_COPIER);
+            connector.log.info("Event queue is a ring buffer with {} slots and {} wait strategy,"
+                    + " receiving threads wait while it is full", ringBuffer.capacity(), waitStrategy);
+            return ringBuffer;
+        }
+        return new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    private static ThreadLocal<SessionMessageEvent> newProducerEvent(BlockingQueue<SessionMessageEvent> eventQueue) {
+        return eventQueue instanceof RingBufferEventQueue ? ThreadLocal.withInitial(SessionMessageEvent::new) : null;
+    }
+
     public void setExecutor(Executor executor) {
         this.executor = executor;
     }
@@ -72,11 +103,22 @@ public class SingleThreadedEventHandlingStrategy implements EventHandlingStrateg
         if (message == END_OF_STREAM && isStopped) {
             return;
         }
+        final SessionMessageEvent event;
+        if (producerEvent != null) {
+            event = producerEvent.get();
+            event.set(quickfixSession, message);
+        } else {
+            event = new SessionMessageEvent(quickfixSession, message);
+        }
         try {
-            queueTracker.put(new SessionMessageEvent(quickfixSession, message));
+            queueTracker.put(event);
         } catch (InterruptedException e) {
             isStopped = true;
             Thread.currentThread().interrupt();
+        } finally {
+            if (producerEvent != null) {
+                event.clear();
+            }
         }
     }
 
@@ -86,6 +128,8 @@ public class SingleThreadedEventHandlingStrategy implements EventHandlingStrateg
     }
 
     private void block() {
+        // the events may be reused, so remember the session
+        Session unflushed = null;
         while (true) {
             synchronized (this) {
                 if (isStopped) {
@@ -110,7 +154,16 @@ public class SingleThreadedEventHandlingStrategy implements EventHandlingStrateg
             try {
                 SessionMessageEvent event = getMessage();
                 if (event != null) {
+                    // write what was held back for the previous session before turning to another one
+                    if (unflushed != null && unflushed != event.quickfixSession) {
+                        flushResponder(unflushed);
+                    }
                     event.processMessage();
+                    unflushed = event.quickfixSession;
+                    if (eventQueue.isEmpty()) {
+                        flushResponder(unflushed);
+                        unflushed = null;
+                    }
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -118,6 +171,13 @@ public class SingleThreadedEventHandlingStrategy implements EventHandlingStrateg
         }
     }
 
+    private static void flushResponder(Session session) {
+        final Responder responder = session.getResponder();
+        if (responder != null) {
+            responder.flush();
+        }
+    }
+
     private SessionMessageEvent getMessage() throws InterruptedException {
         return queueTracker.poll(THREAD_WAIT_FOR_MESSAGE_MS, TimeUnit.MILLISECONDS);
     }
@@ -149,15 +209,44 @@ public class SingleThreadedEventHandlingStrategy implements EventHandlingStrateg
         messageProcessingThread.start();
     }
 
+    private static final RingBufferEventQueue.SlotCopier<SessionMessageEvent> SESSION_MESSAGE_EVENT_COPIER
+            = new RingBufferEventQueue.SlotCopier<SessionMessageEvent>() {
+                @Override
+                public SessionMessageEvent newSlot() {
+                    return new SessionMessageEvent();
+                }
+
+                @Override
+                public void copy(SessionMessageEvent from, SessionMessageEvent to) {
+                    to.set(from.quickfixSession, from.message);
+                }
+
+                @Override
+                public void clear(SessionMessageEvent slot) {
+                    slot.clear();
+                }
+            };
+
     private static class SessionMessageEvent {
-        private final Session quickfixSession;
-        private final Message message;
+        private Session quickfixSession;
+        private Message message;
+
+        SessionMessageEvent() {
+        }
 
         public SessionMessageEvent(Session session, Message message) {
+            set(session, message);
+        }
+
+        void set(Session session, Message message) {
             this.message = message;
             quickfixSession = session;
         }
 
+        void clear() {
+            set(null, null);
+        }
+
         public void processMessage() {
             try {
                 quickfixSession.next(message);
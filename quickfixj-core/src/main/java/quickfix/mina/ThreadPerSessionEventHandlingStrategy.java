@@ -223,6 +223,8 @@ public class ThreadPerSessionEventHandlingStrategy implements EventHandlingStrat
                     quickfixSession.next(message);
                     if (message == END_OF_STREAM) {
                         stopping = true;
+                    } else if (messages.isEmpty()) {
+                        flushResponder();
                     }
                 } catch (final InterruptedException e) {
                     LogUtil.logThrowable(quickfixSession.getSessionID(),
@@ -251,6 +253,13 @@ public class ThreadPerSessionEventHandlingStrategy implements EventHandlingStrat
             stopped = true;
         }
 
+        private void flushResponder() {
+            final Responder responder = quickfixSession.getResponder();
+            if (responder != null) {
+                responder.flush();
+            }
+        }
+
         public void stopDispatcher() {
             enqueue(END_OF_STREAM);
             stopping = true;
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Processes messages in a session-specific virtual thread.
+ * <p>
+ * Each session still has exactly one dispatcher with its own queue, so messages of a
+ * session are processed in order and the queue capacity or watermarks are applied
+ * as with {@link ThreadPerSessionEventHandlingStrategy}. Only the dispatchers run on
+ * virtual threads instead of platform threads, which makes an idle session cost a few
+ * kilobytes of heap instead of a thread stack.
+ * <p>
+ * Virtual threads require Java 21. On older runtimes the dispatchers run on platform
+ * threads and a warning is logged. If an executor is set, e.g. by an
+ * {@link quickfix.ExecutorFactory}, the dispatchers run on that executor instead.
+ * <p>
+ * A virtual thread that blocks while it holds a monitor, or waits in
+ * <code>Object.wait()</code>, pins its carrier thread on Java versions before 24. The
+ * engine code run by a dispatcher avoids this:
+ * <ul>
+ * <li>waiting for messages and for the sender sequence number hand-off of
+ * {@link quickfix.Session#send(quickfix.Message)} parks without holding a monitor</li>
+ * <li>{@link quickfix.SessionState} calls the message store outside of its monitor</li>
+ * <li>the session only reads the responder under its responder lock and writes to it
+ * outside the lock; the lock itself, which is held while disconnecting, is a
+ * {@link java.util.concurrent.locks.ReentrantLock}, as are the locks of
+ * {@link quickfix.FileLog} and of the write coalescing buffer of
+ * {@link IoSessionResponder}</li>
+ * </ul>
+ * The carrier thread is still pinned while a session waits in the locking of a
+ * message store or log implementation: {@link quickfix.WriteBehindStore} waits for
+ * its writer in a monitor when it waits for durability, the Sleepycat store
+ * synchronizes reads, and JDBC drivers and logging frameworks may block in monitors.
+ * Synchronous writes (<code>SocketSynchronousWrites</code>) wait for MINA in a monitor
+ * as well. Each session that waits in one of these keeps one carrier thread busy.
+ */
+public class VirtualThreadPerSessionEventHandlingStrategy extends ThreadPerSessionEventHandlingStrategy {
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPerSessionEventHandlingStrategy.class);
+    private static final String THREAD_NAME_PREFIX = "QF/J Virtual Dispatcher-";
+
+    private final Executor virtualThreadExecutor = newVirtualThreadExecutor();
+
+    public VirtualThreadPerSessionEventHandlingStrategy(SessionConnector connector, int queueCapacity) {
+        super(connector, queueCapacity);
+        super.setExecutor(virtualThreadExecutor);
+    }
+
+    public VirtualThreadPerSessionEventHandlingStrategy(SessionConnector connector, int queueLowerWatermark, int queueUpperWatermark) {
+        super(connector, queueLowerWatermark, queueUpperWatermark);
+        super.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Sets the executor of the dispatchers. <code>null</code> restores the virtual
+     * thread executor.
+     */
+    @Override
+    public void setExecutor(Executor executor) {
+        super.setExecutor(executor != null ? executor : virtualThreadExecutor);
+    }
+
+    /**
+     * @return true if the dispatchers of this strategy run on virtual threads when no
+     * other executor has been set
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreads.FACTORY != null;
+    }
+
+    private static Executor newVirtualThreadExecutor() {
+        final ThreadFactory factory = VirtualThreads.FACTORY;
+        if (factory == null) {
+            return command -> new Thread(command).start();
+        }
+        return command -> factory.newThread(command).start();
+    }
+
+    /**
+     * Looks up the virtual thread factory once. The API is called reflectively as this
+     * code is compiled for Java 8.
+     */
+    private static final class VirtualThreads {
+        static final ThreadFactory FACTORY = lookupFactory();
+
+        private static ThreadFactory lookupFactory() {
+            try {
+                final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+                final Object builder = ofVirtual.invoke(null);
+                final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                final Object namedBuilder = builderClass.getMethod("name", String.class, long.class)
+                        .invoke(builder, THREAD_NAME_PREFIX, 0L);
+                return (ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder);
+            } catch (Exception | LinkageError e) {
+                // Java < 21, or Java 19/20 without preview features
+                LOG.warn("Virtual threads are not available on Java {}, using platform threads for session dispatchers",
+                        System.getProperty("java.version"));
+                return null;
+            }
+        }
+    }
+}
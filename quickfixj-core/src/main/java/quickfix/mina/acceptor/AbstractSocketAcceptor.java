@@ -110,7 +110,7 @@ public abstract class AbstractSocketAcceptor extends SessionConnector implements
                 }
 
                 ioFilterChainBuilder.addLast(FIXProtocolCodecFactory.FILTER_NAME,
-                        new ProtocolCodecFilter(new FIXProtocolCodecFactory()));
+                        new ProtocolCodecFilter(new FIXProtocolCodecFactory(isParseMessagesFromBytes(getSettings()), true)));
 
                 ioAcceptor.setFilterChainBuilder(ioFilterChainBuilder);
                 ioAcceptor.setCloseOnDeactivation(false);
@@ -84,13 +84,20 @@ class AcceptorIoHandler extends AbstractIoHandler {
                             + protocolSession.getRemoteAddress());
                     final int heartbeatInterval = message.isSetField(HeartBtInt.FIELD) ? message.getInt(HeartBtInt.FIELD) : 0;
                     qfSession.setHeartBeatInterval(heartbeatInterval);
-                    sessionLog.onEvent("Acceptor heartbeat set to " + heartbeatInterval
-                            + " seconds");
+                    final long heartbeatMillis = qfSession.getHeartBeatMillis();
+                    if (heartbeatMillis % 1000L != 0) {
+                        sessionLog.onEvent("Acceptor heartbeat set to " + heartbeatMillis
+                                + " milliseconds");
+                    } else {
+                        sessionLog.onEvent("Acceptor heartbeat set to " + heartbeatMillis / 1000L
+                                + " seconds");
+                    }
                     protocolSession.setAttribute(SessionConnector.QF_SESSION, qfSession);
                     final NetworkingOptions networkingOptions = getNetworkingOptions();
                     qfSession.setResponder(new IoSessionResponder(protocolSession,
                             networkingOptions.getSynchronousWrites(), networkingOptions
-                                    .getSynchronousWriteTimeout(), qfSession.getMaxScheduledWriteRequests()));
+                                    .getSynchronousWriteTimeout(), qfSession.getMaxScheduledWriteRequests(),
+                            networkingOptions.getWriteCoalescingSize(), networkingOptions.getWriteCoalescingDelay()));
                     if (sessionID.isFIXT()) { // QFJ-592
                         if (message.isSetField(DefaultApplVerID.FIELD)) {
                             final ApplVerID applVerID = new ApplVerID(
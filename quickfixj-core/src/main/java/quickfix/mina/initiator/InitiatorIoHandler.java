@@ -56,7 +56,9 @@ class InitiatorIoHandler extends AbstractIoHandler {
         quickfixSession.setResponder(new IoSessionResponder(session,
                 networkingOptions.getSynchronousWrites(),
                 networkingOptions.getSynchronousWriteTimeout(),
-                quickfixSession.getMaxScheduledWriteRequests()));
+                quickfixSession.getMaxScheduledWriteRequests(),
+                networkingOptions.getWriteCoalescingSize(),
+                networkingOptions.getWriteCoalescingDelay()));
         quickfixSession.getLog().onEvent("MINA session created: local="
                 + session.getLocalAddress() + ", " + session.getClass() + ", remote="
                 + session.getRemoteAddress());
@@ -158,7 +158,8 @@ public class IoSessionInitiator {
                 sslFilter = installSslFilter(ioFilterChainBuilder, !hasProxy);
             }
 
-            ioFilterChainBuilder.addLast(FIXProtocolCodecFactory.FILTER_NAME, new ProtocolCodecFilter(new FIXProtocolCodecFactory()));
+            ioFilterChainBuilder.addLast(FIXProtocolCodecFactory.FILTER_NAME, new ProtocolCodecFilter(
+                    new FIXProtocolCodecFactory(SessionConnector.isParseMessagesFromBytes(sessionSettings), true)));
 
             IoConnector newConnector;
             newConnector = ProtocolFactory.createIoConnector(socketAddresses[nextSocketAddressIndex]);
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina.message;
+
+import org.quickfixj.CharsetSupport;
+
+/**
+ * A message frame passed on by a {@link FIXMessageDecoder} which verifies checksums,
+ * together with the result of the verification.
+ */
+public final class FIXFrame {
+
+    private final Object message;
+    private final boolean checksumVerified;
+
+    FIXFrame(Object message, boolean checksumVerified) {
+        this.message = message;
+        this.checksumVerified = checksumVerified;
+    }
+
+    /**
+     * @return the message String, or the message bytes if the decoder decodes as bytes
+     */
+    public Object getMessage() {
+        return message;
+    }
+
+    /**
+     * @return true if the CheckSum field of the message has been found to be correct,
+     * false if it is wrong or has not been verified
+     */
+    public boolean isChecksumVerified() {
+        return checksumVerified;
+    }
+
+    @Override
+    public String toString() {
+        return message instanceof byte[] ? new String((byte[]) message, CharsetSupport.getCharsetInstance()) : String.valueOf(message);
+    }
+}
@@ -29,7 +29,10 @@ import org.apache.mina.filter.codec.demux.MessageDecoderResult;
 import org.quickfixj.CharsetSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import quickfix.ByteScanner;
+import quickfix.Session;
 import quickfix.mina.CriticalProtocolCodecException;
+import quickfix.mina.SessionConnector;
 
 import java.io.File;
 import java.io.IOException;
@@ -68,6 +71,9 @@ public class FIXMessageDecoder implements MessageDecoder {
     private int bodyLength;
     private int position;
     private final String charsetEncoding;
+    private final boolean decodeAsBytes;
+    private final boolean verifyChecksum;
+    private final ByteScanner scanner;
 
     private void resetState() {
         state = SEEKING_HEADER;
@@ -84,7 +90,53 @@ public class FIXMessageDecoder implements MessageDecoder {
     }
 
     public FIXMessageDecoder(String charset, String delimiter) throws UnsupportedEncodingException {
+        this(charset, delimiter, false);
+    }
+
+    /**
+     * @param charset the charset used to decode message strings
+     * @param delimiter the field delimiter
+     * @param decodeAsBytes if true, each decoded message is passed on as a byte array
+     *        containing exactly the message frame instead of a String
+     * @throws UnsupportedEncodingException if the charset is not supported
+     * @see ByteScanner#getDefault()
+     */
+    public FIXMessageDecoder(String charset, String delimiter, boolean decodeAsBytes) throws UnsupportedEncodingException {
+        this(charset, delimiter, decodeAsBytes, ByteScanner.getDefault());
+    }
+
+    /**
+     * @param charset the charset used to decode message strings
+     * @param delimiter the field delimiter
+     * @param decodeAsBytes if true, each decoded message is passed on as a byte array
+     *        containing exactly the message frame instead of a String
+     * @param scanner the scanner used to find message headers
+     * @throws UnsupportedEncodingException if the charset is not supported
+     */
+    public FIXMessageDecoder(String charset, String delimiter, boolean decodeAsBytes, ByteScanner scanner)
+            throws UnsupportedEncodingException {
+        this(charset, delimiter, decodeAsBytes, false, scanner);
+    }
+
+    /**
+     * @param charset the charset used to decode message strings
+     * @param delimiter the field delimiter
+     * @param decodeAsBytes if true, each decoded message is passed on as a byte array
+     *        containing exactly the message frame instead of a String
+     * @param verifyChecksum if true, the checksum of each frame is verified while it is
+     *        decoded and the message is passed on as a {@link FIXFrame} with the result.
+     *        Checksums are not verified for connections bound to a session that does not
+     *        validate them.
+     * @param scanner the scanner used to find message headers and to compute checksums
+     * @throws UnsupportedEncodingException if the charset is not supported
+     * @see Session#SETTING_VALIDATE_CHECKSUM
+     */
+    public FIXMessageDecoder(String charset, String delimiter, boolean decodeAsBytes, boolean verifyChecksum,
+            ByteScanner scanner) throws UnsupportedEncodingException {
         charsetEncoding = CharsetSupport.validate(charset);
+        this.decodeAsBytes = decodeAsBytes;
+        this.verifyChecksum = verifyChecksum;
+        this.scanner = scanner;
         HEADER_PATTERN = new PatternMatcher("8=FIXt.?.?" + delimiter + "9=");
         CHECKSUM_PATTERN = new PatternMatcher("10=???" + delimiter);
         LOGON_PATTERN = new PatternMatcher(delimiter + "35=A" + delimiter);
@@ -93,7 +145,7 @@ public class FIXMessageDecoder implements MessageDecoder {
 
     @Override
     public MessageDecoderResult decodable(IoSession session, IoBuffer in) {
-        boolean hasHeader = HEADER_PATTERN.find(in, in.position()) != -1L;
+        boolean hasHeader = HEADER_PATTERN.find(in, in.position(), scanner) != -1L;
         return hasHeader ? MessageDecoderResult.OK :
             (in.remaining() > MAX_UNDECODED_DATA_LENGTH ? MessageDecoderResult.NOT_OK : MessageDecoderResult.NEED_DATA);
     }
@@ -102,7 +154,7 @@ public class FIXMessageDecoder implements MessageDecoder {
     public MessageDecoderResult decode(IoSession session, IoBuffer in, ProtocolDecoderOutput out)
             throws ProtocolCodecException {
         int messageCount = 0;
-        while (parseMessage(in, out)) {
+        while (parseMessage(session, in, out)) {
             messageCount++;
         }
         if (messageCount > 0) {
@@ -123,14 +175,15 @@ public class FIXMessageDecoder implements MessageDecoder {
      * error has occurred. Otherwise, MINA will compact the buffer and we lose
      * data.
      */
-    private boolean parseMessage(IoBuffer in, ProtocolDecoderOutput out)
+    private boolean parseMessage(IoSession session, IoBuffer in, ProtocolDecoderOutput out)
             throws ProtocolCodecException {
         try {
             boolean messageFound = false;
+            boolean checksumVerified = false;
             while (in.hasRemaining() && !messageFound) {
                 if (state == SEEKING_HEADER) {
 
-                    long headerPos = HEADER_PATTERN.find(in, position);
+                    long headerPos = HEADER_PATTERN.find(in, position, scanner);
                     if (headerPos == -1L) {
                         break;
                     }
@@ -203,6 +256,8 @@ public class FIXMessageDecoder implements MessageDecoder {
                         if (log.isDebugEnabled()) {
                             log.debug("found checksum: {}", getBufferDebugInfo(in));
                         }
+                        checksumVerified = verifyChecksum && isValidateChecksum(session)
+                                && isChecksumCorrect(in, position);
                         position += CHECKSUM_PATTERN.getMinLength();
                     } else {
                         if (position + CHECKSUM_PATTERN.getMinLength() <= in.limit()) {
@@ -218,11 +273,22 @@ public class FIXMessageDecoder implements MessageDecoder {
                             break;
                         }
                     }
-                    String messageString = getMessageString(in);
-                    if (log.isDebugEnabled()) {
-                        log.debug("parsed message: {} {}", getBufferDebugInfo(in), messageString);
+                    final Object message;
+                    if (decodeAsBytes) {
+                        byte[] messageBytes = getMessageBytes(in);
+                        if (log.isDebugEnabled()) {
+                            log.debug("parsed message: {} {}", getBufferDebugInfo(in), new String(messageBytes, charsetEncoding));
+                        }
+                        message = messageBytes;
+                    } else {
+                        String messageString = getMessageString(in);
+                        if (log.isDebugEnabled()) {
+                            log.debug("parsed message: {} {}", getBufferDebugInfo(in), messageString);
+                        }
+                        message = messageString;
                     }
-                    out.write(messageString); // eventually invokes AbstractIoHandler.messageReceived
+                    // eventually invokes AbstractIoHandler.messageReceived
+                    out.write(verifyChecksum ? new FIXFrame(message, checksumVerified) : message);
                     state = SEEKING_HEADER;
                     bodyLength = 0;
                     messageFound = true;
@@ -239,15 +305,39 @@ public class FIXMessageDecoder implements MessageDecoder {
         }
     }
 
+    private static boolean isValidateChecksum(IoSession session) {
+        final Object quickfixSession = session != null ? session.getAttribute(SessionConnector.QF_SESSION) : null;
+        return !(quickfixSession instanceof Session) || ((Session) quickfixSession).isValidateChecksum();
+    }
+
+    /**
+     * Compares the sum of the frame bytes up to the CheckSum field with its value.
+     */
+    private boolean isChecksumCorrect(IoBuffer in, int checksumOffset) {
+        int checksum = 0;
+        for (int i = checksumOffset + 3; i < checksumOffset + 6; i++) {
+            final int digit = in.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            checksum = checksum * 10 + digit;
+        }
+        return checksum == (scanner.sum(in.buf(), in.position(), checksumOffset) & 0xff);
+    }
+
     private String getBufferDebugInfo(IoBuffer in) {
         return "pos=" + in.position() + ",lim=" + in.limit() + ",rem=" + in.remaining()
                 + ",offset=" + position + ",state=" + state;
     }
 
     private String getMessageString(IoBuffer buffer) throws UnsupportedEncodingException {
+        return new String(getMessageBytes(buffer), charsetEncoding);
+    }
+
+    private byte[] getMessageBytes(IoBuffer buffer) {
         byte[] data = new byte[position - buffer.position()];
         buffer.get(data);
-        return new String(data, charsetEncoding);
+        return data;
     }
 
     private String getMessageStringForError(IoBuffer buffer) throws UnsupportedEncodingException {
@@ -327,7 +417,12 @@ public class FIXMessageDecoder implements MessageDecoder {
             decode(null, IoBuffer.wrap(memoryMappedBuffer), new ProtocolDecoderOutput() {
                 @Override
                 public void write(Object message) {
-                    listener.onMessage((String) message);
+                    if (message instanceof FIXFrame) {
+                        message = ((FIXFrame) message).getMessage();
+                    }
+                    listener.onMessage(message instanceof byte[]
+                            ? new String((byte[]) message, CharsetSupport.getCharsetInstance())
+                            : (String) message);
                 }
 
                 @Override
@@ -19,7 +19,8 @@
 
 package quickfix.mina.message;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -36,46 +37,74 @@ import quickfix.Message;
 /**
  * Encodes a Message object or message string as a byte array to be
  * transmitted on MINA connection.
+ * <p>
+ * The encoded bytes are written directly into the buffer that is passed on, without
+ * creating intermediate Strings or byte arrays where the charset allows for it.
+ * Buffers are obtained through {@link IoBuffer#allocate(int)}, so the buffer allocator
+ * and the use of direct buffers can be configured via {@link IoBuffer#setAllocator}
+ * and {@link IoBuffer#setUseDirectBuffer(boolean)}.
  */
 public class FIXMessageEncoder implements MessageEncoder<Object> {
 
     private static final Set<Class<?>> TYPES =
             new HashSet<>(Arrays.<Class<?>>asList(Message.class, String.class));
-    private final String charsetEncoding;
+
+    private static final ThreadLocal<StringBuilder> stringBuilders =
+            ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final Charset charset;
+    private final boolean stringEquivalent;
 
     public FIXMessageEncoder() {
-        charsetEncoding = CharsetSupport.getCharset();
+        charset = CharsetSupport.getCharsetInstance();
+        stringEquivalent = CharsetSupport.isStringEquivalent(charset);
     }
 
     public static Set<Class<?>> getMessageTypes() {
         return TYPES;
     }
 
-    private byte[] toBytes(String str) throws ProtocolCodecException {
-        try {
-            return str.getBytes(charsetEncoding);
-        } catch (UnsupportedEncodingException e) {
-            throw new ProtocolCodecException(e);
-        }
-    }
-
     @Override
     public void encode(IoSession session, Object message, ProtocolEncoderOutput out)
             throws ProtocolCodecException {
-        // get message bytes
-        byte[] bytes;
+        IoBuffer buffer;
         if (message instanceof String) {
-            bytes = toBytes((String) message);
+            buffer = toBuffer((String) message);
         } else if (message instanceof Message) {
-            bytes = toBytes(message.toString());
+            StringBuilder stringBuilder = stringBuilders.get();
+            try {
+                ((Message) message).appendTo(stringBuilder);
+                buffer = toBuffer(stringBuilder);
+            } finally {
+                stringBuilder.setLength(0);
+            }
         } else {
             throw new ProtocolCodecException("Invalid FIX message object type: "
                     + message.getClass());
         }
-        // write bytes to buffer and output it
-        IoBuffer buffer = IoBuffer.allocate(bytes.length);
-        buffer.put(bytes);
-        buffer.flip();
         out.write(buffer);
     }
+
+    private IoBuffer toBuffer(CharSequence chars) {
+        if (!stringEquivalent) {
+            return IoBuffer.wrap(charset.encode(CharBuffer.wrap(chars)));
+        }
+        // each char maps to exactly one byte
+        final int length = chars.length();
+        final IoBuffer buffer = IoBuffer.allocate(length);
+        if (buffer.hasArray()) {
+            final byte[] array = buffer.array();
+            final int offset = buffer.arrayOffset() + buffer.position();
+            for (int i = 0; i < length; i++) {
+                array[offset + i] = (byte) chars.charAt(i);
+            }
+            buffer.position(buffer.position() + length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) chars.charAt(i));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
 }
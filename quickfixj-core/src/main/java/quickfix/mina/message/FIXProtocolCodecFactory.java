@@ -20,6 +20,8 @@
 package quickfix.mina.message;
 
 import org.apache.mina.filter.codec.demux.DemuxingProtocolCodecFactory;
+import org.quickfixj.CharsetSupport;
+import quickfix.ByteScanner;
 
 /**
  * Provides the FIX codecs to MINA.
@@ -28,7 +30,32 @@ public class FIXProtocolCodecFactory extends DemuxingProtocolCodecFactory {
     public static final String FILTER_NAME = "FIXCodec";
 
     public FIXProtocolCodecFactory() {
-        addMessageDecoder(FIXMessageDecoder.class);
+        this(false);
+    }
+
+    /**
+     * @param decodeAsBytes whether decoded messages are passed on as byte arrays
+     *        instead of Strings
+     * @see quickfix.Session#SETTING_PARSE_MESSAGES_FROM_BYTES
+     */
+    public FIXProtocolCodecFactory(boolean decodeAsBytes) {
+        this(decodeAsBytes, false);
+    }
+
+    /**
+     * @param decodeAsBytes whether decoded messages are passed on as byte arrays
+     *        instead of Strings
+     * @param verifyChecksum whether the decoder verifies checksums and passes on
+     *        {@link FIXFrame FIXFrames} with the result
+     * @see quickfix.Session#SETTING_PARSE_MESSAGES_FROM_BYTES
+     */
+    public FIXProtocolCodecFactory(boolean decodeAsBytes, boolean verifyChecksum) {
+        if (decodeAsBytes || verifyChecksum) {
+            addMessageDecoder(() -> new FIXMessageDecoder(CharsetSupport.getCharset(), String.valueOf('\001'),
+                    decodeAsBytes, verifyChecksum, ByteScanner.getDefault()));
+        } else {
+            addMessageDecoder(FIXMessageDecoder.class);
+        }
         addMessageEncoder(FIXMessageEncoder.getMessageTypes(), FIXMessageEncoder.class);
     }
 }
@@ -2,8 +2,10 @@ package quickfix.mina.message;
 
 import org.apache.mina.core.buffer.IoBuffer;
 import org.quickfixj.CharsetSupport;
+import quickfix.ByteScanner;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 
 /**
  * Finds a byte pattern within a buffer.
@@ -87,6 +89,34 @@ class PatternMatcher {
         return -1L;
     }
 
+    /**
+     * Searches for the given pattern within a buffer, starting at the given
+     * buffer offset, and uses a scanner to find the candidate positions.
+     *
+     * @param buffer the buffer to search within
+     * @param offset the buffer offset to start searching at
+     * @param scanner the scanner which finds the first pattern character
+     * @return a long value whose lower 32 bits contain the index of the
+     * found pattern, and upper 32 bits contain the found pattern length;
+     * if the pattern is not found at all, returns -1L
+     * @see #find(IoBuffer, int)
+     */
+    public long find(IoBuffer buffer, int offset, ByteScanner scanner) {
+        int length;
+        byte first = pattern[0];
+        final ByteBuffer buf = buffer.buf();
+        for (int limit = buffer.limit() - minLength + 1; offset < limit; offset++) {
+            offset = scanner.indexOf(buf, first, offset, limit);
+            if (offset < 0) {
+                break;
+            }
+            if ((length = match(buffer, offset)) > 0) {
+                return (long)length << 32 | offset;
+            }
+        }
+        return -1L;
+    }
+
     /**
      * Checks if the buffer contents at the given offset matches the pattern.
      *
@@ -20,9 +20,11 @@
 package quickfix;
 
 import junit.framework.TestCase;
+import org.quickfixj.CharsetSupport;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public abstract class AbstractMessageStoreTest extends TestCase {
     private SessionID sessionID;
@@ -113,6 +115,38 @@ public abstract class AbstractMessageStoreTest extends TestCase {
         assertEquals("wrong message", "message1", messages.get(1));
     }
 
+    public void testMessageStorageBatch() throws Exception {
+        if (!testEnabled) {
+            return;
+        }
+        assertTrue("set failed", store.set(110, "message0"));
+        assertTrue("set failed", store.set(111, Arrays.asList("message1", "\u00E4bcf\u00F6d\u00E7\u00E9", "message3")));
+        assertTrue("set failed", store.set(114, "message4"));
+
+        store.refresh();
+
+        final ArrayList<String> messages = new ArrayList<>();
+        store.get(100, 120, messages);
+        assertEquals("wrong messages",
+                Arrays.asList("message0", "message1", "\u00E4bcf\u00F6d\u00E7\u00E9", "message3", "message4"),
+                messages);
+    }
+
+    public void testMessageStorageEncoded() throws Exception {
+        if (!testEnabled) {
+            return;
+        }
+        final String message = "\u00E4bcf\u00F6d\u00E7\u00E9";
+        assertTrue("set failed", store.set(111, message.getBytes(CharsetSupport.getCharsetInstance())));
+        assertTrue("set failed", store.set(112, "message2"));
+
+        store.refresh();
+
+        final ArrayList<String> messages = new ArrayList<>();
+        store.get(100, 115, messages);
+        assertEquals("wrong messages", Arrays.asList(message, "message2"), messages);
+    }
+
     public void testMessageStorageOutOfSequence() throws Exception {
         if (!testEnabled) {
             return;
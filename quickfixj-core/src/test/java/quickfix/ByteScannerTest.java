@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.junit.After;
+import org.junit.Test;
+import quickfix.field.Text;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteScannerTest {
+
+    @After
+    public void tearDown() {
+        ByteScanner.setDefault(ByteScanner.SCALAR);
+    }
+
+    @Test
+    public void testSwarMatchesScalar() {
+        final Random random = new Random(42);
+        final byte[] values = { 1, '=', '8', (byte) 0x80, (byte) 0xff, 0 };
+        for (int n = 0; n < 2000; n++) {
+            final byte[] data = new byte[random.nextInt(80)];
+            for (int i = 0; i < data.length; i++) {
+                // few distinct values so that matches, near-matches and repeats are common
+                data[i] = values[random.nextInt(values.length)];
+            }
+            final ByteBuffer bigEndian = ByteBuffer.wrap(data);
+            final ByteBuffer littleEndian = ByteBuffer.allocateDirect(data.length).order(ByteOrder.LITTLE_ENDIAN);
+            littleEndian.put(data);
+            for (byte value : values) {
+                final int from = data.length == 0 ? 0 : random.nextInt(data.length);
+                final int to = from + random.nextInt(data.length - from + 1);
+                final int expected = ByteScanner.SCALAR.indexOf(data, value, from, to);
+                assertEquals(expected, ByteScanner.SWAR.indexOf(data, value, from, to));
+                assertEquals(expected, ByteScanner.SCALAR.indexOf(bigEndian, value, from, to));
+                assertEquals(expected, ByteScanner.SWAR.indexOf(bigEndian, value, from, to));
+                assertEquals(expected, ByteScanner.SWAR.indexOf(littleEndian, value, from, to));
+            }
+        }
+    }
+
+    @Test
+    public void testSum() {
+        final Random random = new Random(7);
+        for (int n = 0; n < 500; n++) {
+            final byte[] data = new byte[random.nextInt(100)];
+            random.nextBytes(data);
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            final int from = data.length == 0 ? 0 : random.nextInt(data.length);
+            int expected = 0;
+            for (int i = from; i < data.length; i++) {
+                expected += data[i] & 0xff;
+            }
+            assertEquals(expected, ByteScanner.SCALAR.sum(buffer, from, data.length));
+            assertEquals(expected, ByteScanner.SWAR.sum(buffer, from, data.length));
+        }
+    }
+
+    @Test
+    public void testParseMessageFromBytes() throws Exception {
+        final DataDictionary dd = DataDictionaryTest.getDictionary();
+        final String data = "8=FIX.4.4\0019=0\00135=B\00134=2\00149=SENDER\00152=20240101-00:00:00\00156=TARGET\001"
+                + "148=headline\00158=a text that is longer than a few words\00110=000\001";
+        final Message expected = new Message();
+        expected.fromString(data, dd, false);
+
+        ByteScanner.setDefault(ByteScanner.SWAR);
+        final Message message = new Message();
+        message.fromBytes(data.getBytes(StandardCharsets.ISO_8859_1), dd, dd, false, false);
+        assertEquals(expected.toString(), message.toString());
+        assertEquals("a text that is longer than a few words", message.getString(Text.FIELD));
+    }
+}
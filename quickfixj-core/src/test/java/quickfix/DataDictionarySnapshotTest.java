@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import quickfix.field.MsgType;
+import quickfix.field.NoPartyIDs;
+import quickfix.field.PartyID;
+import quickfix.field.PartyIDSource;
+import quickfix.field.PartyRole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DataDictionarySnapshotTest {
+
+    private static final String[] MSG_TYPES = { MsgType.LOGON, MsgType.HEARTBEAT, MsgType.ORDER_SINGLE,
+            MsgType.EXECUTION_REPORT, MsgType.QUOTE_REQUEST, MsgType.MARKET_DATA_SNAPSHOT_FULL_REFRESH,
+            MsgType.NEWS, DataDictionary.HEADER_ID, DataDictionary.TRAILER_ID };
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testSnapshotIsWrittenAndUsed() throws Exception {
+        final File snapshotDirectory = tempFolder.newFolder("snapshots");
+        final DataDictionary parsed = DataDictionarySnapshot.load("FIX44.xml", snapshotDirectory);
+        final File[] snapshots = snapshotDirectory.listFiles();
+        assertEquals(1, snapshots.length);
+        assertTrue(snapshots[0].getName().startsWith("FIX44-"));
+
+        final long lastModified = snapshots[0].lastModified();
+        final DataDictionary loaded = DataDictionarySnapshot.load("FIX44.xml", snapshotDirectory);
+        assertEquals(1, snapshotDirectory.listFiles().length);
+        assertEquals(lastModified, snapshotDirectory.listFiles()[0].lastModified());
+
+        assertEquivalent(DataDictionaryTest.getDictionary(), parsed);
+        assertEquivalent(DataDictionaryTest.getDictionary(), loaded);
+    }
+
+    @Test
+    public void testValidationWithSnapshot() throws Exception {
+        final File snapshotDirectory = tempFolder.newFolder("snapshots");
+        DataDictionarySnapshot.load("FIX44.xml", snapshotDirectory);
+        final DataDictionary dd = DataDictionarySnapshot.load("FIX44.xml", snapshotDirectory);
+
+        final quickfix.fix44.QuoteRequest quoteRequest = new quickfix.fix44.QuoteRequest(
+                new quickfix.field.QuoteReqID("QR1"));
+        final quickfix.fix44.QuoteRequest.NoRelatedSym relatedSym = new quickfix.fix44.QuoteRequest.NoRelatedSym();
+        relatedSym.set(new quickfix.field.Symbol("EUR/USD"));
+        final quickfix.fix44.QuoteRequest.NoRelatedSym.NoPartyIDs party =
+                new quickfix.fix44.QuoteRequest.NoRelatedSym.NoPartyIDs();
+        party.set(new PartyID("P1"));
+        party.set(new PartyIDSource(PartyIDSource.PROPRIETARY_CUSTOM_CODE));
+        party.set(new PartyRole(PartyRole.CLIENT_ID));
+        relatedSym.addGroup(party);
+        quoteRequest.addGroup(relatedSym);
+        dd.validate(quoteRequest, true);
+
+        party.setInt(PartyRole.FIELD, 999);
+        relatedSym.replaceGroup(1, party);
+        quoteRequest.replaceGroup(1, relatedSym);
+        try {
+            dd.validate(quoteRequest, true);
+            fail("expected incorrect tag value");
+        } catch (IncorrectTagValue e) {
+            assertEquals(PartyRole.FIELD, e.getField());
+        }
+        assertTrue(dd.getGroup(MsgType.QUOTE_REQUEST, quickfix.field.NoRelatedSym.FIELD).getDataDictionary()
+                .isGroup(MsgType.QUOTE_REQUEST, NoPartyIDs.FIELD));
+    }
+
+    @Test
+    public void testChangedSourceIsParsedAgain() throws Exception {
+        final File snapshotDirectory = tempFolder.newFolder("snapshots");
+        final File source = tempFolder.newFile("custom.xml");
+        writeDictionary(source, "");
+        final DataDictionary dd = DataDictionarySnapshot.load(source.getPath(), snapshotDirectory);
+        assertFalse(dd.isField(5001));
+        assertEquals(1, snapshotDirectory.listFiles().length);
+
+        writeDictionary(source, "<field number=\"5001\" name=\"CustomField\" type=\"INT\"/>");
+        final DataDictionary changed = DataDictionarySnapshot.load(source.getPath(), snapshotDirectory);
+        assertTrue(changed.isField(5001));
+        assertEquals(FieldType.INT, changed.getFieldType(5001));
+        assertEquals(2, snapshotDirectory.listFiles().length);
+        assertTrue(DataDictionarySnapshot.load(source.getPath(), snapshotDirectory).isField(5001));
+    }
+
+    @Test
+    public void testInvalidSnapshotIsReplaced() throws Exception {
+        final File snapshotDirectory = tempFolder.newFolder("snapshots");
+        DataDictionarySnapshot.load("FIX44.xml", snapshotDirectory);
+        final File snapshot = snapshotDirectory.listFiles()[0];
+        try (OutputStream out = new FileOutputStream(snapshot)) {
+            out.write("not a snapshot".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        final DataDictionary dd = DataDictionarySnapshot.load("FIX44.xml", snapshotDirectory);
+        assertEquivalent(DataDictionaryTest.getDictionary(), dd);
+        assertNotEquals(14, snapshot.length());
+        assertEquivalent(dd, DataDictionarySnapshot.load("FIX44.xml", snapshotDirectory));
+    }
+
+    @Test
+    public void testMissingDictionary() throws Exception {
+        try {
+            DataDictionarySnapshot.load("FIX_NOT_THERE.xml", tempFolder.getRoot());
+            fail("expected ConfigError");
+        } catch (ConfigError e) {
+            assertTrue(e.getMessage().contains("FIX_NOT_THERE.xml"));
+        }
+    }
+
+    private static void writeDictionary(File file, String customField) throws IOException {
+        String data = "";
+        data += "<fix major=\"4\" minor=\"4\">";
+        data += "  <header>";
+        data += "    <field name=\"BeginString\" required=\"Y\"/>";
+        data += "  </header>";
+        data += "  <trailer>";
+        data += "    <field name=\"CheckSum\" required=\"Y\"/>";
+        data += "  </trailer>";
+        data += "  <fields>";
+        data += "    <field number=\"8\" name=\"BeginString\" type=\"STRING\"/>";
+        data += "    <field number=\"10\" name=\"CheckSum\" type=\"STRING\"/>";
+        data += "    <field number=\"112\" name=\"TestReqID\" type=\"STRING\"/>";
+        data += customField;
+        data += "  </fields>";
+        data += "  <messages>";
+        data += "    <message name=\"Heartbeat\" msgtype=\"0\" msgcat=\"admin\">";
+        data += "      <field name=\"TestReqID\" required=\"N\"/>";
+        data += "    </message>";
+        data += "  </messages>";
+        data += "</fix>";
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(data.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void assertEquivalent(DataDictionary expected, DataDictionary actual) {
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getFullVersion(), actual.getFullVersion());
+        assertEquals(expected.getMajorVersion(), actual.getMajorVersion());
+        assertEquals(expected.getMinorVersion(), actual.getMinorVersion());
+        assertEquals(expected.getNumMessageCategories(), actual.getNumMessageCategories());
+        assertArrayEquals(expected.getOrderedFields(), actual.getOrderedFields());
+        for (int field : expected.getOrderedFields()) {
+            assertTrue(actual.isField(field));
+            assertEquals(expected.getFieldName(field), actual.getFieldName(field));
+            assertEquals(field, actual.getFieldTag(expected.getFieldName(field)));
+            assertEquals(expected.getFieldType(field), actual.getFieldType(field));
+            assertEquals(expected.hasFieldValue(field), actual.hasFieldValue(field));
+        }
+        assertEquals("BUY", actual.getValueName(4, "B"));
+        assertEquals("2", actual.getValue(54, "SELL"));
+        assertTrue(actual.isFieldValue(65, "FOO"));
+        assertFalse(actual.isFieldValue(4, "C"));
+        for (String msgType : MSG_TYPES) {
+            assertEquals(expected.isMsgType(msgType), actual.isMsgType(msgType));
+            assertEquals(expected.isAdminMessage(msgType), actual.isAdminMessage(msgType));
+            assertEquals(expected.isAppMessage(msgType), actual.isAppMessage(msgType));
+            for (int field : expected.getOrderedFields()) {
+                assertEquals(expected.isMsgField(msgType, field), actual.isMsgField(msgType, field));
+                assertEquals(expected.isRequiredField(msgType, field), actual.isRequiredField(msgType, field));
+                assertEquals(expected.isGroup(msgType, field), actual.isGroup(msgType, field));
+                if (expected.isGroup(msgType, field)) {
+                    final DataDictionary.GroupInfo expectedGroup = expected.getGroup(msgType, field);
+                    final DataDictionary.GroupInfo actualGroup = actual.getGroup(msgType, field);
+                    assertEquals(expectedGroup.getDelimiterField(), actualGroup.getDelimiterField());
+                    assertArrayEquals(expectedGroup.getDataDictionary().getOrderedFields(),
+                            actualGroup.getDataDictionary().getOrderedFields());
+                }
+            }
+        }
+        assertEquals(expected.getMsgType("News"), actual.getMsgType("News"));
+    }
+}
@@ -24,10 +24,12 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import quickfix.field.Account;
 import quickfix.field.AvgPx;
+import quickfix.field.BeginString;
 import quickfix.field.BodyLength;
 import quickfix.field.CheckSum;
 import quickfix.field.ClOrdID;
 import quickfix.field.EffectiveTime;
+import quickfix.field.ExecInst;
 import quickfix.field.HandlInst;
 import quickfix.field.LastMkt;
 import quickfix.field.MsgSeqNum;
@@ -829,6 +831,112 @@ public class DataDictionaryTest {
         assertTrue(dd.isFieldValue(65, "FOO"));
     }
 
+    @Test
+    public void testMultipleValueStringFieldValues() throws Exception {
+        DataDictionary dd = getDictionary();
+        // same tokens as String.split(" ")
+        for (String value : new String[] { "1", "1 2", "2 1 3", "1 ", "1 2  ", "  ", "", " 1", "1  2", "1 e",
+                "1 f", "f", "11", "1 22" }) {
+            boolean expected = true;
+            for (String token : value.split(" ")) {
+                expected &= token.length() == 1 && "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcde".contains(token);
+            }
+            assertEquals("ExecInst '" + value + "'", expected, dd.isFieldValue(ExecInst.FIELD, value));
+        }
+    }
+
+    @Test
+    public void testHeaderAndTrailerLookupsWithNonConstantIds() throws Exception {
+        DataDictionary dd = getDictionary();
+        String headerId = new String(DataDictionary.HEADER_ID);
+        String trailerId = new String(DataDictionary.TRAILER_ID);
+        assertTrue(dd.isMsgField(headerId, BeginString.FIELD));
+        assertTrue(dd.isRequiredField(headerId, MsgType.FIELD));
+        assertTrue(dd.isGroup(headerId, NoHops.FIELD));
+        assertTrue(dd.isMsgField(trailerId, CheckSum.FIELD));
+        assertFalse(dd.isMsgField(trailerId, BeginString.FIELD));
+        assertTrue(dd.isHeaderGroup(NoHops.FIELD));
+        assertFalse(dd.isHeaderGroup(NoPartyIDs.FIELD));
+        assertTrue(dd.isRequiredHeaderField(MsgType.FIELD));
+        assertTrue(dd.isRequiredTrailerField(CheckSum.FIELD));
+        assertFalse(dd.isRequiredTrailerField(BeginString.FIELD));
+    }
+
+    @Test
+    public void testFieldsWithLargeTagNumbers() throws Exception {
+        String data = "";
+        data += "<fix major=\"4\" minor=\"4\">";
+        data += "  <header>";
+        data += "    <field name=\"BeginString\" required=\"Y\"/>";
+        data += "    <field name=\"MsgType\" required=\"Y\"/>";
+        data += "  </header>";
+        data += "  <trailer>";
+        data += "    <field name=\"CheckSum\" required=\"Y\"/>";
+        data += "  </trailer>";
+        data += "  <fields>";
+        data += "    <field number=\"8\" name=\"BeginString\" type=\"STRING\"/>";
+        data += "    <field number=\"10\" name=\"CheckSum\" type=\"STRING\"/>";
+        data += "    <field number=\"35\" name=\"MsgType\" type=\"STRING\"/>";
+        data += "    <field number=\"112\" name=\"TestReqID\" type=\"STRING\"/>";
+        data += "    <field number=\"20001\" name=\"LargeTagInt\" type=\"INT\"/>";
+        data += "    <field number=\"100001\" name=\"LargeTagEnum\" type=\"CHAR\">";
+        data += "      <value enum=\"A\" description=\"ALPHA\"/>";
+        data += "      <value enum=\"B\" description=\"BETA\"/>";
+        data += "    </field>";
+        data += "  </fields>";
+        data += "  <messages>";
+        data += "    <message name=\"Heartbeat\" msgtype=\"0\" msgcat=\"admin\">";
+        data += "      <field name=\"TestReqID\" required=\"N\"/>";
+        data += "      <field name=\"LargeTagInt\" required=\"N\"/>";
+        data += "      <field name=\"LargeTagEnum\" required=\"Y\"/>";
+        data += "    </message>";
+        data += "  </messages>";
+        data += "</fix>";
+
+        DataDictionary dd = new DataDictionary(new ByteArrayInputStream(data.getBytes()));
+        assertTrue(dd.isField(20001));
+        assertTrue(dd.isField(100001));
+        assertFalse(dd.isField(100002));
+        assertEquals(FieldType.INT, dd.getFieldType(20001));
+        assertEquals(FieldType.CHAR, dd.getFieldType(100001));
+        assertEquals(null, dd.getFieldType(20002));
+        assertFalse(dd.hasFieldValue(20001));
+        assertTrue(dd.hasFieldValue(100001));
+        assertTrue(dd.isFieldValue(100001, "A"));
+        assertFalse(dd.isFieldValue(100001, "C"));
+        assertTrue(dd.isMsgField("0", 20001));
+        assertFalse(dd.isRequiredField("0", 20001));
+        assertTrue(dd.isRequiredField("0", 100001));
+
+        Message message = new Message();
+        message.getHeader().setString(BeginString.FIELD, FixVersions.BEGINSTRING_FIX44);
+        message.getHeader().setString(MsgType.FIELD, MsgType.HEARTBEAT);
+        message.setInt(20001, 1);
+        try {
+            dd.validate(message, true);
+            fail("expected required tag missing");
+        } catch (FieldException e) {
+            assertEquals(SessionRejectReason.REQUIRED_TAG_MISSING, e.getSessionRejectReason());
+            assertEquals(100001, e.getField());
+        }
+        message.setChar(100001, 'C');
+        try {
+            dd.validate(message, true);
+            fail("expected incorrect tag value");
+        } catch (IncorrectTagValue e) {
+            assertEquals(100001, e.getField());
+        }
+        message.setChar(100001, 'B');
+        dd.validate(message, true);
+        message.setString(20001, "X");
+        try {
+            dd.validate(message, true);
+            fail("expected incorrect data format");
+        } catch (IncorrectDataFormat e) {
+            assertEquals(20001, e.getField());
+        }
+    }
+
     @Test
     public void testMessageCategory() throws Exception {
         DataDictionary dd = getDictionary();
@@ -29,8 +29,10 @@ import java.io.IOException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -125,6 +127,36 @@ public class DefaultSessionFactoryTest {
         }
     }
 
+    @Test
+    public void testGeneratedValidator() throws Exception {
+        settings.setBool(sessionID, Session.SETTING_USE_DATA_DICTIONARY, true);
+        settings.setBool(sessionID, Session.SETTING_USE_GENERATED_VALIDATOR, true);
+
+        try (Session session = factory.create(sessionID, settings)) {
+            // the validators of the bundled dictionaries are generated by the build
+            DataDictionary dataDictionary = session.getDataDictionaryProvider()
+                    .getSessionDataDictionary(sessionID.getBeginString());
+            assertThat(dataDictionary.getMessageValidator(), is(instanceOf(quickfix.fix42.MessageValidator.class)));
+        }
+    }
+
+    @Test
+    public void testGeneratedValidatorOfOtherDictionary() throws Exception {
+        sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        setUpDefaultSettings(sessionID);
+        settings.setBool(sessionID, Session.SETTING_USE_DATA_DICTIONARY, true);
+        settings.setString(sessionID, Session.SETTING_DATA_DICTIONARY, "FIX44_Custom_Test.xml");
+        settings.setBool(sessionID, Session.SETTING_USE_GENERATED_VALIDATOR, true);
+
+        try (Session session = factory.create(sessionID, settings)) {
+            // quickfix.fix44.MessageValidator does not match, validation uses the dictionary
+            DataDictionary dataDictionary = session.getDataDictionaryProvider()
+                    .getSessionDataDictionary(sessionID.getBeginString());
+            assertThat(dataDictionary, is(notNullValue()));
+            assertThat(dataDictionary.getMessageValidator(), is(nullValue()));
+        }
+    }
+
     @Test
     public void testNoConnectionType() throws Exception {
         settings.removeSetting(sessionID, SessionFactory.SETTING_CONNECTION_TYPE);
@@ -170,6 +202,20 @@ public class DefaultSessionFactoryTest {
         createSessionAndAssertConfigError("no exception", "HeartBtInt not defined");
     }
 
+    @Test
+    public void testInitiatorWithHeartbeatMillis() throws Exception {
+        settings.removeSetting(sessionID, Session.SETTING_HEARTBTINT);
+        settings.setLong(sessionID, Session.SETTING_HEARTBTINT_MILLIS, 250);
+        settings.setString(sessionID, SessionFactory.SETTING_CONNECTION_TYPE,
+                SessionFactory.INITIATOR_CONNECTION_TYPE);
+        try (Session session = factory.create(sessionID, settings)) {
+            assertEquals(250, session.getHeartBeatMillis());
+        }
+
+        settings.setLong(sessionID, Session.SETTING_HEARTBTINT_MILLIS, 0);
+        createSessionAndAssertConfigError("no exception", "Heartbeat interval must be greater than zero");
+    }
+
     @Test
     public void testIncorrectTimeValues() throws Exception {
         settings.setString(sessionID, Session.SETTING_START_TIME, "00:00:00");
@@ -19,9 +19,11 @@
 
 package quickfix;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoField;
 import java.util.Calendar;
 import java.util.Date;
@@ -35,6 +37,7 @@ import quickfix.field.converter.BooleanConverter;
 import quickfix.field.converter.CharArrayConverter;
 import quickfix.field.converter.CharConverter;
 import quickfix.field.converter.DoubleConverter;
+import quickfix.field.converter.FixedDecimalConverter;
 import quickfix.field.converter.IntConverter;
 import quickfix.field.converter.UtcDateOnlyConverter;
 import quickfix.field.converter.UtcTimeOnlyConverter;
@@ -140,6 +143,66 @@ public class FieldConvertersTest {
         assertEquals("0.0", DoubleConverter.convert(0, 1));
     }
 
+    @Test
+    public void testFixedDecimalConversion() throws Exception {
+        assertEquals("123.45", FixedDecimalConverter.convert(12345, 2));
+        assertEquals("-123.45", FixedDecimalConverter.convert(-12345, 2));
+        assertEquals("0.005", FixedDecimalConverter.convert(5, 3));
+        assertEquals("-0.005", FixedDecimalConverter.convert(-5, 3));
+        assertEquals("0.00", FixedDecimalConverter.convert(0, 2));
+        assertEquals("45", FixedDecimalConverter.convert(45, 0));
+        assertEquals("-9.223372036854775808", FixedDecimalConverter.convert(Long.MIN_VALUE, 18));
+        assertEquals("9223372036854775807", FixedDecimalConverter.convert(Long.MAX_VALUE, 0));
+        StringBuilder buffer = new StringBuilder("44=");
+        FixedDecimalConverter.append(buffer, 1500, 3);
+        assertEquals("44=1.500", buffer.toString());
+        for (long mantissa : new long[] { 0, 5, -5, 12345, -12345, Long.MIN_VALUE, Long.MAX_VALUE }) {
+            for (int scale : new int[] { 0, 1, 3, 18 }) {
+                assertEquals(FixedDecimalConverter.convert(mantissa, scale),
+                        new String(FixedDecimalConverter.toBytes(mantissa, scale), StandardCharsets.US_ASCII));
+            }
+        }
+
+        assertEquals(12345, FixedDecimalConverter.convert("123.45", 2));
+        assertEquals(1234500, FixedDecimalConverter.convert("123.45", 4));
+        assertEquals(12345, FixedDecimalConverter.convert("123.4500", 2));
+        assertEquals(-12345, FixedDecimalConverter.convert("-0123.45", 2));
+        assertEquals(230, FixedDecimalConverter.convert("23.", 1));
+        assertEquals(6, FixedDecimalConverter.convert(".06", 2));
+        assertEquals(0, FixedDecimalConverter.convert("-0", 0));
+        assertEquals(Long.MIN_VALUE, FixedDecimalConverter.convert("-9.223372036854775808", 18));
+        assertEquals(Long.MAX_VALUE, FixedDecimalConverter.convert("9223372036854775807", 0));
+        assertEquals(0, FixedDecimalConverter.getScale("45"));
+        assertEquals(2, FixedDecimalConverter.getScale("45.00"));
+        assertEquals(0, FixedDecimalConverter.getScale("45."));
+        assertEquals(-12345, FixedDecimalConverter.convert(new StringBuilder("-123.45"), 2));
+        assertEquals(2, FixedDecimalConverter.getScale(new StringBuilder("123.45")));
+        assertEquals(0, FixedDecimalConverter.getScale(new StringBuilder("123")));
+
+        for (String value : new String[] { "", "-", ".", "abc", "+200", "1E6", "12.3.4", "1-2" }) {
+            try {
+                FixedDecimalConverter.convert(value, 2);
+                fail(value);
+            } catch (FieldConvertError e) {
+                // expected
+            }
+        }
+        for (String value : new String[] { "1.234", "9223372036854775808", "92233720368547758.08" }) {
+            try {
+                FixedDecimalConverter.convert(value, 2);
+                fail(value);
+            } catch (FieldConvertError e) {
+                // expected
+            }
+        }
+        try {
+            FixedDecimalConverter.convert(1, 19);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testCharConversion() throws Exception {
         assertEquals("a", CharConverter.convert('a'));
@@ -432,6 +495,79 @@ public class FieldConvertersTest {
         
     }
 
+    @Test
+    public void testUtcTimeStampEpochNanosConversion() throws Exception {
+        final LocalDateTime dateTime = LocalDateTime.of(2000, 4, 26, 15, 56, 59, 555666777);
+        final long epochNanos = dateTime.toEpochSecond(ZoneOffset.UTC) * 1000000000L + dateTime.getNano();
+        for (UtcTimestampPrecision precision : UtcTimestampPrecision.values()) {
+            assertEquals(UtcTimestampConverter.convert(dateTime, precision),
+                    UtcTimestampConverter.convert(epochNanos, precision));
+        }
+        assertEquals("19691231-23:59:59.999", UtcTimestampConverter.convert(-1000000L, UtcTimestampPrecision.MILLIS));
+        final StringBuilder buffer = new StringBuilder("52=");
+        UtcTimestampConverter.append(buffer, epochNanos, UtcTimestampPrecision.SECONDS);
+        UtcTimestampConverter.append(buffer.append(' '), epochNanos + 1000000L, UtcTimestampPrecision.MILLIS);
+        assertEquals("52=20000426-15:56:59 20000426-15:56:59.556", buffer.toString());
+
+        assertEquals(epochNanos - 555666777, UtcTimestampConverter.convertToEpochNanos("20000426-15:56:59"));
+        assertEquals(epochNanos - 666777, UtcTimestampConverter.convertToEpochNanos("20000426-15:56:59.555"));
+        assertEquals(epochNanos - 777, UtcTimestampConverter.convertToEpochNanos("20000426-15:56:59.555666"));
+        assertEquals(epochNanos, UtcTimestampConverter.convertToEpochNanos("20000426-15:56:59.555666777"));
+        assertEquals(epochNanos, UtcTimestampConverter.convertToEpochNanos("20000426-15:56:59.555666777888"));
+        assertEquals(epochNanos / 1000000, UtcTimestampConverter.convertToEpochMillis("20000426-15:56:59.555666"));
+        // resolved like java.time
+        assertEquals(UtcTimestampConverter.convertToEpochNanos("20000301-00:00:00"),
+                UtcTimestampConverter.convertToEpochNanos("20000229-24:00:00"));
+        assertEquals(UtcTimestampConverter.convertToEpochNanos("20010228-12:00:00"),
+                UtcTimestampConverter.convertToEpochNanos("20010231-12:00:00"));
+
+        for (String value : new String[] { "20000426-15:56:5", "20000426-15:56:59.5", "20000426X15:56:59",
+                "20001326-15:56:59", "20000432-15:56:59", "20000426-15:60:59", "20000426-24:00:00.001",
+                "2000042a-15:56:59", "22630101-00:00:00" }) {
+            try {
+                UtcTimestampConverter.convertToEpochNanos(value);
+                fail(value);
+            } catch (FieldConvertError e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testUtcTimeOnlyNanosConversion() throws Exception {
+        final LocalTime time = LocalTime.of(15, 56, 59, 555666777);
+        for (UtcTimestampPrecision precision : UtcTimestampPrecision.values()) {
+            assertEquals(UtcTimeOnlyConverter.convert(time, precision),
+                    UtcTimeOnlyConverter.convert(time.toNanoOfDay(), precision));
+        }
+        assertEquals(time.toNanoOfDay(), UtcTimeOnlyConverter.convertToNanoOfDay("15:56:59.555666777"));
+        assertEquals(time.toNanoOfDay() - 666777, UtcTimeOnlyConverter.convertToNanoOfDay("15:56:59.555"));
+        assertEquals(0, UtcTimeOnlyConverter.convertToNanoOfDay("24:00:00"));
+        for (String value : new String[] { "15:56:5", "15:56:59.", "15-56-59", "25:56:59", "15:56:59.55a" }) {
+            try {
+                UtcTimeOnlyConverter.convertToNanoOfDay(value);
+                fail(value);
+            } catch (FieldConvertError e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testUtcDateOnlyEpochDayConversion() throws Exception {
+        final LocalDate date = LocalDate.of(2000, 2, 29);
+        assertEquals("20000229", UtcDateOnlyConverter.convert(date.toEpochDay()));
+        assertEquals("19691231", UtcDateOnlyConverter.convert(-1));
+        assertEquals(date.toEpochDay(), UtcDateOnlyConverter.convertToEpochDay("20000229"));
+        assertEquals(LocalDate.of(1601, 1, 1).toEpochDay(), UtcDateOnlyConverter.convertToEpochDay("16010101"));
+        try {
+            UtcDateOnlyConverter.convertToEpochDay("20001301");
+            fail();
+        } catch (FieldConvertError e) {
+            // expected
+        }
+    }
+
     @Test
     public void testUtcDateOnlyConversion() throws Exception {
         Calendar c = new GregorianCalendar(2000, 3, 26, 0, 0, 0);
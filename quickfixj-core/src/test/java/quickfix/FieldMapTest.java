@@ -6,14 +6,26 @@ import java.time.LocalTime;
 import java.time.ZoneOffset;
 import quickfix.field.EffectiveTime;
 import quickfix.field.MDEntryTime;
+import quickfix.field.SessionRejectReason;
 import quickfix.field.converter.UtcTimeOnlyConverter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.Test;
 
 /**
@@ -91,6 +103,91 @@ public class FieldMapTest {
         testOrdering(new int[] { 3, 2, 1 }, new int[] { 3, 1 }, new int[] { 3, 1, 2 });
     }
 
+    @Test
+    public void testOrderingAfterReplaceAndRemove() {
+        int[] order = new int[] { 35, 9 };
+        Random random = new Random(42);
+        FieldMap map = new Message(order);
+        TreeMap<Integer, String> expected = new TreeMap<>((tag1, tag2) -> {
+            int rank1 = rank(tag1, order);
+            int rank2 = rank(tag2, order);
+            return rank1 != rank2 ? Integer.compare(rank1, rank2) : Integer.compare(tag1, tag2);
+        });
+        for (int i = 0; i < 1000; i++) {
+            int tag = 1 + random.nextInt(60);
+            if (random.nextInt(4) == 0) {
+                map.removeField(tag);
+                expected.remove(tag);
+            } else {
+                map.setString(tag, "v" + i);
+                expected.put(tag, "v" + i);
+            }
+            assertEquals(expected.containsKey(tag), map.isSetField(tag));
+        }
+        Iterator<Field<?>> it = map.iterator();
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            Field<?> field = it.next();
+            assertEquals(entry.getKey().intValue(), field.getTag());
+            assertEquals(entry.getValue(), field.getObject());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    private static int rank(int tag, int[] order) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == tag) {
+                return i;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        FieldMap map = new Message();
+        for (int tag = 1; tag <= 5; tag++) {
+            map.setInt(tag, tag);
+        }
+        Iterator<Field<?>> it = map.iterator();
+        while (it.hasNext()) {
+            if (it.next().getTag() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertFalse(map.isSetField(2));
+        assertFalse(map.isSetField(4));
+        it = map.iterator();
+        for (int tag : new int[] { 1, 3, 5 }) {
+            assertEquals(tag, it.next().getTag());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testConcurrentModificationWhileIterating() {
+        FieldMap map = new Message();
+        map.setInt(1, 1);
+        map.setInt(2, 2);
+        for (Field<?> field : map) {
+            map.setInt(3, 3);
+        }
+    }
+
+    @Test
+    public void testSetFieldsWithDifferentFieldOrder() {
+        FieldMap source = new Message(new int[] { 3, 1 });
+        source.setInt(1, 1);
+        source.setInt(2, 2);
+        source.setInt(3, 3);
+        FieldMap target = new Message();
+        target.setFields(source);
+        Iterator<Field<?>> it = target.iterator();
+        for (int tag : new int[] { 1, 2, 3 }) {
+            assertEquals(tag, it.next().getTag());
+        }
+        assertFalse(it.hasNext());
+    }
+
     @Test
     public void testOptionalString() {
         FieldMap map = new Message();
@@ -111,10 +208,182 @@ public class FieldMapTest {
         assertFalse(map.getOptionalDecimal(6).isPresent());
     }
 
+    @Test
+    public void testFixedDecimal() throws Exception {
+        FieldMap map = new Message();
+        map.setFixedDecimal(44, 156510, 2);
+        assertEquals("1565.10", map.getString(44));
+        assertEquals(15651, map.getFixedDecimal(44, 1));
+        assertEquals(15651000, map.getFixedDecimal(44, 4));
+        assertEquals(0, map.getDecimal(44).compareTo(new BigDecimal("1565.1")));
+
+        map.setString(38, "100.250");
+        FixedDecimalField field = map.getField(new FixedDecimalField(38));
+        assertEquals(100250, field.getValue());
+        assertEquals(3, field.getScale());
+        map.setField(new FixedDecimalField(38, -5, 1));
+        assertEquals("-0.5", map.getString(38));
+        map.setFixedDecimal(38, -5, 1);
+        assertEquals(-5, map.getFixedDecimal(38, 1));
+        assertTrue(map.toString().contains("\00138=-0.5\001"));
+
+        try {
+            map.getFixedDecimal(44, 0);
+            fail("expected FieldException");
+        } catch (FieldException e) {
+            assertEquals(SessionRejectReason.INCORRECT_DATA_FORMAT_FOR_VALUE, e.getSessionRejectReason());
+            assertEquals(44, e.getField());
+        }
+        try {
+            map.getFixedDecimal(6, 2);
+            fail("expected FieldNotFound");
+        } catch (FieldNotFound e) {
+            assertEquals(6, e.field);
+        }
+    }
+
+    @Test
+    public void testEpochTimeFields() throws Exception {
+        FieldMap map = new Message();
+        final LocalDateTime dateTime = LocalDateTime.of(2021, 7, 1, 8, 30, 15, 123456789);
+        final long epochNanos = dateTime.toEpochSecond(ZoneOffset.UTC) * 1000000000L + dateTime.getNano();
+        map.setUtcTimeStampNanos(EffectiveTime.FIELD, epochNanos, UtcTimestampPrecision.MICROS);
+        assertEquals("20210701-08:30:15.123456", map.getString(EffectiveTime.FIELD));
+        assertEquals(epochNanos - 789, map.getUtcTimeStampNanos(EffectiveTime.FIELD));
+        assertEquals(epochMilliOfLocalDate(dateTime), map.getUtcTimeStampMillis(EffectiveTime.FIELD));
+
+        map.setUtcTimeOnlyNanos(MDEntryTime.FIELD, dateTime.toLocalTime().toNanoOfDay(), UtcTimestampPrecision.MILLIS);
+        assertEquals("08:30:15.123", map.getString(MDEntryTime.FIELD));
+        assertEquals(LocalTime.of(8, 30, 15, 123000000).toNanoOfDay(), map.getUtcTimeOnlyNanos(MDEntryTime.FIELD));
+
+        map.setUtcDateOnlyEpochDay(75, dateTime.toLocalDate().toEpochDay());
+        assertEquals("20210701", map.getString(75));
+        assertEquals(dateTime.toLocalDate().toEpochDay(), map.getUtcDateOnlyEpochDay(75));
+
+        map.setString(EffectiveTime.FIELD, "20210701-08:30");
+        try {
+            map.getUtcTimeStampNanos(EffectiveTime.FIELD);
+            fail("expected FieldException");
+        } catch (FieldException e) {
+            assertEquals(SessionRejectReason.INCORRECT_DATA_FORMAT_FOR_VALUE, e.getSessionRejectReason());
+        }
+    }
+
     private long epochMilliOfLocalDate(LocalDateTime localDateTime) {
         return localDateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
     }
 
+    @Test
+    public void testFieldsView() throws Exception {
+        final FieldsViewMap map = new FieldsViewMap(new int[] { 35, 9 });
+        map.setInt(9, 9);
+        map.setInt(1, 1);
+        map.setInt(35, 35);
+        Map<Integer, Field<?>> view = map.fieldsView();
+        assertEquals(3, view.size());
+        assertEquals("9", view.get(9).getObject());
+        assertEquals(null, view.get(2));
+        assertEquals("[35, 9, 1]", view.keySet().toString());
+
+        view.put(2, new StringField(2, "two"));
+        assertEquals("two", map.getString(2));
+        assertEquals("1", view.remove(1).getObject());
+        assertFalse(map.isSetField(1));
+        Iterator<Integer> it = view.keySet().iterator();
+        assertEquals(35, it.next().intValue());
+        it.remove();
+        assertFalse(map.isSetField(35));
+        assertEquals("[9, 2]", view.keySet().toString());
+    }
+
+    @Test
+    public void testFieldsViewKeepsTreeMapType() throws Exception {
+        // compiled subclasses refer to the field by its former type
+        assertEquals(TreeMap.class, FieldMap.class.getDeclaredField("fields").getType());
+
+        final FieldsViewMap map = new FieldsViewMap(new int[] { 35, 9 });
+        map.setInt(9, 9);
+        map.setInt(1, 1);
+        map.setInt(35, 35);
+        map.setInt(3, 3);
+        final TreeMap<Integer, Field<?>> view = map.fieldsView();
+        assertEquals(35, view.firstKey().intValue());
+        assertEquals(3, view.lastKey().intValue());
+        assertEquals(9, view.higherKey(35).intValue());
+        assertEquals(9, view.floorKey(9).intValue());
+        assertEquals(35, view.lowerKey(9).intValue());
+        assertEquals(1, view.ceilingKey(1).intValue());
+        assertNull(view.higherKey(3));
+        assertEquals("[35, 9]", view.headMap(1).keySet().toString());
+        assertEquals("[3, 1, 9, 35]", view.descendingKeySet().toString());
+        assertTrue(view.containsValue(map.getField(new StringField(9))));
+
+        assertEquals(3, view.pollLastEntry().getKey().intValue());
+        assertFalse(map.isSetField(3));
+        view.entrySet().iterator().next().setValue(new StringField(35, "X"));
+        assertEquals("X", map.getString(35));
+        view.merge(1, new StringField(1, "one"), (a, b) -> b);
+        assertEquals("one", map.getString(1));
+        view.computeIfPresent(1, (tag, field) -> null);
+        assertFalse(map.isSetField(1));
+
+        final TreeMap<?, ?> copy = (TreeMap<?, ?>) view.clone();
+        assertEquals(view, copy);
+        view.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(2, copy.size());
+    }
+
+    private static class FieldsViewMap extends Message {
+        FieldsViewMap(int[] fieldOrder) {
+            super(fieldOrder);
+        }
+
+        TreeMap<Integer, Field<?>> fieldsView() {
+            return fields;
+        }
+    }
+
+    @Test
+    public void testSerializedFormIsUnchanged() {
+        // the former TreeMap based form, written and read through serialPersistentFields
+        final ObjectStreamClass descriptor = ObjectStreamClass.lookup(FieldMap.class);
+        assertEquals(-3193357271891865972L, descriptor.getSerialVersionUID());
+        assertEquals(3, descriptor.getFields().length);
+        assertEquals(int[].class, descriptor.getField("fieldOrder").getType());
+        assertEquals(TreeMap.class, descriptor.getField("fields").getType());
+        assertEquals(TreeMap.class, descriptor.getField("groups").getType());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final Message message = new Message(new int[] { 35, 9 });
+        message.setInt(1, 1);
+        message.setInt(9, 9);
+        message.setInt(35, 35);
+        final Group group = new Group(73, 11, new int[] { 11, 37 });
+        group.setString(37, "order");
+        group.setString(11, "clordid");
+        message.addGroup(group);
+
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+            out.writeObject(message);
+        }
+        final Message copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data.toByteArray()))) {
+            copy = (Message) in.readObject();
+        }
+        assertEquals(message.toString(), copy.toString());
+        final Iterator<Field<?>> it = copy.iterator();
+        for (int tag : new int[] { 35, 9, 1, 73 }) {
+            assertEquals(tag, it.next().getTag());
+        }
+        copy.setInt(2, 2);
+        assertTrue(copy.isSetField(2));
+        assertEquals("clordid", copy.getGroup(1, 73).getString(11));
+    }
+
     @Test
     public void testRemoveGroup() {
         FieldMap map = new Message();
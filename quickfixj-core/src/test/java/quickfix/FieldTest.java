@@ -42,7 +42,9 @@ import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class FieldTest {
 
@@ -202,6 +204,37 @@ public class FieldTest {
         DecimalField field = new DecimalField(11, Double.POSITIVE_INFINITY);
     }
 
+    @Test
+    public void testFixedDecimalField() {
+        FixedDecimalField field = new FixedDecimalField(11);
+        assertEquals(0, field.getValue());
+        assertEquals(0, field.getScale());
+        field.setValue(1230, 2);
+        assertEquals(11, field.getTag());
+        assertEquals(1230, field.getValue());
+        assertEquals(2, field.getScale());
+        assertEquals(123, field.getValue(1));
+        assertEquals(123000, field.getValue(4));
+        assertTrue(field.valueEquals(1230, 2));
+        assertFalse(field.valueEquals(123, 1));
+        assertEquals("11=12.30", field.toString());
+        try {
+            field.getValue(0);
+            fail("expected ArithmeticException");
+        } catch (ArithmeticException e) {
+            // expected
+        }
+        field = new FixedDecimalField(22, 1230, 2);
+        assertEquals(new FixedDecimalField(22, 1230, 2), field);
+        assertNotEquals(new FixedDecimalField(22, 1230, 3), field);
+        assertEquals(new FixedDecimalField(22, 1230, 2).hashCode(), field.hashCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFixedDecimalFieldException() {
+        new FixedDecimalField(11, 1, -1);
+    }
+
     @Test
     public void testCharField() {
         CharField field = new CharField(11);
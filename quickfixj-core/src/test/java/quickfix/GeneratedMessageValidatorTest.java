@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the validators generated for the bundled dictionaries match them, and
+ * that the FIX 4.4 validator gives the same results as validating with the data dictionary.
+ */
+public class GeneratedMessageValidatorTest {
+    private static final String DICTIONARY = "FIX44.xml";
+    private static final int MESSAGES = 5000;
+
+    private final MessageValidator validator = new quickfix.fix44.MessageValidator();
+
+    @Test
+    public void testHashesMatchBundledDictionaries() throws Exception {
+        final String[] versions = { "FIXT11", "FIX50SP2", "FIX50SP1", "FIX50", "FIX44", "FIX43", "FIX42",
+                "FIX41", "FIX40" };
+        for (String version : versions) {
+            final MessageValidator messageValidator = (MessageValidator) Class.forName(
+                    "quickfix." + version.toLowerCase() + ".MessageValidator").newInstance();
+            assertEquals(version, new DataDictionary(version + ".xml").getValidationHash(),
+                    messageValidator.getDataDictionaryHash());
+        }
+    }
+
+    @Test
+    public void testHashMatchesDataDictionary() throws Exception {
+        final DataDictionary dataDictionary = loadDictionary();
+        assertEquals(dataDictionary.getValidationHash(), validator.getDataDictionaryHash());
+
+        dataDictionary.setMessageValidator(validator);
+        assertSame(validator, dataDictionary.getMessageValidator());
+    }
+
+    @Test
+    public void testSameResultsAsDataDictionary() throws Exception {
+        final DataDictionary dataDictionary = loadDictionary();
+        final List<String> msgTypes = getMsgTypes(dataDictionary);
+        msgTypes.add("ZZ");
+        final Random random = new Random(42);
+
+        int accepted = 0;
+        for (int i = 0; i < MESSAGES; i++) {
+            final String msgType = msgTypes.get(random.nextInt(msgTypes.size()));
+            final int flags = random.nextInt(8);
+            dataDictionary.setCheckFieldsHaveValues(flags != 1);
+            dataDictionary.setCheckUserDefinedFields(flags != 2);
+            dataDictionary.setAllowUnknownMessageFields(flags == 3);
+            final boolean bodyOnly = random.nextInt(4) == 0;
+            final Message message = createMessage(dataDictionary, msgType, random);
+
+            dataDictionary.setMessageValidator(null);
+            final String expected = validate(dataDictionary, message, bodyOnly);
+            dataDictionary.setMessageValidator(validator);
+            final String actual = validate(dataDictionary, message, bodyOnly);
+
+            assertEquals(message.toString().replace('\001', '|'), expected, actual);
+            if ("accepted".equals(expected)) {
+                accepted++;
+            }
+        }
+        // the corpus has to contain valid and invalid messages to be of any use
+        assertTrue("accepted " + accepted, accepted > MESSAGES / 100);
+        assertTrue("accepted " + accepted, accepted < MESSAGES - MESSAGES / 100);
+    }
+
+    private static DataDictionary loadDictionary() throws Exception {
+        try (InputStream in = getResource(DICTIONARY)) {
+            return new DataDictionary(in);
+        }
+    }
+
+    private static InputStream getResource(String name) {
+        final InputStream in = GeneratedMessageValidatorTest.class.getClassLoader().getResourceAsStream(name);
+        assertNotNull(name, in);
+        return in;
+    }
+
+    private static List<String> getMsgTypes(DataDictionary dataDictionary) {
+        final String chars = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+        final List<String> msgTypes = new ArrayList<>();
+        for (char first : chars.toCharArray()) {
+            if (dataDictionary.isMsgType(String.valueOf(first))) {
+                msgTypes.add(String.valueOf(first));
+            }
+            for (char second : chars.toCharArray()) {
+                final String msgType = "" + first + second;
+                if (dataDictionary.isMsgType(msgType)) {
+                    msgTypes.add(msgType);
+                }
+            }
+        }
+        return msgTypes;
+    }
+
+    private static String validate(DataDictionary dataDictionary, Message message, boolean bodyOnly) {
+        try {
+            dataDictionary.validate(message, bodyOnly);
+            return "accepted";
+        } catch (FieldException e) {
+            return "FieldException " + e.getSessionRejectReason() + " " + e.getField();
+        } catch (IncorrectTagValue e) {
+            return "IncorrectTagValue " + e.getField();
+        } catch (IncorrectDataFormat e) {
+            return "IncorrectDataFormat " + e.getField();
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + " " + e.getMessage();
+        }
+    }
+
+    /**
+     * Creates a message with randomly chosen fields of the message type, and with
+     * missing required fields, wrong values, undefined fields and wrong group counts.
+     */
+    private static Message createMessage(DataDictionary dataDictionary, String msgType, Random random) {
+        final Message message = new Message();
+        message.getHeader().setString(8, "FIX.4.4");
+        message.getHeader().setString(35, msgType);
+        if (random.nextInt(3) > 0) {
+            message.getHeader().setString(49, "SENDER");
+            message.getHeader().setString(56, "TARGET");
+            message.getHeader().setString(34, "1");
+            message.getHeader().setString(52, "20240101-00:00:00");
+        }
+        if (random.nextInt(5) == 0) {
+            message.getHeader().setString(random.nextInt(10) == 0 ? 5555 : 115, "X");
+        }
+        message.getTrailer().setString(10, "000");
+        addFields(dataDictionary, dataDictionary, message, msgType, random.nextInt(3) > 0, 0, random);
+        return message;
+    }
+
+    private static void addFields(DataDictionary messageDictionary, DataDictionary dataDictionary, FieldMap map,
+            String msgType, boolean allRequired, int depth, Random random) {
+        for (int field : dataDictionary.getOrderedFields()) {
+            if (dataDictionary == messageDictionary && !messageDictionary.isMsgField(msgType, field)) {
+                continue;
+            }
+            final boolean required = dataDictionary.isRequiredField(msgType, field);
+            if (!(required && allRequired) && random.nextInt(4) != 0) {
+                continue;
+            }
+            if (dataDictionary.isGroup(msgType, field)) {
+                final DataDictionary.GroupInfo groupInfo = dataDictionary.getGroup(msgType, field);
+                final int count = random.nextInt(3);
+                for (int i = 0; i < count && depth < 4; i++) {
+                    final Group group = new Group(field, groupInfo.getDelimiterField());
+                    group.setString(groupInfo.getDelimiterField(),
+                            createValue(messageDictionary, groupInfo.getDelimiterField(), random));
+                    addFields(messageDictionary, groupInfo.getDataDictionary(), group, msgType, allRequired,
+                            depth + 1, random);
+                    map.addGroup(group);
+                }
+                if (random.nextInt(10) == 0) {
+                    map.setString(field, String.valueOf(count + 1));
+                }
+                continue;
+            }
+            map.setString(field, createValue(messageDictionary, field, random));
+        }
+        if (random.nextInt(15) == 0) {
+            map.setString(random.nextInt(2) == 0 ? 6000 : 58 + random.nextInt(400), "V");
+        }
+        if (random.nextInt(30) == 0) {
+            map.setString(random.nextInt(2) == 0 ? 9999 : 4999, "");
+        }
+    }
+
+    private static String createValue(DataDictionary dataDictionary, int field, Random random) {
+        final int kind = random.nextInt(12);
+        if (kind == 0) {
+            return "";
+        }
+        if (kind == 1) {
+            return "zz";
+        }
+        if (kind == 2) {
+            return "A B";
+        }
+        if (dataDictionary.hasFieldValue(field) && kind < 10) {
+            for (String value : new String[] { "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "A", "B", "C",
+                    "N", "Y", "D", "a", "b", "10", "11", "100" }) {
+                if (dataDictionary.isFieldValue(field, value) && random.nextInt(3) == 0) {
+                    return value;
+                }
+            }
+            return "1";
+        }
+        final FieldType type = dataDictionary.getFieldType(field);
+        if (type == null) {
+            return "x";
+        }
+        switch (type) {
+            case INT:
+            case NUMINGROUP:
+            case SEQNUM:
+            case LENGTH:
+                return String.valueOf(random.nextInt(5));
+            case PRICE:
+            case AMT:
+            case QTY:
+            case FLOAT:
+            case PRICEOFFSET:
+            case PERCENTAGE:
+                return "1.5";
+            case BOOLEAN:
+                return "Y";
+            case UTCTIMESTAMP:
+            case TIME:
+                return "20240101-10:00:00";
+            case UTCDATE:
+                return "20240101";
+            case UTCTIMEONLY:
+                return "10:00:00";
+            case CHAR:
+                return "c";
+            default:
+                return "str";
+        }
+    }
+}
@@ -20,8 +20,11 @@
 package quickfix;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.InvalidObjectException;
 
@@ -103,6 +106,46 @@ public class MessageCrackerTest {
         cracker.crack(logon, new SessionID(FixVersions.BEGINSTRING_FIXT11, "SENDER", "TARGET"));
     }
 
+    @Test
+    public void testInvokerRuntimeExceptionIsNotWrapped() throws Exception {
+        quickfix.fixt11.Logon logon = new quickfix.fixt11.Logon(new EncryptMethod(
+                EncryptMethod.NONE_OTHER), new HeartBtInt(30),
+                new DefaultApplVerID(ApplVerID.FIX42));
+        final IllegalStateException exception = new IllegalStateException("test");
+
+        MessageCracker cracker = new MessageCracker() {
+            @Handler
+            public void handle(quickfix.fixt11.Logon logon, SessionID sessionID) {
+                throw exception;
+            }
+        };
+
+        try {
+            cracker.crack(logon, new SessionID(FixVersions.BEGINSTRING_FIXT11, "SENDER", "TARGET"));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertSame(exception, e);
+        }
+    }
+
+    @Test
+    public void testHandlerWithReturnValue() throws Exception {
+        quickfix.fixt11.Logon logon = new quickfix.fixt11.Logon(new EncryptMethod(
+                EncryptMethod.NONE_OTHER), new HeartBtInt(30),
+                new DefaultApplVerID(ApplVerID.FIX42));
+
+        MessageCracker cracker = new MessageCracker() {
+            @Handler
+            public int handle(quickfix.fixt11.Logon logon, SessionID sessionID) {
+                return ++messageCracked;
+            }
+        };
+
+        cracker.crack(logon, new SessionID(FixVersions.BEGINSTRING_FIXT11, "SENDER", "TARGET"));
+
+        assertEquals(1, messageCracked);
+    }
+
     @Test
     public void testAnnotationBasedCracking() throws Exception {
         quickfix.fixt11.Logon logon = new quickfix.fixt11.Logon(new EncryptMethod(
@@ -173,6 +216,26 @@ public class MessageCrackerTest {
         cracker.crack(logon, new SessionID(FixVersions.BEGINSTRING_FIXT11, "SENDER", "TARGET"));
     }
 
+    @Test
+    public void testHandlerInitializedAfterCrack() throws Exception {
+        quickfix.fixt11.Logon logon = new quickfix.fixt11.Logon(new EncryptMethod(
+                EncryptMethod.NONE_OTHER), new HeartBtInt(30),
+                new DefaultApplVerID(ApplVerID.FIX42));
+        SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIXT11, "SENDER", "TARGET");
+        MessageCracker cracker = new MessageCracker();
+        try {
+            cracker.crack(logon, sessionID);
+            fail("expected UnsupportedMessageType");
+        } catch (UnsupportedMessageType e) {
+            // no handler yet
+        }
+
+        cracker.initialize(new MessageHandler());
+        cracker.crack(logon, sessionID);
+
+        assertEquals(1, messageCracked);
+    }
+
     @Test()
     public void testExternalDelegation() throws Exception {
         quickfix.fixt11.Logon logon = new quickfix.fixt11.Logon(new EncryptMethod(
@@ -261,6 +324,45 @@ public class MessageCrackerTest {
         assertTrue(messageCracked > 0);
     }
 
+    @Test
+    public void testPublicMessageHandler() throws Exception {
+        quickfix.fixt11.Logon logon = new quickfix.fixt11.Logon(new EncryptMethod(
+                EncryptMethod.NONE_OTHER), new HeartBtInt(30),
+                new DefaultApplVerID(ApplVerID.FIX42));
+        PublicMessageHandler handler = new PublicMessageHandler();
+        MessageCracker cracker = new MessageCracker(handler);
+        SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIXT11, "SENDER", "TARGET");
+
+        cracker.crack(logon, sessionID);
+        cracker.crack(createFix44Email(), sessionID);
+
+        assertEquals(1, handler.logons);
+        assertEquals(1, PublicMessageHandler.emails);
+        try {
+            cracker.crack(new quickfix.fix44.News(), sessionID);
+            fail("expected FieldNotFound");
+        } catch (FieldNotFound e) {
+            assertEquals(quickfix.field.Headline.FIELD, e.field);
+        }
+    }
+
+    public static class PublicMessageHandler {
+        private static int emails;
+        private int logons;
+
+        public void onMessage(quickfix.fixt11.Logon logon, SessionID sessionID) {
+            logons++;
+        }
+
+        public static void onMessage(quickfix.fix44.Email email, SessionID sessionID) {
+            emails++;
+        }
+
+        public void onMessage(quickfix.fix44.News news, SessionID sessionID) throws FieldNotFound {
+            news.getHeadline();
+        }
+    }
+
     private class MessageHandler {
         @MessageCracker.Handler
         public void handle(quickfix.fixt11.Logon logon, SessionID sessionID) {
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.junit.Test;
+import quickfix.field.MDEntryPx;
+import quickfix.field.MDEntrySize;
+import quickfix.field.MDEntryType;
+import quickfix.field.MsgSeqNum;
+import quickfix.field.MsgType;
+import quickfix.field.NoMDEntries;
+import quickfix.field.SenderCompID;
+import quickfix.field.SendingTime;
+import quickfix.field.Symbol;
+import quickfix.field.TargetCompID;
+import quickfix.fix44.MarketDataSnapshotFullRefresh;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MessagePoolTest {
+
+    private final MessageFactory messageFactory = new DefaultMessageFactory();
+
+    @Test
+    public void testReleasedMessageIsReused() throws Exception {
+        final DataDictionary dd = DataDictionaryTest.getDictionary();
+        final MessagePool pool = new MessagePool();
+
+        final Message message = acquireSnapshot(pool);
+        assertTrue(message instanceof MarketDataSnapshotFullRefresh);
+        message.fromString(createSnapshot(1, "EUR/USD", 3), dd, true);
+        final List<Group> groups = new ArrayList<>(message.getGroups(NoMDEntries.FIELD));
+
+        assertTrue(pool.release(message));
+        assertTrue(message.isEmpty());
+        assertFalse(message.getHeader().isSetField(MsgSeqNum.FIELD));
+        assertFalse(message.hasGroup(NoMDEntries.FIELD));
+
+        final Message reused = acquireSnapshot(pool);
+        assertSame(message, reused);
+        final String data = createSnapshot(2, "USD/JPY", 2);
+        reused.fromString(data, dd, true);
+        assertEquals(2, reused.getHeader().getInt(MsgSeqNum.FIELD));
+        assertEquals("USD/JPY", reused.getString(Symbol.FIELD));
+        assertEquals(2, reused.getGroupCount(NoMDEntries.FIELD));
+        for (Group group : reused.getGroups(NoMDEntries.FIELD)) {
+            assertTrue(groups.contains(group));
+        }
+        assertEquals(data, reused.toString());
+        assertEquals(new Message(data, dd).toString(), reused.toString());
+    }
+
+    @Test
+    public void testMessagesArePooledPerType() throws Exception {
+        final MessagePool pool = new MessagePool();
+        final Message snapshot = acquireSnapshot(pool);
+        pool.release(snapshot);
+
+        final Message news = pool.acquire(messageFactory, FixVersions.BEGINSTRING_FIX44, null, MsgType.NEWS);
+        assertNotSame(snapshot, news);
+        assertTrue(news instanceof quickfix.fix44.News);
+        assertNotSame(snapshot, pool.acquire(messageFactory, FixVersions.BEGINSTRING_FIX42, null,
+                MsgType.MARKET_DATA_SNAPSHOT_FULL_REFRESH));
+        assertSame(snapshot, acquireSnapshot(pool));
+    }
+
+    @Test
+    public void testReleaseIgnoresUnpooledMessages() throws Exception {
+        final MessagePool pool = new MessagePool();
+        final Message message = new MarketDataSnapshotFullRefresh();
+        assertFalse(pool.release(message));
+        assertNotSame(message, acquireSnapshot(pool));
+
+        final Message pooled = acquireSnapshot(pool);
+        assertTrue(pool.release(pooled));
+        assertFalse(pool.release(pooled));
+        assertSame(pooled, acquireSnapshot(pool));
+        assertNotSame(pooled, acquireSnapshot(pool));
+    }
+
+    @Test
+    public void testPoolCapacity() throws Exception {
+        final MessagePool pool = new MessagePool(1, false);
+        final Message first = acquireSnapshot(pool);
+        final Message second = acquireSnapshot(pool);
+        assertTrue(pool.release(first));
+        assertTrue(pool.release(second));
+        assertSame(first, acquireSnapshot(pool));
+        assertNotSame(second, acquireSnapshot(pool));
+    }
+
+    @Test
+    public void testDetectUseAfterRelease() throws Exception {
+        final DataDictionary dd = DataDictionaryTest.getDictionary();
+        final MessagePool pool = new MessagePool(MessagePool.DEFAULT_CAPACITY, true);
+        assertTrue(pool.isDetectUseAfterRelease());
+
+        final Message message = acquireSnapshot(pool);
+        message.fromString(createSnapshot(1, "EUR/USD", 1), dd, true);
+        assertTrue(pool.release(message));
+
+        try {
+            message.getHeader();
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertNotNull(e.getCause());
+        }
+        try {
+            message.getString(Symbol.FIELD);
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertNotNull(e.getCause());
+        }
+        assertNotSame(message, acquireSnapshot(pool));
+    }
+
+    private Message acquireSnapshot(MessagePool pool) {
+        return pool.acquire(messageFactory, FixVersions.BEGINSTRING_FIX44, null,
+                MsgType.MARKET_DATA_SNAPSHOT_FULL_REFRESH);
+    }
+
+    private static String createSnapshot(int msgSeqNum, String symbol, int entries) {
+        final MarketDataSnapshotFullRefresh snapshot = new MarketDataSnapshotFullRefresh();
+        snapshot.getHeader().setString(SenderCompID.FIELD, "SENDER");
+        snapshot.getHeader().setString(TargetCompID.FIELD, "TARGET");
+        snapshot.getHeader().setInt(MsgSeqNum.FIELD, msgSeqNum);
+        snapshot.getHeader().setUtcTimeStamp(SendingTime.FIELD, LocalDateTime.of(2024, 3, 1, 9, 30, 15));
+        snapshot.set(new Symbol(symbol));
+        for (int i = 0; i < entries; i++) {
+            final MarketDataSnapshotFullRefresh.NoMDEntries entry = new MarketDataSnapshotFullRefresh.NoMDEntries();
+            entry.set(new MDEntryType(MDEntryType.BID));
+            entry.set(new MDEntryPx(100 + i));
+            entry.set(new MDEntrySize(10));
+            snapshot.addGroup(entry);
+        }
+        return snapshot.toString();
+    }
+}
@@ -59,6 +59,8 @@ import quickfix.field.LegSymbol;
 import quickfix.field.ListID;
 import quickfix.field.ListSeqNo;
 import quickfix.field.MDEntryPx;
+import quickfix.field.MDEntrySize;
+import quickfix.field.MDEntryType;
 import quickfix.field.MaturityMonthYear;
 import quickfix.field.MsgDirection;
 import quickfix.field.MsgSeqNum;
@@ -95,6 +97,7 @@ import quickfix.field.StrikePrice;
 import quickfix.field.Symbol;
 import quickfix.field.TargetCompID;
 import quickfix.field.TargetSubID;
+import quickfix.field.TestReqID;
 import quickfix.field.Text;
 import quickfix.field.TotNoOrders;
 import quickfix.field.TradeDate;
@@ -124,6 +127,8 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Calendar;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -1888,6 +1893,316 @@ public class MessageTest {
         assertEquals(test, message.toRawString().replaceAll("\001", "\\|"));
     }
 
+    @Test
+    public void testMessageFromBytes() throws Exception {
+        final DataDictionary dictionary = DataDictionaryTest.getDictionary();
+        final String data = "8=FIX.4.4\0019=57\00135=A\001"
+                + "98=0\001384=2\001372=D\001385=R\001372=8\001385=S\00195=8\00196=ab\001c=\001de\00110=041\001";
+
+        final Message fromString = new Message();
+        fromString.fromString(data, dictionary, false, true);
+        final Message fromBytes = new Message();
+        fromBytes.fromBytes(data.getBytes(CharsetSupport.getCharsetInstance()), dictionary, dictionary, false, true);
+
+        assertEquals(fromString.toString(), fromBytes.toString());
+        assertEquals(data, fromBytes.toRawString());
+        assertEquals("ab\001c=\001de", fromBytes.getString(RawData.FIELD));
+        final NoMsgTypes noMsgTypes = new Logon.NoMsgTypes();
+        fromBytes.getGroup(2, noMsgTypes);
+        assertEquals("8", noMsgTypes.getString(RefMsgType.FIELD));
+        assertEquals("S", noMsgTypes.getString(MsgDirection.FIELD));
+        assertTrue(fromBytes.getHeader().isSetField(new MsgType(MsgType.LOGON)));
+    }
+
+    @Test
+    public void testValueAccessorsWithoutString() throws Exception {
+        final String data = "8=FIX.4.4\0019=44\00135=8\00111=ORDER1\00144=12.50\001150=F\00158=partial fill\00110=000\001";
+        final Message fromString = new Message();
+        fromString.fromString(data, null, false, true);
+        final Message fromBytes = new Message();
+        fromBytes.fromBytes(data.getBytes(CharsetSupport.getCharsetInstance()), null, null, false, true);
+
+        for (Message message : new Message[] { fromString, fromBytes }) {
+            assertTrue(message.valueEquals(ClOrdID.FIELD, "ORDER1"));
+            assertTrue(message.valueEquals(ClOrdID.FIELD, new StringBuilder("ORDER1")));
+            assertFalse(message.valueEquals(ClOrdID.FIELD, "ORDER"));
+            assertFalse(message.valueEquals(OrderID.FIELD, "ORDER1"));
+            assertTrue(message.valueEquals(ExecType.FIELD, ExecType.TRADE));
+            assertFalse(message.valueEquals(ExecType.FIELD, ExecType.NEW));
+            assertFalse(message.valueEquals(ClOrdID.FIELD, 'O'));
+            assertEquals(ExecType.TRADE, message.getChar(ExecType.FIELD));
+            assertTrue(message.getHeader().valueEquals(MsgType.FIELD, MsgType.EXECUTION_REPORT));
+            assertEquals(12500, message.getFixedDecimal(Price.FIELD, 3));
+            final FixedDecimalField price = message.getField(new FixedDecimalField(Price.FIELD));
+            assertEquals(1250, price.getValue());
+            assertEquals(2, price.getScale());
+
+            final CharSequence text = message.getCharSequence(Text.FIELD);
+            assertEquals(12, text.length());
+            assertEquals('p', text.charAt(0));
+            assertEquals("fill", text.subSequence(8, 12).toString());
+            assertEquals("partial fill", text.toString());
+
+            final char[] buffer = new char[16];
+            buffer[0] = '>';
+            assertEquals(6, message.copyString(ClOrdID.FIELD, buffer, 1));
+            assertEquals(">ORDER1", new String(buffer, 0, 7));
+            try {
+                message.copyString(Text.FIELD, buffer, 8);
+                fail("expected IndexOutOfBoundsException");
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+            try {
+                message.getCharSequence(OrderID.FIELD);
+                fail("expected FieldNotFound");
+            } catch (FieldNotFound e) {
+                assertEquals(OrderID.FIELD, e.field);
+            }
+        }
+        assertFalse(fromBytes.getCharSequence(Text.FIELD) instanceof String);
+        assertFalse(fromBytes.getCharSequence(Price.FIELD) instanceof String);
+
+        fromBytes.setString(Text.FIELD, "changed");
+        assertEquals("changed", fromBytes.getCharSequence(Text.FIELD));
+        assertTrue(fromBytes.valueEquals(Text.FIELD, "changed"));
+    }
+
+    @Test
+    public void testMessageFromBytesWithEncodedField() throws Exception {
+        CharsetSupport.setCharset("UTF-8");
+        try {
+            final String text = "\u6D4B\u9A8C\u6570\u636E";
+            final News news = new News();
+            news.set(new Headline(text));
+            final String data = news.toString();
+
+            final Message message = new Message();
+            message.fromBytes(data.getBytes(CharsetSupport.getCharsetInstance()), null, null, false, true);
+            assertEquals(text, message.getString(Headline.FIELD));
+            assertEquals(data, message.toString());
+        } finally {
+            CharsetSupport.setCharset(CharsetSupport.getDefaultCharset());
+        }
+    }
+
+    @Test
+    public void testMessageFromBytesWithInvalidChecksum() throws Exception {
+        final String data = "8=FIX.4.4\0019=12\00135=0\001108=30\00110=000\001";
+        final Message message = new Message();
+        expectedException.expect(InvalidMessage.class);
+        expectedException.expectMessage("Expected CheckSum=");
+        message.fromBytes(data.getBytes(CharsetSupport.getCharsetInstance()), null, null, true, true);
+    }
+
+    @Test
+    public void testLazyParsing() throws Exception {
+        final DataDictionary dictionary = DataDictionaryTest.getDictionary();
+        final String data = "8=FIX.4.4\0019=57\00135=A\001"
+                + "98=0\001384=2\001372=D\001385=R\001372=8\001385=S\00195=8\00196=ab\001c=\001de\00110=041\001";
+
+        final Message eager = new Message();
+        eager.parse(data, dictionary, dictionary, true, true);
+        final Message lazy = new Message();
+        lazy.parse(data, dictionary, dictionary, true, true, true);
+
+        assertTrue(lazy.isBodyDeferred());
+        assertEquals(MsgType.LOGON, lazy.getHeader().getString(MsgType.FIELD));
+        assertTrue(lazy.isBodyDeferred());
+        assertEquals("ab\001c=\001de", lazy.getString(RawData.FIELD));
+        assertFalse(lazy.isBodyDeferred());
+        assertEquals(2, lazy.getGroupCount(quickfix.field.NoMsgTypes.FIELD));
+        assertEquals("041", lazy.getTrailer().getString(CheckSum.FIELD));
+        assertEquals(eager.toString(), lazy.toString());
+    }
+
+    @Test
+    public void testLazyParsingFromBytes() throws Exception {
+        final DataDictionary dictionary = DataDictionaryTest.getDictionary();
+        final String data = "8=FIX.4.4\0019=57\00135=A\001"
+                + "98=0\001384=2\001372=D\001385=R\001372=8\001385=S\00195=8\00196=ab\001c=\001de\00110=041\001";
+
+        final Message lazy = new Message();
+        lazy.parse(data.getBytes(CharsetSupport.getCharsetInstance()), dictionary, dictionary, true, true, true);
+
+        assertTrue(lazy.isBodyDeferred());
+        final NoMsgTypes noMsgTypes = new Logon.NoMsgTypes();
+        lazy.getGroup(2, noMsgTypes);
+        assertEquals("8", noMsgTypes.getString(RefMsgType.FIELD));
+        assertEquals(new Message(data, dictionary, false).toString(), lazy.toString());
+    }
+
+    @Test
+    public void testLazyParsingWithHeaderFieldInBody() throws Exception {
+        final String data = "8=FIX.4.4\0019=16\00135=0\001112=x\00134=5\00110=249\001";
+        final Message lazy = new Message();
+        lazy.parse(data, null, null, false, true, true);
+
+        assertFalse(lazy.isBodyDeferred());
+        assertEquals(5, lazy.getHeader().getInt(MsgSeqNum.FIELD));
+        assertEquals("x", lazy.getString(TestReqID.FIELD));
+    }
+
+    @Test
+    public void testLazyParsingWithInvalidChecksum() throws Exception {
+        final String data = "8=FIX.4.4\0019=12\00135=0\001112=x\00110=000\001";
+        final Message lazy = new Message();
+        expectedException.expect(InvalidMessage.class);
+        expectedException.expectMessage("Expected CheckSum=");
+        lazy.parse(data, null, null, true, true, true);
+    }
+
+    @Test
+    public void testLazyParsingReportsStructureErrorsOnAccess() throws Exception {
+        final String data = "8=FIX.4.4\0019=17\00135=0\001112=x\001112=y\00110=107\001";
+        final Message lazy = new Message();
+        lazy.parse(data, null, null, false, false, true);
+
+        assertTrue(lazy.isBodyDeferred());
+        assertFalse(lazy.hasValidStructure());
+        assertEquals(SessionRejectReason.TAG_APPEARS_MORE_THAN_ONCE, lazy.getException().getSessionRejectReason());
+    }
+
+    @Test
+    public void testLazyParsingWithInvalidGroupCount() throws Exception {
+        final DataDictionary dictionary = DataDictionaryTest.getDictionary();
+        final String data = "8=FIX.4.4\0019=30\00135=A\00198=0\001384=x\001372=D\001385=R\00110=069\001";
+        final Message lazy = new Message();
+        expectedException.expect(InvalidMessage.class);
+        expectedException.expectMessage("Repeating group count requires an Integer");
+        lazy.parse(data, dictionary, dictionary, false, false, true);
+    }
+
+    @Test
+    public void testLazyParsingFromSeveralThreads() throws Exception {
+        final DataDictionary dictionary = DataDictionaryTest.getDictionary();
+        final String data = "8=FIX.4.4\0019=57\00135=A\001"
+                + "98=0\001384=2\001372=D\001385=R\001372=8\001385=S\00195=8\00196=ab\001c=\001de\00110=041\001";
+        for (int i = 0; i < 100; i++) {
+            final Message lazy = new Message();
+            lazy.parse(data, dictionary, dictionary, true, true, true);
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            final Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                    assertEquals(2, lazy.getGroupCount(quickfix.field.NoMsgTypes.FIELD));
+                    assertEquals("041", lazy.getTrailer().getString(CheckSum.FIELD));
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            reader.start();
+            start.countDown();
+            assertEquals("ab\001c=\001de", lazy.getString(RawData.FIELD));
+            reader.join();
+            assertNull(failure.get());
+            assertTrue(lazy.hasValidStructure());
+        }
+    }
+
+    @Test
+    public void testAppendTo() throws Exception {
+        final News news = new News();
+        news.getHeader().setString(SenderCompID.FIELD, "TW");
+        news.getHeader().setString(TargetCompID.FIELD, "ISLD");
+        news.set(new Headline("Test"));
+        final String expected = news.toString();
+
+        final StringBuilder buffer = new StringBuilder("8=FIX.4.4\0019=5\00135=0\00110=000\001");
+        final int start = buffer.length();
+        news.appendTo(buffer);
+        assertEquals(expected, buffer.substring(start));
+        news.appendTo(buffer);
+        assertEquals(expected, buffer.substring(start + expected.length()));
+    }
+
+    @Test
+    public void testBodyLengthAndChecksumOfNewOrderSingle() throws Exception {
+        final quickfix.fix44.NewOrderSingle order = new quickfix.fix44.NewOrderSingle(new ClOrdID("CLIENT"), new Side(Side.BUY),
+                new TransactTime(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123000000)), new OrdType(OrdType.LIMIT));
+        setRoutingHeader(order);
+        order.set(new Symbol("ORCL"));
+        order.set(new OrderQty(100));
+        order.set(new Price(27.5));
+        assertBodyLengthAndChecksum(order);
+    }
+
+    @Test
+    public void testBodyLengthAndChecksumOfExecutionReport() throws Exception {
+        final ExecutionReport report = new ExecutionReport(new OrderID("ORDER"), new ExecID("EXEC"),
+                new ExecType(ExecType.FILL), new OrdStatus(OrdStatus.FILLED), new Side(Side.SELL),
+                new LeavesQty(0), new CumQty(100), new AvgPx(27.5));
+        setRoutingHeader(report);
+        report.set(new Symbol("ORCL"));
+        report.set(new LastQty(100));
+        report.set(new LastPx(27.5));
+        final ExecutionReport.NoPartyIDs party = new ExecutionReport.NoPartyIDs();
+        party.set(new PartyID("TRADER"));
+        party.set(new PartyIDSource(PartyIDSource.PROPRIETARY_CUSTOM_CODE));
+        party.set(new PartyRole(PartyRole.EXECUTING_TRADER));
+        report.addGroup(party);
+        assertBodyLengthAndChecksum(report);
+    }
+
+    @Test
+    public void testBodyLengthAndChecksumOfLargeMarketDataSnapshot() throws Exception {
+        final MarketDataSnapshotFullRefresh snapshot = new MarketDataSnapshotFullRefresh();
+        setRoutingHeader(snapshot);
+        snapshot.set(new Symbol("EUR/USD"));
+        for (int i = 0; i < 1000; i++) {
+            final MarketDataSnapshotFullRefresh.NoMDEntries entry = new MarketDataSnapshotFullRefresh.NoMDEntries();
+            entry.set(new MDEntryType(i % 2 == 0 ? MDEntryType.BID : MDEntryType.OFFER));
+            entry.set(new MDEntryPx(1.38 + i / 100000.0));
+            entry.set(new MDEntrySize(1000000 + i));
+            snapshot.addGroup(entry);
+        }
+        assertTrue(snapshot.toString().length() > 10000);
+        assertBodyLengthAndChecksum(snapshot);
+    }
+
+    @Test
+    public void testBodyLengthAndChecksumOfShortMessage() throws Exception {
+        final Message message = new Message();
+        message.getHeader().setString(BeginString.FIELD, FixVersions.BEGINSTRING_FIX44);
+        message.getHeader().setString(MsgType.FIELD, MsgType.HEARTBEAT);
+        assertBodyLengthAndChecksum(message);
+    }
+
+    private static void setRoutingHeader(Message message) {
+        message.getHeader().setString(SenderCompID.FIELD, "SENDER");
+        message.getHeader().setString(TargetCompID.FIELD, "TARGET");
+        message.getHeader().setInt(MsgSeqNum.FIELD, 42);
+        message.getHeader().setUtcTimeStamp(SendingTime.FIELD, LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123000000));
+    }
+
+    private static void assertBodyLengthAndChecksum(Message message) throws Exception {
+        final String data = message.toString();
+        final int bodyStart = data.indexOf('\001', data.indexOf("\0019=") + 1) + 1;
+        final int checkSumIndex = data.lastIndexOf("\00110=") + 1;
+        assertEquals(String.valueOf(checkSumIndex - bodyStart), data.substring(data.indexOf("\0019=") + 3, bodyStart - 1));
+        assertEquals(checkSumIndex - bodyStart, message.bodyLength());
+        assertTrue(data.endsWith("\00110=" + Message.formatChecksum(MessageUtils.checksum(data)) + '\001'));
+
+        // the field based calculation used for other charsets must give the same result
+        CharsetSupport.setCharset("UTF-8");
+        try {
+            assertEquals(data, message.toString());
+        } finally {
+            CharsetSupport.setCharset(CharsetSupport.getDefaultCharset());
+        }
+    }
+
+    @Test
+    public void testFormatChecksum() {
+        assertEquals("000", Message.formatChecksum(0));
+        assertEquals("007", Message.formatChecksum(7));
+        assertEquals("042", Message.formatChecksum(42));
+        assertEquals("255", Message.formatChecksum(255));
+        assertEquals("000", Message.formatChecksum(256));
+        assertEquals("001", Message.formatChecksum(1025));
+    }
+
     // QFJ-722
     @Test
     public void testIfMessageHeaderIsOverwritten() {
@@ -55,6 +55,26 @@ public class MessageUtilsTest {
         assertNull(messageString, MessageUtils.getStringField(messageString, SenderCompID.FIELD));
     }
 
+    @Test
+    public void testGetStringFieldFromBytes() throws Exception {
+        byte[] messageBytes = "8=FIX.4.2\0019=12\00135=X\001108=30\00110=049\001".getBytes();
+        assertEquals("wrong value", "FIX.4.2", MessageUtils.getStringField(messageBytes, BeginString.FIELD));
+        assertEquals("wrong value", "X", MessageUtils.getStringField(messageBytes, MsgType.FIELD));
+        assertEquals("wrong value", "30", MessageUtils.getStringField(messageBytes, HeartBtInt.FIELD));
+        assertNull(MessageUtils.getStringField(messageBytes, SenderCompID.FIELD));
+        assertNull(MessageUtils.getStringField(messageBytes, 8108));
+    }
+
+    @Test
+    public void testReverseSessionIdFromRawBytes() throws Exception {
+        byte[] messageBytes = "8=FIX.4.0\0019=56\00135=A\00134=1\00149=TW\001142=TWS\00152=20060118-16:34:19\00156=ISLD\00198=0\001108=2\00110=223\001".getBytes();
+        SessionID sessionID = MessageUtils.getReverseSessionID(messageBytes);
+        assertEquals(sessionID.getBeginString(), "FIX.4.0");
+        assertEquals("ISLD", sessionID.getSenderCompID());
+        assertEquals("TW", sessionID.getTargetCompID());
+        assertEquals("TWS", sessionID.getTargetLocationID());
+    }
+
     @Test
     public void testSessionIdFromMessage() throws Exception {
         Message message = new Logon();
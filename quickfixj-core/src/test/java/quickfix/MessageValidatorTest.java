@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import quickfix.field.MsgType;
+import quickfix.field.SessionRejectReason;
+import quickfix.fix44.NewOrderSingle;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class MessageValidatorTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testValidationHash() throws Exception {
+        final DataDictionary dd = new DataDictionary("FIX44.xml");
+        assertEquals(64, dd.getValidationHash().length());
+        assertEquals(dd.getValidationHash(), new DataDictionary("FIX44.xml").getValidationHash());
+        assertEquals(dd.getValidationHash(), new DataDictionary(dd).getValidationHash());
+        DataDictionarySnapshot.load("FIX44.xml", tempFolder.getRoot());
+        assertEquals(dd.getValidationHash(),
+                DataDictionarySnapshot.load("FIX44.xml", tempFolder.getRoot()).getValidationHash());
+
+        assertNotEquals(dd.getValidationHash(), new DataDictionary("FIX42.xml").getValidationHash());
+        assertNotEquals(dictionary("N").getValidationHash(), dictionary("Y").getValidationHash());
+    }
+
+    @Test
+    public void testValidatorOfOtherDictionaryIsRejected() throws Exception {
+        final DataDictionary dd = new DataDictionary("FIX44.xml");
+        try {
+            dd.setMessageValidator(new DelegatingValidator(new DataDictionary("FIX42.xml")));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertNull(dd.getMessageValidator());
+        }
+    }
+
+    @Test
+    public void testValidationUsesValidator() throws Exception {
+        final DataDictionary dd = new DataDictionary("FIX44.xml");
+        final DelegatingValidator validator = new DelegatingValidator(new DataDictionary("FIX44.xml"));
+        dd.setMessageValidator(validator);
+        assertSame(validator, new DataDictionary(dd).getMessageValidator());
+
+        final NewOrderSingle order = createOrder();
+        dd.validate(order);
+        assertEquals("[isMsgType D, checkHasRequired D false, validateBody D]", validator.calls.toString());
+
+        validator.calls.clear();
+        order.getHeader().setString(MsgType.FIELD, "ZZ");
+        try {
+            dd.validate(order, true);
+            fail("expected FieldException");
+        } catch (FieldException e) {
+            assertEquals(SessionRejectReason.INVALID_MSGTYPE, e.getSessionRejectReason());
+        }
+        assertEquals("[isMsgType ZZ]", validator.calls.toString());
+    }
+
+    @Test
+    public void testCheckUndefinedField() throws Exception {
+        final DataDictionary dd = new DataDictionary("FIX44.xml");
+        assertRejected(dd, new StringField(58, "text"), true,
+                SessionRejectReason.TAG_NOT_DEFINED_FOR_THIS_MESSAGE_TYPE);
+        assertRejected(dd, new StringField(58, "text"), false, SessionRejectReason.INVALID_TAG_NUMBER);
+        assertRejected(dd, new StringField(9999, "text"), true, SessionRejectReason.INVALID_TAG_NUMBER);
+        try {
+            dd.checkUndefinedField(new StringField(54, "X"), true);
+            fail("expected IncorrectTagValue");
+        } catch (IncorrectTagValue e) {
+            assertEquals(54, e.getField());
+        }
+
+        dd.setAllowUnknownMessageFields(true);
+        dd.setCheckUserDefinedFields(false);
+        dd.checkUndefinedField(new StringField(58, "text"), true);
+        dd.checkUndefinedField(new StringField(9999, "text"), false);
+    }
+
+    private static void assertRejected(DataDictionary dd, StringField field, boolean message, int reason)
+            throws Exception {
+        try {
+            dd.checkUndefinedField(field, message);
+            fail("expected FieldException");
+        } catch (FieldException e) {
+            assertEquals(reason, e.getSessionRejectReason());
+            assertEquals(field.getField(), e.getField());
+        }
+    }
+
+    private static NewOrderSingle createOrder() {
+        final NewOrderSingle order = new NewOrderSingle(new quickfix.field.ClOrdID("ORDER1"),
+                new quickfix.field.Side(quickfix.field.Side.BUY), new quickfix.field.TransactTime(LocalDateTime.now()),
+                new quickfix.field.OrdType(quickfix.field.OrdType.MARKET));
+        order.set(new quickfix.field.Symbol("EUR/USD"));
+        order.set(new quickfix.field.OrderQty(100));
+        order.getHeader().setString(quickfix.field.SenderCompID.FIELD, "SENDER");
+        order.getHeader().setString(quickfix.field.TargetCompID.FIELD, "TARGET");
+        order.getHeader().setInt(quickfix.field.BodyLength.FIELD, 0);
+        order.getHeader().setInt(quickfix.field.MsgSeqNum.FIELD, 1);
+        order.getHeader().setUtcTimeStamp(quickfix.field.SendingTime.FIELD, LocalDateTime.now());
+        order.getTrailer().setString(quickfix.field.CheckSum.FIELD, "000");
+        return order;
+    }
+
+    private static DataDictionary dictionary(String required) throws Exception {
+        final String data = "<fix major=\"4\" minor=\"4\">"
+                + "<header><field name=\"BeginString\" required=\"Y\"/></header>"
+                + "<trailer><field name=\"CheckSum\" required=\"Y\"/></trailer>"
+                + "<fields>"
+                + "<field number=\"8\" name=\"BeginString\" type=\"STRING\"/>"
+                + "<field number=\"10\" name=\"CheckSum\" type=\"STRING\"/>"
+                + "<field number=\"112\" name=\"TestReqID\" type=\"STRING\"/>"
+                + "</fields>"
+                + "<messages><message name=\"Heartbeat\" msgtype=\"0\" msgcat=\"admin\">"
+                + "<field name=\"TestReqID\" required=\"" + required + "\"/>"
+                + "</message></messages>"
+                + "</fix>";
+        return new DataDictionary(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Validates like the data dictionary it was created with and records its calls.
+     */
+    private static class DelegatingValidator implements MessageValidator {
+        private final DataDictionary dataDictionary;
+        private final List<String> calls = new ArrayList<>();
+
+        DelegatingValidator(DataDictionary dataDictionary) {
+            this.dataDictionary = dataDictionary;
+        }
+
+        @Override
+        public String getDataDictionaryHash() {
+            return dataDictionary.getValidationHash();
+        }
+
+        @Override
+        public boolean isMsgType(String msgType) {
+            calls.add("isMsgType " + msgType);
+            return dataDictionary.isMsgType(msgType);
+        }
+
+        @Override
+        public void checkHasRequired(Message message, String msgType, boolean bodyOnly) {
+            calls.add("checkHasRequired " + msgType + " " + bodyOnly);
+            dataDictionary.checkHasRequired(message.getHeader(), message, message.getTrailer(), msgType,
+                    bodyOnly);
+        }
+
+        @Override
+        public void validateBody(Message message, String msgType, DataDictionary dd)
+                throws IncorrectTagValue, IncorrectDataFormat {
+            calls.add("validateBody " + msgType);
+            try {
+                DataDictionary.validate(message, null, dataDictionary);
+            } catch (FieldNotFound e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -550,4 +550,58 @@ public class RepeatingGroupTest {
         }
     }
 
+    @Test
+    public void testParsingLargeGroupWithNestedGroups() throws Exception {
+        final quickfix.fix44.MarketDataIncrementalRefresh refresh = new quickfix.fix44.MarketDataIncrementalRefresh();
+        final quickfix.fix44.MarketDataIncrementalRefresh.NoMDEntries entry = new quickfix.fix44.MarketDataIncrementalRefresh.NoMDEntries();
+        final quickfix.fix44.MarketDataIncrementalRefresh.NoMDEntries.NoSecurityAltID altId = new quickfix.fix44.MarketDataIncrementalRefresh.NoMDEntries.NoSecurityAltID();
+        for (int i = 0; i < 1000; i++) {
+            entry.clear();
+            entry.set(new quickfix.field.MDUpdateAction(quickfix.field.MDUpdateAction.NEW));
+            entry.set(new quickfix.field.MDEntryType(quickfix.field.MDEntryType.BID));
+            entry.set(new Symbol("SYM" + i));
+            for (int j = 0; j < i % 3; j++) {
+                altId.set(new quickfix.field.SecurityAltID("ALT" + i + "-" + j));
+                entry.addGroup(altId);
+            }
+            entry.set(new quickfix.field.MDEntryPx(i));
+            refresh.addGroup(entry);
+        }
+        refresh.getHeader().setString(quickfix.field.SenderCompID.FIELD, "SENDER");
+        refresh.getHeader().setString(quickfix.field.TargetCompID.FIELD, "TARGET");
+        refresh.getHeader().setInt(quickfix.field.MsgSeqNum.FIELD, 1);
+        refresh.getHeader().setString(quickfix.field.SendingTime.FIELD, "20240101-00:00:00");
+        final String sourceFIXString = refresh.toString();
+
+        final Message validatedMessage = buildValidatedMessage(sourceFIXString, defaultDataDictionary);
+        assertEquals(sourceFIXString, validatedMessage.toString());
+        assertEquals(1000, validatedMessage.getGroupCount(quickfix.field.NoMDEntries.FIELD));
+        final Group parsedEntry = validatedMessage.getGroup(998, quickfix.field.NoMDEntries.FIELD);
+        assertEquals("SYM997", parsedEntry.getString(Symbol.FIELD));
+        assertEquals(1, parsedEntry.getGroupCount(quickfix.field.NoSecurityAltID.FIELD));
+        assertEquals("ALT997-0", parsedEntry.getGroup(1, quickfix.field.NoSecurityAltID.FIELD)
+                .getString(quickfix.field.SecurityAltID.FIELD));
+        defaultDataDictionary.validate(validatedMessage);
+    }
+
+    @Test
+    public void testGroupTemplate() {
+        final DataDictionary.GroupTemplate template = defaultDataDictionary.getGroupTemplate(
+                quickfix.field.MsgType.MARKET_DATA_INCREMENTAL_REFRESH, quickfix.field.NoMDEntries.FIELD);
+        assertEquals(quickfix.field.NoMDEntries.FIELD, template.getCountTag());
+        assertEquals(quickfix.field.MDUpdateAction.FIELD, template.getDelimiterField());
+        assertNull(defaultDataDictionary.getGroupTemplate(
+                quickfix.field.MsgType.MARKET_DATA_INCREMENTAL_REFRESH, Symbol.FIELD));
+
+        final int symbol = template.indexOfMember(Symbol.FIELD);
+        assertNull(template.getNestedGroup(symbol));
+        assertEquals(FieldMap.indexOf(Symbol.FIELD, template.getFieldOrder()), template.getMemberPosition(symbol));
+        Assert.assertTrue(template.indexOfMember(quickfix.field.CheckSum.FIELD) < 0);
+
+        final DataDictionary.GroupTemplate nested = template.getNestedGroup(
+                template.indexOfMember(quickfix.field.NoSecurityAltID.FIELD));
+        assertEquals(quickfix.field.SecurityAltID.FIELD, nested.getDelimiterField());
+        Assert.assertSame(template.getDataDictionary().getGroupTemplate(
+                quickfix.field.MsgType.MARKET_DATA_INCREMENTAL_REFRESH, quickfix.field.NoSecurityAltID.FIELD), nested);
+    }
 }
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ReverseSessionIDCacheTest {
+
+    private static final String LOGON = "8=FIX.4.4\0019=55\00135=A\00134=1\00149=TW\00152=20240301-09:30:15\001"
+            + "56=ISLD\00198=0\001108=30\00110=000\001";
+
+    private static final String LOGON_WITH_SUB_IDS = "8=FIX.4.4\0019=71\00135=A\00134=1\00149=TW\00150=DESK\001"
+            + "52=20240301-09:30:15\00156=ISLD\00157=BOOK\00198=0\001108=30\00110=000\001";
+
+    private final ReverseSessionIDCache cache = new ReverseSessionIDCache();
+
+    @Test
+    public void testUnknownSessionIsNotCached() {
+        final SessionID sessionID = cache.getReverseSessionID(LOGON);
+        assertEquals(MessageUtils.getReverseSessionID(LOGON), sessionID);
+        assertNotSame(sessionID, cache.getReverseSessionID(LOGON));
+        assertEquals(sessionID, cache.getReverseSessionID(bytes(LOGON)));
+    }
+
+    @Test
+    public void testKnownSessionIsCached() throws Exception {
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "ISLD", "TW");
+        try (Session session = SessionFactoryTestSupport.createSession(sessionID, new UnitTestApplication(), false)) {
+            final SessionID cached = cache.getReverseSessionID(LOGON);
+            assertEquals(sessionID, cached);
+            assertSame(cached, cache.getReverseSessionID(LOGON));
+            assertSame(cached, cache.getReverseSessionID(LOGON.replace("34=1", "34=2")));
+            assertSame(cached, cache.getReverseSessionID(bytes(LOGON)));
+
+            // other session ID fields do not match the cached session
+            assertEquals(MessageUtils.getReverseSessionID(LOGON_WITH_SUB_IDS),
+                    cache.getReverseSessionID(LOGON_WITH_SUB_IDS));
+            final String otherSender = LOGON.replace("49=TW", "49=TX");
+            assertEquals(MessageUtils.getReverseSessionID(otherSender), cache.getReverseSessionID(otherSender));
+            final String otherVersion = LOGON.replace("8=FIX.4.4", "8=FIX.4.2");
+            assertEquals(MessageUtils.getReverseSessionID(otherVersion), cache.getReverseSessionID(otherVersion));
+        }
+    }
+
+    @Test
+    public void testSubIDs() throws Exception {
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "ISLD", "BOOK", "TW", "DESK");
+        try (Session session = SessionFactoryTestSupport.createSession(sessionID, new UnitTestApplication(), false)) {
+            final SessionID cached = cache.getReverseSessionID(bytes(LOGON_WITH_SUB_IDS));
+            assertEquals(sessionID, cached);
+            assertSame(cached, cache.getReverseSessionID(bytes(LOGON_WITH_SUB_IDS)));
+            assertEquals(MessageUtils.getReverseSessionID(LOGON), cache.getReverseSessionID(bytes(LOGON)));
+        }
+    }
+
+    @Test
+    public void testSessionIDFieldsOutsideOfStandardHeader() {
+        // header scan stops at the first body field, the result must still be the same
+        final String message = "8=FIX.4.4\0019=40\00135=A\00134=1\00198=0\00149=TW\00156=ISLD\00110=000\001";
+        assertEquals(MessageUtils.getReverseSessionID(message), cache.getReverseSessionID(message));
+        assertEquals(MessageUtils.getReverseSessionID(message), cache.getReverseSessionID(bytes(message)));
+    }
+
+    @Test
+    public void testMalformedMessage() {
+        final String message = "8=FIX.4.4\0019=40\00135=A\00149=TW\00156";
+        assertEquals(MessageUtils.getReverseSessionID(message), cache.getReverseSessionID(message));
+        assertEquals(MessageUtils.getReverseSessionID(bytes(message)), cache.getReverseSessionID(bytes(message)));
+    }
+
+    private static byte[] bytes(String message) {
+        return message.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
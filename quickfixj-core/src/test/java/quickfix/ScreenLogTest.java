@@ -24,6 +24,7 @@ import quickfix.field.converter.UtcTimestampConverter;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 public class ScreenLogTest extends TestCase {
@@ -85,6 +86,23 @@ public class ScreenLogTest extends TestCase {
         assertLoggedMessage(data, systemTime, "event", "TEST");
     }
 
+    public void testIncomingBytes() {
+        SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX42, "SENDER", "TARGET");
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] heartbeat = "35=0\001INCOMING\001".getBytes(StandardCharsets.US_ASCII);
+        byte[] order = "35=D\001INCOMING\001".getBytes(StandardCharsets.US_ASCII);
+
+        ScreenLog log = new ScreenLog(true, true, true, false, false, sessionID, new PrintStream(data));
+        log.onIncoming(heartbeat, StandardCharsets.US_ASCII);
+        assertNoMessageLogged(data);
+        log.onIncoming(order, StandardCharsets.US_ASCII);
+        assertLoggedMessage(data, systemTime, "incoming", "35=D\001INCOMING\001");
+
+        log = new ScreenLog(false, true, true, true, false, sessionID, new PrintStream(data));
+        log.onIncoming(order, StandardCharsets.US_ASCII);
+        assertNoMessageLogged(data);
+    }
+
     private void assertNoMessageLogged(ByteArrayOutputStream data) {
         assertEquals(0, data.size());
     }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import quickfix.field.ClOrdID;
+import quickfix.field.HandlInst;
+import quickfix.field.HeartBtInt;
+import quickfix.field.MsgSeqNum;
+import quickfix.field.OrdType;
+import quickfix.field.OrderQty;
+import quickfix.field.Price;
+import quickfix.field.SenderCompID;
+import quickfix.field.SendingTime;
+import quickfix.field.Side;
+import quickfix.field.Symbol;
+import quickfix.field.TargetCompID;
+import quickfix.field.TransactTime;
+import quickfix.fix44.Logon;
+import quickfix.fix44.NewOrderSingle;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the throughput and latency of {@link Session#send(Message)} with several
+ * threads sending on one session. The store waits for a configurable time on each
+ * message it persists, to show how much of that time the senders can overlap.
+ * <p>
+ * Not run by the build. Usage:
+ * <pre>
+ * SessionSendBenchmark [threads,...] [messages per thread] [store latency in microseconds]
+ * </pre>
+ * The defaults are {@code 1,2,4,8 100000 5}.
+ */
+public class SessionSendBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int[] threadCounts = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1, 2, 4, 8};
+        final int messagesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        final long storeLatencyNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 2 ? Long.parseLong(args[2]) : 5);
+
+        System.out.printf("%d messages per thread, store latency %d us, %d processors%n", messagesPerThread,
+                TimeUnit.NANOSECONDS.toMicros(storeLatencyNanos), Runtime.getRuntime().availableProcessors());
+        // warm up
+        run(2, messagesPerThread / 10 + 1, storeLatencyNanos);
+        for (int threads : threadCounts) {
+            final Result result = run(threads, messagesPerThread, storeLatencyNanos);
+            System.out.printf("%2d threads: %,10.0f msgs/s  p50 %,8d ns  p99 %,8d ns  p99.9 %,8d ns%n", threads,
+                    result.throughput, result.percentile(0.5), result.percentile(0.99), result.percentile(0.999));
+        }
+    }
+
+    private static Result run(int threads, int messagesPerThread, long storeLatencyNanos) throws Exception {
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final Session session = new SessionFactoryTestSupport.Builder()
+                .setSessionId(sessionID)
+                .setApplication(new ApplicationAdapter())
+                .setIsInitiator(false)
+                .setPersistMessages(true)
+                .setMessageStoreFactory(id -> {
+                    try {
+                        return new SlowStore(id, storeLatencyNanos);
+                    } catch (IOException e) {
+                        throw new RuntimeError(e);
+                    }
+                })
+                .setLogFactory(null)
+                .build();
+        try {
+            session.setResponder(new NullResponder());
+            logon(session);
+
+            final long[][] latencies = new long[threads][messagesPerThread];
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Thread> senders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final long[] threadLatencies = latencies[t];
+                final Thread sender = new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < messagesPerThread; i++) {
+                            final Message message = createOrder(i);
+                            final long begin = System.nanoTime();
+                            session.send(message);
+                            threadLatencies[i] = System.nanoTime() - begin;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, "sender-" + t);
+                senders.add(sender);
+                sender.start();
+            }
+
+            final long begin = System.nanoTime();
+            start.countDown();
+            for (Thread sender : senders) {
+                sender.join();
+            }
+            final long elapsed = System.nanoTime() - begin;
+
+            final int expected = threads * messagesPerThread + 2;
+            if (session.getExpectedSenderNum() != expected) {
+                throw new IllegalStateException("expected sender sequence number " + expected + " but was "
+                        + session.getExpectedSenderNum());
+            }
+            return new Result(threads * messagesPerThread * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                    latencies);
+        } finally {
+            session.close();
+        }
+    }
+
+    private static void logon(Session session) throws Exception {
+        final Logon logon = new Logon();
+        logon.getHeader().setString(SenderCompID.FIELD, "TARGET");
+        logon.getHeader().setString(TargetCompID.FIELD, "SENDER");
+        logon.getHeader().setInt(MsgSeqNum.FIELD, 1);
+        logon.getHeader().setUtcTimeStamp(SendingTime.FIELD, LocalDateTime.now());
+        logon.setInt(HeartBtInt.FIELD, 30);
+        session.next(logon);
+        if (!session.isLoggedOn()) {
+            throw new IllegalStateException("session is not logged on");
+        }
+    }
+
+    private static Message createOrder(int i) {
+        final NewOrderSingle order = new NewOrderSingle(new ClOrdID("ORDER-" + i), new Side(Side.BUY),
+                new TransactTime(), new OrdType(OrdType.LIMIT));
+        order.set(new HandlInst(HandlInst.AUTOMATED_EXECUTION_ORDER_PRIVATE_NO_BROKER_INTERVENTION));
+        order.set(new Symbol("LNUX"));
+        order.set(new OrderQty(100));
+        order.set(new Price(12.5));
+        return order;
+    }
+
+    private static final class Result {
+        private final double throughput;
+        private final long[] latencies;
+
+        Result(double throughput, long[][] threadLatencies) {
+            this.throughput = throughput;
+            latencies = Arrays.stream(threadLatencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        }
+
+        long percentile(double percentile) {
+            return latencies[(int) Math.min(latencies.length - 1, latencies.length * percentile)];
+        }
+    }
+
+    /**
+     * A memory store that takes some time to persist a message, like a store that writes
+     * to a disk or a database.
+     */
+    private static final class SlowStore extends MemoryStore {
+        private final long latencyNanos;
+
+        SlowStore(SessionID sessionID, long latencyNanos) throws IOException {
+            super(sessionID);
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        public boolean set(int sequence, String message) throws IOException {
+            final long deadline = System.nanoTime() + latencyNanos;
+            while (deadline - System.nanoTime() > 0) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+            return super.set(sequence, message);
+        }
+    }
+
+    private static final class NullResponder implements Responder {
+        @Override
+        public boolean send(String data) {
+            return true;
+        }
+
+        @Override
+        public boolean send(byte[] data) {
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return null;
+        }
+    }
+}
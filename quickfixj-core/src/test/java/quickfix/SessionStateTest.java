@@ -23,6 +23,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -104,4 +105,36 @@ public class SessionStateTest  {
         timeSource.setSystemTimes(1_022_000L);
         assertTrue("session timed out", state.isTimedOut());
     }
+
+    @Test
+    public void testSubSecondHeartbeatTiming() {
+        SessionState state = new SessionState(new Object(), null, 30, false, null,
+            Session.DEFAULT_TEST_REQUEST_DELAY_MULTIPLIER, Session.DEFAULT_HEARTBEAT_TIMEOUT_MULTIPLIER);
+        state.setHeartBeatMillis(250);
+        // the interval in the Logon is rounded up to whole seconds
+        assertEquals(1, state.getHeartBeatInterval());
+        assertEquals(250, state.getHeartBeatMillis());
+
+        timeSource.setSystemTimes(1_000_000L);
+        state.setLastSentTime(1_000_000L);
+        state.setLastReceivedTime(1_000_000L);
+        timeSource.setSystemTimes(1_000_200L);
+        assertFalse("heartbeat shouldn't be needed yet", state.isHeartBeatNeeded());
+        timeSource.setSystemTimes(1_000_250L);
+        assertTrue("heartbeat should be needed", state.isHeartBeatNeeded());
+
+        // test request after 1.5 * 250 = 375 ms, timeout after 2.4 * 250 = 600 ms
+        timeSource.setSystemTimes(1_000_374L);
+        assertFalse("testRequest shouldn't be needed yet", state.isTestRequestNeeded());
+        timeSource.setSystemTimes(1_000_375L);
+        assertTrue("testRequest should be needed", state.isTestRequestNeeded());
+        timeSource.setSystemTimes(1_000_599L);
+        assertFalse("session is still valid", state.isTimedOut());
+        timeSource.setSystemTimes(1_000_600L);
+        assertTrue("session timed out", state.isTimedOut());
+
+        assertEquals(1_000_000L + 250L - 9L, state.getHeartBeatDeadline());
+        state.incrementTestRequestCounter();
+        assertEquals(1_000_600L, state.getHeartBeatDeadline());
+    }
 }
@@ -3,6 +3,7 @@ package quickfix;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.quickfixj.CharsetSupport;
 import quickfix.field.ApplVerID;
 import quickfix.field.BeginSeqNo;
 import quickfix.field.BeginString;
@@ -50,17 +51,25 @@ import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
@@ -1325,6 +1334,61 @@ public class SessionTest {
         }
     }
 
+    @Test
+    public void testIncomingMessagesAreReleasedToMessagePool() throws Exception {
+        final UnitTestApplication application = new UnitTestApplication();
+        try (Session session = setUpSession(application, false,
+                new UnitTestResponder())) {
+            session.setMessagePool(new MessagePool());
+            final SessionState state = getSessionState(session);
+            logonTo(session);
+
+            final Message first = MessageUtils.parse(session, createAppMessage(2).toString());
+            processMessage(session, first);
+            assertSame(first, application.lastFromAppMessage());
+
+            final Message second = MessageUtils.parse(session, createAppMessage(3).toString());
+            assertSame(first, second);
+            assertEquals(3, second.getHeader().getInt(MsgSeqNum.FIELD));
+            assertEquals("Headline", second.getString(Headline.FIELD));
+            processMessage(session, second);
+
+            // a message queued because of a sequence gap is not released
+            final Message queued = MessageUtils.parse(session, createAppMessage(5).toString());
+            processMessage(session, queued);
+            assertTrue(state.isQueued(queued));
+            final Message gapFill = MessageUtils.parse(session, createAppMessage(4).toString());
+            assertNotSame(queued, gapFill);
+            processMessage(session, gapFill);
+
+            assertEquals(6, state.getNextTargetMsgSeqNum());
+            assertFalse(state.isQueued(queued));
+            assertEquals(4, application.fromAppMessages.size());
+        }
+    }
+
+    @Test
+    public void testMessagePoolDetectsUseAfterRelease() throws Exception {
+        final UnitTestApplication application = new UnitTestApplication();
+        try (Session session = setUpSession(application, false,
+                new UnitTestResponder())) {
+            session.setMessagePool(new MessagePool(MessagePool.DEFAULT_CAPACITY, true));
+            logonTo(session);
+
+            final Message message = MessageUtils.parse(session, createAppMessage(2).toString());
+            processMessage(session, message);
+            assertSame(message, application.lastFromAppMessage());
+
+            try {
+                message.getString(Headline.FIELD);
+                fail("expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                assertNotNull(e.getCause());
+            }
+            assertNotSame(message, MessageUtils.parse(session, createAppMessage(3).toString()));
+        }
+    }
+
     // QFJ-626
     @Test
     public void testResendMessagesWithIncorrectChecksum() throws Exception {
@@ -2168,6 +2232,7 @@ public class SessionTest {
 
 		Responder mockResponder = mock(Responder.class);
 		when(mockResponder.send(anyString())).thenReturn(true);
+		when(mockResponder.send(any(byte[].class))).thenCallRealMethod();
 		session.setResponder(mockResponder);
 
 		session.logon();
@@ -2216,6 +2281,7 @@ public class SessionTest {
 
 		Responder mockResponder = mock(Responder.class);
 		when(mockResponder.send(anyString())).thenReturn(true);
+		when(mockResponder.send(any(byte[].class))).thenCallRealMethod();
 		session.setResponder(mockResponder);
 
 		session.logon();
@@ -2960,6 +3026,7 @@ public class SessionTest {
 
     private class UnitTestResponder implements Responder {
         public String sentMessageData;
+        public final List<List<String>> sentBatches = new ArrayList<>();
         public boolean disconnectCalled;
 
         @Override
@@ -2968,6 +3035,13 @@ public class SessionTest {
             return true;
         }
 
+        @Override
+        public boolean send(List<String> data) {
+            sentBatches.add(new ArrayList<>(data));
+            sentMessageData = data.get(data.size() - 1);
+            return true;
+        }
+
         @Override
         public String getRemoteAddress() {
             return null;
@@ -2979,6 +3053,295 @@ public class SessionTest {
         }
     }
 
+    @Test
+    public void testSendBatch() throws Exception {
+        final UnitTestApplication application = new UnitTestApplication() {
+            @Override
+            public void toApp(Message message, SessionID sessionId) throws DoNotSend {
+                super.toApp(message, sessionId);
+                if (message.getOptionalString(Headline.FIELD).filter("skip"::equals).isPresent()) {
+                    throw new DoNotSend();
+                }
+            }
+        };
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final Session session = SessionFactoryTestSupport.createSession(sessionID, application, false, false, true, true, null);
+        UnitTestResponder responder = new UnitTestResponder();
+        session.setResponder(responder);
+        logonTo(session);
+        assertEquals(2, session.getExpectedSenderNum());
+
+        final List<Message> messages = new ArrayList<>();
+        for (String headline : new String[] { "first", "second", "skip", "third" }) {
+            final News news = new News();
+            news.set(new Headline(headline));
+            messages.add(news);
+        }
+        messages.add(new Heartbeat());
+        final News last = new News();
+        last.set(new Headline("last"));
+        messages.add(last);
+        messages.add(0, createPossDupAppMessage(1));
+
+        assertEquals(6, session.send(messages));
+        assertEquals(6, application.toAppMessages.size());
+        assertEquals(8, session.getExpectedSenderNum());
+
+        // application messages before and after the heartbeat are written at once
+        assertEquals(2, responder.sentBatches.size());
+        assertEquals(4, responder.sentBatches.get(0).size());
+        assertEquals(1, responder.sentBatches.get(1).size());
+        final List<String> stored = new ArrayList<>();
+        session.getStore().get(2, 7, stored);
+        assertEquals(6, stored.size());
+        int msgSeqNum = 2;
+        for (String messageData : responder.sentBatches.get(0)) {
+            final Message sent = new Message(messageData);
+            assertEquals(msgSeqNum++, sent.getHeader().getInt(MsgSeqNum.FIELD));
+            assertFalse(sent.getHeader().isSetField(PossDupFlag.FIELD));
+            assertFalse(sent.getString(Headline.FIELD).equals("skip"));
+        }
+        final Message sentLast = new Message(responder.sentMessageData);
+        assertEquals(7, sentLast.getHeader().getInt(MsgSeqNum.FIELD));
+        assertEquals("last", sentLast.getString(Headline.FIELD));
+    }
+
+    @Test
+    public void testConcurrentSendWritesInSequenceOrder() throws Exception {
+        final UnitTestApplication application = new UnitTestApplication();
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final Session session = SessionFactoryTestSupport.createSession(sessionID, application, false, false, true, true, null);
+        final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        session.setResponder(new UnitTestResponder() {
+            @Override
+            public boolean send(String data) {
+                sent.add(data);
+                return true;
+            }
+        });
+        logonTo(session);
+        final int firstMsgSeqNum = session.getExpectedSenderNum();
+
+        final Thread[] senders = new Thread[4];
+        for (int i = 0; i < senders.length; i++) {
+            senders[i] = new Thread(() -> {
+                for (int j = 0; j < 250; j++) {
+                    final News news = new News();
+                    news.set(new Headline(Thread.currentThread().getName() + " " + j));
+                    session.send(news);
+                }
+            }, "sender " + i);
+            senders[i].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+
+        assertEquals(firstMsgSeqNum + 1000, session.getExpectedSenderNum());
+        int msgSeqNum = firstMsgSeqNum;
+        for (String messageData : sent.subList(sent.size() - 1000, sent.size())) {
+            assertEquals(msgSeqNum++, new Message(messageData).getHeader().getInt(MsgSeqNum.FIELD));
+        }
+        final List<String> stored = new ArrayList<>();
+        session.getStore().get(firstMsgSeqNum, firstMsgSeqNum + 999, stored);
+        assertEquals(1000, stored.size());
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentSendWithDurableWriteBehindStore() throws Exception {
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final Set<Integer> durable = Collections.synchronizedSet(new HashSet<>());
+        final AtomicInteger writes = new AtomicInteger();
+        final MemoryStore syncingStore = new MemoryStore(sessionID) {
+            @Override
+            public boolean set(int sequence, String message) throws IOException {
+                return set(sequence, Collections.singletonList(message));
+            }
+
+            @Override
+            public boolean set(int firstSequence, List<String> messages) throws IOException {
+                writes.incrementAndGet();
+                try {
+                    // as long as a sync of the underlying store
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                for (int i = 0; i < messages.size(); i++) {
+                    super.set(firstSequence + i, messages.get(i));
+                    durable.add(firstSequence + i);
+                }
+                return true;
+            }
+        };
+        final WriteBehindStore store = new WriteBehindStore(syncingStore, true, sessionID.toString());
+        final Session session = new SessionFactoryTestSupport.Builder()
+                .setSessionId(sessionID)
+                .setIsInitiator(false)
+                .setPersistMessages(true)
+                .setMessageStoreFactory(id -> store)
+                .build();
+        final List<Integer> sent = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> notDurable = Collections.synchronizedList(new ArrayList<>());
+        session.setResponder(new UnitTestResponder() {
+            @Override
+            public boolean send(String data) {
+                try {
+                    final int msgSeqNum = new Message(data).getHeader().getInt(MsgSeqNum.FIELD);
+                    if (!durable.contains(msgSeqNum)) {
+                        notDurable.add(msgSeqNum);
+                    }
+                    sent.add(msgSeqNum);
+                } catch (InvalidMessage | FieldNotFound e) {
+                    throw new IllegalStateException(e);
+                }
+                return true;
+            }
+        });
+        logonTo(session);
+        final int firstMsgSeqNum = session.getExpectedSenderNum();
+        sent.clear();
+        writes.set(0);
+
+        final int messages = 200;
+        final Thread[] senders = new Thread[4];
+        for (int i = 0; i < senders.length; i++) {
+            senders[i] = new Thread(() -> {
+                for (int j = 0; j < messages / senders.length; j++) {
+                    assertTrue(session.send(new News(new Headline(Thread.currentThread().getName() + " " + j))));
+                }
+            }, "sender " + i);
+            senders[i].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        store.close();
+
+        // every message is durable before it is written, and written in sequence number order
+        assertEquals(Collections.emptyList(), notDurable);
+        assertEquals(messages, sent.size());
+        for (int i = 0; i < messages; i++) {
+            assertEquals(firstMsgSeqNum + i, (int) sent.get(i));
+        }
+        // the messages of concurrent senders are written to the store together
+        assertTrue("writes " + writes.get(), writes.get() < messages);
+    }
+
+    @Test(timeout = 10000)
+    public void testSendContinuesAfterFailedPersist() throws Exception {
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final int[] failingMsgSeqNum = {0};
+        final Session session = new SessionFactoryTestSupport.Builder()
+                .setSessionId(sessionID)
+                .setIsInitiator(false)
+                .setPersistMessages(true)
+                .setMessageStoreFactory(id -> {
+                    try {
+                        return new MemoryStore(id) {
+                            @Override
+                            public boolean set(int sequence, String message) throws IOException {
+                                if (sequence == failingMsgSeqNum[0]) {
+                                    throw new IOException("store failure");
+                                }
+                                return super.set(sequence, message);
+                            }
+                        };
+                    } catch (IOException e) {
+                        throw new RuntimeError(e);
+                    }
+                })
+                .build();
+        final UnitTestResponder responder = new UnitTestResponder();
+        session.setResponder(responder);
+        logonTo(session);
+        final int msgSeqNum = session.getExpectedSenderNum();
+        failingMsgSeqNum[0] = msgSeqNum;
+
+        assertFalse(session.send(new News(new Headline("lost"))));
+        assertTrue(session.send(new News(new Headline("sent"))));
+
+        // the sequence number of the failed message is used, so it becomes a gap
+        assertEquals(msgSeqNum + 2, session.getExpectedSenderNum());
+        final Message lastSent = new Message(responder.sentMessageData);
+        assertEquals(msgSeqNum + 1, lastSent.getHeader().getInt(MsgSeqNum.FIELD));
+        assertEquals("sent", lastSent.getString(Headline.FIELD));
+    }
+
+    @Test
+    public void testSendPersistsAndWritesTheSameEncodedMessage() throws Exception {
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final List<byte[]> persisted = new ArrayList<>();
+        final Session session = new SessionFactoryTestSupport.Builder()
+                .setSessionId(sessionID)
+                .setIsInitiator(false)
+                .setPersistMessages(true)
+                .setMessageStoreFactory(id -> {
+                    try {
+                        return new MemoryStore(id) {
+                            @Override
+                            public boolean set(int sequence, byte[] message) throws IOException {
+                                persisted.add(message);
+                                return super.set(sequence, message);
+                            }
+                        };
+                    } catch (IOException e) {
+                        throw new RuntimeError(e);
+                    }
+                })
+                .build();
+        final List<byte[]> written = new ArrayList<>();
+        session.setResponder(new UnitTestResponder() {
+            @Override
+            public boolean send(byte[] data) {
+                written.add(data);
+                return super.send(data);
+            }
+        });
+        logonTo(session);
+        persisted.clear();
+        written.clear();
+
+        final News news = new News(new Headline("encoded once"));
+        assertTrue(session.send(news));
+        final String encoded = news.toString();
+        // the message may be reused once send() returns
+        news.set(new Headline("changed"));
+
+        assertEquals(1, written.size());
+        assertSame(written.get(0), persisted.get(0));
+        assertEquals(encoded, new String(written.get(0), CharsetSupport.getCharsetInstance()));
+        final List<String> stored = new ArrayList<>();
+        final int msgSeqNum = session.getExpectedSenderNum() - 1;
+        session.getStore().get(msgSeqNum, msgSeqNum, stored);
+        assertEquals(Collections.singletonList(encoded), stored);
+    }
+
+    @Test
+    public void testSendingTimeIsTakenFromTimeSource() throws Exception {
+        final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).withNano(123000000);
+        SystemTime.setTimeSource(new SystemTimeSource() {
+            @Override
+            public long getTime() {
+                // a coarser clock than the hook used for timestamps
+                return now.withNano(0).toInstant(ZoneOffset.UTC).toEpochMilli();
+            }
+
+            @Override
+            public LocalDateTime getNow() {
+                return now;
+            }
+        });
+        final UnitTestApplication application = new UnitTestApplication();
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final Session session = SessionFactoryTestSupport.createSession(sessionID, application, false, false, true, true, null);
+        session.setResponder(new UnitTestResponder());
+        logonTo(session);
+
+        assertTrue(session.send(new News(new Headline("time"))));
+        assertEquals(now, application.lastToAppMessage().getHeader().getUtcTimeStamp(SendingTime.FIELD));
+    }
+
     @Test
     public void testSendWithAllowPosDupAsFalse_ShouldRemovePossDupFlagAndOrigSendingTime() throws Exception {
         final UnitTestApplication application = new UnitTestApplication();
@@ -3045,4 +3408,72 @@ public class SessionTest {
         assertTrue(sentMessage.getHeader().isSetField(PossDupFlag.FIELD));
         assertTrue(sentMessage.getHeader().isSetField(OrigSendingTime.FIELD));
     }
+
+    @Test
+    public void testNextTimerDeadline() throws Exception {
+        final MockSystemTimeSource systemTimeSource = new MockSystemTimeSource(1000000L);
+        SystemTime.setTimeSource(systemTimeSource);
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final UnitTestApplication application = new UnitTestApplication();
+        try (Session session = createSession(sessionID, application, false)) {
+            final AtomicInteger notifications = new AtomicInteger();
+            session.setTimerDeadlineListener(notifications::incrementAndGet);
+            // acceptor without connection has nothing to do
+            assertEquals(Long.MAX_VALUE, session.getNextTimerDeadline());
+
+            session.setResponder(new UnitTestResponder());
+            assertEquals(1, notifications.get());
+            assertEquals(Long.MAX_VALUE, session.getNextTimerDeadline());
+
+            // done by the acceptor when the Logon is received
+            session.setHeartBeatInterval(30);
+            assertEquals(2, notifications.get());
+            logonTo(session);
+            assertEquals(3, notifications.get());
+            // heartbeat is due 30 s after the Logon response (with 10 ms leeway)
+            assertEquals(1000000L + 30000L - 9L, session.getNextTimerDeadline());
+
+            systemTimeSource.increment(30000L - 9L);
+            session.next();
+            assertEquals(MsgType.HEARTBEAT, application.lastToAdminMessage().getHeader().getString(MsgType.FIELD));
+            // next heartbeat is due 30 s after the last one
+            assertEquals(1000000L + 2 * (30000L - 9L), session.getNextTimerDeadline());
+
+            // test request is due 2.5 heartbeat intervals after the last received message
+            systemTimeSource.increment(75000L - 30000L + 9L);
+            session.next();
+            assertEquals(MsgType.TEST_REQUEST, application.lastToAdminMessage().getHeader().getString(MsgType.FIELD));
+            // timeout is due 3.5 heartbeat intervals after the last received message
+            assertEquals(1000000L + 105000L, session.getNextTimerDeadline());
+
+            session.logout();
+            assertEquals(4, notifications.get());
+            assertEquals(0L, session.getNextTimerDeadline());
+        }
+    }
+
+    @Test
+    public void testSubSecondHeartBeatOnAcceptor() throws Exception {
+        final MockSystemTimeSource systemTimeSource = new MockSystemTimeSource(1000000L);
+        SystemTime.setTimeSource(systemTimeSource);
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        final UnitTestApplication application = new UnitTestApplication();
+        try (Session session = createSession(sessionID, application, false)) {
+            session.setHeartBeatMillis(250);
+            session.setResponder(new UnitTestResponder());
+            // done by the acceptor when the Logon is received, the configured interval wins
+            session.setHeartBeatInterval(30);
+            assertEquals(250, session.getHeartBeatMillis());
+            logonTo(session);
+            assertEquals(1000000L + 250L - 9L, session.getNextTimerDeadline());
+
+            systemTimeSource.increment(250L - 9L);
+            session.next();
+            assertEquals(MsgType.HEARTBEAT, application.lastToAdminMessage().getHeader().getString(MsgType.FIELD));
+
+            // heartbeats turned off by the counterparty
+            session.setHeartBeatInterval(0);
+            assertEquals(0, session.getHeartBeatMillis());
+        }
+    }
 }
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class WriteBehindStoreTest extends AbstractMessageStoreTest {
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        WriteBehindStore store = (WriteBehindStore) getStore();
+        try {
+            store.close();
+            ((FileStore) store.getStore()).closeAndDeleteFiles();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    protected MessageStoreFactory getMessageStoreFactory() throws ConfigError, FieldConvertError {
+        SessionSettings settings = new SessionSettings(getConfigurationFileName());
+        // Initialize the session settings from the defaults
+        settings.setString(getSessionID(), FileStoreFactory.SETTING_FILE_STORE_PATH, settings
+                .getString(FileStoreFactory.SETTING_FILE_STORE_PATH));
+        return new WriteBehindStoreFactory(new FileStoreFactory(settings), settings);
+    }
+
+    protected Class<?> getMessageStoreClass() {
+        return WriteBehindStore.class;
+    }
+
+    protected void closeMessageStore(MessageStore store) throws IOException {
+        ((WriteBehindStore) store).close();
+    }
+
+    public void testWriteBehind() throws Exception {
+        WriteBehindStore store = (WriteBehindStore) getStore();
+        store.set(1, "message1");
+        store.set(2, Arrays.asList("message2", "message3"));
+        store.set(5, "message5");
+        store.setNextSenderMsgSeqNum(6);
+        store.incrNextTargetMsgSeqNum();
+        assertEquals(6, store.getNextSenderMsgSeqNum());
+        assertEquals(2, store.getNextTargetMsgSeqNum());
+
+        store.flush();
+
+        List<String> messages = new ArrayList<>();
+        store.getStore().get(1, 5, messages);
+        assertEquals(Arrays.asList("message1", "message2", "message3", "message5"), messages);
+        assertEquals(6, store.getStore().getNextSenderMsgSeqNum());
+        assertEquals(2, store.getStore().getNextTargetMsgSeqNum());
+    }
+
+    public void testGetReadsPendingMessages() throws Exception {
+        BlockingStore blockingStore = new BlockingStore();
+        WriteBehindStore store = new WriteBehindStore(blockingStore, false, "test");
+        try {
+            store.set(1, "message1");
+            store.set(2, "message2");
+            assertTrue(blockingStore.messages.isEmpty());
+
+            blockingStore.blocked = false;
+            List<String> messages = new ArrayList<>();
+            store.get(1, 2, messages);
+            assertEquals(Arrays.asList("message1", "message2"), messages);
+        } finally {
+            blockingStore.blocked = false;
+            store.close();
+        }
+    }
+
+    public void testWaitForDurability() throws Exception {
+        MemoryStore memoryStore = new MemoryStore();
+        WriteBehindStore store = new WriteBehindStore(memoryStore, true, "test");
+        try {
+            store.set(1, "message1");
+            List<String> messages = new ArrayList<>();
+            memoryStore.get(1, 1, messages);
+            assertEquals(Arrays.asList("message1"), messages);
+        } finally {
+            store.close();
+        }
+    }
+
+    public void testReset() throws Exception {
+        WriteBehindStore store = (WriteBehindStore) getStore();
+        store.set(1, "message1");
+        store.setNextSenderMsgSeqNum(2);
+        store.reset();
+        store.flush();
+
+        List<String> messages = new ArrayList<>();
+        store.get(1, 1, messages);
+        assertTrue(messages.isEmpty());
+        assertEquals(1, store.getNextSenderMsgSeqNum());
+        assertEquals(1, store.getStore().getNextSenderMsgSeqNum());
+    }
+
+    public void testRefreshKeepsConcurrentIncrements() throws Exception {
+        final CountDownLatch refreshing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        MemoryStore memoryStore = new MemoryStore() {
+            @Override
+            public void refresh() throws IOException {
+                refreshing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                super.refresh();
+            }
+        };
+        WriteBehindStore store = new WriteBehindStore(memoryStore, false, "test");
+        try {
+            store.setNextSenderMsgSeqNum(5);
+            Thread refresher = new Thread(() -> {
+                try {
+                    store.refresh();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            refresher.start();
+            assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+
+            Thread incrementer = new Thread(() -> {
+                try {
+                    store.incrNextSenderMsgSeqNum();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            incrementer.start();
+            incrementer.join(100);
+            release.countDown();
+            refresher.join();
+            incrementer.join();
+
+            assertEquals(6, store.getNextSenderMsgSeqNum());
+            store.flush();
+            assertEquals(6, memoryStore.getNextSenderMsgSeqNum());
+        } finally {
+            release.countDown();
+            store.close();
+        }
+    }
+
+    /**
+     * A memory store whose writer blocks while the flag is set.
+     */
+    private static class BlockingStore extends MemoryStore {
+        private final List<String> messages = new ArrayList<>();
+        private volatile boolean blocked = true;
+
+        BlockingStore() throws IOException {
+        }
+
+        @Override
+        public boolean set(int sequence, String message) throws IOException {
+            awaitUnblocked();
+            messages.add(message);
+            return super.set(sequence, message);
+        }
+
+        @Override
+        public boolean set(int firstSequence, List<String> messages) throws IOException {
+            awaitUnblocked();
+            this.messages.addAll(messages);
+            return super.set(firstSequence, messages);
+        }
+
+        private void awaitUnblocked() {
+            while (blocked) {
+                Thread.yield();
+            }
+        }
+    }
+}
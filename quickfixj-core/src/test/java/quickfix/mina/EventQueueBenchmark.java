@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import quickfix.mina.RingBufferEventQueue.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput and the hand-off latency of the event queues of the
+ * single-threaded connectors: several producers, like the IO threads, put events into
+ * the queue and one consumer, like the message processor thread, takes them out. The
+ * ring buffer copies the events into its slots as the connectors do, the linked
+ * blocking queue gets a new event for every message.
+ * <p>
+ * Not run by the build. The spinning wait strategies need a processor for the consumer
+ * besides those of the producers to give meaningful numbers. Usage:
+ * <pre>
+ * EventQueueBenchmark [producers,...] [messages per producer] [queue capacity]
+ * </pre>
+ * The defaults are {@code 1,2,4 1000000 10000}.
+ */
+public class EventQueueBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int[] producerCounts = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1, 2, 4};
+        final int messagesPerProducer = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        final int capacity = args.length > 2 ? Integer.parseInt(args[2]) : SessionConnector.DEFAULT_QUEUE_CAPACITY;
+
+        System.out.printf("%,d messages per producer, queue capacity %,d, %d processors%n", messagesPerProducer,
+                capacity, Runtime.getRuntime().availableProcessors());
+        final List<String> queues = new ArrayList<>();
+        queues.add("LinkedBlockingQueue");
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            queues.add(waitStrategy.name());
+        }
+        for (int producers : producerCounts) {
+            for (String queue : queues) {
+                // warm up
+                run(queue, producers, messagesPerProducer / 10 + 1, capacity);
+                final Result result = run(queue, producers, messagesPerProducer, capacity);
+                System.out.printf("%2d producers %-19s: %,11.0f msgs/s  p50 %,9d ns  p99 %,9d ns  p99.9 %,9d ns%n",
+                        producers, queue, result.throughput, result.percentile(0.5), result.percentile(0.99),
+                        result.percentile(0.999));
+            }
+        }
+    }
+
+    private static Result run(String queueName, int producers, int messagesPerProducer, int capacity)
+            throws Exception {
+        final boolean ringBuffer = !"LinkedBlockingQueue".equals(queueName);
+        final BlockingQueue<Event> queue = ringBuffer
+                ? new RingBufferEventQueue<>(capacity, WaitStrategy.valueOf(queueName), new EventCopier())
+                : new LinkedBlockingQueue<>(capacity);
+        final int total = producers * messagesPerProducer;
+        final long[] latencies = new long[total];
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final Thread producer = new Thread(() -> {
+                final Event reused = new Event();
+                try {
+                    start.await();
+                    for (int i = 0; i < messagesPerProducer; i++) {
+                        final Event event = ringBuffer ? reused : new Event();
+                        event.timestamp = System.nanoTime();
+                        queue.put(event);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "producer-" + p);
+            threads.add(producer);
+            producer.start();
+        }
+
+        final long begin = System.nanoTime();
+        start.countDown();
+        for (int received = 0; received < total; received++) {
+            final Event event = queue.poll(10, TimeUnit.SECONDS);
+            if (event == null) {
+                throw new IllegalStateException("only " + received + " of " + total + " messages received");
+            }
+            latencies[received] = System.nanoTime() - event.timestamp;
+        }
+        final long elapsed = System.nanoTime() - begin;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new Result(total * (double) TimeUnit.SECONDS.toNanos(1) / elapsed, latencies);
+    }
+
+    private static final class Result {
+        private final double throughput;
+        private final long[] latencies;
+
+        Result(double throughput, long[] latencies) {
+            this.throughput = throughput;
+            this.latencies = latencies;
+            Arrays.sort(latencies);
+        }
+
+        long percentile(double percentile) {
+            return latencies[(int) Math.min(latencies.length - 1, latencies.length * percentile)];
+        }
+    }
+
+    private static final class Event {
+        private long timestamp;
+    }
+
+    private static final class EventCopier implements RingBufferEventQueue.SlotCopier<Event> {
+        @Override
+        public Event newSlot() {
+            return new Event();
+        }
+
+        @Override
+        public void copy(Event from, Event to) {
+            to.timestamp = from.timestamp;
+        }
+
+        @Override
+        public void clear(Event slot) {
+            slot.timestamp = 0;
+        }
+    }
+}
@@ -20,6 +20,10 @@
 package quickfix.mina;
 
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.future.WriteFuture;
 import org.apache.mina.core.session.IoSession;
 
@@ -27,9 +31,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Test;
+import org.mockito.InOrder;
+import quickfix.Message;
+import quickfix.fix44.Heartbeat;
 
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -136,4 +146,113 @@ public class IoSessionResponderTest {
         verify(mockProtocolSession).getRemoteAddress();
         verifyNoMoreInteractions(mockProtocolSession);
     }
+
+    @Test
+    public void testCoalescedSend() throws Exception {
+        IoSession mockIoSession = mock(IoSession.class);
+        IoSessionResponder responder = new IoSessionResponder(mockIoSession, false, 0, 0, 8,
+                TimeUnit.MINUTES.toMicros(1));
+
+        assertTrue(responder.send("abc"));
+        assertTrue(responder.send("def"));
+        verifyNoMoreInteractions(mockIoSession);
+
+        assertTrue(responder.send("ghi"));
+        verify(mockIoSession).write(buffer("abcdefghi"));
+
+        assertTrue(responder.send(Arrays.asList("jk", "lm")));
+        verifyNoMoreInteractions(mockIoSession);
+        responder.flush();
+        verify(mockIoSession).write(buffer("jklm"));
+        responder.flush();
+        verifyNoMoreInteractions(mockIoSession);
+
+        assertEquals(5, responder.getMessagesWritten());
+        assertEquals(2, responder.getWriteRequests());
+        assertEquals(2, responder.getCoalescedWrites());
+    }
+
+    @Test
+    public void testSendEncodedMessage() throws Exception {
+        IoSession mockIoSession = mock(IoSession.class);
+        Message message = new Heartbeat();
+        IoSessionResponder responder = new IoSessionResponder(mockIoSession, false, 0, 0);
+
+        assertTrue(responder.send(message.toBytes()));
+
+        verify(mockIoSession).write(buffer(message.toString()));
+        verifyNoMoreInteractions(mockIoSession);
+    }
+
+    @Test
+    public void testCoalescedSendMessage() throws Exception {
+        IoSession mockIoSession = mock(IoSession.class);
+        Message message = new Heartbeat();
+        IoSessionResponder responder = new IoSessionResponder(mockIoSession, false, 0, 0, 1024,
+                TimeUnit.MINUTES.toMicros(1));
+
+        assertTrue(responder.send("abc"));
+        assertTrue(responder.send(message.toBytes()));
+        responder.flush();
+
+        verify(mockIoSession).write(buffer("abc" + message));
+        verifyNoMoreInteractions(mockIoSession);
+    }
+
+    @Test
+    public void testCoalescedSendIsWrittenAfterDelay() throws Exception {
+        IoSession mockIoSession = mock(IoSession.class);
+        IoSessionResponder responder = new IoSessionResponder(mockIoSession, false, 0, 0, 1024, 500);
+
+        responder.send("abc");
+        responder.send("def");
+
+        verify(mockIoSession, timeout(5000)).write(buffer("abcdef"));
+        verifyNoMoreInteractions(mockIoSession);
+    }
+
+    @Test
+    public void testDisconnectWritesCoalescedMessages() throws Exception {
+        IoSession mockIoSession = mock(IoSession.class);
+        IoSessionResponder responder = new IoSessionResponder(mockIoSession, false, 0, 0, 1024,
+                TimeUnit.MINUTES.toMicros(1));
+
+        responder.send("abc");
+        responder.disconnect();
+
+        InOrder inOrder = inOrder(mockIoSession);
+        inOrder.verify(mockIoSession).write(buffer("abc"));
+        inOrder.verify(mockIoSession).closeOnFlush();
+    }
+
+    @Test
+    public void testSynchronousSendIsNotCoalesced() throws Exception {
+        int timeout = 123;
+        IoSession mockIoSession = mock(IoSession.class);
+        WriteFuture mockWriteFuture = mock(WriteFuture.class);
+        when(mockIoSession.write("abcd")).thenReturn(mockWriteFuture);
+        when(mockWriteFuture.awaitUninterruptibly(timeout)).thenReturn(true);
+        IoSessionResponder responder = new IoSessionResponder(mockIoSession, true, timeout, 0, 1024, 500);
+
+        assertTrue(responder.send("abcd"));
+
+        verify(mockIoSession).write("abcd");
+        verify(mockWriteFuture).awaitUninterruptibly(timeout);
+        assertEquals(0, responder.getCoalescedWrites());
+    }
+
+    /**
+     * Matches a buffer with the given content.
+     */
+    private static Object buffer(String expected) {
+        return argThat(data -> {
+            if (!(data instanceof IoBuffer)) {
+                return false;
+            }
+            final IoBuffer buffer = ((IoBuffer) data).duplicate();
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return expected.equals(new String(bytes, StandardCharsets.ISO_8859_1));
+        });
+    }
 }
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import org.junit.Test;
+import quickfix.mina.RingBufferEventQueue.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferEventQueueTest {
+
+    @Test
+    public void testOfferAndPollWrapAround() {
+        final RingBufferEventQueue<Integer> queue = new RingBufferEventQueue<>(3, WaitStrategy.BLOCKING);
+        assertEquals(4, queue.capacity());
+        for (int revolution = 0; revolution < 3; revolution++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse("full", queue.offer(4));
+            assertEquals(4, queue.size());
+            assertEquals(0, queue.remainingCapacity());
+            assertEquals(Integer.valueOf(0), queue.peek());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(Integer.valueOf(i), queue.poll());
+            }
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testDrainTo() {
+        final RingBufferEventQueue<Integer> queue = new RingBufferEventQueue<>(8, WaitStrategy.BLOCKING);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        final List<Integer> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained, 2));
+        assertEquals(3, queue.drainTo(drained));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), drained);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testSlotsAreReused() {
+        final RingBufferEventQueue<Holder> queue = new RingBufferEventQueue<>(4, WaitStrategy.BLOCKING,
+                new HolderCopier());
+        final Holder element = new Holder();
+        Holder taken = null;
+        for (int i = 0; i < 10; i++) {
+            element.value = "value" + i;
+            assertTrue(queue.offer(element));
+            // the queue holds a copy, the element can be reused right away
+            element.value = null;
+            final Holder polled = queue.poll();
+            assertNotSame(element, polled);
+            assertEquals("value" + i, polled.value);
+            if (taken != null) {
+                assertSame(taken, polled);
+            }
+            taken = polled;
+        }
+
+        element.value = "drained";
+        queue.offer(element);
+        final List<Holder> drained = new ArrayList<>();
+        assertEquals(1, queue.drainTo(drained));
+        assertNotSame(taken, drained.get(0));
+        assertEquals("drained", drained.get(0).value);
+    }
+
+    @Test(timeout = 10000)
+    public void testSizeIgnoresUnpublishedElements() throws Exception {
+        final CountDownLatch copying = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RingBufferEventQueue<Holder> queue = new RingBufferEventQueue<>(4, WaitStrategy.BLOCKING,
+                new HolderCopier() {
+                    @Override
+                    public void copy(Holder from, Holder to) {
+                        if ("slow".equals(from.value)) {
+                            copying.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        super.copy(from, to);
+                    }
+                });
+        final Thread producer = new Thread(() -> queue.offer(new Holder("slow")));
+        producer.start();
+        copying.await();
+
+        // the first slot is claimed but not published, so nothing can be taken yet
+        assertTrue(queue.offer(new Holder("fast")));
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        assertEquals(2, queue.remainingCapacity());
+        assertNull(queue.poll());
+
+        release.countDown();
+        producer.join();
+        assertFalse(queue.isEmpty());
+        assertEquals(2, queue.size());
+        assertEquals("slow", queue.poll().value);
+        assertEquals("fast", queue.poll().value);
+    }
+
+    @Test
+    public void testPollTimesOut() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            final RingBufferEventQueue<Integer> queue = new RingBufferEventQueue<>(4, waitStrategy);
+            final long start = System.nanoTime();
+            assertNull(waitStrategy.name(), queue.poll(20, TimeUnit.MILLISECONDS));
+            assertTrue(waitStrategy.name(), System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        }
+    }
+
+    @Test
+    public void testBlockingConsumerIsSignalled() throws Exception {
+        final RingBufferEventQueue<Integer> queue = new RingBufferEventQueue<>(4, WaitStrategy.BLOCKING);
+        final AtomicReference<Integer> received = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread consumer = new Thread(() -> {
+            try {
+                received.set(queue.poll(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        consumer.start();
+        Thread.sleep(50);
+        queue.put(42);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(42), received.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testProducersKeepTheirOrder() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            final int producers = 4;
+            final int messagesPerProducer = 20000;
+            // smaller than the number of messages so that producers wait for free slots
+            final RingBufferEventQueue<int[]> queue = new RingBufferEventQueue<>(64, waitStrategy);
+            final List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int producer = p;
+                final Thread thread = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < messagesPerProducer; i++) {
+                            queue.put(new int[] {producer, i});
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+
+            final int[] next = new int[producers];
+            for (int received = 0; received < producers * messagesPerProducer; received++) {
+                final int[] message = queue.poll(10, TimeUnit.SECONDS);
+                assertEquals(waitStrategy.name(), next[message[0]]++, message[1]);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    private static class Holder {
+        private String value;
+
+        Holder() {
+        }
+
+        Holder(String value) {
+            this.value = value;
+        }
+    }
+
+    private static class HolderCopier implements RingBufferEventQueue.SlotCopier<Holder> {
+        @Override
+        public Holder newSlot() {
+            return new Holder();
+        }
+
+        @Override
+        public void copy(Holder from, Holder to) {
+            to.value = from.value;
+        }
+
+        @Override
+        public void clear(Holder slot) {
+            slot.value = null;
+        }
+    }
+}
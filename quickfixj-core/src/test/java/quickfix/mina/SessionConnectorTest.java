@@ -56,6 +56,7 @@ import java.util.concurrent.CountDownLatch;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -211,6 +212,97 @@ public class SessionConnectorTest {
         }
     }
 
+    @Test
+    public void testTimingWheelSessionTimer() throws Exception {
+        SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX40, "TW", "ISLD");
+        SessionID sessionID2 = new SessionID(FixVersions.BEGINSTRING_FIX40, "me", "you");
+        SessionSettings settings = setUpSessionSettings(sessionID);
+        settings.setString(sessionID2, SessionFactory.SETTING_CONNECTION_TYPE,
+                SessionFactory.ACCEPTOR_CONNECTION_TYPE);
+        settings.setString(SessionConnector.SETTING_SESSION_TIMER, SessionConnector.SESSION_TIMER_TIMING_WHEEL);
+        DefaultSessionFactory sessionFactory = new DefaultSessionFactory(new UnitTestApplication(),
+                new MemoryStoreFactory(), new SLF4JLogFactory(new SessionSettings()));
+
+        SessionConnector connector = new SessionConnectorUnderTest(settings, sessionFactory);
+        try (Session session = connector.createSession(sessionID);
+             Session session2 = connector.createSession(sessionID2)) {
+            connector.setSessions(Collections.singletonMap(sessionID, session));
+            connector.startSessionTimer();
+            assertTrue(connector.checkSessionTimerRunning());
+            SessionTimingWheel wheel = connector.getTimingWheel();
+            assertNotNull(wheel);
+            assertEquals(1, wheel.size());
+
+            connector.addDynamicSession(session2);
+            assertEquals(2, wheel.size());
+            connector.removeDynamicSession(sessionID2);
+            assertEquals(1, wheel.size());
+
+            connector.stopSessionTimer();
+            assertNull(connector.getTimingWheel());
+            assertEquals(0, wheel.size());
+        } finally {
+            connector.stop(true);
+        }
+    }
+
+    @Test
+    public void testSubSecondHeartBeatUsesTimingWheel() throws Exception {
+        SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX40, "TW", "ISLD");
+        SessionSettings settings = setUpSessionSettings(sessionID);
+        settings.setLong(sessionID, Session.SETTING_HEARTBTINT_MILLIS, 250);
+        DefaultSessionFactory sessionFactory = new DefaultSessionFactory(new UnitTestApplication(),
+                new MemoryStoreFactory(), new SLF4JLogFactory(new SessionSettings()));
+
+        SessionConnector connector = new SessionConnectorUnderTest(settings, sessionFactory);
+        try (Session session = connector.createSession(sessionID)) {
+            connector.setSessions(Collections.singletonMap(sessionID, session));
+            connector.startSessionTimer();
+            SessionTimingWheel wheel = connector.getTimingWheel();
+            assertNotNull(wheel);
+            assertEquals(25, wheel.getTickMillis());
+        } finally {
+            connector.stop(true);
+        }
+    }
+
+    @Test
+    public void testDynamicSessionShortensTimerTick() throws Exception {
+        SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX40, "TW", "ISLD");
+        SessionID sessionID2 = new SessionID(FixVersions.BEGINSTRING_FIX40, "TW", "ISLD2");
+        SessionID sessionID3 = new SessionID(FixVersions.BEGINSTRING_FIX40, "TW", "ISLD3");
+        SessionSettings settings = setUpSessionSettings(sessionID);
+        settings.setString(sessionID2, SessionFactory.SETTING_CONNECTION_TYPE, SessionFactory.ACCEPTOR_CONNECTION_TYPE);
+        settings.setLong(sessionID2, Session.SETTING_HEARTBTINT_MILLIS, 250);
+        settings.setString(sessionID3, SessionFactory.SETTING_CONNECTION_TYPE, SessionFactory.ACCEPTOR_CONNECTION_TYPE);
+        settings.setLong(sessionID3, Session.SETTING_HEARTBTINT_MILLIS, 100);
+        DefaultSessionFactory sessionFactory = new DefaultSessionFactory(new UnitTestApplication(),
+                new MemoryStoreFactory(), new SLF4JLogFactory(new SessionSettings()));
+
+        SessionConnector connector = new SessionConnectorUnderTest(settings, sessionFactory);
+        try (Session session = connector.createSession(sessionID);
+             Session session2 = connector.createSession(sessionID2);
+             Session session3 = connector.createSession(sessionID3)) {
+            connector.setSessions(new HashMap<>(Collections.singletonMap(sessionID, session)));
+            connector.startSessionTimer();
+            assertNull(connector.getTimingWheel());
+
+            connector.addDynamicSession(session2);
+            SessionTimingWheel wheel = connector.getTimingWheel();
+            assertNotNull(wheel);
+            assertEquals(25, wheel.getTickMillis());
+            assertTrue(connector.checkSessionTimerRunning());
+
+            connector.addDynamicSession(session3);
+            assertEquals(10, connector.getTimingWheel().getTickMillis());
+            assertEquals(0, wheel.size());
+            assertEquals(3, connector.getTimingWheel().size());
+            assertTrue(connector.checkSessionTimerRunning());
+        } finally {
+            connector.stop(true);
+        }
+    }
+
     /**
      * Test dynamic initiator sessions
      */
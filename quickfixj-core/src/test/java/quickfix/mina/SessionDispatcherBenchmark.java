@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import quickfix.ApplicationAdapter;
+import quickfix.FixVersions;
+import quickfix.Message;
+import quickfix.Responder;
+import quickfix.Session;
+import quickfix.SessionFactoryTestSupport;
+import quickfix.SessionID;
+import quickfix.field.HeartBtInt;
+import quickfix.field.MsgSeqNum;
+import quickfix.field.SenderCompID;
+import quickfix.field.SendingTime;
+import quickfix.field.TargetCompID;
+import quickfix.fix44.Heartbeat;
+import quickfix.fix44.Logon;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the per-session dispatchers on platform threads with those on virtual
+ * threads for many sessions: heap, resident memory and threads used by idle sessions,
+ * the time to process a few messages on every session, and the context switches of
+ * the process while doing so.
+ * <p>
+ * Not run by the build. Virtual threads need Java 21, and context switches are read
+ * from <code>/proc</code>, so only on Linux. Usage:
+ * <pre>
+ * SessionDispatcherBenchmark [platform|virtual] [sessions,...] [messages per session]
+ * </pre>
+ * The defaults are {@code virtual 1000,10000 10}. Run each mode in its own JVM, e.g.
+ * with <code>-Xmx4g</code>, so that the heap numbers are not mixed up.
+ */
+public class SessionDispatcherBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final boolean virtual = args.length == 0 || "virtual".equalsIgnoreCase(args[0]);
+        final String[] sessionCounts = (args.length > 1 ? args[1] : "1000,10000").split(",");
+        final int messagesPerSession = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        if (virtual && !VirtualThreadPerSessionEventHandlingStrategy.isVirtualThreadSupported()) {
+            System.out.println("Virtual threads are not available on Java " + System.getProperty("java.version")
+                    + ", the dispatchers run on platform threads");
+        }
+        System.out.printf("%s dispatchers, %d messages per session, Java %s, %d processors%n",
+                virtual ? "virtual" : "platform", messagesPerSession, System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors());
+        for (String sessionCount : sessionCounts) {
+            run(virtual, Integer.parseInt(sessionCount.trim()), messagesPerSession);
+        }
+    }
+
+    private static void run(boolean virtual, int sessionCount, int messagesPerSession) throws Exception {
+        final CountDownLatch processed = new CountDownLatch(sessionCount * (messagesPerSession + 1));
+        final ApplicationAdapter application = new ApplicationAdapter() {
+            @Override
+            public void fromAdmin(Message message, SessionID sessionId) {
+                processed.countDown();
+            }
+        };
+        final ThreadPerSessionEventHandlingStrategy strategy = virtual
+                ? new VirtualThreadPerSessionEventHandlingStrategy(null, SessionConnector.DEFAULT_QUEUE_CAPACITY)
+                : new ThreadPerSessionEventHandlingStrategy(null, SessionConnector.DEFAULT_QUEUE_CAPACITY);
+        final List<Session> sessions = new ArrayList<>(sessionCount);
+        try {
+            final long heapBefore = usedHeap();
+            final long residentBefore = residentMemory();
+            final int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+            for (int i = 0; i < sessionCount; i++) {
+                final Session session = new SessionFactoryTestSupport.Builder()
+                        .setSessionId(new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET" + i))
+                        .setApplication(application)
+                        .setIsInitiator(false)
+                        .setLogFactory(null)
+                        .build();
+                session.setResponder(new NullResponder());
+                sessions.add(session);
+            }
+            final long sessionHeap = usedHeap() - heapBefore;
+
+            // the logon starts the dispatcher of each session
+            final long contextSwitchesBefore = contextSwitches();
+            final long start = System.nanoTime();
+            for (Session session : sessions) {
+                strategy.onMessage(session, createMessage(new Logon(), session.getSessionID(), 1));
+            }
+            for (int sequence = 2; sequence <= messagesPerSession + 1; sequence++) {
+                for (Session session : sessions) {
+                    strategy.onMessage(session, createMessage(new Heartbeat(), session.getSessionID(), sequence));
+                }
+            }
+            if (!processed.await(10, TimeUnit.MINUTES)) {
+                throw new IllegalStateException(processed.getCount() + " messages not processed");
+            }
+            final long elapsed = System.nanoTime() - start;
+            final long contextSwitches = contextSwitches() - contextSwitchesBefore;
+
+            // all dispatchers are idle now
+            final long dispatcherHeap = usedHeap() - heapBefore - sessionHeap;
+            final long resident = residentMemory() - residentBefore;
+            // virtual threads are not counted, only their carrier threads
+            final int threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+            System.out.printf("%,7d sessions: %,8d ms, %,10.0f msgs/s, %9s context switches, %,6d threads,"
+                    + " %,8d KB heap for sessions, %,8d KB heap for idle dispatchers, %9s KB more resident%n",
+                    sessionCount, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    processed(sessionCount, messagesPerSession) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                    contextSwitches < 0 ? "n/a" : String.format("%,d", contextSwitches), threads,
+                    sessionHeap / 1024, dispatcherHeap / 1024,
+                    resident < 0 ? "n/a" : String.format("%,d", resident));
+        } finally {
+            strategy.stopDispatcherThreads();
+            for (Session session : sessions) {
+                session.close();
+            }
+        }
+    }
+
+    private static long processed(int sessionCount, int messagesPerSession) {
+        return (long) sessionCount * (messagesPerSession + 1);
+    }
+
+    private static Message createMessage(Message message, SessionID sessionID, int sequence) {
+        message.getHeader().setString(SenderCompID.FIELD, sessionID.getTargetCompID());
+        message.getHeader().setString(TargetCompID.FIELD, sessionID.getSenderCompID());
+        message.getHeader().setInt(MsgSeqNum.FIELD, sequence);
+        message.getHeader().setUtcTimeStamp(SendingTime.FIELD, LocalDateTime.now());
+        if (message instanceof Logon) {
+            message.setInt(HeartBtInt.FIELD, 30);
+        }
+        return message;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * @return the resident set size of the process in KB, which includes the stacks of
+     * platform threads, or -1 if it cannot be read
+     */
+    private static long residentMemory() {
+        final Path status = Paths.get("/proc/self/status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    /**
+     * @return the voluntary and involuntary context switches of all threads of the
+     * process, or -1 if they cannot be read
+     */
+    private static long contextSwitches() {
+        final Path tasks = Paths.get("/proc/self/task");
+        if (!Files.isDirectory(tasks)) {
+            return -1;
+        }
+        long total = 0;
+        try (Stream<Path> taskDirectories = Files.list(tasks)) {
+            for (Path task : (Iterable<Path>) taskDirectories::iterator) {
+                try {
+                    for (String line : Files.readAllLines(task.resolve("status"))) {
+                        if (line.startsWith("voluntary_ctxt_switches:")
+                                || line.startsWith("nonvoluntary_ctxt_switches:")) {
+                            total += Long.parseLong(line.substring(line.indexOf(':') + 1).trim());
+                        }
+                    }
+                } catch (IOException e) {
+                    // the thread has terminated
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return total;
+    }
+
+    private static final class NullResponder implements Responder {
+        @Override
+        public boolean send(String data) {
+            return true;
+        }
+
+        @Override
+        public boolean send(byte[] data) {
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return null;
+        }
+    }
+}
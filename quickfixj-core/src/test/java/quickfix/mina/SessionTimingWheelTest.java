@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import quickfix.FixVersions;
+import quickfix.MockSystemTimeSource;
+import quickfix.Responder;
+import quickfix.Session;
+import quickfix.SessionFactoryTestSupport;
+import quickfix.SessionID;
+import quickfix.SystemTime;
+import quickfix.UnitTestApplication;
+import quickfix.field.MsgType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SessionTimingWheelTest {
+
+    private MockSystemTimeSource timeSource;
+
+    @Before
+    public void setUp() {
+        timeSource = new MockSystemTimeSource(1000000L);
+        SystemTime.setTimeSource(timeSource);
+    }
+
+    @After
+    public void tearDown() {
+        SystemTime.setTimeSource(null);
+    }
+
+    @Test
+    public void testLogonAndLogonTimeout() throws Exception {
+        final UnitTestApplication application = new UnitTestApplication();
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        try (Session session = SessionFactoryTestSupport.createSession(sessionID, application, true)) {
+            // one revolution is shorter than the logon timeout
+            final SessionTimingWheel wheel = new SessionTimingWheel(50L, 16);
+            wheel.add(session);
+            wheel.run();
+            timeSource.increment(50L);
+            wheel.run();
+            assertNull("not connected, nothing to do", application.lastToAdminMessage());
+
+            final TestResponder responder = new TestResponder();
+            session.setResponder(responder);
+            timeSource.increment(50L);
+            wheel.run();
+            assertEquals(MsgType.LOGON, application.lastToAdminMessage().getHeader().getString(MsgType.FIELD));
+
+            timeSource.increment(session.getLogonTimeout() * 1000L - 100L);
+            wheel.run();
+            assertFalse(responder.disconnected);
+
+            timeSource.increment(100L);
+            wheel.run();
+            assertTrue("logon timeout", responder.disconnected);
+            assertEquals(Long.MAX_VALUE, session.getNextTimerDeadline());
+        }
+    }
+
+    @Test
+    public void testFallingBehind() throws Exception {
+        final UnitTestApplication application = new UnitTestApplication();
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        try (Session session = SessionFactoryTestSupport.createSession(sessionID, application, true)) {
+            final SessionTimingWheel wheel = new SessionTimingWheel(50L, 16);
+            wheel.add(session);
+            wheel.run();
+            final TestResponder responder = new TestResponder();
+            session.setResponder(responder);
+            timeSource.increment(50L);
+            wheel.run();
+            assertEquals(MsgType.LOGON, application.lastToAdminMessage().getHeader().getString(MsgType.FIELD));
+
+            // the timer thread was blocked for longer than the logon timeout
+            timeSource.increment(session.getLogonTimeout() * 1000L + 5000L);
+            wheel.run();
+            assertTrue("logon timeout", responder.disconnected);
+        }
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        final UnitTestApplication application = new UnitTestApplication();
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "SENDER", "TARGET");
+        try (Session session = SessionFactoryTestSupport.createSession(sessionID, application, true)) {
+            final SessionTimingWheel wheel = new SessionTimingWheel(50L, 16);
+            wheel.add(session);
+            wheel.run();
+            assertEquals(1, wheel.size());
+
+            wheel.remove(session);
+            assertEquals(0, wheel.size());
+            session.setResponder(new TestResponder());
+            timeSource.increment(50L);
+            wheel.run();
+            assertNull(application.lastToAdminMessage());
+        }
+    }
+
+    private static class TestResponder implements Responder {
+        private boolean disconnected;
+
+        @Override
+        public boolean send(String data) {
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return null;
+        }
+    }
+}
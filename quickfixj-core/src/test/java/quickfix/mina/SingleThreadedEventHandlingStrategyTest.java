@@ -43,10 +43,13 @@ import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import org.junit.AfterClass;
 import quickfix.test.util.ReflectionUtil;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static quickfix.test.util.ReflectionUtil.getField;
@@ -317,6 +320,33 @@ public class SingleThreadedEventHandlingStrategyTest {
                 QueueTracker.class) instanceof WatermarkTracker);
     }
 
+    @Test
+    public void shouldCreateConfiguredEventQueue() throws Exception {
+        SessionSettings settings = new SessionSettings();
+        settings.setString(SessionConnector.SETTING_EVENT_QUEUE, SessionConnector.EVENT_QUEUE_RING_BUFFER);
+        settings.setString(SessionConnector.SETTING_EVENT_QUEUE_WAIT_STRATEGY, SessionConnector.WAIT_STRATEGY_YIELDING);
+        SessionConnector connector = new SessionConnectorUnderTest(settings, sessionFactory);
+
+        BlockingQueue<?> eventQueue = getField(new SingleThreadedEventHandlingStrategy(connector, 1000),
+                "eventQueue", BlockingQueue.class);
+        assertTrue(eventQueue instanceof RingBufferEventQueue);
+        assertEquals(1024, ((RingBufferEventQueue<?>) eventQueue).capacity());
+        assertEquals(RingBufferEventQueue.WaitStrategy.YIELDING,
+                ((RingBufferEventQueue<?>) eventQueue).getWaitStrategy());
+
+        assertTrue(getField(
+                new SingleThreadedEventHandlingStrategy(connector, 42, 43),
+                "queueTracker",
+                QueueTracker.class) instanceof WatermarkTracker);
+        // the builders pass no watermarks when no queue capacity is configured, the ring buffer is bounded anyway
+        assertEquals(16384, getField(new SingleThreadedEventHandlingStrategy(connector, -1, -1),
+                "eventQueue", RingBufferEventQueue.class).capacity());
+
+        connector = new SessionConnectorUnderTest(new SessionSettings(), sessionFactory);
+        assertTrue(getField(new SingleThreadedEventHandlingStrategy(connector, 1000),
+                "eventQueue", BlockingQueue.class) instanceof LinkedBlockingQueue);
+    }
+
     private SocketAcceptor createAcceptor(int i) throws ConfigError {
         Map<Object, Object> acceptorProperties = new HashMap<>();
         acceptorProperties.put("ConnectionType", "acceptor");
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) quickfixengine.org  All rights reserved.
+ *
+ * This file is part of the QuickFIX FIX Engine
+ *
+ * This file may be distributed under the terms of the quickfixengine.org
+ * license as defined by quickfixengine.org and appearing in the file
+ * LICENSE included in the packaging of this file.
+ *
+ * This file is provided AS IS with NO WARRANTY OF ANY KIND, INCLUDING
+ * THE WARRANTY OF DESIGN, MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE.
+ *
+ * See http://www.quickfixengine.org/LICENSE for licensing information.
+ *
+ * Contact ask@quickfixengine.org if any conditions of this licensing
+ * are not clear to you.
+ ******************************************************************************/
+
+package quickfix.mina;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import quickfix.FieldNotFound;
+import quickfix.FixVersions;
+import quickfix.IncorrectDataFormat;
+import quickfix.IncorrectTagValue;
+import quickfix.Message;
+import quickfix.RejectLogon;
+import quickfix.Responder;
+import quickfix.Session;
+import quickfix.SessionFactoryTestSupport;
+import quickfix.SessionID;
+import quickfix.UnitTestApplication;
+import quickfix.field.HeartBtInt;
+import quickfix.field.MsgSeqNum;
+import quickfix.field.SenderCompID;
+import quickfix.field.SendingTime;
+import quickfix.field.TargetCompID;
+import quickfix.field.converter.UtcTimestampConverter;
+import quickfix.fix44.Heartbeat;
+import quickfix.fix44.Logon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VirtualThreadPerSessionEventHandlingStrategyTest {
+
+    private VirtualThreadPerSessionEventHandlingStrategy strategy;
+
+    @Before
+    public void setUp() {
+        strategy = new VirtualThreadPerSessionEventHandlingStrategy(null, 2, 5);
+    }
+
+    @After
+    public void tearDown() {
+        strategy.stopDispatcherThreads();
+    }
+
+    @Test
+    public void testMessagesAreProcessedInOrder() throws Exception {
+        final SessionID sessionID = new SessionID(FixVersions.BEGINSTRING_FIX44, "TW", "ISLD");
+        final List<Integer> sequenceNumbers = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch = new CountDownLatch(4);
+        final UnitTestApplication application = new UnitTestApplication() {
+            @Override
+            public void fromAdmin(Message message, SessionID sessionId) throws FieldNotFound,
+                    IncorrectDataFormat, IncorrectTagValue, RejectLogon {
+                super.fromAdmin(message, sessionId);
+                sequenceNumbers.add(message.getHeader().getInt(MsgSeqNum.FIELD));
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            }
+        };
+
+        try (Session session = SessionFactoryTestSupport.createSession(sessionID, application, false)) {
+            session.setResponder(new TestResponder());
+
+            final Logon logon = new Logon();
+            logon.setInt(HeartBtInt.FIELD, 30);
+            strategy.onMessage(session, setHeader(logon, 1));
+            for (int sequence = 2; sequence <= 4; sequence++) {
+                strategy.onMessage(session, setHeader(new Heartbeat(), sequence));
+            }
+
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                fail("Timeout");
+            }
+            assertEquals(Arrays.asList(1, 2, 3, 4), sequenceNumbers);
+            final Thread dispatcher = threads.get(0);
+            for (Thread thread : threads) {
+                assertTrue("one dispatcher per session", thread == dispatcher);
+            }
+            if (VirtualThreadPerSessionEventHandlingStrategy.isVirtualThreadSupported()) {
+                assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(dispatcher));
+            }
+        }
+    }
+
+    private static Message setHeader(Message message, int sequence) {
+        message.getHeader().setString(SenderCompID.FIELD, "ISLD");
+        message.getHeader().setString(TargetCompID.FIELD, "TW");
+        message.getHeader().setString(SendingTime.FIELD,
+                UtcTimestampConverter.convert(new Date(), false));
+        message.getHeader().setInt(MsgSeqNum.FIELD, sequence);
+        return message;
+    }
+
+    private static class TestResponder implements Responder {
+        @Override
+        public boolean send(String data) {
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return null;
+        }
+    }
+}
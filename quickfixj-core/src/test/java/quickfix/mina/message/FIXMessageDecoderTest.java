@@ -29,9 +29,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.quickfixj.CharsetSupport;
+import quickfix.ByteScanner;
 import quickfix.DataDictionaryTest;
 import quickfix.InvalidMessage;
 import quickfix.Message;
+import quickfix.MessageUtils;
 import quickfix.field.Headline;
 import quickfix.mina.CriticalProtocolCodecException;
 
@@ -42,7 +44,9 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -161,6 +165,68 @@ public class FIXMessageDecoderTest {
         assertMessageFound(data);
     }
 
+    @Test
+    public void testSimpleMessageAsBytes() throws Exception {
+        decoder = new FIXMessageDecoder(CharsetSupport.getCharset(), "\001", true);
+        String data = "8=FIX.4.2\0019=12\00135=X\001108=30\00110=049\001";
+        setUpBuffer(data + data);
+        assertEquals("wrong decoder result", MessageDecoderResult.OK, decoder.decode(null, buffer, decoderOutput));
+        assertEquals(2, decoderOutput.getMessageCount());
+        for (Object message : decoderOutput.messages) {
+            assertArrayEquals(data.getBytes(CharsetSupport.getCharset()), (byte[]) message);
+        }
+    }
+
+    @Test
+    public void testSwarDecodingMatchesScalarDecoding() throws Exception {
+        StringBuilder stream = new StringBuilder("8=!@#$%garbage 8=FIX 8=FIX.4.2\0019=X");
+        for (int i = 0; i < 20; i++) {
+            String body = "35=X\001108=30\00158=" + new String(new char[i * 7]).replace('\0', 't') + "\001";
+            stream.append("8=FIX.4.2\0019=").append(body.length()).append('\001').append(body).append("10=049\001");
+            if (i % 4 == 0) {
+                stream.append("8=FIX.4.2\0019=25\00135=X\001108=30\00110=036\001");
+            }
+        }
+        List<Object> expected = decodeAll(stream.toString(), ByteScanner.SCALAR);
+        // each message with a bad length hides the message after it
+        assertEquals(15, expected.size());
+        assertEquals(expected, decodeAll(stream.toString(), ByteScanner.SWAR));
+    }
+
+    @Test
+    public void testChecksumVerification() throws Exception {
+        String body = "35=X\001108=30\00158=a somewhat longer text\001";
+        String data = "8=FIX.4.2\0019=" + body.length() + "\001" + body;
+        String goodMessage = data + "10=" + String.format("%03d", MessageUtils.checksum(data + "10=000\001")) + "\001";
+        String badMessage = data + "10=000\001";
+        for (ByteScanner scanner : new ByteScanner[] { ByteScanner.SCALAR, ByteScanner.SWAR }) {
+            for (boolean decodeAsBytes : new boolean[] { false, true }) {
+                decoder = new FIXMessageDecoder(CharsetSupport.getCharset(), "\001", decodeAsBytes, true, scanner);
+                decoderOutput.reset();
+                buffer.clear();
+                setUpBuffer("garbage" + goodMessage + badMessage);
+                assertEquals(MessageDecoderResult.OK, decoder.decode(null, buffer, decoderOutput));
+                assertEquals(2, decoderOutput.getMessageCount());
+                FIXFrame good = (FIXFrame) decoderOutput.messages.get(0);
+                FIXFrame bad = (FIXFrame) decoderOutput.messages.get(1);
+                assertTrue(good.isChecksumVerified());
+                assertEquals(!decodeAsBytes, good.getMessage() instanceof String);
+                assertEquals(goodMessage, good.toString());
+                assertFalse(bad.isChecksumVerified());
+                assertEquals(badMessage, bad.toString());
+            }
+        }
+    }
+
+    private List<Object> decodeAll(String stream, ByteScanner scanner) throws Exception {
+        decoder = new FIXMessageDecoder(CharsetSupport.getCharset(), "\001", false, scanner);
+        decoderOutput.reset();
+        buffer.clear();
+        setUpBuffer(stream);
+        decoder.decode(null, buffer, decoderOutput);
+        return new ArrayList<>(decoderOutput.messages);
+    }
+
     @Test
     public void testSplitMessage() throws Exception {
         String data = "8=FIX.4.2\0019=12\00135=X\001108=30\00110=049\001";
@@ -20,6 +20,7 @@
 package quickfix.mina.message;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 
 import junit.framework.ComparisonFailure;
 import junit.framework.TestCase;
@@ -96,6 +97,35 @@ public class FIXMessageEncoderTest extends TestCase {
         assertEquals("wrong encoding", new String(bytes, CharsetSupport.getCharset()), news.toString());
     }
 
+    public void testEncodingMessageAndStringProduceSameBytes() throws Exception {
+        doMessageAndStringEncodingTest("\u00E4bcf\u00F6d\u00E7\u00E9");
+        CharsetSupport.setCharset("UTF-8");
+        doMessageAndStringEncodingTest("\u6D4B\u9A8C\u6570\u636E");
+    }
+
+    private void doMessageAndStringEncodingTest(String headline) throws ProtocolCodecException {
+        News news = new News();
+        news.getHeader().setString(SenderCompID.FIELD, "TW");
+        news.getHeader().setString(TargetCompID.FIELD, "ISLD");
+        news.set(new Headline(headline));
+        FIXMessageEncoder encoder = new FIXMessageEncoder();
+
+        ProtocolEncoderOutputForTest messageOut = new ProtocolEncoderOutputForTest();
+        encoder.encode(null, news, messageOut);
+        ProtocolEncoderOutputForTest stringOut = new ProtocolEncoderOutputForTest();
+        encoder.encode(null, news.toString(), stringOut);
+
+        byte[] messageBytes = getBytes(messageOut);
+        assertTrue(Arrays.equals(getBytes(stringOut), messageBytes));
+        assertEquals(news.toString(), new String(messageBytes, CharsetSupport.getCharsetInstance()));
+    }
+
+    private static byte[] getBytes(ProtocolEncoderOutputForTest out) {
+        byte[] bytes = new byte[out.buffer.remaining()];
+        out.buffer.get(bytes);
+        return bytes;
+    }
+
     public void testEncodingBadType() throws Exception {
         FIXMessageEncoder encoder = new FIXMessageEncoder();
         try {